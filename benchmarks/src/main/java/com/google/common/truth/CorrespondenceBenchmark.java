@@ -0,0 +1,115 @@
+/*
+ * Copyright (c) 2017 Google, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.google.common.truth;
+
+import static com.google.common.truth.Truth.assertThat;
+
+import com.google.common.primitives.Doubles;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Benchmarks for assertions that compare elements using a {@link Correspondence}. These may need
+ * to compare every actual element with every expected one, so the sizes are smaller than for the
+ * other benchmarks.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+@Fork(1)
+public class CorrespondenceBenchmark {
+  private static final Correspondence<Number, Number> TOLERANCE = Correspondence.tolerance(1e-9);
+
+  @Param({"10", "100", "1000", "10000"})
+  public int size;
+
+  @Param public InputOrder order;
+
+  private List<Double> actual;
+  private List<Double> expected;
+  private List<Double> expectedWithDifference;
+  private double[] actualArray;
+  private double[] expectedArray;
+  private Map<Integer, Double> actualMap;
+  private Map<Integer, Double> expectedMap;
+
+  @Setup
+  public void setUp() {
+    actualArray = new double[size];
+    for (int i = 0; i < size; i++) {
+      actualArray[i] = i / 3.0;
+    }
+    actual = Doubles.asList(actualArray);
+    expected = order.arrange(actual);
+    expectedWithDifference = InputOrder.withLastReplaced(expected, -1.0);
+    expectedArray = Doubles.toArray(expected);
+    actualMap = new LinkedHashMap<Integer, Double>();
+    expectedMap = new LinkedHashMap<Integer, Double>();
+    for (int i = 0; i < size; i++) {
+      actualMap.put(i, actual.get(i));
+    }
+    for (Integer key : order.arrange(InputOrder.integers(size))) {
+      expectedMap.put(key, actual.get(key));
+    }
+  }
+
+  @Benchmark
+  public void iterableContainsExactlyElementsIn() {
+    assertThat(actual).comparingElementsUsing(TOLERANCE).containsExactlyElementsIn(expected);
+  }
+
+  @Benchmark
+  public void iterableContainsAllIn() {
+    assertThat(actual).comparingElementsUsing(TOLERANCE).containsAllIn(expected);
+  }
+
+  @Benchmark
+  public String iterableContainsExactlyElementsIn_failing() {
+    try {
+      assertThat(actual)
+          .comparingElementsUsing(TOLERANCE)
+          .containsExactlyElementsIn(expectedWithDifference);
+    } catch (AssertionError e) {
+      return e.getMessage();
+    }
+    throw new IllegalStateException("Expected the assertion to fail");
+  }
+
+  @Benchmark
+  public void doubleArrayUsingToleranceContainsExactly() {
+    assertThat(actualArray).usingTolerance(1e-9).containsExactly(expectedArray);
+  }
+
+  @Benchmark
+  public void mapContainsExactlyEntriesIn() {
+    assertThat(actualMap).comparingValuesUsing(TOLERANCE).containsExactlyEntriesIn(expectedMap);
+  }
+}
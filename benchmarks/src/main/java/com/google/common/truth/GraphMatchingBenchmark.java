@@ -0,0 +1,69 @@
+/*
+ * Copyright (c) 2017 Google, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.google.common.truth;
+
+import com.google.common.collect.ImmutableBiMap;
+import com.google.common.collect.LinkedHashMultimap;
+import com.google.common.collect.Multimap;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Benchmarks for {@link GraphMatching#maximumCardinalityBipartiteMatching}, which the {@link
+ * Correspondence}-based assertions use to describe failures, on random bipartite graphs.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+@Fork(1)
+public class GraphMatchingBenchmark {
+  @Param({"10", "100", "1000", "10000"})
+  public int verticesPerSide;
+
+  @Param({"2", "8"})
+  public int edgesPerVertex;
+
+  private Multimap<Integer, Integer> graph;
+
+  @Setup
+  public void setUp() {
+    Random random = new Random(0);
+    graph = LinkedHashMultimap.create();
+    for (int lhs = 0; lhs < verticesPerSide; lhs++) {
+      for (int i = 0; i < edgesPerVertex; i++) {
+        graph.put(lhs, random.nextInt(verticesPerSide));
+      }
+    }
+  }
+
+  @Benchmark
+  public ImmutableBiMap<Integer, Integer> maximumCardinalityBipartiteMatching() {
+    return GraphMatching.maximumCardinalityBipartiteMatching(graph);
+  }
+}
@@ -0,0 +1,58 @@
+/*
+ * Copyright (c) 2017 Google, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.google.common.truth;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * Whether the expected values given to an assertion in a benchmark are in the same order as the
+ * actual values, or shuffled.
+ */
+public enum InputOrder {
+  ORDERED,
+  SHUFFLED;
+
+  /** Returns a copy of {@code values} in this order. Shuffling always uses the same seed. */
+  <T> List<T> arrange(List<T> values) {
+    List<T> arranged = new ArrayList<T>(values);
+    if (this == SHUFFLED) {
+      Collections.shuffle(arranged, new Random(0));
+    }
+    return arranged;
+  }
+
+  /** Returns the integers from 0 to {@code size - 1}, in increasing order. */
+  static List<Integer> integers(int size) {
+    List<Integer> integers = new ArrayList<Integer>(size);
+    for (int i = 0; i < size; i++) {
+      integers.add(i);
+    }
+    return integers;
+  }
+
+  /**
+   * Returns a copy of {@code values} with the last one replaced by {@code replacement}, for
+   * benchmarking the failure path of an assertion.
+   */
+  static <T> List<T> withLastReplaced(List<T> values, T replacement) {
+    List<T> replaced = new ArrayList<T>(values);
+    replaced.set(replaced.size() - 1, replacement);
+    return replaced;
+  }
+}
@@ -0,0 +1,95 @@
+/*
+ * Copyright (c) 2017 Google, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.google.common.truth;
+
+import static com.google.common.truth.Truth.assertThat;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/** Benchmarks for {@link IterableSubject}'s containment assertions. */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+@Fork(1)
+public class IterableSubjectBenchmark {
+  @Param({"10", "1000", "100000", "1000000"})
+  public int size;
+
+  @Param public InputOrder order;
+
+  private List<Integer> actual;
+  private List<Integer> expected;
+  private List<Integer> expectedWithDifference;
+  private List<Integer> absent;
+
+  @Setup
+  public void setUp() {
+    actual = InputOrder.integers(size);
+    expected = order.arrange(actual);
+    expectedWithDifference = InputOrder.withLastReplaced(expected, -1);
+    absent = Arrays.asList(-1, -2, -3);
+  }
+
+  @Benchmark
+  public void containsExactlyElementsIn() {
+    assertThat(actual).containsExactlyElementsIn(expected);
+  }
+
+  @Benchmark
+  public void containsAllIn() {
+    assertThat(actual).containsAllIn(expected);
+  }
+
+  @Benchmark
+  public void containsNoneIn() {
+    assertThat(actual).containsNoneIn(absent);
+  }
+
+  @Benchmark
+  public String containsExactlyElementsIn_failing() {
+    try {
+      assertThat(actual).containsExactlyElementsIn(expectedWithDifference);
+    } catch (AssertionError e) {
+      return e.getMessage();
+    }
+    throw new IllegalStateException("Expected the assertion to fail");
+  }
+
+  @Benchmark
+  public String containsAllIn_failing() {
+    try {
+      assertThat(actual).containsAllIn(expectedWithDifference);
+    } catch (AssertionError e) {
+      return e.getMessage();
+    }
+    throw new IllegalStateException("Expected the assertion to fail");
+  }
+}
@@ -0,0 +1,102 @@
+/*
+ * Copyright (c) 2017 Google, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.google.common.truth;
+
+import static com.google.common.truth.Truth.assertThat;
+
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Benchmarks for {@link MapSubject#containsExactlyEntriesIn}. The maps are {@link LinkedHashMap}s,
+ * so {@link InputOrder} controls whether {@code inOrder()} would pass.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+@Fork(1)
+public class MapSubjectBenchmark {
+  @Param({"10", "1000", "100000", "1000000"})
+  public int size;
+
+  @Param public InputOrder order;
+
+  private Map<Integer, String> actual;
+  private Map<Integer, String> expected;
+  private Map<Integer, String> expectedWithDifference;
+
+  @Setup
+  public void setUp() {
+    List<Integer> keys = InputOrder.integers(size);
+    actual = mapToStrings(keys);
+    expected = mapToStrings(order.arrange(keys));
+    expectedWithDifference = new LinkedHashMap<Integer, String>(expected);
+    expectedWithDifference.put(0, "different");
+  }
+
+  private static Map<Integer, String> mapToStrings(List<Integer> keys) {
+    Map<Integer, String> map = new LinkedHashMap<Integer, String>();
+    for (Integer key : keys) {
+      map.put(key, "value" + key);
+    }
+    return map;
+  }
+
+  @Benchmark
+  public void containsExactlyEntriesIn() {
+    assertThat(actual).containsExactlyEntriesIn(expected);
+  }
+
+  @Benchmark
+  public void isEqualTo() {
+    assertThat(actual).isEqualTo(expected);
+  }
+
+  @Benchmark
+  public String containsExactlyEntriesIn_failing() {
+    try {
+      assertThat(actual).containsExactlyEntriesIn(expectedWithDifference);
+    } catch (AssertionError e) {
+      return e.getMessage();
+    }
+    throw new IllegalStateException("Expected the assertion to fail");
+  }
+
+  @Benchmark
+  public String isEqualTo_failing() {
+    try {
+      assertThat(actual).isEqualTo(expectedWithDifference);
+    } catch (AssertionError e) {
+      return e.getMessage();
+    }
+    throw new IllegalStateException("Expected the assertion to fail");
+  }
+}
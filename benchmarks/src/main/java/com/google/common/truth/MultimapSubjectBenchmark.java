@@ -0,0 +1,88 @@
+/*
+ * Copyright (c) 2017 Google, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.google.common.truth;
+
+import static com.google.common.truth.Truth.assertThat;
+
+import com.google.common.collect.LinkedListMultimap;
+import com.google.common.collect.ListMultimap;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Benchmarks for {@link MultimapSubject#containsExactlyEntriesIn}. Each key has ten values, and
+ * {@link InputOrder} controls the order of the entries in the expected multimap.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+@Fork(1)
+public class MultimapSubjectBenchmark {
+  private static final int VALUES_PER_KEY = 10;
+
+  @Param({"10", "1000", "100000", "1000000"})
+  public int size;
+
+  @Param public InputOrder order;
+
+  private ListMultimap<Integer, Integer> actual;
+  private ListMultimap<Integer, Integer> expected;
+  private ListMultimap<Integer, Integer> expectedWithDifference;
+
+  @Setup
+  public void setUp() {
+    List<Integer> values = InputOrder.integers(size);
+    actual = multimapByKey(values);
+    expected = multimapByKey(order.arrange(values));
+    expectedWithDifference = multimapByKey(InputOrder.withLastReplaced(order.arrange(values), -1));
+  }
+
+  private static ListMultimap<Integer, Integer> multimapByKey(List<Integer> values) {
+    ListMultimap<Integer, Integer> multimap = LinkedListMultimap.create();
+    for (Integer value : values) {
+      multimap.put(Math.abs(value) / VALUES_PER_KEY, value);
+    }
+    return multimap;
+  }
+
+  @Benchmark
+  public void containsExactlyEntriesIn() {
+    assertThat(actual).containsExactlyEntriesIn(expected);
+  }
+
+  @Benchmark
+  public String containsExactlyEntriesIn_failing() {
+    try {
+      assertThat(actual).containsExactlyEntriesIn(expectedWithDifference);
+    } catch (AssertionError e) {
+      return e.getMessage();
+    }
+    throw new IllegalStateException("Expected the assertion to fail");
+  }
+}
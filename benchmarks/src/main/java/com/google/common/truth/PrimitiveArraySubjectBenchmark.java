@@ -0,0 +1,97 @@
+/*
+ * Copyright (c) 2017 Google, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.google.common.truth;
+
+import static com.google.common.truth.Truth.assertThat;
+
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/** Benchmarks for {@code isEqualTo} on the primitive array subjects. */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+@Fork(1)
+public class PrimitiveArraySubjectBenchmark {
+  @Param({"10", "1000", "100000", "1000000"})
+  public int size;
+
+  private int[] actualInts;
+  private int[] expectedInts;
+  private int[] expectedIntsWithDifference;
+  private double[] actualDoubles;
+  private double[] expectedDoubles;
+  private double[] expectedDoublesWithDifference;
+
+  @Setup
+  public void setUp() {
+    actualInts = new int[size];
+    actualDoubles = new double[size];
+    for (int i = 0; i < size; i++) {
+      actualInts[i] = i;
+      actualDoubles[i] = i / 3.0;
+    }
+    // Copies, so that isEqualTo cannot pass just because the arrays are the same instance.
+    expectedInts = actualInts.clone();
+    expectedDoubles = actualDoubles.clone();
+    expectedIntsWithDifference = actualInts.clone();
+    expectedIntsWithDifference[size / 2] = -1;
+    expectedDoublesWithDifference = actualDoubles.clone();
+    expectedDoublesWithDifference[size / 2] = -1;
+  }
+
+  @Benchmark
+  public void intArrayIsEqualTo() {
+    assertThat(actualInts).isEqualTo(expectedInts);
+  }
+
+  @Benchmark
+  public void doubleArrayIsEqualTo() {
+    assertThat(actualDoubles).isEqualTo(expectedDoubles);
+  }
+
+  @Benchmark
+  public String intArrayIsEqualTo_failing() {
+    try {
+      assertThat(actualInts).isEqualTo(expectedIntsWithDifference);
+    } catch (AssertionError e) {
+      return e.getMessage();
+    }
+    throw new IllegalStateException("Expected the assertion to fail");
+  }
+
+  @Benchmark
+  public String doubleArrayIsEqualTo_failing() {
+    try {
+      assertThat(actualDoubles).isEqualTo(expectedDoublesWithDifference);
+    } catch (AssertionError e) {
+      return e.getMessage();
+    }
+    throw new IllegalStateException("Expected the assertion to fail");
+  }
+}
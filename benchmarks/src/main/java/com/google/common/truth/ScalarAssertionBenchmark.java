@@ -0,0 +1,99 @@
+/*
+ * Copyright (c) 2017 Google, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.google.common.truth;
+
+import static com.google.common.truth.Truth.assertThat;
+
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Benchmarks for passing assertions on scalar values, comparing the primitive {@code isEqualTo}
+ * overloads with the {@code Object} overload. Run with the GC profiler to see the allocation per
+ * assertion:
+ *
+ * <pre>
+ * java -jar benchmarks/target/benchmarks.jar ScalarAssertionBenchmark -prof gc
+ * </pre>
+ *
+ * <p>The {@code ...Boxed} benchmarks pass the expected value as an {@code Object}, which goes
+ * through {@link Subject#isEqualTo(Object)}, for comparison.
+ *
+ * <p>The values are outside the range cached by {@link Integer#valueOf}, so that boxing them
+ * really would allocate. Even so, only {@code assertThat(boolean)} doesn't allocate when it
+ * passes: {@code assertThat} boxes any other actual value, and the JIT doesn't eliminate that box.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5)
+@Measurement(iterations = 5)
+@Fork(1)
+public class ScalarAssertionBenchmark {
+  // Not final, so that the JIT cannot treat them as constants.
+  private int intValue = 100000;
+  private long longValue = 10000000000L;
+  private double doubleValue = 1.5;
+  private boolean booleanValue = true;
+
+  @Benchmark
+  public void intIsEqualTo() {
+    assertThat(intValue).isEqualTo(intValue);
+  }
+
+  @Benchmark
+  public void intIsEqualToBoxed() {
+    assertThat(intValue).isEqualTo((Object) intValue);
+  }
+
+  @Benchmark
+  public void intIsNotEqualTo() {
+    assertThat(intValue).isNotEqualTo(intValue + 1);
+  }
+
+  @Benchmark
+  public void longIsEqualTo() {
+    assertThat(longValue).isEqualTo(longValue);
+  }
+
+  @Benchmark
+  public void longIsEqualToBoxed() {
+    assertThat(longValue).isEqualTo((Object) longValue);
+  }
+
+  @Benchmark
+  public void doubleIsEqualTo() {
+    assertThat(doubleValue).isEqualTo(doubleValue);
+  }
+
+  @Benchmark
+  public void doubleIsEqualToBoxed() {
+    assertThat(doubleValue).isEqualTo((Object) doubleValue);
+  }
+
+  @Benchmark
+  public void booleanIsEqualTo() {
+    assertThat(booleanValue).isEqualTo(booleanValue);
+  }
+}
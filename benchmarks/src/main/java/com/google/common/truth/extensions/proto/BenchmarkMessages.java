@@ -0,0 +1,278 @@
+/*
+ * Copyright (c) 2017 Google, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.google.common.truth.extensions.proto;
+
+import com.google.protobuf.DescriptorProtos.DescriptorProto;
+import com.google.protobuf.DescriptorProtos.FieldDescriptorProto;
+import com.google.protobuf.DescriptorProtos.FieldDescriptorProto.Label;
+import com.google.protobuf.DescriptorProtos.FieldDescriptorProto.Type;
+import com.google.protobuf.DescriptorProtos.FileDescriptorProto;
+import com.google.protobuf.DescriptorProtos.MessageOptions;
+import com.google.protobuf.Descriptors.Descriptor;
+import com.google.protobuf.Descriptors.DescriptorValidationException;
+import com.google.protobuf.Descriptors.FieldDescriptor;
+import com.google.protobuf.Descriptors.FileDescriptor;
+import com.google.protobuf.DynamicMessage;
+import com.google.protobuf.Message;
+import com.google.protobuf.UnknownFieldSet;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * Synthetic messages for the proto benchmarks. The descriptors are built at run time, so the
+ * benchmarks don't need {@code protoc}. They are equivalent to:
+ *
+ * <pre>
+ * message Node {
+ *   optional int32 depth = 1;
+ *   optional string label = 2;
+ *   optional Node child = 3;
+ *   repeated Leaf leaves = 4;
+ *   map&lt;string, Leaf&gt; leaf_map = 5;
+ *   repeated int64 numbers = 6;
+ * }
+ *
+ * message Leaf {
+ *   optional int64 id = 1;
+ *   optional string name = 2;
+ *   optional double value = 3;
+ * }
+ * </pre>
+ */
+public final class BenchmarkMessages {
+  static final Descriptor NODE;
+  static final Descriptor LEAF;
+  static final FieldDescriptor NODE_DEPTH;
+  static final FieldDescriptor NODE_LABEL;
+  static final FieldDescriptor NODE_CHILD;
+  static final FieldDescriptor NODE_LEAVES;
+  static final FieldDescriptor NODE_LEAF_MAP;
+  static final FieldDescriptor NODE_NUMBERS;
+  static final FieldDescriptor LEAF_ID;
+  static final FieldDescriptor LEAF_NAME;
+  static final FieldDescriptor LEAF_VALUE;
+  private static final Descriptor LEAF_MAP_ENTRY;
+
+  static {
+    FileDescriptorProto file =
+        FileDescriptorProto.newBuilder()
+            .setName("truth_benchmark.proto")
+            .setPackage("truth.benchmark")
+            .addMessageType(
+                DescriptorProto.newBuilder()
+                    .setName("Node")
+                    .addField(field("depth", 1, Label.LABEL_OPTIONAL, Type.TYPE_INT32))
+                    .addField(field("label", 2, Label.LABEL_OPTIONAL, Type.TYPE_STRING))
+                    .addField(message("child", 3, Label.LABEL_OPTIONAL, ".truth.benchmark.Node"))
+                    .addField(message("leaves", 4, Label.LABEL_REPEATED, ".truth.benchmark.Leaf"))
+                    .addField(
+                        message(
+                            "leaf_map",
+                            5,
+                            Label.LABEL_REPEATED,
+                            ".truth.benchmark.Node.LeafMapEntry"))
+                    .addField(field("numbers", 6, Label.LABEL_REPEATED, Type.TYPE_INT64))
+                    .addNestedType(
+                        DescriptorProto.newBuilder()
+                            .setName("LeafMapEntry")
+                            .setOptions(MessageOptions.newBuilder().setMapEntry(true))
+                            .addField(field("key", 1, Label.LABEL_OPTIONAL, Type.TYPE_STRING))
+                            .addField(
+                                message(
+                                    "value", 2, Label.LABEL_OPTIONAL, ".truth.benchmark.Leaf"))))
+            .addMessageType(
+                DescriptorProto.newBuilder()
+                    .setName("Leaf")
+                    .addField(field("id", 1, Label.LABEL_OPTIONAL, Type.TYPE_INT64))
+                    .addField(field("name", 2, Label.LABEL_OPTIONAL, Type.TYPE_STRING))
+                    .addField(field("value", 3, Label.LABEL_OPTIONAL, Type.TYPE_DOUBLE)))
+            .build();
+    FileDescriptor fileDescriptor;
+    try {
+      fileDescriptor = FileDescriptor.buildFrom(file, new FileDescriptor[0]);
+    } catch (DescriptorValidationException e) {
+      throw new AssertionError(e);
+    }
+    NODE = fileDescriptor.findMessageTypeByName("Node");
+    LEAF = fileDescriptor.findMessageTypeByName("Leaf");
+    LEAF_MAP_ENTRY = NODE.findNestedTypeByName("LeafMapEntry");
+    NODE_DEPTH = NODE.findFieldByName("depth");
+    NODE_LABEL = NODE.findFieldByName("label");
+    NODE_CHILD = NODE.findFieldByName("child");
+    NODE_LEAVES = NODE.findFieldByName("leaves");
+    NODE_LEAF_MAP = NODE.findFieldByName("leaf_map");
+    NODE_NUMBERS = NODE.findFieldByName("numbers");
+    LEAF_ID = LEAF.findFieldByName("id");
+    LEAF_NAME = LEAF.findFieldByName("name");
+    LEAF_VALUE = LEAF.findFieldByName("value");
+  }
+
+  private static FieldDescriptorProto.Builder field(
+      String name, int number, Label label, Type type) {
+    return FieldDescriptorProto.newBuilder()
+        .setName(name)
+        .setNumber(number)
+        .setLabel(label)
+        .setType(type);
+  }
+
+  private static FieldDescriptorProto.Builder message(
+      String name, int number, Label label, String typeName) {
+    return field(name, number, label, Type.TYPE_MESSAGE).setTypeName(typeName);
+  }
+
+  /** The shape of a benchmark message, each stressing a different part of the comparison. */
+  public enum Shape {
+    /** A chain of 100 nested nodes, each with a few leaves and numbers. */
+    DEEP_NESTING {
+      @Override
+      Message build(boolean shuffled, boolean modified) {
+        return deepNode(100, shuffled, modified);
+      }
+    },
+
+    /** A single node with 1000 leaves and 1000 numbers. */
+    WIDE_REPEATED {
+      @Override
+      Message build(boolean shuffled, boolean modified) {
+        DynamicMessage.Builder builder = newNode(0);
+        addLeaves(builder, 0, 1000, shuffled, modified);
+        addNumbers(builder, 1000, shuffled);
+        return builder.build();
+      }
+    },
+
+    /** A single node with a map of 1000 leaves. */
+    LARGE_MAP {
+      @Override
+      Message build(boolean shuffled, boolean modified) {
+        DynamicMessage.Builder builder = newNode(0);
+        for (int i : order(1000, shuffled)) {
+          builder.addRepeatedField(NODE_LEAF_MAP, leafMapEntry(i, modified && i == 999));
+        }
+        return builder.build();
+      }
+    },
+
+    /** A node with a few leaves and 1000 unknown fields. */
+    UNKNOWN_FIELDS {
+      @Override
+      Message build(boolean shuffled, boolean modified) {
+        DynamicMessage.Builder builder = newNode(0);
+        addLeaves(builder, 0, 4, shuffled, modified);
+        UnknownFieldSet.Builder unknownFields = UnknownFieldSet.newBuilder();
+        for (int i = 0; i < 1000; i++) {
+          long value = modified && i == 999 ? -1 : i;
+          unknownFields.addField(
+              100 + i, UnknownFieldSet.Field.newBuilder().addVarint(value).build());
+        }
+        return builder.setUnknownFields(unknownFields.build()).build();
+      }
+    };
+
+    /**
+     * Returns a message of this shape. The contents depend only on the arguments, so two calls with
+     * the same arguments return equal messages.
+     *
+     * @param shuffled whether to shuffle the elements of repeated fields and maps, using a fixed
+     *     seed
+     * @param modified whether to change the {@code id} of the last leaf, so that the message
+     *     differs from an unmodified one within any of the benchmarks' field scopes
+     */
+    abstract Message build(boolean shuffled, boolean modified);
+  }
+
+  /**
+   * Returns {@code count} small nodes, which all differ. If {@code modified}, the {@code id} of a
+   * leaf of the last node, in unshuffled order, is changed.
+   */
+  static List<Message> smallNodes(int count, boolean shuffled, boolean modified) {
+    List<Message> nodes = new ArrayList<Message>(count);
+    for (int i : order(count, shuffled)) {
+      DynamicMessage.Builder builder = newNode(i);
+      addLeaves(builder, i * 3, 3, false, modified && i == count - 1);
+      nodes.add(builder.build());
+    }
+    return nodes;
+  }
+
+  /**
+   * Returns a chain of {@code levels} nested nodes, each with a few leaves and numbers. If {@code
+   * modified}, the {@code id} of a leaf of the innermost node is changed.
+   */
+  static Message deepNode(int levels, boolean shuffled, boolean modified) {
+    Message node = null;
+    for (int depth = levels - 1; depth >= 0; depth--) {
+      DynamicMessage.Builder builder = newNode(depth);
+      addLeaves(builder, depth * 4, 4, shuffled, modified && depth == levels - 1);
+      addNumbers(builder, 4, shuffled);
+      if (node != null) {
+        builder.setField(NODE_CHILD, node);
+      }
+      node = builder.build();
+    }
+    return node;
+  }
+
+  private static DynamicMessage.Builder newNode(int depth) {
+    return DynamicMessage.newBuilder(NODE)
+        .setField(NODE_DEPTH, depth)
+        .setField(NODE_LABEL, "node" + depth);
+  }
+
+  private static void addLeaves(
+      DynamicMessage.Builder builder, int firstId, int count, boolean shuffled, boolean modified) {
+    for (int i : order(count, shuffled)) {
+      builder.addRepeatedField(NODE_LEAVES, leaf(firstId + i, modified && i == count - 1));
+    }
+  }
+
+  private static void addNumbers(DynamicMessage.Builder builder, int count, boolean shuffled) {
+    for (int i : order(count, shuffled)) {
+      builder.addRepeatedField(NODE_NUMBERS, (long) i * i);
+    }
+  }
+
+  private static Message leaf(long id, boolean modified) {
+    return DynamicMessage.newBuilder(LEAF)
+        .setField(LEAF_ID, modified ? -id - 1 : id)
+        .setField(LEAF_NAME, "leaf" + id)
+        .setField(LEAF_VALUE, id / 3.0)
+        .build();
+  }
+
+  private static Message leafMapEntry(int key, boolean modified) {
+    return DynamicMessage.newBuilder(LEAF_MAP_ENTRY)
+        .setField(LEAF_MAP_ENTRY.findFieldByName("key"), "key" + key)
+        .setField(LEAF_MAP_ENTRY.findFieldByName("value"), leaf(key, modified))
+        .build();
+  }
+
+  private static List<Integer> order(int count, boolean shuffled) {
+    List<Integer> indexes = new ArrayList<Integer>(count);
+    for (int i = 0; i < count; i++) {
+      indexes.add(i);
+    }
+    if (shuffled) {
+      Collections.shuffle(indexes, new Random(0));
+    }
+    return indexes;
+  }
+
+  private BenchmarkMessages() {}
+}
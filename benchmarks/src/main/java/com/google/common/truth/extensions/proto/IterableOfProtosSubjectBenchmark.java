@@ -0,0 +1,106 @@
+/*
+ * Copyright (c) 2017 Google, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.google.common.truth.extensions.proto;
+
+import static com.google.common.truth.extensions.proto.ProtoTruth.assertThat;
+
+import com.google.protobuf.Message;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Benchmarks for {@link IterableOfProtosSubject} and {@link MapWithProtoValuesSubject}, which
+ * compare their elements using a {@code Correspondence} that runs a proto comparison for each pair
+ * it tries.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+@Fork(1)
+public class IterableOfProtosSubjectBenchmark {
+  @Param({"10", "100", "1000"})
+  public int size;
+
+  /** Whether the expected messages are in a different order from the actual ones. */
+  @Param({"false", "true"})
+  public boolean shuffled;
+
+  private List<Message> actual;
+  private List<Message> expected;
+  private List<Message> expectedWithDifference;
+  private Map<Integer, Message> actualMap;
+  private Map<Integer, Message> expectedMap;
+
+  @Setup
+  public void setUp() {
+    actual = BenchmarkMessages.smallNodes(size, false, false);
+    expected = BenchmarkMessages.smallNodes(size, shuffled, false);
+    expectedWithDifference = BenchmarkMessages.smallNodes(size, shuffled, true);
+    actualMap = new LinkedHashMap<Integer, Message>();
+    expectedMap = new LinkedHashMap<Integer, Message>();
+    for (int i = 0; i < size; i++) {
+      actualMap.put(i, actual.get(i));
+    }
+    for (Message message : expected) {
+      expectedMap.put((Integer) message.getField(BenchmarkMessages.NODE_DEPTH), message);
+    }
+  }
+
+  @Benchmark
+  public void containsExactlyElementsIn() {
+    assertThat(actual).containsExactlyElementsIn(expected);
+  }
+
+  @Benchmark
+  public void ignoringRepeatedFieldOrder_containsExactlyElementsIn() {
+    assertThat(actual).ignoringRepeatedFieldOrder().containsExactlyElementsIn(expected);
+  }
+
+  @Benchmark
+  public void containsAllIn() {
+    assertThat(actual).containsAllIn(expected);
+  }
+
+  @Benchmark
+  public String containsExactlyElementsIn_failing() {
+    try {
+      assertThat(actual).containsExactlyElementsIn(expectedWithDifference);
+    } catch (AssertionError e) {
+      return e.getMessage();
+    }
+    throw new IllegalStateException("Expected the assertion to fail");
+  }
+
+  @Benchmark
+  public void mapContainsExactlyEntriesIn() {
+    assertThat(actualMap).containsExactlyEntriesIn(expectedMap);
+  }
+}
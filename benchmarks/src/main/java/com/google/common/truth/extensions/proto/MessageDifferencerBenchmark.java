@@ -0,0 +1,110 @@
+/*
+ * Copyright (c) 2017 Google, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.google.common.truth.extensions.proto;
+
+import static com.google.common.base.Preconditions.checkState;
+
+import com.google.common.truth.extensions.proto.BenchmarkMessages.Shape;
+import com.google.protobuf.Descriptors.Descriptor;
+import com.google.protobuf.Message;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Benchmarks for the two proto comparison engines: {@link ProtoTruthMessageDifferencer}, which
+ * {@link ProtoSubject} uses to compare messages and to describe their differences, and the older
+ * {@link MessageDifferencer}. Each compares the same pair of messages under the same {@link
+ * FluentEqualityConfig}, so their times are directly comparable.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+@Fork(1)
+public class MessageDifferencerBenchmark {
+  @Param public Shape shape;
+
+  @Param public ProtoComparison comparison;
+
+  private Message actual;
+  private Message expected;
+  private Message expectedWithDifference;
+  private MessageDifferencer messageDifferencer;
+  private ProtoTruthMessageDifferencer protoTruthMessageDifferencer;
+
+  @Setup
+  public void setUp() {
+    actual = shape.build(comparison.shufflesActual(), false);
+    expected = shape.build(false, false);
+    expectedWithDifference = shape.build(false, true);
+    FluentEqualityConfig config = comparison.config(expected);
+    messageDifferencer = messageDifferencer(config, actual.getDescriptorForType());
+    protoTruthMessageDifferencer =
+        ProtoTruthMessageDifferencer.create(config, actual.getDescriptorForType());
+
+    // Make sure that the benchmarks measure what they claim to.
+    checkState(messageDifferencer(), "messages should compare equal");
+    checkState(!messageDifferencer_failing(), "messages should compare unequal");
+    checkState(protoTruthMessageDifferencer(), "messages should compare equal");
+    checkState(!protoTruthMessageDifferencer_failing(), "messages should compare unequal");
+  }
+
+  @Benchmark
+  public boolean messageDifferencer() {
+    return messageDifferencer.compare(expected, actual);
+  }
+
+  @Benchmark
+  public boolean messageDifferencer_failing() {
+    return messageDifferencer.compare(expectedWithDifference, actual);
+  }
+
+  @Benchmark
+  public boolean protoTruthMessageDifferencer() {
+    return protoTruthMessageDifferencer.diffMessages(actual, expected).isMatched();
+  }
+
+  @Benchmark
+  public boolean protoTruthMessageDifferencer_failing() {
+    return protoTruthMessageDifferencer.diffMessages(actual, expectedWithDifference).isMatched();
+  }
+
+  /** Returns a {@link MessageDifferencer} which compares messages as {@code config} says. */
+  static MessageDifferencer messageDifferencer(FluentEqualityConfig config, Descriptor descriptor) {
+    return MessageDifferencer.newBuilder()
+        .setMessageFieldComparison(
+            config.ignoreFieldAbsence()
+                ? MessageDifferencer.MessageFieldComparison.EQUIVALENT
+                : MessageDifferencer.MessageFieldComparison.EQUAL)
+        .setRepeatedFieldComparison(
+            config.ignoreRepeatedFieldOrder()
+                ? MessageDifferencer.RepeatedFieldComparison.AS_SET
+                : MessageDifferencer.RepeatedFieldComparison.AS_LIST)
+        .addIgnoreCriteriaFactory(config.fieldScopeLogic().toIgnoreCriteriaFactory(descriptor))
+        .build();
+  }
+}
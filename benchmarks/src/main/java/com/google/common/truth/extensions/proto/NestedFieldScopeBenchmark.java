@@ -0,0 +1,96 @@
+/*
+ * Copyright (c) 2017 Google, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.google.common.truth.extensions.proto;
+
+import static com.google.common.base.Preconditions.checkState;
+import static com.google.common.truth.extensions.proto.BenchmarkMessages.LEAF_ID;
+import static com.google.common.truth.extensions.proto.ProtoTruth.assertThat;
+
+import com.google.protobuf.Message;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Benchmarks for {@link MessageDifferencer} comparing deeply nested messages under an {@link
+ * FieldScopes#allowingFieldDescriptors} scope. To decide whether a sub-message is in scope, the
+ * differencer searches it for the allowed fields, remembering the answer for each sub-message it
+ * has searched, so the cost of those lookups grows with the depth of the messages.
+ *
+ * <p>The actual and expected messages are equal but distinct, as they would be in a test.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+@Fork(1)
+public class NestedFieldScopeBenchmark {
+  @Param({"10", "100", "500"})
+  public int depth;
+
+  private Message actual;
+  private Message expected;
+  private Message expectedWithDifference;
+  private FluentEqualityConfig config;
+  private MessageDifferencer messageDifferencer;
+
+  @Setup
+  public void setUp() {
+    actual = BenchmarkMessages.deepNode(depth, false, false);
+    expected = BenchmarkMessages.deepNode(depth, false, false);
+    expectedWithDifference = BenchmarkMessages.deepNode(depth, false, true);
+    config =
+        FluentEqualityConfig.defaultInstance()
+            .withPartialScope(FieldScopes.allowingFieldDescriptors(LEAF_ID));
+    messageDifferencer =
+        MessageDifferencerBenchmark.messageDifferencer(config, actual.getDescriptorForType());
+
+    // Make sure that the benchmarks measure what they claim to.
+    checkState(messageDifferencer(), "messages should compare equal");
+    checkState(!messageDifferencer_failing(), "messages should compare unequal");
+  }
+
+  @Benchmark
+  public boolean messageDifferencer() {
+    return messageDifferencer.compare(expected, actual);
+  }
+
+  @Benchmark
+  public boolean messageDifferencer_failing() {
+    return messageDifferencer.compare(expectedWithDifference, actual);
+  }
+
+  /** The failing assertion, whose failure message is written from a {@link DiffResult}. */
+  @Benchmark
+  public String isEqualTo_failing() {
+    try {
+      assertThat(actual).usingConfig(config).isEqualTo(expectedWithDifference);
+    } catch (AssertionError e) {
+      return e.getMessage();
+    }
+    throw new IllegalStateException("Expected the assertion to fail");
+  }
+}
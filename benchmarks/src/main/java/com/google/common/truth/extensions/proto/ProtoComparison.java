@@ -0,0 +1,85 @@
+/*
+ * Copyright (c) 2017 Google, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.google.common.truth.extensions.proto;
+
+import static com.google.common.truth.extensions.proto.BenchmarkMessages.LEAF_ID;
+import static com.google.common.truth.extensions.proto.BenchmarkMessages.LEAF_NAME;
+import static com.google.common.truth.extensions.proto.BenchmarkMessages.NODE_LABEL;
+
+import com.google.common.collect.ImmutableList;
+import com.google.protobuf.Message;
+
+/** The configurations of proto comparison measured by the proto benchmarks. */
+public enum ProtoComparison {
+  /** The default configuration, comparing every field. */
+  FULL_SCOPE {
+    @Override
+    FluentEqualityConfig config(Message expected) {
+      return FluentEqualityConfig.defaultInstance();
+    }
+  },
+
+  /** Compares only the {@code id} of each leaf, wherever it is in the message. */
+  PARTIAL_SCOPE {
+    @Override
+    FluentEqualityConfig config(Message expected) {
+      return FluentEqualityConfig.defaultInstance()
+          .withPartialScope(FieldScopes.allowingFieldDescriptors(LEAF_ID));
+    }
+  },
+
+  /** Compares the fields set in the expected message, via {@link FieldScopes#fromSetFields}. */
+  SET_FIELDS_SCOPE {
+    @Override
+    FluentEqualityConfig config(Message expected) {
+      return FluentEqualityConfig.defaultInstance()
+          .withPartialScope(FieldScopes.fromSetFields(expected));
+    }
+  },
+
+  /** Ignores the {@code label} of each node and the {@code name} of each leaf. */
+  IGNORING_FIELDS {
+    @Override
+    FluentEqualityConfig config(Message expected) {
+      return FluentEqualityConfig.defaultInstance()
+          .ignoringFieldDescriptors(ImmutableList.of(NODE_LABEL, LEAF_NAME));
+    }
+  },
+
+  /**
+   * Ignores the order of repeated fields. The actual message's repeated fields are shuffled for
+   * this comparison.
+   */
+  IGNORING_REPEATED_FIELD_ORDER {
+    @Override
+    FluentEqualityConfig config(Message expected) {
+      return FluentEqualityConfig.defaultInstance().ignoringRepeatedFieldOrder();
+    }
+
+    @Override
+    boolean shufflesActual() {
+      return true;
+    }
+  };
+
+  /** Returns the configuration for comparing messages with the given expected message. */
+  abstract FluentEqualityConfig config(Message expected);
+
+  /** Whether the actual message should have its repeated fields shuffled. */
+  boolean shufflesActual() {
+    return false;
+  }
+}
@@ -0,0 +1,77 @@
+/*
+ * Copyright (c) 2017 Google, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.google.common.truth.extensions.proto;
+
+import static com.google.common.truth.extensions.proto.ProtoTruth.assertThat;
+
+import com.google.common.truth.extensions.proto.BenchmarkMessages.Shape;
+import com.google.protobuf.Message;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Benchmarks for {@link ProtoSubject#isEqualTo}, including creating the subject and, for the
+ * failing benchmarks, building the failure message.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+@Fork(1)
+public class ProtoSubjectBenchmark {
+  @Param public Shape shape;
+
+  @Param public ProtoComparison comparison;
+
+  private Message actual;
+  private Message expected;
+  private Message expectedWithDifference;
+  private FluentEqualityConfig config;
+
+  @Setup
+  public void setUp() {
+    actual = shape.build(comparison.shufflesActual(), false);
+    expected = shape.build(false, false);
+    expectedWithDifference = shape.build(false, true);
+    config = comparison.config(expected);
+  }
+
+  @Benchmark
+  public void isEqualTo() {
+    assertThat(actual).usingConfig(config).isEqualTo(expected);
+  }
+
+  @Benchmark
+  public String isEqualTo_failing() {
+    try {
+      assertThat(actual).usingConfig(config).isEqualTo(expectedWithDifference);
+    } catch (AssertionError e) {
+      return e.getMessage();
+    }
+    throw new IllegalStateException("Expected the assertion to fail");
+  }
+}
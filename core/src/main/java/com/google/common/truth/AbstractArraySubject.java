@@ -17,6 +17,8 @@ package com.google.common.truth;
 
 import static com.google.common.base.Preconditions.checkArgument;
 
+import com.google.common.base.Objects;
+import java.util.ArrayList;
 import java.util.List;
 import javax.annotation.Nullable;
 
@@ -32,14 +34,14 @@ abstract class AbstractArraySubject<S extends AbstractArraySubject<S, T>, T> ext
 
   /** Fails if the array is not empty (i.e. {@code array.length != 0}). */
   public void isEmpty() {
-    if (!listRepresentation().isEmpty()) {
+    if (length() != 0) {
       fail("is empty");
     }
   }
 
   /** Fails if the array is empty (i.e. {@code array.length == 0}). */
   public void isNotEmpty() {
-    if (listRepresentation().isEmpty()) {
+    if (length() == 0) {
       fail("is not empty");
     }
   }
@@ -51,16 +53,24 @@ abstract class AbstractArraySubject<S extends AbstractArraySubject<S, T>, T> ext
    */
   public void hasLength(int length) {
     checkArgument(length >= 0, "length (%s) must be >= 0");
-    if (listRepresentation().size() != length) {
+    if (length() != length) {
       fail("has length", length);
     }
   }
 
   abstract String underlyingType();
 
-  /** Returns a List representation suitable for displaying in a string. */
+  /**
+   * Returns a List representation suitable for displaying in a string. This should be a view of the
+   * array rather than a copy, since subjects for very large arrays may call it.
+   */
   abstract List<?> listRepresentation();
 
+  /** Returns the length of the actual array, without creating a view or copy of it. */
+  private int length() {
+    return Platform.getArrayLength(actual());
+  }
+
   // TODO(cgruber): Kill once displayedAs() exists, since this attempts to make .named() do that.
   @Override
   protected String actualCustomStringRepresentation() {
@@ -69,6 +79,80 @@ abstract class AbstractArraySubject<S extends AbstractArraySubject<S, T>, T> ext
         : "";
   }
 
+  /**
+   * Fails with a message saying that the actual array is not equal to {@code expected}, which
+   * describes where the two differ. The arrays are passed as list views of the same element type.
+   */
+  void failNotEqualArray(List<?> expected) {
+    failWithRawMessage(
+        "Not true that %s is equal to <%s>. %s",
+        actualAsString(), expected, describeMismatch(expected, listRepresentation()));
+  }
+
+  /** The number of elements to show on either side of the first difference in a long array. */
+  private static final int MISMATCH_CONTEXT = 5;
+
+  /**
+   * Describes the first index at which the two lists differ, the number of indexes at which they
+   * differ (counting each index present in only one of them), and, for lists too long to read at a
+   * glance, the elements on either side of the first difference. Elements are compared with {@link
+   * Object#equals}, which for the boxed views of primitive arrays agrees with {@link
+   * java.util.Arrays#equals}. This scans both lists in full, so it should only be called once the
+   * arrays are already known to differ.
+   */
+  static String describeMismatch(List<?> expected, List<?> actual) {
+    int common = Math.min(expected.size(), actual.size());
+    int first = -1;
+    int count = Math.abs(expected.size() - actual.size());
+    for (int i = 0; i < common; i++) {
+      if (!Objects.equal(expected.get(i), actual.get(i))) {
+        if (first < 0) {
+          first = i;
+        }
+        count++;
+      }
+    }
+    if (first < 0) {
+      first = common;
+    }
+    StringBuilder description = new StringBuilder();
+    if (count == 1) {
+      description.append("It differs at index <").append(first).append('>');
+    } else {
+      description
+          .append("It differs at <")
+          .append(count)
+          .append("> indexes, starting at index <")
+          .append(first)
+          .append('>');
+    }
+    if (Math.max(expected.size(), actual.size()) > 2 * MISMATCH_CONTEXT + 1) {
+      description
+          .append(". Around that index, expected <")
+          .append(window(expected, first))
+          .append("> but was <")
+          .append(window(actual, first))
+          .append('>');
+    }
+    return description.toString();
+  }
+
+  private static List<Object> window(List<?> list, int index) {
+    int from = Math.max(0, index - MISMATCH_CONTEXT);
+    int to = Math.min(list.size(), index + MISMATCH_CONTEXT + 1);
+    List<Object> window = new ArrayList<Object>();
+    if (from > 0) {
+      window.add("...");
+    }
+    if (from < to) {
+      window.addAll(list.subList(from, to));
+    }
+    if (to < list.size()) {
+      window.add("...");
+    }
+    return window;
+  }
+
   void failWithBadType(Object expected) {
     String expectedBrackets = "";
     Class<?> expectedType = expected.getClass();
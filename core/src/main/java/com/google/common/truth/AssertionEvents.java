@@ -0,0 +1,149 @@
+/*
+ * Copyright (c) 2017 Google, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.google.common.truth;
+
+import com.google.common.truth.AssertionListener.Check;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import javax.annotation.Nullable;
+
+/**
+ * Delivers events to the registered {@link AssertionListener} instances. Each method returns after
+ * a single volatile read when no listener is registered.
+ */
+final class AssertionEvents {
+  private static final AssertionListener[] NO_LISTENERS = new AssertionListener[0];
+
+  /** Returned by {@link #startCheck} when the check isn't timed. */
+  private static final Check UNTIMED = new Check(NO_LISTENERS, Object.class, "", null, null);
+
+  /** Returned by {@link #startRender} when the failure isn't timed. */
+  static final long NOT_RENDERING = Long.MIN_VALUE;
+
+  /** Replaced, never modified, so that it can be read without locking. */
+  private static volatile AssertionListener[] listeners = NO_LISTENERS;
+
+  static {
+    AssertionListener initial = Platform.initialAssertionListener();
+    if (initial != null) {
+      listeners = new AssertionListener[] {initial};
+    }
+  }
+
+  static synchronized void register(AssertionListener listener) {
+    AssertionListener[] newListeners = Arrays.copyOf(listeners, listeners.length + 1);
+    newListeners[listeners.length] = listener;
+    listeners = newListeners;
+  }
+
+  static synchronized void unregister(AssertionListener listener) {
+    List<AssertionListener> newListeners =
+        new ArrayList<AssertionListener>(Arrays.asList(listeners));
+    newListeners.remove(listener);
+    listeners = newListeners.toArray(NO_LISTENERS);
+  }
+
+  /**
+   * Whether any listener is registered. Checks with a fast path for passing values skip it when
+   * this is true, so that the check is reported.
+   */
+  static boolean isListening() {
+    return listeners.length != 0;
+  }
+
+  static void subjectCreated(Subject<?, ?> subject) {
+    AssertionListener[] current = listeners;
+    if (current.length == 0) {
+      return;
+    }
+    for (AssertionListener listener : current) {
+      listener.subjectCreated(subject.getClass());
+    }
+  }
+
+  /**
+   * Starts timing a check, unless no listener is registered or another check is already being
+   * timed on this thread. Callers must pass the result to {@link #finishCheck} in a {@code finally}
+   * block.
+   */
+  static Check startCheck(
+      Subject<?, ?> subject, String checkName, @Nullable Object actual, @Nullable Object expected) {
+    AssertionListener[] current = listeners;
+    if (current.length == 0 || Platform.currentCheck() != null) {
+      return UNTIMED;
+    }
+    Check check = new Check(current, subject.getClass(), checkName, actual, expected);
+    for (AssertionListener listener : current) {
+      listener.checkStarted(check);
+    }
+    Platform.setCurrentCheck(check);
+    check.startNanos = System.nanoTime();
+    return check;
+  }
+
+  static void finishCheck(Check check) {
+    if (check == UNTIMED) {
+      return;
+    }
+    check.durationNanos = System.nanoTime() - check.startNanos;
+    Platform.setCurrentCheck(null);
+    for (AssertionListener listener : check.listeners) {
+      listener.checkFinished(check);
+    }
+  }
+
+  /**
+   * Returns the time at which a subject started formatting a failure message, or {@link
+   * #NOT_RENDERING} if no listener is registered.
+   */
+  static long startRender() {
+    return listeners.length == 0 ? NOT_RENDERING : System.nanoTime();
+  }
+
+  /** Reports that the failure message that began at {@code startNanos} is ready. */
+  static void finishRender(Subject<?, ?> subject, long startNanos) {
+    AssertionListener[] current = listeners;
+    if (current.length == 0 || startNanos == NOT_RENDERING) {
+      return;
+    }
+    long renderNanos = System.nanoTime() - startNanos;
+    Check check = Platform.currentCheck();
+    if (check != null) {
+      check.failed = true;
+      check.renderNanos += renderNanos;
+    }
+    for (AssertionListener listener : current) {
+      listener.failureRendered(subject.getClass(), check, renderNanos);
+    }
+  }
+
+  /**
+   * Reports a failure whose message the subject formatted before passing it on, so that there's no
+   * rendering to time: fails the check in progress on this thread, without reporting a render.
+   */
+  static void failedWithoutRender() {
+    if (listeners.length == 0) {
+      return;
+    }
+    Check check = Platform.currentCheck();
+    if (check != null) {
+      check.failed = true;
+    }
+  }
+
+  private AssertionEvents() {}
+}
@@ -0,0 +1,166 @@
+/*
+ * Copyright (c) 2017 Google, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.google.common.truth;
+
+import static com.google.common.base.Preconditions.checkNotNull;
+
+import javax.annotation.Nullable;
+
+/**
+ * Receives events about the assertions that Truth makes, for finding out where a test suite spends
+ * its time. Install a listener with {@link #register}. While no listener is registered, Truth does
+ * no work for listeners beyond reading a field.
+ *
+ * <p>Events are delivered synchronously on the thread making the assertion. Implementations should
+ * be fast, and they must be thread-safe if tests make assertions from several threads.
+ *
+ * <p>Truth reports three kinds of events:
+ *
+ * <ul>
+ *   <li>the creation of every {@link Subject}
+ *   <li>the start and end of a {@linkplain Check check}, for the checks whose cost depends on the
+ *       size of their input: {@code isEqualTo} and {@code isNotEqualTo} (including their
+ *       primitive overloads, unless a subclass overrides them), the {@code contains*} checks of
+ *       {@link IterableSubject}, {@code containsExactlyEntriesIn} on {@link MapSubject} and {@link
+ *       MultimapSubject}, and the variants of these checks that compare using a {@link
+ *       Correspondence}. When one of these checks calls another, only the outer one is reported.
+ *       A later call to {@link Ordered#inOrder} isn't part of the check.
+ *   <li>the time taken to format each failure message, for the failures of every subject. A
+ *       failure passed to {@code failWithRawMessageAndCause} or {@code failComparing} arrives
+ *       already formatted, so it only fails the check in progress, without this event.
+ * </ul>
+ *
+ * @see AssertionMetrics
+ */
+public abstract class AssertionListener {
+  /** Constructor for use by subclasses. */
+  protected AssertionListener() {}
+
+  /** Starts sending events to the given listener, on every thread. */
+  public static void register(AssertionListener listener) {
+    AssertionEvents.register(checkNotNull(listener));
+  }
+
+  /**
+   * Stops sending events to the given listener. Checks that are already in progress still report
+   * their end to it.
+   */
+  public static void unregister(AssertionListener listener) {
+    AssertionEvents.unregister(checkNotNull(listener));
+  }
+
+  /** Called when a subject of the given class is created. */
+  public void subjectCreated(Class<?> subjectClass) {}
+
+  /** Called before a check starts. The check's duration and result aren't yet available. */
+  public void checkStarted(Check check) {}
+
+  /** Called after a check completes, whether or not it passed. */
+  public void checkFinished(Check check) {}
+
+  /**
+   * Called after a subject formats a failure message.
+   *
+   * @param subjectClass the class of the subject that failed
+   * @param check the timed check in progress on this thread, if any. The failure might belong to a
+   *     subject that the check created, rather than to the check's own subject.
+   * @param renderNanos the time taken to format the failure message
+   */
+  public void failureRendered(Class<?> subjectClass, @Nullable Check check, long renderNanos) {}
+
+  /** A single call to one of the timed assertion methods. */
+  public static final class Check {
+    final AssertionListener[] listeners;
+    private final Class<?> subjectClass;
+    private final String name;
+    @Nullable private final Object actual;
+    @Nullable private final Object expected;
+    long startNanos;
+    long durationNanos;
+    long renderNanos;
+    boolean failed;
+
+    Check(
+        AssertionListener[] listeners,
+        Class<?> subjectClass,
+        String name,
+        @Nullable Object actual,
+        @Nullable Object expected) {
+      this.listeners = listeners;
+      this.subjectClass = subjectClass;
+      this.name = name;
+      this.actual = actual;
+      this.expected = expected;
+    }
+
+    /** Returns the class of the subject that the check was called on. */
+    public Class<?> subjectClass() {
+      return subjectClass;
+    }
+
+    /**
+     * Returns the name of the assertion method, like {@code "containsExactlyElementsIn"}. Methods
+     * of the object returned by {@code comparingElementsUsing} or {@code comparingValuesUsing} are
+     * prefixed with that method's name, like {@code "comparingElementsUsing.containsAllIn"}.
+     */
+    public String name() {
+      return name;
+    }
+
+    /** Returns the value under test. */
+    @Nullable
+    public Object actual() {
+      return actual;
+    }
+
+    /**
+     * Returns the value that the check compares against: the argument of {@code isEqualTo}, the
+     * expected {@code Iterable}, {@code Map} or {@code Multimap} of a containment check, a {@code
+     * List} of the arguments of a varargs check, or null for {@code containsNoDuplicates}.
+     */
+    @Nullable
+    public Object expected() {
+      return expected;
+    }
+
+    /**
+     * Returns the time taken by the check, including the time taken to format any failure messages.
+     * Zero until the check finishes.
+     */
+    public long durationNanos() {
+      return durationNanos;
+    }
+
+    /** Returns the part of {@link #durationNanos} spent formatting failure messages. */
+    public long renderNanos() {
+      return renderNanos;
+    }
+
+    /**
+     * Returns whether the check passed. Until the check finishes, returns whether it has failed so
+     * far. A check fails if it, or any subject that it creates, reports a failure, whether or not
+     * the failure is thrown.
+     */
+    public boolean passed() {
+      return !failed;
+    }
+
+    @Override
+    public String toString() {
+      return subjectClass.getSimpleName() + "." + name;
+    }
+  }
+}
@@ -0,0 +1,317 @@
+/*
+ * Copyright (c) 2017 Google, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.google.common.truth;
+
+import static com.google.common.base.Preconditions.checkNotNull;
+
+import com.google.common.annotations.GwtIncompatible;
+import com.google.errorprone.annotations.CanIgnoreReturnValue;
+import java.io.PrintStream;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicLong;
+import javax.annotation.Nullable;
+import org.junit.rules.TestRule;
+import org.junit.runner.Description;
+import org.junit.runners.model.Statement;
+
+/**
+ * An {@link AssertionListener} that counts the checks that Truth runs and keeps a histogram of
+ * their durations, to find the assertions that make a test suite slow.
+ *
+ * <p>To measure a whole test run without changing any code, set the system property {@code
+ * com.google.common.truth.assertion_metrics} to {@code true}. The report is printed to {@code
+ * System.err} when the JVM exits. To measure a single test class, use {@link #asRule}:
+ *
+ * <pre>
+ * {@code @ClassRule public static final TestRule metrics =}
+ * {@code     AssertionMetrics.create().asRule(System.err);}
+ * </pre>
+ *
+ * <p>This class is thread-safe.
+ */
+@GwtIncompatible("java.util.concurrent")
+public final class AssertionMetrics extends AssertionListener {
+  /** The upper bounds of the histogram buckets, except the last, which is unbounded. */
+  private static final long[] BUCKET_LIMITS_NANOS = {
+    1000L, 10000L, 100000L, 1000000L, 10000000L, 100000000L, 1000000000L
+  };
+
+  private static final String[] BUCKET_NAMES = {
+    "<1us", "<10us", "<100us", "<1ms", "<10ms", "<100ms", "<1s", ">=1s"
+  };
+
+  /** Returns a new instance, which isn't registered. */
+  public static AssertionMetrics create() {
+    return new AssertionMetrics();
+  }
+
+  private final ConcurrentMap<String, CheckStats> checks =
+      new ConcurrentHashMap<String, CheckStats>();
+  private final ConcurrentMap<String, CheckStats> untimedFailures =
+      new ConcurrentHashMap<String, CheckStats>();
+  private final ConcurrentMap<String, AtomicLong> subjects =
+      new ConcurrentHashMap<String, AtomicLong>();
+
+  private AssertionMetrics() {}
+
+  @Override
+  public void subjectCreated(Class<?> subjectClass) {
+    String name = subjectName(subjectClass);
+    AtomicLong count = subjects.get(name);
+    if (count == null) {
+      AtomicLong newCount = new AtomicLong();
+      count = subjects.putIfAbsent(name, newCount);
+      if (count == null) {
+        count = newCount;
+      }
+    }
+    count.incrementAndGet();
+  }
+
+  @Override
+  public void checkFinished(Check check) {
+    statsFor(checks, subjectName(check.subjectClass()) + "." + check.name())
+        .recordCheck(check.durationNanos(), check.renderNanos(), !check.passed());
+  }
+
+  @Override
+  public void failureRendered(Class<?> subjectClass, @Nullable Check check, long renderNanos) {
+    // Failures during a timed check are recorded with the check.
+    if (check == null) {
+      statsFor(untimedFailures, subjectName(subjectClass)).recordFailure(renderNanos);
+    }
+  }
+
+  /** Discards everything recorded so far. */
+  public void reset() {
+    checks.clear();
+    untimedFailures.clear();
+    subjects.clear();
+  }
+
+  /**
+   * Returns a human-readable report of everything recorded so far: the timed checks, slowest in
+   * total first, with a histogram of each one's durations; the time spent formatting the failure
+   * messages of other checks; and the number of subjects created of each type.
+   */
+  public String report() {
+    StringBuilder report = new StringBuilder("Truth assertion metrics\n");
+    List<Map.Entry<String, CheckStats>> checkEntries = sortedByTotalTime(checks);
+    if (!checkEntries.isEmpty()) {
+      report.append("Checks, by total time:\n");
+      for (Map.Entry<String, CheckStats> entry : checkEntries) {
+        CheckStats stats = entry.getValue();
+        synchronized (stats) {
+          report.append(
+              String.format(
+                  Locale.ROOT,
+                  "  %s: %d calls (%d failed), total %s, mean %s, max %s",
+                  entry.getKey(),
+                  stats.count,
+                  stats.failures,
+                  formatNanos(stats.totalNanos),
+                  formatNanos(stats.totalNanos / stats.count),
+                  formatNanos(stats.maxNanos)));
+          if (stats.failures > 0) {
+            report.append(", formatting failures ").append(formatNanos(stats.renderNanos));
+          }
+          report.append("\n    ");
+          String separator = "";
+          for (int i = 0; i < BUCKET_NAMES.length; i++) {
+            if (stats.histogram[i] > 0) {
+              report.append(separator).append(BUCKET_NAMES[i]).append(": ");
+              report.append(stats.histogram[i]);
+              separator = ", ";
+            }
+          }
+          report.append('\n');
+        }
+      }
+    }
+    List<Map.Entry<String, CheckStats>> failureEntries = sortedByTotalTime(untimedFailures);
+    if (!failureEntries.isEmpty()) {
+      report.append("Failure messages of other checks, by total time:\n");
+      for (Map.Entry<String, CheckStats> entry : failureEntries) {
+        CheckStats stats = entry.getValue();
+        synchronized (stats) {
+          report.append(
+              String.format(
+                  Locale.ROOT,
+                  "  %s: %d failures, total %s\n",
+                  entry.getKey(),
+                  stats.failures,
+                  formatNanos(stats.renderNanos)));
+        }
+      }
+    }
+    if (!subjects.isEmpty()) {
+      List<Map.Entry<String, AtomicLong>> subjectEntries =
+          new ArrayList<Map.Entry<String, AtomicLong>>(subjects.entrySet());
+      Collections.sort(
+          subjectEntries,
+          new Comparator<Map.Entry<String, AtomicLong>>() {
+            @Override
+            public int compare(Map.Entry<String, AtomicLong> a, Map.Entry<String, AtomicLong> b) {
+              return compareDescending(a.getValue().get(), b.getValue().get());
+            }
+          });
+      report.append("Subjects created:\n");
+      for (Map.Entry<String, AtomicLong> entry : subjectEntries) {
+        report.append("  ").append(entry.getKey()).append(": ").append(entry.getValue().get());
+        report.append('\n');
+      }
+    }
+    return report.toString();
+  }
+
+  /**
+   * Prints the report to the given stream when the JVM shuts down. Doesn't {@linkplain #register
+   * register} this listener.
+   */
+  @CanIgnoreReturnValue
+  public AssertionMetrics printReportAtShutdown(final PrintStream out) {
+    checkNotNull(out);
+    Runtime.getRuntime()
+        .addShutdownHook(
+            new Thread("Truth assertion metrics") {
+              @Override
+              public void run() {
+                out.print(report());
+                out.flush();
+              }
+            });
+    return this;
+  }
+
+  /**
+   * Returns a rule that registers this listener while each test (or, as a {@code ClassRule}, each
+   * test class) runs, and then prints the report to the given stream. The report includes
+   * everything recorded since this object was created or {@linkplain #reset reset}.
+   */
+  public TestRule asRule(final PrintStream out) {
+    checkNotNull(out);
+    return new TestRule() {
+      @Override
+      public Statement apply(final Statement base, Description description) {
+        return new Statement() {
+          @Override
+          public void evaluate() throws Throwable {
+            register(AssertionMetrics.this);
+            try {
+              base.evaluate();
+            } finally {
+              unregister(AssertionMetrics.this);
+              out.print(report());
+              out.flush();
+            }
+          }
+        };
+      }
+    };
+  }
+
+  private static CheckStats statsFor(ConcurrentMap<String, CheckStats> map, String key) {
+    CheckStats stats = map.get(key);
+    if (stats == null) {
+      CheckStats newStats = new CheckStats();
+      stats = map.putIfAbsent(key, newStats);
+      if (stats == null) {
+        stats = newStats;
+      }
+    }
+    return stats;
+  }
+
+  private static List<Map.Entry<String, CheckStats>> sortedByTotalTime(
+      Map<String, CheckStats> map) {
+    List<Map.Entry<String, CheckStats>> entries =
+        new ArrayList<Map.Entry<String, CheckStats>>(map.entrySet());
+    Collections.sort(
+        entries,
+        new Comparator<Map.Entry<String, CheckStats>>() {
+          @Override
+          public int compare(Map.Entry<String, CheckStats> a, Map.Entry<String, CheckStats> b) {
+            return compareDescending(a.getValue().sortKey(), b.getValue().sortKey());
+          }
+        });
+    return entries;
+  }
+
+  private static int compareDescending(long a, long b) {
+    return a > b ? -1 : (a < b ? 1 : 0);
+  }
+
+  private static String subjectName(Class<?> subjectClass) {
+    String name = subjectClass.getSimpleName();
+    return name.isEmpty() ? subjectClass.getName() : name;
+  }
+
+  static String formatNanos(long nanos) {
+    if (nanos < 1000000L) {
+      return String.format(Locale.ROOT, "%.1fus", nanos / 1e3);
+    } else if (nanos < 1000000000L) {
+      return String.format(Locale.ROOT, "%.1fms", nanos / 1e6);
+    } else {
+      return String.format(Locale.ROOT, "%.2fs", nanos / 1e9);
+    }
+  }
+
+  /** The statistics for one check method, or for the failures of one subject type. */
+  private static final class CheckStats {
+    long count;
+    long failures;
+    long totalNanos;
+    long maxNanos;
+    long renderNanos;
+    final long[] histogram = new long[BUCKET_NAMES.length];
+
+    synchronized void recordCheck(long durationNanos, long renderNanos, boolean failed) {
+      count++;
+      totalNanos += durationNanos;
+      maxNanos = Math.max(maxNanos, durationNanos);
+      histogram[bucket(durationNanos)]++;
+      if (failed) {
+        failures++;
+      }
+      this.renderNanos += renderNanos;
+    }
+
+    synchronized void recordFailure(long renderNanos) {
+      failures++;
+      this.renderNanos += renderNanos;
+    }
+
+    synchronized long sortKey() {
+      return count > 0 ? totalNanos : renderNanos;
+    }
+
+    private static int bucket(long nanos) {
+      for (int i = 0; i < BUCKET_LIMITS_NANOS.length; i++) {
+        if (nanos < BUCKET_LIMITS_NANOS[i]) {
+          return i;
+        }
+      }
+      return BUCKET_LIMITS_NANOS.length;
+    }
+  }
+}
@@ -45,6 +45,28 @@ public final class BooleanSubject extends Subject<BooleanSubject, Boolean> {
     }
   }
 
+  /**
+   * Fails if the subject is not equal to the given value. This is equivalent to {@link
+   * #isEqualTo(Object)}.
+   */
+  public void isEqualTo(boolean other) {
+    Boolean actual = actual();
+    if (actual == null || actual != other || AssertionEvents.isListening()) {
+      isEqualTo((Object) other);
+    }
+  }
+
+  /**
+   * Fails if the subject is equal to the given value. This is equivalent to {@link
+   * #isNotEqualTo(Object)}.
+   */
+  public void isNotEqualTo(boolean other) {
+    Boolean actual = actual();
+    if ((actual != null && actual == other) || AssertionEvents.isListening()) {
+      isNotEqualTo((Object) other);
+    }
+  }
+
   private String booleanSubject() {
     return internalCustomName() == null ? "The subject" : actualAsString();
   }
@@ -169,7 +169,10 @@ public final class DoubleSubject extends ComparableSubject<DoubleSubject, Double
    * #isZero}.
    */
   public final void isEqualTo(@Nullable Double other) {
-    super.isEqualTo(other);
+    Double actual = actual();
+    if (actual == null || !actual.equals(other) || AssertionEvents.isListening()) {
+      super.isEqualTo(other);
+    }
   }
 
   /**
@@ -182,7 +185,10 @@ public final class DoubleSubject extends ComparableSubject<DoubleSubject, Double
    * #isNonZero}.
    */
   public final void isNotEqualTo(@Nullable Double other) {
-    super.isNotEqualTo(other);
+    Double actual = actual();
+    if (actual == null || actual.equals(other) || AssertionEvents.isListening()) {
+      super.isNotEqualTo(other);
+    }
   }
 
   /**
@@ -15,6 +15,7 @@
  */
 package com.google.common.truth;
 
+import static com.google.common.base.Preconditions.checkArgument;
 import static com.google.common.base.Preconditions.checkNotNull;
 import static com.google.common.base.Preconditions.checkState;
 import static com.google.common.base.Throwables.getStackTraceAsString;
@@ -22,8 +23,14 @@ import static com.google.common.truth.StringUtil.messageFor;
 
 import com.google.common.annotations.GwtIncompatible;
 import com.google.common.base.Objects;
+import com.google.common.primitives.Ints;
 import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
 import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicInteger;
 import javax.annotation.Nullable;
 import org.junit.internal.AssumptionViolatedException;
 import org.junit.rules.TestRule;
@@ -54,12 +61,24 @@ import org.junit.runners.model.Statement;
 @GwtIncompatible("JUnit4")
 public final class Expect extends StandardSubjectBuilder implements TestRule {
 
+  /**
+   * Records the failures of a test. Failures may be recorded from any number of threads at once:
+   * each is numbered from a shared counter and added to a lock-free queue, so recording a failure
+   * never blocks. The failures are put back in order by their numbers when reported.
+   */
   private static final class ExpectationGatherer extends AbstractFailureStrategy {
-    private final List<ExpectationFailure> messages = new ArrayList<ExpectationFailure>();
-    private final boolean showStackTrace;
+    private final Queue<ExpectationFailure> failures =
+        new ConcurrentLinkedQueue<ExpectationFailure>();
+    private final AtomicInteger failureCount = new AtomicInteger();
+    private final int maxStackTraces;
+    private final int maxFailuresReported;
+    // The thread running the test, if any. Failures from other threads are reported with the name
+    // of their thread.
+    @Nullable private volatile Thread testThread;
 
-    ExpectationGatherer(boolean showStackTrace) {
-      this.showStackTrace = showStackTrace;
+    ExpectationGatherer(int maxStackTraces, int maxFailuresReported) {
+      this.maxStackTraces = maxStackTraces;
+      this.maxFailuresReported = maxFailuresReported;
     }
 
     @Override
@@ -70,37 +89,70 @@ public final class Expect extends StandardSubjectBuilder implements TestRule {
 
     @Override
     public void fail(String message, Throwable cause) {
-      messages.add(
-          new ExpectationFailure(
-              message, cause != null ? new AssertionError(cause) : new AssertionError()));
+      int number = failureCount.incrementAndGet();
+      if (number <= maxFailuresReported) {
+        addFailure(number, message, cause);
+      }
+    }
+
+    /** Records a failure, reporting it even if the maximum number have already been reported. */
+    void failAlwaysReporting(String message, Throwable cause) {
+      addFailure(failureCount.incrementAndGet(), message, cause);
+    }
+
+    private void addFailure(int number, String message, Throwable cause) {
+      // Capturing a stack trace is most of the cost of recording a failure, so only capture one if
+      // it is going to be shown.
+      Throwable stackTrace = null;
+      if (number <= maxStackTraces) {
+        stackTrace = cause != null ? new AssertionError(cause) : new AssertionError();
+      }
+      Thread currentThread = Thread.currentThread();
+      String threadName = currentThread == testThread ? null : currentThread.getName();
+      failures.add(new ExpectationFailure(number, threadName, message, stackTrace));
+    }
+
+    void setTestThread(@Nullable Thread testThread) {
+      this.testThread = testThread;
     }
 
-    List<ExpectationFailure> getFailures() {
-      return messages;
+    boolean hasFailures() {
+      return failureCount.get() > 0;
     }
 
     @Override
     public String toString() {
-      List<ExpectationFailure> failures = getFailures();
-      int numFailures = failures.size();
+      List<ExpectationFailure> sortedFailures = new ArrayList<ExpectationFailure>(failures);
+      Collections.sort(sortedFailures, ExpectationFailure.BY_NUMBER);
+      int failureCount = this.failureCount.get();
       StringBuilder message =
           new StringBuilder(
-              numFailures + (numFailures > 1 ? " expectations" : " expectation") + " failed:\n");
-      int count = 0;
-      for (ExpectationFailure failure : failures) {
-        count++;
+              failureCount + (failureCount > 1 ? " expectations" : " expectation") + " failed:\n");
+      for (ExpectationFailure failure : sortedFailures) {
         message.append("  ");
-        message.append(count);
+        message.append(failure.number());
         message.append(". ");
+        if (failure.threadName() != null) {
+          message.append("(in thread ");
+          message.append(failure.threadName());
+          message.append(") ");
+        }
         message.append(failure.message());
         message.append("\n");
-        if (showStackTrace) {
-          Throwable cause = failure.cause();
-          StackTraceCleaner.cleanStackTrace(cause);
-          message.append(getStackTraceAsString(cause));
+        Throwable stackTrace = failure.stackTrace();
+        if (stackTrace != null) {
+          StackTraceCleaner.cleanStackTrace(stackTrace);
+          message.append(getStackTraceAsString(stackTrace));
           message.append("\n");
         }
       }
+      int unreported = failureCount - sortedFailures.size();
+      if (unreported > 0) {
+        message.append("  (");
+        message.append(unreported);
+        message.append(unreported > 1 ? " more failures" : " more failure");
+        message.append(" not reported)\n");
+      }
 
       return message.toString();
     }
@@ -108,27 +160,59 @@ public final class Expect extends StandardSubjectBuilder implements TestRule {
 
   // TODO(cpovirk): Eliminate this in favor of just storing an AssertionError.
   private static final class ExpectationFailure {
+    static final Comparator<ExpectationFailure> BY_NUMBER =
+        new Comparator<ExpectationFailure>() {
+          @Override
+          public int compare(ExpectationFailure a, ExpectationFailure b) {
+            return Ints.compare(a.number, b.number);
+          }
+        };
+
+    private final int number;
+    @Nullable private final String threadName;
     private final String message;
-    private final Throwable cause;
+    @Nullable private final Throwable stackTrace;
 
-    ExpectationFailure(String message, Throwable cause) {
+    ExpectationFailure(
+        int number, @Nullable String threadName, String message, @Nullable Throwable stackTrace) {
+      this.number = number;
+      this.threadName = threadName;
       this.message = checkNotNull(message);
-      this.cause = cause;
+      this.stackTrace = stackTrace;
+    }
+
+    /** Returns the position of this failure among all those recorded, starting at 1. */
+    int number() {
+      return number;
+    }
+
+    /**
+     * Returns the name of the thread that recorded this failure, or null if it was the thread
+     * running the test.
+     */
+    @Nullable
+    String threadName() {
+      return threadName;
     }
 
     String message() {
       return message;
     }
 
-    Throwable cause() {
-      return cause;
+    /** Returns the stack trace captured for this failure, or null if none was captured. */
+    @Nullable
+    Throwable stackTrace() {
+      return stackTrace;
     }
 
     @Override
     public boolean equals(@Nullable Object other) {
       if (other instanceof ExpectationFailure) {
         ExpectationFailure that = (ExpectationFailure) other;
-        return this.message.equals(that.message) && Objects.equal(this.cause, that.cause);
+        return this.number == that.number
+            && Objects.equal(this.threadName, that.threadName)
+            && this.message.equals(that.message)
+            && Objects.equal(this.stackTrace, that.stackTrace);
       } else {
         return false;
       }
@@ -136,19 +220,50 @@ public final class Expect extends StandardSubjectBuilder implements TestRule {
 
     @Override
     public int hashCode() {
-      return Objects.hashCode(message, cause);
+      return Objects.hashCode(number, threadName, message, stackTrace);
     }
   }
 
   private final ExpectationGatherer gatherer;
-  private boolean inRuleContext = false;
+  private volatile boolean inRuleContext = false;
 
+  /**
+   * Creates an {@code Expect} that reports every failure, without stack traces. No stack trace is
+   * captured when a failure is recorded, and none is printed, not even that of an exception which
+   * the failure carries as its cause.
+   */
   public static Expect create() {
-    return new Expect(new ExpectationGatherer(false /* showStackTrace */));
+    return new Expect(new ExpectationGatherer(0, Integer.MAX_VALUE));
   }
 
+  /** Creates an {@code Expect} that reports every failure, each with its stack trace. */
   public static Expect createAndEnableStackTrace() {
-    return new Expect(new ExpectationGatherer(true /* showStackTrace */));
+    return createAndEnableStackTrace(Integer.MAX_VALUE);
+  }
+
+  /**
+   * Creates an {@code Expect} that reports every failure, with stack traces for only the first
+   * {@code maxStackTraces} of them. Stack traces are not captured at all for the later failures,
+   * which makes recording them much cheaper in tests that may record very many failures.
+   */
+  public static Expect createAndEnableStackTrace(int maxStackTraces) {
+    checkArgument(maxStackTraces >= 0, "maxStackTraces (%s) must be >= 0", maxStackTraces);
+    return new Expect(new ExpectationGatherer(maxStackTraces, Integer.MAX_VALUE));
+  }
+
+  /**
+   * Creates an {@code Expect} that reports only the first {@code maxFailuresReported} failures,
+   * without stack traces. Any later failures are counted, and the test still fails, but they are
+   * not stored or included in the message. This suits data-driven tests in which a bug may cause
+   * thousands of checks to fail in the same way.
+   *
+   * <p>If the test throws an exception after failures have been recorded, that exception is always
+   * reported.
+   */
+  public static Expect createReportingAtMost(int maxFailuresReported) {
+    checkArgument(
+        maxFailuresReported > 0, "maxFailuresReported (%s) must be > 0", maxFailuresReported);
+    return new Expect(new ExpectationGatherer(0, maxFailuresReported));
   }
 
   private Expect(ExpectationGatherer gatherer) {
@@ -157,7 +272,7 @@ public final class Expect extends StandardSubjectBuilder implements TestRule {
   }
 
   public boolean hasFailures() {
-    return !gatherer.getFailures().isEmpty();
+    return gatherer.hasFailures();
   }
 
   @Override
@@ -174,22 +289,24 @@ public final class Expect extends StandardSubjectBuilder implements TestRule {
       @Override
       public void evaluate() throws Throwable {
         inRuleContext = true;
+        gatherer.setTestThread(Thread.currentThread());
         try {
           base.evaluate();
         } catch (Throwable t) {
-          if (!gatherer.getFailures().isEmpty()) {
+          if (gatherer.hasFailures()) {
             String message =
                 t instanceof AssumptionViolatedException
                     ? "Failures occurred before an assumption was violated"
                     : "Failures occurred before an exception was thrown while the test was running";
-            gatherer.fail(message + ": " + t, t);
+            gatherer.failAlwaysReporting(message + ": " + t, t);
           } else {
             throw t;
           }
         } finally {
           inRuleContext = false;
+          gatherer.setTestThread(null);
         }
-        if (!gatherer.getFailures().isEmpty()) {
+        if (gatherer.hasFailures()) {
           throw new AssertionError(gatherer.toString());
         }
       }
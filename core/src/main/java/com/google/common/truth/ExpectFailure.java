@@ -19,7 +19,11 @@ import static com.google.common.base.Preconditions.checkNotNull;
 import static com.google.common.base.Preconditions.checkState;
 
 import com.google.common.base.Throwables;
+import java.io.PrintStream;
+import java.io.PrintWriter;
+import java.io.Serializable;
 import javax.annotation.Nullable;
+import org.junit.ComparisonFailure;
 import org.junit.rules.TestRule;
 import org.junit.runner.Description;
 import org.junit.runners.model.Statement;
@@ -60,29 +64,24 @@ import org.junit.runners.model.Statement;
  * FailureStrategy#fail} only once.
  */
 public final class ExpectFailure implements TestRule {
+  /**
+   * Builds the same errors as {@link Truth#THROW_ASSERTION_ERROR}, but captures them instead of
+   * throwing them, and leaves cleaning their stack traces until they are read.
+   */
   private final FailureStrategy strategy =
       new AbstractFailureStrategy() {
         @Override
         public void fail(String message, Throwable cause) {
-          try {
-            Truth.THROW_ASSERTION_ERROR.fail(message, cause);
-          } catch (AssertionError e) {
-            captureFailure(e);
-            return;
-          }
-          throw new AssertionError("fail() unexpectedly succeeded.");
+          captureFailure(Truth.tryToAddCause(new CapturedAssertionError(message), cause));
         }
 
         @Override
         public void failComparing(
             String message, CharSequence expected, CharSequence actual, Throwable cause) {
-          try {
-            Truth.THROW_ASSERTION_ERROR.failComparing(message, expected, actual, cause);
-          } catch (AssertionError e) {
-            captureFailure(e);
-            return;
-          }
-          throw new AssertionError("fail() unexpectedly succeeded.");
+          captureFailure(
+              Truth.tryToAddCause(
+                  new CapturedComparisonFailure(message, expected.toString(), actual.toString()),
+                  cause));
         }
       };
 
@@ -136,6 +135,87 @@ public final class ExpectFailure implements TestRule {
     failure = captured;
   }
 
+  /**
+   * Cleans the stack trace of a captured failure the first time any of its stack trace methods is
+   * called. Most tests inspect only the message of the failure they expect, so most captured
+   * failures never need their stack traces turned into {@link StackTraceElement} objects, which is
+   * most of the cost of cleaning them.
+   */
+  private static final class LazyStackTraceCleaner implements Serializable {
+    private final Throwable failure;
+    private boolean cleaned;
+
+    LazyStackTraceCleaner(Throwable failure) {
+      this.failure = failure;
+    }
+
+    synchronized void cleanIfNeeded() {
+      if (!cleaned) {
+        // Set first: cleaning reads the stack trace through the methods that call this one.
+        cleaned = true;
+        StackTraceCleaner.cleanStackTrace(failure);
+      }
+    }
+
+    private static final long serialVersionUID = 0;
+  }
+
+  private static final class CapturedAssertionError extends AssertionError {
+    private final LazyStackTraceCleaner cleaner = new LazyStackTraceCleaner(this);
+
+    CapturedAssertionError(String message) {
+      super(message);
+    }
+
+    @Override
+    public StackTraceElement[] getStackTrace() {
+      cleaner.cleanIfNeeded();
+      return super.getStackTrace();
+    }
+
+    @Override
+    public void printStackTrace(PrintStream s) {
+      cleaner.cleanIfNeeded();
+      super.printStackTrace(s);
+    }
+
+    @Override
+    public void printStackTrace(PrintWriter s) {
+      cleaner.cleanIfNeeded();
+      super.printStackTrace(s);
+    }
+
+    private static final long serialVersionUID = 0;
+  }
+
+  private static final class CapturedComparisonFailure extends ComparisonFailure {
+    private final LazyStackTraceCleaner cleaner = new LazyStackTraceCleaner(this);
+
+    CapturedComparisonFailure(String message, String expected, String actual) {
+      super(message, expected, actual);
+    }
+
+    @Override
+    public StackTraceElement[] getStackTrace() {
+      cleaner.cleanIfNeeded();
+      return super.getStackTrace();
+    }
+
+    @Override
+    public void printStackTrace(PrintStream s) {
+      cleaner.cleanIfNeeded();
+      super.printStackTrace(s);
+    }
+
+    @Override
+    public void printStackTrace(PrintWriter s) {
+      cleaner.cleanIfNeeded();
+      super.printStackTrace(s);
+    }
+
+    private static final long serialVersionUID = 0;
+  }
+
   /**
    * Static alternative that directly returns the triggered failure. This is intended to be used in
    * Java 8 tests similar to {@code expectThrows()}:
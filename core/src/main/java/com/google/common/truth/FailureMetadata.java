@@ -20,7 +20,6 @@ import static com.google.common.base.Preconditions.checkNotNull;
 
 import com.google.common.annotations.VisibleForTesting;
 import com.google.common.base.Joiner;
-import com.google.common.collect.ImmutableList;
 import javax.annotation.Nullable;
 
 /**
@@ -44,23 +43,26 @@ import javax.annotation.Nullable;
  */
 public final class FailureMetadata {
   static FailureMetadata forFailureStrategy(FailureStrategy failureStrategy) {
-    return new FailureMetadata(failureStrategy, ImmutableList.<Message>of(), null);
+    return new FailureMetadata(failureStrategy, null, null);
   }
 
   private final FailureStrategy strategy;
-  private final ImmutableList<Message> messages;
+  // The most recently added message, which links to those added before it, or null if none.
+  @Nullable private final Message lastMessage;
   // TODO(cpovirk): Maybe store a root *object*, too, or even a full chain of objects.
   @Nullable private final Throwable rootCause;
+  // Shared by every subject created with this instance, so creating a subject doesn't allocate it.
+  private final FailureStrategy legacyStrategy = new MessageAddingFailureStrategy();
 
-  FailureMetadata(
-      FailureStrategy strategy, ImmutableList<Message> messages, @Nullable Throwable rootCause) {
+  private FailureMetadata(
+      FailureStrategy strategy, @Nullable Message lastMessage, @Nullable Throwable rootCause) {
     this.strategy = checkNotNull(strategy);
-    this.messages = checkNotNull(messages);
+    this.lastMessage = lastMessage;
     this.rootCause = rootCause;
   }
 
   FailureStrategy legacyStrategy() {
-    return new MessageAddingFailureStrategy();
+    return legacyStrategy;
   }
 
   /**
@@ -71,35 +73,46 @@ public final class FailureMetadata {
    */
   FailureMetadata offerRootCause(Throwable rootCause) {
     checkNotNull(rootCause);
-    return this.rootCause == null ? new FailureMetadata(strategy, messages, rootCause) : this;
+    return this.rootCause == null ? new FailureMetadata(strategy, lastMessage, rootCause) : this;
   }
 
   /**
    * Returns a new instance whose failures will contain the given message. The way for Truth users
    * to set a message is {@code check().withMessage(...).that(...)} (for calls from within a {@code
    * Subject}) or {@link Truth#assertWithMessage} (for most other calls).
+   *
+   * <p>The existing messages are shared with this instance rather than copied, and the format
+   * string is only checked against its arguments if a failure message is actually built.
    */
   FailureMetadata withMessage(String format, Object[] args) {
-    return new FailureMetadata(strategy, prepend(messages, new Message(format, args)), rootCause);
+    return new FailureMetadata(strategy, new Message(lastMessage, format, args), rootCause);
   }
 
+  /**
+   * A message added by {@code withMessage}, as a node in a persistent list: each message links to
+   * the one added before it, so that instances derived from the same parent share its messages.
+   */
   private static final class Message {
     private static final String PLACEHOLDER_ERR =
         "Incorrect number of args (%s) for the given placeholders (%s) in string template:\"%s\"";
 
+    @Nullable private final Message previous;
+    private final int size;
     private final String format;
     private final Object[] args;
 
-    Message(@Nullable String format, @Nullable Object... args) {
+    Message(@Nullable Message previous, @Nullable String format, @Nullable Object... args) {
+      this.previous = previous;
+      this.size = previous == null ? 1 : previous.size + 1;
       this.format = format;
       this.args = args;
-      int placeholders = countPlaceholders(format);
-      checkArgument(
-          placeholders == args.length, PLACEHOLDER_ERR, args.length, placeholders, format);
     }
 
     @Override
     public String toString() {
+      int placeholders = countPlaceholders(format);
+      checkArgument(
+          placeholders == args.length, PLACEHOLDER_ERR, args.length, placeholders, format);
       return StringUtil.format(format, args);
     }
   }
@@ -130,8 +143,12 @@ public final class FailureMetadata {
 
     private String addToMessage(String body) {
       StringBuilder result = new StringBuilder(body.length());
-      Joiner.on(": ").appendTo(result, messages);
-      if (!messages.isEmpty()) {
+      if (lastMessage != null) {
+        Message[] messages = new Message[lastMessage.size];
+        for (Message message = lastMessage; message != null; message = message.previous) {
+          messages[message.size - 1] = message;
+        }
+        Joiner.on(": ").appendTo(result, messages);
         if (body.isEmpty()) {
           /*
            * The only likely case of an empty body is with failComparing(). In that case, we still
@@ -178,8 +195,4 @@ public final class FailureMetadata {
     }
     return count;
   }
-
-  private static ImmutableList<Message> prepend(ImmutableList<Message> messages, Message message) {
-    return ImmutableList.<Message>builder().addAll(messages).add(message).build();
-  }
 }
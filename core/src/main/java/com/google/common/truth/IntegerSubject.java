@@ -41,6 +41,50 @@ public class IntegerSubject extends ComparableSubject<IntegerSubject, Integer> {
     super(metadata, integer);
   }
 
+  /**
+   * Fails if the subject is not equal to the given value. This is equivalent to {@link
+   * #isEqualTo(Object)}.
+   */
+  public final void isEqualTo(int other) {
+    Integer actual = actual();
+    if (actual == null || actual != other || AssertionEvents.isListening()) {
+      isEqualTo((Object) other);
+    }
+  }
+
+  /**
+   * Fails if the subject is equal to the given value. This is equivalent to {@link
+   * #isNotEqualTo(Object)}.
+   */
+  public final void isNotEqualTo(int other) {
+    Integer actual = actual();
+    if ((actual != null && actual == other) || AssertionEvents.isListening()) {
+      isNotEqualTo((Object) other);
+    }
+  }
+
+  /**
+   * Fails if the subject is not numerically equal to the given character. This overload exists so
+   * that {@code char} arguments are shown as characters, rather than numbers, in failure messages.
+   */
+  public final void isEqualTo(char other) {
+    Integer actual = actual();
+    if (actual == null || actual != other || AssertionEvents.isListening()) {
+      isEqualTo((Object) other);
+    }
+  }
+
+  /**
+   * Fails if the subject is numerically equal to the given character. This overload exists so that
+   * {@code char} arguments are shown as characters, rather than numbers, in failure messages.
+   */
+  public final void isNotEqualTo(char other) {
+    Integer actual = actual();
+    if ((actual != null && actual == other) || AssertionEvents.isListening()) {
+      isNotEqualTo((Object) other);
+    }
+  }
+
   /** @deprecated Use {@link #isEqualTo} instead. Integer comparison is consistent with equality. */
   @Override
   @Deprecated
@@ -44,6 +44,7 @@ import com.google.common.collect.Multiset;
 import com.google.common.collect.Multiset.Entry;
 import com.google.common.collect.Ordering;
 import com.google.common.collect.Sets;
+import com.google.common.truth.AssertionListener.Check;
 import com.google.errorprone.annotations.CanIgnoreReturnValue;
 import java.util.ArrayList;
 import java.util.Collection;
@@ -135,46 +136,67 @@ public class IterableSubject extends Subject<IterableSubject, Iterable<?>> {
 
   /** Attests (with a side-effect failure) that the subject contains the supplied item. */
   public final void contains(@Nullable Object element) {
-    if (!Iterables.contains(actual(), element)) {
-      List<Object> elementList = Lists.newArrayList(element);
-      if (hasMatchingToStringPair(actual(), elementList)) {
-        failWithRawMessage(
-            "%s should have contained <%s (%s)> but doesn't. However, it does contain <%s>.",
-            actualAsString(),
-            element,
-            objectToTypeName(element),
-            countDuplicatesAndAddTypeInfo(
-                retainMatchingToString(actual(), elementList /* itemsToCheck */)));
-      } else {
-        failWithRawMessage("%s should have contained <%s>", actualAsString(), element);
+    Check check = startCheck("contains", element);
+    try {
+      if (!Iterables.contains(actual(), element)) {
+        List<Object> elementList = Lists.newArrayList(element);
+        if (hasMatchingToStringPair(actual(), elementList)) {
+          failWithRawMessage(
+              "%s should have contained <%s (%s)> but doesn't. However, it does contain <%s>.",
+              actualAsString(),
+              element,
+              objectToTypeName(element),
+              countDuplicatesAndAddTypeInfo(
+                  retainMatchingToString(actual(), elementList /* itemsToCheck */)));
+        } else {
+          failWithRawMessage("%s should have contained <%s>", actualAsString(), element);
+        }
       }
+    } finally {
+      finishCheck(check);
     }
   }
 
   /** Attests (with a side-effect failure) that the subject does not contain the supplied item. */
   public final void doesNotContain(@Nullable Object element) {
-    if (Iterables.contains(actual(), element)) {
-      failWithRawMessage("%s should not have contained <%s>", actualAsString(), element);
+    Check check = startCheck("doesNotContain", element);
+    try {
+      if (Iterables.contains(actual(), element)) {
+        failWithRawMessage("%s should not have contained <%s>", actualAsString(), element);
+      }
+    } finally {
+      finishCheck(check);
     }
   }
 
   /** Attests that the subject does not contain duplicate elements. */
   public final void containsNoDuplicates() {
-    List<Entry<?>> duplicates = Lists.newArrayList();
-    for (Multiset.Entry<?> entry : LinkedHashMultiset.create(actual()).entrySet()) {
-      if (entry.getCount() > 1) {
-        duplicates.add(entry);
+    Check check = startCheck("containsNoDuplicates", null);
+    try {
+      List<Entry<?>> duplicates = Lists.newArrayList();
+      for (Multiset.Entry<?> entry : LinkedHashMultiset.create(actual()).entrySet()) {
+        if (entry.getCount() > 1) {
+          duplicates.add(entry);
+        }
       }
-    }
-    if (!duplicates.isEmpty()) {
-      failWithRawMessage("%s has the following duplicates: <%s>", actualAsString(), duplicates);
+      if (!duplicates.isEmpty()) {
+        failWithRawMessage("%s has the following duplicates: <%s>", actualAsString(), duplicates);
+      }
+    } finally {
+      finishCheck(check);
     }
   }
 
   /** Attests that the subject contains at least one of the provided objects or fails. */
   public final void containsAnyOf(
       @Nullable Object first, @Nullable Object second, @Nullable Object... rest) {
-    containsAny("contains any of", accumulate(first, second, rest));
+    List<Object> expected = accumulate(first, second, rest);
+    Check check = startCheck("containsAnyOf", expected);
+    try {
+      containsAny("contains any of", expected);
+    } finally {
+      finishCheck(check);
+    }
   }
 
   /**
@@ -182,7 +204,12 @@ public class IterableSubject extends Subject<IterableSubject, Iterable<?>> {
    * collection or fails.
    */
   public final void containsAnyIn(Iterable<?> expected) {
-    containsAny("contains any element in", expected);
+    Check check = startCheck("containsAnyIn", expected);
+    try {
+      containsAny("contains any element in", expected);
+    } finally {
+      finishCheck(check);
+    }
   }
 
   private void containsAny(String failVerb, Iterable<?> expected) {
@@ -219,8 +246,13 @@ public class IterableSubject extends Subject<IterableSubject, Iterable<?>> {
       @Nullable Object firstExpected,
       @Nullable Object secondExpected,
       @Nullable Object... restOfExpected) {
-    return containsAll(
-        "contains all of", accumulate(firstExpected, secondExpected, restOfExpected));
+    List<Object> expected = accumulate(firstExpected, secondExpected, restOfExpected);
+    Check check = startCheck("containsAllOf", expected);
+    try {
+      return containsAll("contains all of", expected);
+    } finally {
+      finishCheck(check);
+    }
   }
 
   /**
@@ -234,10 +266,20 @@ public class IterableSubject extends Subject<IterableSubject, Iterable<?>> {
    */
   @CanIgnoreReturnValue
   public final Ordered containsAllIn(Iterable<?> expected) {
-    return containsAll("contains all elements in", expected);
+    Check check = startCheck("containsAllIn", expected);
+    try {
+      return containsAll("contains all elements in", expected);
+    } finally {
+      finishCheck(check);
+    }
   }
 
-  private Ordered containsAll(String failVerb, Iterable<?> expectedIterable) {
+  /**
+   * Implementation of {@link #containsAllOf} and {@link #containsAllIn}. Subclasses whose actual
+   * value supports a cheaper check against certain kinds of expected iterables (e.g., {@link
+   * MultisetSubject}) may override this, delegating to this implementation otherwise.
+   */
+  Ordered containsAll(String failVerb, Iterable<?> expectedIterable) {
     List<?> actual = Lists.newLinkedList(actual());
     Collection<?> expected = iterableToCollection(expectedIterable);
 
@@ -306,8 +348,13 @@ public class IterableSubject extends Subject<IterableSubject, Iterable<?>> {
   @CanIgnoreReturnValue
   public final Ordered containsExactly(@Nullable Object... varargs) {
     List<Object> expected = (varargs == null) ? Lists.newArrayList((Object) null) : asList(varargs);
-    return containsExactlyElementsIn(
-        expected, varargs != null && varargs.length == 1 && varargs[0] instanceof Iterable);
+    Check check = startCheck("containsExactly", expected);
+    try {
+      return containsExactlyElementsIn(
+          expected, varargs != null && varargs.length == 1 && varargs[0] instanceof Iterable);
+    } finally {
+      finishCheck(check);
+    }
   }
 
   /**
@@ -322,10 +369,20 @@ public class IterableSubject extends Subject<IterableSubject, Iterable<?>> {
    */
   @CanIgnoreReturnValue
   public final Ordered containsExactlyElementsIn(Iterable<?> expected) {
-    return containsExactlyElementsIn(expected, false);
+    Check check = startCheck("containsExactlyElementsIn", expected);
+    try {
+      return containsExactlyElementsIn(expected, false);
+    } finally {
+      finishCheck(check);
+    }
   }
 
-  private Ordered containsExactlyElementsIn(Iterable<?> required, boolean addElementsInWarning) {
+  /**
+   * Implementation of {@link #containsExactlyElementsIn(Iterable)}. Subclasses whose actual value
+   * supports a cheaper comparison against certain kinds of {@code required} iterables (e.g.,
+   * {@link SortedSetSubject}) may override this, delegating to this implementation otherwise.
+   */
+  Ordered containsExactlyElementsIn(Iterable<?> required, boolean addElementsInWarning) {
     String failSuffix =
         addElementsInWarning
             ? ". Passing an iterable to the varargs method containsExactly(Object...) is "
@@ -475,7 +532,13 @@ public class IterableSubject extends Subject<IterableSubject, Iterable<?>> {
       @Nullable Object firstExcluded,
       @Nullable Object secondExcluded,
       @Nullable Object... restOfExcluded) {
-    containsNone("contains none of", accumulate(firstExcluded, secondExcluded, restOfExcluded));
+    List<Object> excluded = accumulate(firstExcluded, secondExcluded, restOfExcluded);
+    Check check = startCheck("containsNoneOf", excluded);
+    try {
+      containsNone("contains none of", excluded);
+    } finally {
+      finishCheck(check);
+    }
   }
 
   /**
@@ -484,7 +547,12 @@ public class IterableSubject extends Subject<IterableSubject, Iterable<?>> {
    * equal any of the excluded.)
    */
   public final void containsNoneIn(Iterable<?> excluded) {
-    containsNone("contains no elements in", excluded);
+    Check check = startCheck("containsNoneIn", excluded);
+    try {
+      containsNone("contains no elements in", excluded);
+    } finally {
+      finishCheck(check);
+    }
   }
 
   private void containsNone(String failVerb, Iterable<?> excluded) {
@@ -502,7 +570,7 @@ public class IterableSubject extends Subject<IterableSubject, Iterable<?>> {
   }
 
   /** Ordered implementation that always fails. */
-  private class NotInOrder implements Ordered {
+  class NotInOrder implements Ordered {
     private final String check;
     private final Iterable<?> required;
 
@@ -518,14 +586,14 @@ public class IterableSubject extends Subject<IterableSubject, Iterable<?>> {
   }
 
   /** Ordered implementation that does nothing because it's already known to be true. */
-  private static final Ordered IN_ORDER =
+  static final Ordered IN_ORDER =
       new Ordered() {
         @Override
         public void inOrder() {}
       };
 
   /** Ordered implementation that does nothing because an earlier check already caused a failure. */
-  private static final Ordered ALREADY_FAILED =
+  static final Ordered ALREADY_FAILED =
       new Ordered() {
         @Override
         public void inOrder() {}
@@ -665,27 +733,37 @@ public class IterableSubject extends Subject<IterableSubject, Iterable<?>> {
      * element.
      */
     public void contains(@Nullable E expected) {
-      for (A actual : getCastActual()) {
-        if (correspondence.compare(actual, expected)) {
-          return;
+      Check check = startCheck("comparingElementsUsing.contains", expected);
+      try {
+        for (A actual : getCastActual()) {
+          if (correspondence.compare(actual, expected)) {
+            return;
+          }
         }
+        fail("contains at least one element that " + correspondence, expected);
+      } finally {
+        finishCheck(check);
       }
-      fail("contains at least one element that " + correspondence, expected);
     }
 
     /** Attests that none of the actual elements correspond to the given element. */
     public void doesNotContain(@Nullable E excluded) {
-      List<A> matchingElements = new ArrayList<A>();
-      for (A actual : getCastActual()) {
-        if (correspondence.compare(actual, excluded)) {
-          matchingElements.add(actual);
+      Check check = startCheck("comparingElementsUsing.doesNotContain", excluded);
+      try {
+        List<A> matchingElements = new ArrayList<A>();
+        for (A actual : getCastActual()) {
+          if (correspondence.compare(actual, excluded)) {
+            matchingElements.add(actual);
+          }
         }
-      }
-      if (!matchingElements.isEmpty()) {
-        failWithRawMessage(
-            "%s should not have contained an element that %s <%s>. "
-                + "It contained the following such elements: <%s>",
-            actualAsString(), correspondence, excluded, matchingElements);
+        if (!matchingElements.isEmpty()) {
+          failWithRawMessage(
+              "%s should not have contained an element that %s <%s>. "
+                  + "It contained the following such elements: <%s>",
+              actualAsString(), correspondence, excluded, matchingElements);
+        }
+      } finally {
+        finishCheck(check);
       }
     }
 
@@ -700,8 +778,13 @@ public class IterableSubject extends Subject<IterableSubject, Iterable<?>> {
     @SafeVarargs
     @CanIgnoreReturnValue
     public final Ordered containsExactly(@Nullable E... expected) {
-      return containsExactlyElementsIn(
-          (expected == null) ? Lists.newArrayList((E) null) : asList(expected));
+      List<E> expectedList = (expected == null) ? Lists.newArrayList((E) null) : asList(expected);
+      Check check = startCheck("comparingElementsUsing.containsExactly", expectedList);
+      try {
+        return containsExactlyElementsIn(expectedList);
+      } finally {
+        finishCheck(check);
+      }
     }
 
     /**
@@ -714,34 +797,39 @@ public class IterableSubject extends Subject<IterableSubject, Iterable<?>> {
      */
     @CanIgnoreReturnValue
     public Ordered containsExactlyElementsIn(Iterable<? extends E> expected) {
-      List<A> actualList = iterableToList(getCastActual());
-      List<? extends E> expectedList = iterableToList(expected);
-      // Check if the elements correspond in order. This allows the common case of a passing test
-      // using inOrder() to complete in linear time.
-      if (correspondInOrderExactly(actualList.iterator(), expectedList.iterator())) {
-        return IN_ORDER;
-      }
-      // We know they don't correspond in order, so we're going to have to do an any-order test.
-      // Find a many:many mapping between the indexes of the elements which correspond, and check
-      // it for completeness.
-      ImmutableSetMultimap<Integer, Integer> candidateMapping =
-          findCandidateMapping(actualList, expectedList);
-      if (failIfCandidateMappingHasMissingOrExtra(actualList, expectedList, candidateMapping)) {
-        return ALREADY_FAILED;
-      }
-      // We know that every expected element maps to at least one actual element, and vice versa.
-      // Find a maximal 1:1 mapping, and check it for completeness.
-      ImmutableBiMap<Integer, Integer> maximalOneToOneMapping =
-          findMaximalOneToOneMapping(candidateMapping);
-      if (failIfOneToOneMappingHasMissingOrExtra(
-          actualList, expectedList, maximalOneToOneMapping)) {
-        return ALREADY_FAILED;
+      Check check = startCheck("comparingElementsUsing.containsExactlyElementsIn", expected);
+      try {
+        List<A> actualList = iterableToList(getCastActual());
+        List<? extends E> expectedList = iterableToList(expected);
+        // Check if the elements correspond in order. This allows the common case of a passing test
+        // using inOrder() to complete in linear time.
+        if (correspondInOrderExactly(actualList.iterator(), expectedList.iterator())) {
+          return IN_ORDER;
+        }
+        // We know they don't correspond in order, so we're going to have to do an any-order test.
+        // Find a many:many mapping between the indexes of the elements which correspond, and check
+        // it for completeness.
+        ImmutableSetMultimap<Integer, Integer> candidateMapping =
+            findCandidateMapping(actualList, expectedList);
+        if (failIfCandidateMappingHasMissingOrExtra(actualList, expectedList, candidateMapping)) {
+          return ALREADY_FAILED;
+        }
+        // We know that every expected element maps to at least one actual element, and vice versa.
+        // Find a maximal 1:1 mapping, and check it for completeness.
+        ImmutableBiMap<Integer, Integer> maximalOneToOneMapping =
+            findMaximalOneToOneMapping(candidateMapping);
+        if (failIfOneToOneMappingHasMissingOrExtra(
+            actualList, expectedList, maximalOneToOneMapping)) {
+          return ALREADY_FAILED;
+        }
+        // The 1:1 mapping is complete, so the test succeeds (but we know from above that the
+        // mapping is not in order).
+        return new NotInOrder(
+            "contains, in order, exactly one element that " + correspondence + " each element of",
+            expected);
+      } finally {
+        finishCheck(check);
       }
-      // The 1:1 mapping is complete, so the test succeeds (but we know from above that the mapping
-      // is not in order).
-      return new NotInOrder(
-          "contains, in order, exactly one element that " + correspondence + " each element of",
-          expected);
     }
 
     /**
@@ -930,7 +1018,13 @@ public class IterableSubject extends Subject<IterableSubject, Iterable<?>> {
     @SafeVarargs
     @CanIgnoreReturnValue
     public final Ordered containsAllOf(@Nullable E first, @Nullable E second, @Nullable E... rest) {
-      return containsAllIn(accumulate(first, second, rest));
+      List<E> expected = accumulate(first, second, rest);
+      Check check = startCheck("comparingElementsUsing.containsAllOf", expected);
+      try {
+        return containsAllIn(expected);
+      } finally {
+        finishCheck(check);
+      }
     }
 
     /**
@@ -944,33 +1038,38 @@ public class IterableSubject extends Subject<IterableSubject, Iterable<?>> {
      */
     @CanIgnoreReturnValue
     public Ordered containsAllIn(Iterable<? extends E> expected) {
-      List<A> actualList = iterableToList(getCastActual());
-      List<? extends E> expectedList = iterableToList(expected);
-      // Check if the expected elements correspond in order to any subset of the actual elements.
-      // This allows the common case of a passing test using inOrder() to complete in linear time.
-      if (correspondInOrderAllIn(actualList.iterator(), expectedList.iterator())) {
-        return IN_ORDER;
-      }
-      // We know they don't correspond in order, so we're going to have to do an any-order test.
-      // Find a many:many mapping between the indexes of the elements which correspond, and check
-      // it for completeness.
-      ImmutableSetMultimap<Integer, Integer> candidateMapping =
-          findCandidateMapping(actualList, expectedList);
-      if (failIfCandidateMappingHasMissing(expectedList, candidateMapping)) {
-        return ALREADY_FAILED;
-      }
-      // We know that every expected element maps to at least one actual element, and vice versa.
-      // Find a maximal 1:1 mapping, and check it for completeness.
-      ImmutableBiMap<Integer, Integer> maximalOneToOneMapping =
-          findMaximalOneToOneMapping(candidateMapping);
-      if (failIfOneToOneMappingHasMissing(expectedList, maximalOneToOneMapping)) {
-        return ALREADY_FAILED;
+      Check check = startCheck("comparingElementsUsing.containsAllIn", expected);
+      try {
+        List<A> actualList = iterableToList(getCastActual());
+        List<? extends E> expectedList = iterableToList(expected);
+        // Check if the expected elements correspond in order to any subset of the actual elements.
+        // This allows the common case of a passing test using inOrder() to complete in linear time.
+        if (correspondInOrderAllIn(actualList.iterator(), expectedList.iterator())) {
+          return IN_ORDER;
+        }
+        // We know they don't correspond in order, so we're going to have to do an any-order test.
+        // Find a many:many mapping between the indexes of the elements which correspond, and check
+        // it for completeness.
+        ImmutableSetMultimap<Integer, Integer> candidateMapping =
+            findCandidateMapping(actualList, expectedList);
+        if (failIfCandidateMappingHasMissing(expectedList, candidateMapping)) {
+          return ALREADY_FAILED;
+        }
+        // We know that every expected element maps to at least one actual element, and vice versa.
+        // Find a maximal 1:1 mapping, and check it for completeness.
+        ImmutableBiMap<Integer, Integer> maximalOneToOneMapping =
+            findMaximalOneToOneMapping(candidateMapping);
+        if (failIfOneToOneMappingHasMissing(expectedList, maximalOneToOneMapping)) {
+          return ALREADY_FAILED;
+        }
+        // The 1:1 mapping maps all the expected elements, so the test succeeds (but we know from
+        // above that the mapping is not in order).
+        return new NotInOrder(
+            "contains, in order, at least one element that " + correspondence + " each element of",
+            expected);
+      } finally {
+        finishCheck(check);
       }
-      // The 1:1 mapping maps all the expected elements, so the test succeeds (but we know from
-      // above that the mapping is not in order).
-      return new NotInOrder(
-          "contains, in order, at least one element that " + correspondence + " each element of",
-          expected);
     }
 
     /**
@@ -1056,9 +1155,15 @@ public class IterableSubject extends Subject<IterableSubject, Iterable<?>> {
      */
     @SafeVarargs
     public final void containsAnyOf(@Nullable E first, @Nullable E second, @Nullable E... rest) {
-      containsAny(
-          StringUtil.format("contains at least one element that %s any of", correspondence),
-          accumulate(first, second, rest));
+      List<E> expected = accumulate(first, second, rest);
+      Check check = startCheck("comparingElementsUsing.containsAnyOf", expected);
+      try {
+        containsAny(
+            StringUtil.format("contains at least one element that %s any of", correspondence),
+            expected);
+      } finally {
+        finishCheck(check);
+      }
     }
 
     /**
@@ -1066,9 +1171,15 @@ public class IterableSubject extends Subject<IterableSubject, Iterable<?>> {
      * the expected elements.
      */
     public void containsAnyIn(Iterable<? extends E> expected) {
-      containsAny(
-          StringUtil.format("contains at least one element that %s any element in", correspondence),
-          expected);
+      Check check = startCheck("comparingElementsUsing.containsAnyIn", expected);
+      try {
+        containsAny(
+            StringUtil.format(
+                "contains at least one element that %s any element in", correspondence),
+            expected);
+      } finally {
+        finishCheck(check);
+      }
     }
 
     private void containsAny(String failVerb, Iterable<? extends E> expected) {
@@ -1091,7 +1202,13 @@ public class IterableSubject extends Subject<IterableSubject, Iterable<?>> {
     @SafeVarargs
     public final void containsNoneOf(
         @Nullable E firstExcluded, @Nullable E secondExcluded, @Nullable E... restOfExcluded) {
-      containsNone("any of", accumulate(firstExcluded, secondExcluded, restOfExcluded));
+      List<E> excluded = accumulate(firstExcluded, secondExcluded, restOfExcluded);
+      Check check = startCheck("comparingElementsUsing.containsNoneOf", excluded);
+      try {
+        containsNone("any of", excluded);
+      } finally {
+        finishCheck(check);
+      }
     }
 
     /**
@@ -1100,7 +1217,12 @@ public class IterableSubject extends Subject<IterableSubject, Iterable<?>> {
      * correspond to any of the given elements.)
      */
     public void containsNoneIn(Iterable<? extends E> excluded) {
-      containsNone("any element in", excluded);
+      Check check = startCheck("comparingElementsUsing.containsNoneIn", excluded);
+      try {
+        containsNone("any element in", excluded);
+      } finally {
+        finishCheck(check);
+      }
     }
 
     private void containsNone(String excludedPrefix, Iterable<? extends E> excluded) {
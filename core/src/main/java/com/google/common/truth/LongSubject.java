@@ -41,6 +41,50 @@ public class LongSubject extends ComparableSubject<LongSubject, Long> {
     super(metadata, actual);
   }
 
+  /**
+   * Fails if the subject is not equal to the given value. This is equivalent to {@link
+   * #isEqualTo(Object)}.
+   */
+  public final void isEqualTo(long other) {
+    Long actual = actual();
+    if (actual == null || actual != other || AssertionEvents.isListening()) {
+      isEqualTo((Object) other);
+    }
+  }
+
+  /**
+   * Fails if the subject is equal to the given value. This is equivalent to {@link
+   * #isNotEqualTo(Object)}.
+   */
+  public final void isNotEqualTo(long other) {
+    Long actual = actual();
+    if ((actual != null && actual == other) || AssertionEvents.isListening()) {
+      isNotEqualTo((Object) other);
+    }
+  }
+
+  /**
+   * Fails if the subject is not numerically equal to the given character. This overload exists so
+   * that {@code char} arguments are shown as characters, rather than numbers, in failure messages.
+   */
+  public final void isEqualTo(char other) {
+    Long actual = actual();
+    if (actual == null || actual != other || AssertionEvents.isListening()) {
+      isEqualTo((Object) other);
+    }
+  }
+
+  /**
+   * Fails if the subject is numerically equal to the given character. This overload exists so that
+   * {@code char} arguments are shown as characters, rather than numbers, in failure messages.
+   */
+  public final void isNotEqualTo(char other) {
+    Long actual = actual();
+    if ((actual != null && actual == other) || AssertionEvents.isListening()) {
+      isNotEqualTo((Object) other);
+    }
+  }
+
   /** @deprecated Use {@link #isEqualTo} instead. Long comparison is consistent with equality. */
   @Override
   @Deprecated
@@ -17,17 +17,17 @@ package com.google.common.truth;
 
 import static com.google.common.base.Preconditions.checkArgument;
 import static com.google.common.base.Preconditions.checkNotNull;
+import static com.google.common.truth.MapUtil.accumulateMap;
 import static com.google.common.truth.SubjectUtils.countDuplicatesAndAddTypeInfo;
 import static com.google.common.truth.SubjectUtils.hasMatchingToStringPair;
 import static com.google.common.truth.SubjectUtils.objectToTypeName;
 import static com.google.common.truth.SubjectUtils.retainMatchingToString;
 
 import com.google.common.base.Objects;
-import com.google.common.collect.LinkedHashMultiset;
 import com.google.common.collect.Lists;
 import com.google.common.collect.MapDifference;
 import com.google.common.collect.Maps;
-import com.google.common.collect.Multiset;
+import com.google.common.truth.AssertionListener.Check;
 import com.google.errorprone.annotations.CanIgnoreReturnValue;
 import java.util.LinkedHashSet;
 import java.util.List;
@@ -51,30 +51,35 @@ public class MapSubject extends Subject<MapSubject, Map<?, ?>> {
   /** Fails if the subject is not equal to the given object. */
   @Override
   public void isEqualTo(@Nullable Object other) {
-    if (!Objects.equal(actual(), other)) {
-      if (other instanceof Map) {
-        MapDifference<?, ?> diff = Maps.difference((Map<?, ?>) other, (Map<?, ?>) actual());
-        String errorMsg = "The subject";
-        if (!diff.entriesOnlyOnLeft().isEmpty()) {
-          errorMsg += " is missing the following entries: " + diff.entriesOnlyOnLeft();
-          if (!diff.entriesOnlyOnRight().isEmpty() || !diff.entriesDiffering().isEmpty()) {
-            errorMsg += " and";
+    Check check = startCheck("isEqualTo", other);
+    try {
+      if (!Objects.equal(actual(), other)) {
+        if (other instanceof Map) {
+          MapDifference<?, ?> diff = Maps.difference((Map<?, ?>) other, (Map<?, ?>) actual());
+          String errorMsg = "The subject";
+          if (!diff.entriesOnlyOnLeft().isEmpty()) {
+            errorMsg += " is missing the following entries: " + diff.entriesOnlyOnLeft();
+            if (!diff.entriesOnlyOnRight().isEmpty() || !diff.entriesDiffering().isEmpty()) {
+              errorMsg += " and";
+            }
+          }
+          if (!diff.entriesOnlyOnRight().isEmpty()) {
+            errorMsg += " has the following extra entries: " + diff.entriesOnlyOnRight();
+            if (!diff.entriesDiffering().isEmpty()) {
+              errorMsg += " and";
+            }
           }
-        }
-        if (!diff.entriesOnlyOnRight().isEmpty()) {
-          errorMsg += " has the following extra entries: " + diff.entriesOnlyOnRight();
           if (!diff.entriesDiffering().isEmpty()) {
-            errorMsg += " and";
+            errorMsg += " has the following different entries: " + diff.entriesDiffering();
           }
+          failWithRawMessage(
+              "Not true that %s is equal to <%s>. " + errorMsg, actualAsString(), other);
+        } else {
+          fail("is equal to", other);
         }
-        if (!diff.entriesDiffering().isEmpty()) {
-          errorMsg += " has the following different entries: " + diff.entriesDiffering();
-        }
-        failWithRawMessage(
-            "Not true that %s is equal to <%s>. " + errorMsg, actualAsString(), other);
-      } else {
-        fail("is equal to", other);
       }
+    } finally {
+      finishCheck(check);
     }
   }
 
@@ -194,34 +199,15 @@ public class MapSubject extends Subject<MapSubject, Map<?, ?>> {
     return containsExactlyEntriesIn(accumulateMap(k0, v0, rest));
   }
 
-  private static Map<Object, Object> accumulateMap(
-      @Nullable Object k0, @Nullable Object v0, Object... rest) {
-    checkArgument(
-        rest.length % 2 == 0,
-        "There must be an equal number of key/value pairs "
-            + "(i.e., the number of key/value parameters (%s) must be even).",
-        rest.length + 2);
-
-    Map<Object, Object> expectedMap = Maps.newLinkedHashMap();
-    expectedMap.put(k0, v0);
-    Multiset<Object> keys = LinkedHashMultiset.create();
-    keys.add(k0);
-    for (int i = 0; i < rest.length; i += 2) {
-      Object key = rest[i];
-      expectedMap.put(key, rest[i + 1]);
-      keys.add(key);
-    }
-    checkArgument(
-        keys.size() == expectedMap.size(),
-        "Duplicate keys (%s) cannot be passed to containsExactly().",
-        keys);
-    return expectedMap;
-  }
-
   /** Fails if the map does not contain exactly the given set of entries in the given map. */
   @CanIgnoreReturnValue
   public Ordered containsExactlyEntriesIn(Map<?, ?> expectedMap) {
-    return check().that(actual().entrySet()).containsExactlyElementsIn(expectedMap.entrySet());
+    Check check = startCheck("containsExactlyEntriesIn", expectedMap);
+    try {
+      return check().that(actual().entrySet()).containsExactlyElementsIn(expectedMap.entrySet());
+    } finally {
+      finishCheck(check);
+    }
   }
 
   /**
@@ -347,10 +333,15 @@ public class MapSubject extends Subject<MapSubject, Map<?, ?>> {
      */
     @CanIgnoreReturnValue
     public <K, V extends E> Ordered containsExactlyEntriesIn(Map<K, V> expectedMap) {
-      return check()
-          .that(actual().entrySet())
-          .comparingElementsUsing(new EntryCorrespondence<K, A, V>(correspondence))
-          .containsExactlyElementsIn(expectedMap.entrySet());
+      Check check = startCheck("comparingValuesUsing.containsExactlyEntriesIn", expectedMap);
+      try {
+        return check()
+            .that(actual().entrySet())
+            .comparingElementsUsing(new EntryCorrespondence<K, A, V>(correspondence))
+            .containsExactlyElementsIn(expectedMap.entrySet());
+      } finally {
+        finishCheck(check);
+      }
     }
 
     @SuppressWarnings("unchecked") // throwing ClassCastException is the correct behaviour
@@ -0,0 +1,59 @@
+/*
+ * Copyright (c) 2017 Google, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.google.common.truth;
+
+import static com.google.common.base.Preconditions.checkArgument;
+
+import com.google.common.collect.LinkedHashMultiset;
+import com.google.common.collect.Maps;
+import com.google.common.collect.Multiset;
+import java.util.Map;
+import javax.annotation.Nullable;
+
+/** Map utilities to be shared by map subjects. */
+public final class MapUtil {
+  private MapUtil() {}
+
+  /**
+   * Returns a map of the given alternating keys and values, in order, as passed to {@code
+   * containsExactly(k0, v0, rest)}. Throws {@link IllegalArgumentException} if {@code rest} has an
+   * odd length, or if any key is given more than once.
+   */
+  public static Map<Object, Object> accumulateMap(
+      @Nullable Object k0, @Nullable Object v0, Object... rest) {
+    checkArgument(
+        rest.length % 2 == 0,
+        "There must be an equal number of key/value pairs "
+            + "(i.e., the number of key/value parameters (%s) must be even).",
+        rest.length + 2);
+
+    Map<Object, Object> expectedMap = Maps.newLinkedHashMap();
+    expectedMap.put(k0, v0);
+    Multiset<Object> keys = LinkedHashMultiset.create();
+    keys.add(k0);
+    for (int i = 0; i < rest.length; i += 2) {
+      Object key = rest[i];
+      expectedMap.put(key, rest[i + 1]);
+      keys.add(key);
+    }
+    checkArgument(
+        keys.size() == expectedMap.size(),
+        "Duplicate keys (%s) cannot be passed to containsExactly().",
+        keys);
+    return expectedMap;
+  }
+}
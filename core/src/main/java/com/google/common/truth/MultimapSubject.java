@@ -34,6 +34,7 @@ import com.google.common.collect.Maps;
 import com.google.common.collect.Multimap;
 import com.google.common.collect.SetMultimap;
 import com.google.common.collect.Sets;
+import com.google.common.truth.AssertionListener.Check;
 import com.google.errorprone.annotations.CanIgnoreReturnValue;
 import java.util.ArrayList;
 import java.util.Collection;
@@ -167,27 +168,32 @@ public class MultimapSubject extends Subject<MultimapSubject, Multimap<?, ?>> {
 
   @Override
   public void isEqualTo(@Nullable Object other) {
-    if (!Objects.equal(actual(), other)) {
-      if ((actual() instanceof ListMultimap && other instanceof SetMultimap)
-          || (actual() instanceof SetMultimap && other instanceof ListMultimap)) {
-        String mapType1 = (actual() instanceof ListMultimap) ? "ListMultimap" : "SetMultimap";
-        String mapType2 = (other instanceof ListMultimap) ? "ListMultimap" : "SetMultimap";
-        failWithRawMessage(
-            "Not true that %s %s is equal to %s <%s>. "
-                + "A %s cannot equal a %s if either is non-empty.",
-            mapType1, actualAsString(), mapType2, other, mapType1, mapType2);
-      } else {
-        if (actual() instanceof ListMultimap) {
-          // If we're comparing ListMultimaps, check for order
-          containsExactlyEntriesIn((Multimap<?, ?>) other).inOrder();
-          return;
-        } else if (actual() instanceof SetMultimap) {
-          // If we're comparing SetMultimaps, don't check for order
-          containsExactlyEntriesIn((Multimap<?, ?>) other);
-          return;
+    Check check = startCheck("isEqualTo", other);
+    try {
+      if (!Objects.equal(actual(), other)) {
+        if ((actual() instanceof ListMultimap && other instanceof SetMultimap)
+            || (actual() instanceof SetMultimap && other instanceof ListMultimap)) {
+          String mapType1 = (actual() instanceof ListMultimap) ? "ListMultimap" : "SetMultimap";
+          String mapType2 = (other instanceof ListMultimap) ? "ListMultimap" : "SetMultimap";
+          failWithRawMessage(
+              "Not true that %s %s is equal to %s <%s>. "
+                  + "A %s cannot equal a %s if either is non-empty.",
+              mapType1, actualAsString(), mapType2, other, mapType1, mapType2);
+        } else {
+          if (actual() instanceof ListMultimap) {
+            // If we're comparing ListMultimaps, check for order
+            containsExactlyEntriesIn((Multimap<?, ?>) other).inOrder();
+            return;
+          } else if (actual() instanceof SetMultimap) {
+            // If we're comparing SetMultimaps, don't check for order
+            containsExactlyEntriesIn((Multimap<?, ?>) other);
+            return;
+          }
+          fail("is equal to", other);
         }
-        fail("is equal to", other);
       }
+    } finally {
+      finishCheck(check);
     }
   }
 
@@ -201,48 +207,53 @@ public class MultimapSubject extends Subject<MultimapSubject, Multimap<?, ?>> {
    */
   @CanIgnoreReturnValue
   public Ordered containsExactlyEntriesIn(Multimap<?, ?> expectedMultimap) {
-    checkNotNull(expectedMultimap, "expectedMultimap");
-    ListMultimap<?, ?> missing = difference(expectedMultimap, actual());
-    ListMultimap<?, ?> extra = difference(actual(), expectedMultimap);
-
-    // TODO(kak): Possible enhancement: Include "[1 copy]" if the element does appear in
-    // the subject but not enough times. Similarly for unexpected extra items.
-    if (!missing.isEmpty()) {
-      if (!extra.isEmpty()) {
-        boolean addTypeInfo = hasMatchingToStringPair(missing.entries(), extra.entries());
-        failWithRawMessage(
-            "Not true that %s contains exactly <%s>. "
-                + "It is missing <%s> and has unexpected items <%s>",
-            actualAsString(),
-            annotateEmptyStringsMultimap(expectedMultimap),
-            // Note: The usage of countDuplicatesAndAddTypeInfo() below causes entries no longer to
-            // be grouped by key in the 'missing' and 'unexpected items' parts of the message (we
-            // still show the actual and expected multimaps in the standard format).
-            addTypeInfo
-                ? countDuplicatesAndAddTypeInfo(annotateEmptyStringsMultimap(missing).entries())
-                : countDuplicatesMultimap(annotateEmptyStringsMultimap(missing)),
-            addTypeInfo
-                ? countDuplicatesAndAddTypeInfo(annotateEmptyStringsMultimap(extra).entries())
-                : countDuplicatesMultimap(annotateEmptyStringsMultimap(extra)));
-        return ALREADY_FAILED;
-      } else {
+    Check check = startCheck("containsExactlyEntriesIn", expectedMultimap);
+    try {
+      checkNotNull(expectedMultimap, "expectedMultimap");
+      ListMultimap<?, ?> missing = difference(expectedMultimap, actual());
+      ListMultimap<?, ?> extra = difference(actual(), expectedMultimap);
+
+      // TODO(kak): Possible enhancement: Include "[1 copy]" if the element does appear in
+      // the subject but not enough times. Similarly for unexpected extra items.
+      if (!missing.isEmpty()) {
+        if (!extra.isEmpty()) {
+          boolean addTypeInfo = hasMatchingToStringPair(missing.entries(), extra.entries());
+          failWithRawMessage(
+              "Not true that %s contains exactly <%s>. "
+                  + "It is missing <%s> and has unexpected items <%s>",
+              actualAsString(),
+              annotateEmptyStringsMultimap(expectedMultimap),
+              // Note: The usage of countDuplicatesAndAddTypeInfo() below causes entries no longer
+              // to be grouped by key in the 'missing' and 'unexpected items' parts of the message
+              // (we still show the actual and expected multimaps in the standard format).
+              addTypeInfo
+                  ? countDuplicatesAndAddTypeInfo(annotateEmptyStringsMultimap(missing).entries())
+                  : countDuplicatesMultimap(annotateEmptyStringsMultimap(missing)),
+              addTypeInfo
+                  ? countDuplicatesAndAddTypeInfo(annotateEmptyStringsMultimap(extra).entries())
+                  : countDuplicatesMultimap(annotateEmptyStringsMultimap(extra)));
+          return ALREADY_FAILED;
+        } else {
+          failWithBadResults(
+              "contains exactly",
+              annotateEmptyStringsMultimap(expectedMultimap),
+              "is missing",
+              countDuplicatesMultimap(annotateEmptyStringsMultimap(missing)));
+          return ALREADY_FAILED;
+        }
+      } else if (!extra.isEmpty()) {
         failWithBadResults(
             "contains exactly",
             annotateEmptyStringsMultimap(expectedMultimap),
-            "is missing",
-            countDuplicatesMultimap(annotateEmptyStringsMultimap(missing)));
+            "has unexpected items",
+            countDuplicatesMultimap(annotateEmptyStringsMultimap(extra)));
         return ALREADY_FAILED;
       }
-    } else if (!extra.isEmpty()) {
-      failWithBadResults(
-          "contains exactly",
-          annotateEmptyStringsMultimap(expectedMultimap),
-          "has unexpected items",
-          countDuplicatesMultimap(annotateEmptyStringsMultimap(extra)));
-      return ALREADY_FAILED;
-    }
 
-    return new MultimapInOrder(expectedMultimap);
+      return new MultimapInOrder(expectedMultimap);
+    } finally {
+      finishCheck(check);
+    }
   }
 
   /** Fails if the multimap is not empty. */
@@ -547,15 +558,20 @@ public class MultimapSubject extends Subject<MultimapSubject, Multimap<?, ?>> {
      */
     @CanIgnoreReturnValue
     public <K, V extends E> Ordered containsExactlyEntriesIn(Multimap<K, V> expectedMultimap) {
-      // Note: The non-fuzzy MultimapSubject.containsExactlyEntriesIn has a custom implementation
-      // and produces somewhat better failure messages simply asserting about the iterables of
-      // entries would: it formats the expected values as  k=[v1, v2] rather than k=v1, k=v2; and in
-      // the case where inOrder() fails it says the keys and/or the values for some keys are out of
-      // order. We don't bother with that here. It would be nice, but it would be a lot of added
-      // complexity for little gain.
-      return new IterableEntries(metadata, MultimapSubject.this)
-          .comparingElementsUsing(new MapSubject.EntryCorrespondence<K, A, V>(correspondence))
-          .containsExactlyElementsIn(expectedMultimap.entries());
+      Check check = startCheck("comparingValuesUsing.containsExactlyEntriesIn", expectedMultimap);
+      try {
+        // Note: The non-fuzzy MultimapSubject.containsExactlyEntriesIn has a custom
+        // implementation and produces somewhat better failure messages simply asserting about the
+        // iterables of entries would: it formats the expected values as  k=[v1, v2] rather than
+        // k=v1, k=v2; and in the case where inOrder() fails it says the keys and/or the values for
+        // some keys are out of order. We don't bother with that here. It would be nice, but it
+        // would be a lot of added complexity for little gain.
+        return new IterableEntries(metadata, MultimapSubject.this)
+            .comparingElementsUsing(new MapSubject.EntryCorrespondence<K, A, V>(correspondence))
+            .containsExactlyElementsIn(expectedMultimap.entries());
+      } finally {
+        finishCheck(check);
+      }
     }
 
     /**
@@ -16,13 +16,25 @@
 package com.google.common.truth;
 
 import static com.google.common.base.Preconditions.checkArgument;
+import static com.google.common.base.Preconditions.checkNotNull;
 
+import com.google.common.collect.Iterators;
 import com.google.common.collect.Multiset;
+import com.google.common.collect.Multisets;
+import java.util.ArrayList;
+import java.util.List;
 import javax.annotation.Nullable;
 
 /**
  * Propositions for {@link Multiset} subjects.
  *
+ * <p>When {@link #containsExactlyElementsIn}, {@link #containsAllIn} or {@link #hasCountsExactly}
+ * is passed another {@code Multiset}, the check works on the counts of the distinct elements, so it
+ * takes time proportional to the number of distinct elements rather than to the total count.
+ * Failure messages then describe the difference in counts, rather than listing every occurrence.
+ * A following {@code inOrder()} on {@code containsExactlyElementsIn} compares the order of the
+ * distinct elements, as the multisets' entry sets iterate over them.
+ *
  * @author Kurt Alfred Kluever
  */
 public final class MultisetSubject extends IterableSubject {
@@ -40,9 +52,120 @@ public final class MultisetSubject extends IterableSubject {
   /** Fails if the element does not have the given count. */
   public final void hasCount(@Nullable Object element, int expectedCount) {
     checkArgument(expectedCount >= 0, "expectedCount(%s) must be >= 0", expectedCount);
-    int actualCount = ((Multiset<?>) actual()).count(element);
+    int actualCount = actualAsMultiset().count(element);
     if (actualCount != expectedCount) {
       failWithBadResults("has a count for <" + element + "> of", expectedCount, "is", actualCount);
     }
   }
+
+  /** Fails if the element does not have at least the given count. */
+  public final void hasCountAtLeast(@Nullable Object element, int minimumCount) {
+    checkArgument(minimumCount >= 0, "minimumCount(%s) must be >= 0", minimumCount);
+    int actualCount = actualAsMultiset().count(element);
+    if (actualCount < minimumCount) {
+      failWithBadResults(
+          "has a count for <" + element + "> of at least", minimumCount, "is", actualCount);
+    }
+  }
+
+  /**
+   * Fails if any element of either multiset has a different count in the other. This is equivalent
+   * to {@link #containsExactlyElementsIn}, except that it makes no statement about order, and its
+   * failure message lists each element whose count differs along with both counts.
+   */
+  public final void hasCountsExactly(Multiset<?> expected) {
+    checkNotNull(expected);
+    Multiset<?> actual = actualAsMultiset();
+    List<String> differences = new ArrayList<String>();
+    for (Multiset.Entry<?> entry : expected.entrySet()) {
+      int actualCount = actual.count(entry.getElement());
+      if (actualCount != entry.getCount()) {
+        differences.add(describeCounts(entry.getElement(), entry.getCount(), actualCount));
+      }
+    }
+    for (Multiset.Entry<?> entry : actual.entrySet()) {
+      if (!expected.contains(entry.getElement())) {
+        differences.add(describeCounts(entry.getElement(), 0, entry.getCount()));
+      }
+    }
+    if (!differences.isEmpty()) {
+      failWithBadResults("has counts exactly", expected, "has different counts for", differences);
+    }
+  }
+
+  private static String describeCounts(
+      @Nullable Object element, int expectedCount, int actualCount) {
+    return StringUtil.format("%s (expected %s, was %s)", element, expectedCount, actualCount);
+  }
+
+  @Override
+  Ordered containsExactlyElementsIn(Iterable<?> required, boolean addElementsInWarning) {
+    if (actual() == null || !(required instanceof Multiset)) {
+      return super.containsExactlyElementsIn(required, addElementsInWarning);
+    }
+    Multiset<?> requiredMultiset = (Multiset<?>) required;
+    Multiset<?> actual = actualAsMultiset();
+    List<Multiset.Entry<?>> missing = findMissingCounts(actual, requiredMultiset);
+    List<Multiset.Entry<?>> extra = findMissingCounts(requiredMultiset, actual);
+
+    if (!missing.isEmpty() && !extra.isEmpty()) {
+      failWithRawMessage(
+          "Not true that %s contains exactly <%s>. "
+              + "It is missing <%s> and has unexpected items <%s>",
+          actualAsString(), required, missing, extra);
+      return ALREADY_FAILED;
+    } else if (!missing.isEmpty()) {
+      failWithBadResults("contains exactly", required, "is missing", missing);
+      return ALREADY_FAILED;
+    } else if (!extra.isEmpty()) {
+      failWithBadResults("contains exactly", required, "has unexpected items", extra);
+      return ALREADY_FAILED;
+    }
+    // The counts all match, so the order is that of the distinct elements, as the entry sets
+    // iterate over them. Multiset.iterator() needn't keep the occurrences of an element together,
+    // so the order of individual occurrences is not compared.
+    return Iterators.elementsEqual(
+            actual.entrySet().iterator(), requiredMultiset.entrySet().iterator())
+        ? IN_ORDER
+        : new NotInOrder("contains exactly these elements in order", required);
+  }
+
+  @Override
+  Ordered containsAll(final String failVerb, final Iterable<?> expected) {
+    if (actual() == null || !(expected instanceof Multiset)) {
+      return super.containsAll(failVerb, expected);
+    }
+    List<Multiset.Entry<?>> missing = findMissingCounts(actualAsMultiset(), (Multiset<?>) expected);
+    if (!missing.isEmpty()) {
+      failWithBadResults(failVerb, expected, "is missing", missing);
+      return ALREADY_FAILED;
+    }
+    // Checking the order requires looking at every occurrence, so only do it if asked to.
+    return new Ordered() {
+      @Override
+      public void inOrder() {
+        MultisetSubject.super.containsAll(failVerb, expected).inOrder();
+      }
+    };
+  }
+
+  /**
+   * Returns, for each element of {@code expected} whose count in {@code actual} is too low, an
+   * entry holding that element and the number of occurrences it is short by.
+   */
+  private static List<Multiset.Entry<?>> findMissingCounts(
+      Multiset<?> actual, Multiset<?> expected) {
+    List<Multiset.Entry<?>> missing = new ArrayList<Multiset.Entry<?>>();
+    for (Multiset.Entry<?> entry : expected.entrySet()) {
+      int shortfall = entry.getCount() - actual.count(entry.getElement());
+      if (shortfall > 0) {
+        missing.add(Multisets.immutableEntry(entry.getElement(), shortfall));
+      }
+    }
+    return missing;
+  }
+
+  private Multiset<?> actualAsMultiset() {
+    return (Multiset<?>) actual();
+  }
 }
@@ -38,30 +38,36 @@ import javax.annotation.Nullable;
  * @author Christian Gruber
  */
 public final class ObjectArraySubject<T> extends AbstractArraySubject<ObjectArraySubject<T>, T[]> {
-  private final String typeName;
-  private final int numberOfDimensions;
+  // Computed only when needed for a failure message:
+  private String typeName;
+  private List<?> listRepresentation;
 
   ObjectArraySubject(FailureMetadata metadata, @Nullable T[] o) {
     super(metadata, o);
-    typeName = typeNameFromInstance(o);
-    numberOfDimensions = numberOfDimensions(o);
+    checkIsObjectArray(o);
   }
 
   @Override
   protected String underlyingType() {
+    if (typeName == null) {
+      typeName = typeNameFromInstance(actual());
+    }
     return typeName;
   }
 
   @Override
   String brackets() {
-    return Strings.repeat("[]", numberOfDimensions);
+    return Strings.repeat("[]", numberOfDimensions(actual()));
   }
 
   @Override
   protected List<?> listRepresentation() {
-    // Note: we don't use an ImmutableList or FluentIterable.toList
-    // because some arrays have null, and ImmutableList doesn't allow null.
-    return Lists.newArrayList(stringableIterable(actual()));
+    // A lazy view: elements are only stringified when the list is rendered. (It also tolerates the
+    // nulls that some arrays contain, which ImmutableList would not.)
+    if (listRepresentation == null) {
+      listRepresentation = Lists.transform(Arrays.asList(actual()), STRINGIFY);
+    }
+    return listRepresentation;
   }
 
   private static Iterable<?> stringableIterable(Object[] array) {
@@ -99,18 +105,21 @@ public final class ObjectArraySubject<T> extends AbstractArraySubject<ObjectArra
         }
       };
 
-  private static String typeNameFromInstance(Object instance) {
-    if (instance == null) {
-      return "null reference of unknown array type";
-    } else {
+  private static void checkIsObjectArray(@Nullable Object instance) {
+    if (instance != null && !(instance instanceof Object[])) {
       if (!instance.getClass().isArray()) {
         throw new IllegalArgumentException(
             instance.getClass().getName() + " instance passed into T[] subject.");
       }
+      throw new IllegalArgumentException("Primitive array passed into T[] subject.");
+    }
+  }
+
+  private static String typeNameFromInstance(Object instance) {
+    if (instance == null) {
+      return "null reference of unknown array type";
+    } else {
       Class<?> type = instance.getClass().getComponentType();
-      if (type.isPrimitive()) {
-        throw new IllegalArgumentException("Primitive array passed into T[] subject.");
-      }
       while (type.isArray()) {
         type = type.getComponentType();
       }
@@ -152,7 +161,7 @@ public final class ObjectArraySubject<T> extends AbstractArraySubject<ObjectArra
             "%s has length %s. Expected length is %s",
             actualAsString(), actual.length, expectedArray.length);
       } else {
-        String index = checkArrayEqualsRecursive(expectedArray, actual, "");
+        String index = checkObjectArrayEqualsRecursive(expectedArray, actual);
         if (index != null) {
           failWithBadResults(
               "is equal to", stringableIterable(expectedArray), "differs at index", index);
@@ -165,42 +174,97 @@ public final class ObjectArraySubject<T> extends AbstractArraySubject<ObjectArra
 
   /**
    * Returns null if the arrays are equal, recursively. If not equal, returns the string of the
-   * index at which they're different.
+   * index at which they're different. The index string is only built once a difference is found.
    */
   @Nullable
-  private String checkArrayEqualsRecursive(
-      Object expectedArray, Object actualArray, String lastIndex) {
+  private static String checkArrayEqualsRecursive(Object expectedArray, Object actualArray) {
+    if (expectedArray instanceof Object[] && actualArray instanceof Object[]) {
+      return checkObjectArrayEqualsRecursive((Object[]) expectedArray, (Object[]) actualArray);
+    }
+    if (expectedArray.getClass() == actualArray.getClass()
+        && primitiveArraysEqual(expectedArray, actualArray)) {
+      return null;
+    }
+    // Primitive arrays which differ, or arrays of different types: compare element by element, as
+    // boxed values, to find the index at which they differ.
     int actualLength = Platform.getArrayLength(actualArray);
     int expectedLength = Platform.getArrayLength(expectedArray);
     for (int i = 0; i < actualLength || i < expectedLength; i++) {
-      String index = lastIndex + "[" + i + "]";
-      if (i < expectedLength && i < actualLength) {
-        Object expected = Platform.getFromArray(expectedArray, i);
-        Object actual = Platform.getFromArray(actualArray, i);
-        if (actual != null
-            && actual.getClass().isArray()
-            && expected != null
-            && expected.getClass().isArray()) {
-          String result = checkArrayEqualsRecursive(expected, actual, index);
-          if (result != null) {
-            return result;
-          }
-          continue;
-        } else if (Objects.equal(actual, expected)) {
-          continue;
-        }
+      if (i >= expectedLength || i >= actualLength) {
+        return "[" + i + "]";
+      }
+      String difference =
+          elementsDiffer(
+              Platform.getFromArray(expectedArray, i), Platform.getFromArray(actualArray, i), i);
+      if (difference != null) {
+        return difference;
       }
-      return index;
     }
     return null;
   }
 
+  @Nullable
+  private static String checkObjectArrayEqualsRecursive(
+      Object[] expectedArray, Object[] actualArray) {
+    for (int i = 0; i < actualArray.length || i < expectedArray.length; i++) {
+      if (i >= expectedArray.length || i >= actualArray.length) {
+        return "[" + i + "]";
+      }
+      String difference = elementsDiffer(expectedArray[i], actualArray[i], i);
+      if (difference != null) {
+        return difference;
+      }
+    }
+    return null;
+  }
+
+  /**
+   * Returns null if the elements at index {@code i} are equal, recursively if they are both arrays.
+   * If not equal, returns the string of the index at which they're different.
+   */
+  @Nullable
+  private static String elementsDiffer(@Nullable Object expected, @Nullable Object actual, int i) {
+    if (actual != null
+        && actual.getClass().isArray()
+        && expected != null
+        && expected.getClass().isArray()) {
+      String result = checkArrayEqualsRecursive(expected, actual);
+      return result == null ? null : "[" + i + "]" + result;
+    }
+    return Objects.equal(actual, expected) ? null : "[" + i + "]";
+  }
+
+  /**
+   * Returns whether two primitive arrays of the same type are equal, using the appropriate {@link
+   * Arrays#equals} overload. Returns false if they are not primitive arrays.
+   */
+  private static boolean primitiveArraysEqual(Object expected, Object actual) {
+    if (actual.getClass() == boolean[].class) {
+      return Arrays.equals((boolean[]) expected, (boolean[]) actual);
+    } else if (actual.getClass() == int[].class) {
+      return Arrays.equals((int[]) expected, (int[]) actual);
+    } else if (actual.getClass() == long[].class) {
+      return Arrays.equals((long[]) expected, (long[]) actual);
+    } else if (actual.getClass() == short[].class) {
+      return Arrays.equals((short[]) expected, (short[]) actual);
+    } else if (actual.getClass() == byte[].class) {
+      return Arrays.equals((byte[]) expected, (byte[]) actual);
+    } else if (actual.getClass() == double[].class) {
+      return Arrays.equals((double[]) expected, (double[]) actual);
+    } else if (actual.getClass() == float[].class) {
+      return Arrays.equals((float[]) expected, (float[]) actual);
+    } else if (actual.getClass() == char[].class) {
+      return Arrays.equals((char[]) expected, (char[]) actual);
+    }
+    return false;
+  }
+
   @Override
   public void isNotEqualTo(Object expected) {
     Object[] actual = actual();
     try {
       Object[] expectedArray = (Object[]) expected;
-      if (actual == expected || checkArrayEqualsRecursive(expectedArray, actual, "") == null) {
+      if (actual == expected || checkObjectArrayEqualsRecursive(expectedArray, actual) == null) {
         failWithRawMessage(
             "%s unexpectedly equal to %s.", actualAsString(), stringableIterable(expectedArray));
       }
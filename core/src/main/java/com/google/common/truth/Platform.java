@@ -15,6 +15,7 @@
  */
 package com.google.common.truth;
 
+import com.google.common.truth.AssertionListener.Check;
 import java.lang.reflect.Array;
 import java.lang.reflect.InvocationTargetException;
 import java.lang.reflect.Method;
@@ -22,6 +23,7 @@ import java.util.LinkedHashSet;
 import java.util.Set;
 import java.util.regex.Matcher;
 import java.util.regex.Pattern;
+import javax.annotation.Nullable;
 import org.junit.ComparisonFailure;
 
 /**
@@ -142,11 +144,11 @@ final class Platform {
    * returned.
    */
   static Throwable[] getSuppressed(Throwable throwable) {
-    try {
-      Method getSuppressed = throwable.getClass().getMethod("getSuppressed");
-      return (Throwable[]) getSuppressed.invoke(throwable);
-    } catch (NoSuchMethodException e) {
+    if (GET_SUPPRESSED == null) {
       return new Throwable[0];
+    }
+    try {
+      return (Throwable[]) GET_SUPPRESSED.invoke(throwable);
     } catch (IllegalAccessException e) {
       throw new RuntimeException(e);
     } catch (InvocationTargetException e) {
@@ -154,6 +156,20 @@ final class Platform {
     }
   }
 
+  /**
+   * {@code Throwable.getSuppressed()}, or null before Java 1.7. The method is final, so it is
+   * looked up once rather than on each throwable's class.
+   */
+  private static final Method GET_SUPPRESSED = findGetSuppressed();
+
+  private static Method findGetSuppressed() {
+    try {
+      return Throwable.class.getMethod("getSuppressed");
+    } catch (NoSuchMethodException e) {
+      return null;
+    }
+  }
+
   /**
    * Returns true if stack trace cleaning is explicitly disabled in a system property. This switch
    * os intended to be used when attempting to debug the frameworks which are collapsed or filtered
@@ -163,4 +179,33 @@ final class Platform {
     return Boolean.parseBoolean(
         System.getProperty("com.google.common.truth.disable_stack_trace_cleaning"));
   }
+
+  private static final ThreadLocal<Check> CURRENT_CHECK = new ThreadLocal<Check>();
+
+  /** Returns the check being timed on this thread, if any. */
+  @Nullable
+  static Check currentCheck() {
+    return CURRENT_CHECK.get();
+  }
+
+  static void setCurrentCheck(@Nullable Check check) {
+    if (check == null) {
+      CURRENT_CHECK.remove();
+    } else {
+      CURRENT_CHECK.set(check);
+    }
+  }
+
+  /**
+   * Returns an {@link AssertionMetrics} that prints its report to {@code System.err} at shutdown if
+   * the {@code com.google.common.truth.assertion_metrics} system property is {@code true}, so that
+   * a whole test run can be measured without changing any code. Otherwise, returns null.
+   */
+  @Nullable
+  static AssertionListener initialAssertionListener() {
+    if (!Boolean.parseBoolean(System.getProperty("com.google.common.truth.assertion_metrics"))) {
+      return null;
+    }
+    return AssertionMetrics.create().printReportAtShutdown(System.err);
+  }
 }
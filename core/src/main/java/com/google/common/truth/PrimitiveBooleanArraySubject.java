@@ -55,7 +55,7 @@ public final class PrimitiveBooleanArraySubject
     try {
       boolean[] expectedArray = (boolean[]) expected;
       if (!Arrays.equals(actual, expectedArray)) {
-        fail("is equal to", Booleans.asList(expectedArray));
+        failNotEqualArray(Booleans.asList(expectedArray));
       }
     } catch (ClassCastException e) {
       failWithBadType(expected);
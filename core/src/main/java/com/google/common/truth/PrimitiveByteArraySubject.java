@@ -60,7 +60,9 @@ public final class PrimitiveByteArraySubject
                 + getDisplaySubject()
                 + " is equal to <"
                 + Arrays.toString(expectedArray)
-                + ">;",
+                + ">. "
+                + describeMismatch(Bytes.asList(expectedArray), listRepresentation())
+                + ";",
             base16(expectedArray),
             base16(getSubject()));
       }
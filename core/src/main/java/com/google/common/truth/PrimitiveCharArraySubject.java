@@ -55,7 +55,7 @@ public final class PrimitiveCharArraySubject
     try {
       char[] expectedArray = (char[]) expected;
       if (!Arrays.equals(actual, expectedArray)) {
-        fail("is equal to", Chars.asList(expectedArray));
+        failNotEqualArray(Chars.asList(expectedArray));
       }
     } catch (ClassCastException e) {
       failWithBadType(expected);
@@ -85,7 +85,7 @@ public final class PrimitiveDoubleArraySubject
     try {
       double[] expectedArray = (double[]) expected;
       if (!Arrays.equals(actual, expectedArray)) {
-        fail("is equal to", Doubles.asList(expectedArray));
+        failNotEqualArray(Doubles.asList(expectedArray));
       }
     } catch (ClassCastException e) {
       failWithBadType(expected);
@@ -120,17 +120,12 @@ public final class PrimitiveDoubleArraySubject
             Doubles.asList(expectedArray), Doubles.asList(actual));
         return;
       }
-      List<Integer> unequalIndices = new ArrayList<Integer>();
       for (int i = 0; i < expectedArray.length; i++) {
         if (!equalWithinTolerance(actual[i], expectedArray[i], tolerance)) {
-          unequalIndices.add(i);
+          fail("is equal to", Doubles.asList(expectedArray));
+          return;
         }
       }
-
-      if (!unequalIndices.isEmpty()) {
-        fail("is equal to", Doubles.asList(expectedArray));
-        return;
-      }
     } catch (ClassCastException e) {
       failWithBadType(expected);
     }
@@ -191,17 +186,13 @@ public final class PrimitiveDoubleArraySubject
       if (expected.length != actual.length) {
         return; // Unequal-lengthed arrays are not equal.
       }
-      List<Integer> unequalIndices = new ArrayList<Integer>();
       for (int i = 0; i < expected.length; i++) {
         if (!equalWithinTolerance(actual[i], expected[i], tolerance)) {
-          unequalIndices.add(i);
+          return; // Unequal since at least one element is outside the tolerance.
         }
       }
-      if (unequalIndices.isEmpty()) {
-        failWithRawMessage(
-            "%s unexpectedly equal to %s.", actualAsString(), Doubles.asList(expected));
-        return;
-      }
+      failWithRawMessage(
+          "%s unexpectedly equal to %s.", actualAsString(), Doubles.asList(expected));
     } catch (ClassCastException ignored) {
       // Unequal since they are of different types.
     }
@@ -85,7 +85,7 @@ public final class PrimitiveFloatArraySubject
     try {
       float[] expectedArray = (float[]) expected;
       if (!Arrays.equals(actual, expectedArray)) {
-        fail("is equal to", Floats.asList(expectedArray));
+        failNotEqualArray(Floats.asList(expectedArray));
       }
     } catch (ClassCastException e) {
       failWithBadType(expected);
@@ -120,17 +120,12 @@ public final class PrimitiveFloatArraySubject
             Floats.asList(expectedArray), Floats.asList(actual));
         return;
       }
-      List<Integer> unequalIndices = new ArrayList<Integer>();
       for (int i = 0; i < expectedArray.length; i++) {
         if (!equalWithinTolerance(actual[i], expectedArray[i], tolerance)) {
-          unequalIndices.add(i);
+          fail("is equal to", Floats.asList(expectedArray));
+          return;
         }
       }
-
-      if (!unequalIndices.isEmpty()) {
-        fail("is equal to", Floats.asList(expectedArray));
-        return;
-      }
     } catch (ClassCastException e) {
       failWithBadType(expected);
     }
@@ -191,17 +186,12 @@ public final class PrimitiveFloatArraySubject
       if (expected.length != actual.length) {
         return; // Unequal-lengthed arrays are not equal.
       }
-      List<Integer> unequalIndices = new ArrayList<Integer>();
       for (int i = 0; i < expected.length; i++) {
         if (!equalWithinTolerance(actual[i], expected[i], tolerance)) {
-          unequalIndices.add(i);
+          return; // Unequal since at least one element is outside the tolerance.
         }
       }
-      if (unequalIndices.isEmpty()) {
-        failWithRawMessage(
-            "%s unexpectedly equal to %s.", actualAsString(), Floats.asList(expected));
-        return;
-      }
+      failWithRawMessage("%s unexpectedly equal to %s.", actualAsString(), Floats.asList(expected));
     } catch (ClassCastException ignored) {
       // Unequal since they are of different types.
     }
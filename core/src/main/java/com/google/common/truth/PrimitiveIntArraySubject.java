@@ -55,7 +55,7 @@ public final class PrimitiveIntArraySubject
     try {
       int[] expectedArray = (int[]) expected;
       if (!Arrays.equals(actual, expectedArray)) {
-        fail("is equal to", Ints.asList(expectedArray));
+        failNotEqualArray(Ints.asList(expectedArray));
       }
     } catch (ClassCastException e) {
       failWithBadType(expected);
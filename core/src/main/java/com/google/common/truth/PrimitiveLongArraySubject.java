@@ -55,7 +55,7 @@ public final class PrimitiveLongArraySubject
     try {
       long[] expectedArray = (long[]) expected;
       if (!Arrays.equals(actual, expectedArray)) {
-        fail("is equal to", Longs.asList(expectedArray));
+        failNotEqualArray(Longs.asList(expectedArray));
       }
     } catch (ClassCastException e) {
       failWithBadType(expected);
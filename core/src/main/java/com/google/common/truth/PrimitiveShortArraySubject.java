@@ -55,7 +55,7 @@ public final class PrimitiveShortArraySubject
     try {
       short[] expectedArray = (short[]) expected;
       if (!Arrays.equals(actual, expectedArray)) {
-        fail("is equal to", Shorts.asList(expectedArray));
+        failNotEqualArray(Shorts.asList(expectedArray));
       }
     } catch (ClassCastException e) {
       failWithBadType(expected);
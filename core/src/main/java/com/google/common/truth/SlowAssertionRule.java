@@ -0,0 +1,184 @@
+/*
+ * Copyright (c) 2017 Google, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.google.common.truth;
+
+import static com.google.common.base.Preconditions.checkArgument;
+import static com.google.common.base.Preconditions.checkNotNull;
+import static com.google.common.truth.AssertionMetrics.formatNanos;
+
+import com.google.common.annotations.GwtIncompatible;
+import com.google.common.collect.Multimap;
+import java.io.PrintStream;
+import java.lang.reflect.Array;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import javax.annotation.Nullable;
+import org.junit.rules.TestRule;
+import org.junit.runner.Description;
+import org.junit.runners.model.Statement;
+
+/**
+ * A {@link TestRule} that times the Truth checks made during each test and reports the slow ones,
+ * to catch accidentally quadratic assertions, such as {@code containsExactlyElementsIn} with a
+ * {@link Correspondence} on large lists, before they slow down a whole test suite.
+ *
+ * <p>Usage:
+ *
+ * <pre>
+ * {@code @Rule public final SlowAssertionRule slowAssertions =}
+ * {@code     SlowAssertionRule.create(100, MILLISECONDS).failingAbove(1, SECONDS);}
+ * </pre>
+ *
+ * <p>Each check that takes at least the threshold is reported after the test, with the time it
+ * spent comparing and the time it spent formatting failure messages, and the sizes of the
+ * collections it compared. The report is printed to {@code System.err}, unless a check exceeded the
+ * {@linkplain #failingAbove budget} in a test that otherwise passed, in which case the test fails
+ * with the report as its message.
+ *
+ * <p>Only the checks made on the thread that runs the test count, so tests that run in parallel in
+ * one JVM don't see each other's checks. Checks made on threads that the test starts aren't
+ * reported, either.
+ */
+@GwtIncompatible("JUnit4")
+public final class SlowAssertionRule implements TestRule {
+  /**
+   * Creates a rule that reports each check taking at least the given time, but never fails a test.
+   */
+  public static SlowAssertionRule create(long threshold, TimeUnit unit) {
+    checkArgument(threshold >= 0, "threshold (%s) must be >= 0", threshold);
+    return new SlowAssertionRule(unit.toNanos(threshold), Long.MAX_VALUE, System.err);
+  }
+
+  private final long thresholdNanos;
+  private final long budgetNanos;
+  private final PrintStream out;
+
+  SlowAssertionRule(long thresholdNanos, long budgetNanos, PrintStream out) {
+    this.thresholdNanos = thresholdNanos;
+    this.budgetNanos = budgetNanos;
+    this.out = checkNotNull(out);
+  }
+
+  /**
+   * Returns a rule like this one that also fails the test if any check takes longer than the given
+   * budget. The budget must be at least the threshold.
+   */
+  public SlowAssertionRule failingAbove(long budget, TimeUnit unit) {
+    long budgetNanos = unit.toNanos(budget);
+    checkArgument(
+        budgetNanos >= thresholdNanos,
+        "budget (%s ns) must be at least the threshold (%s ns)",
+        budgetNanos,
+        thresholdNanos);
+    return new SlowAssertionRule(thresholdNanos, budgetNanos, out);
+  }
+
+  @Override
+  public Statement apply(final Statement base, final Description description) {
+    checkNotNull(base);
+    checkNotNull(description);
+    return new Statement() {
+      @Override
+      public void evaluate() throws Throwable {
+        SlowCheckRecorder recorder = new SlowCheckRecorder(Thread.currentThread());
+        AssertionListener.register(recorder);
+        try {
+          base.evaluate();
+        } catch (Throwable t) {
+          recorder.printReport(description);
+          throw t;
+        } finally {
+          AssertionListener.unregister(recorder);
+        }
+        if (recorder.overBudget) {
+          throw new AssertionError(recorder.report(description));
+        }
+        recorder.printReport(description);
+      }
+    };
+  }
+
+  /**
+   * Records the checks made on the test thread that take at least the threshold. Events arrive on
+   * the thread making the check, so only the test thread ever touches the recorded state.
+   */
+  private final class SlowCheckRecorder extends AssertionListener {
+    private final Thread testThread;
+    private final List<String> slowChecks = new ArrayList<String>();
+    private boolean overBudget;
+
+    SlowCheckRecorder(Thread testThread) {
+      this.testThread = testThread;
+    }
+
+    @Override
+    public void checkFinished(Check check) {
+      if (Thread.currentThread() != testThread || check.durationNanos() < thresholdNanos) {
+        return;
+      }
+      StringBuilder description = new StringBuilder();
+      description.append(check).append(" took ").append(formatNanos(check.durationNanos()));
+      description.append(" (comparing ");
+      description.append(formatNanos(check.durationNanos() - check.renderNanos()));
+      if (check.renderNanos() > 0) {
+        description.append(", formatting failures ").append(formatNanos(check.renderNanos()));
+      }
+      description.append(")");
+      appendSize(description, "actual", check.actual());
+      appendSize(description, "expected", check.expected());
+      slowChecks.add(description.toString());
+      overBudget |= check.durationNanos() > budgetNanos;
+    }
+
+    String report(Description test) {
+      StringBuilder report = new StringBuilder();
+      report.append(slowChecks.size()).append(" slow Truth check");
+      report.append(slowChecks.size() == 1 ? "" : "s").append(" in ").append(test);
+      report.append(budgetNanos == Long.MAX_VALUE ? "" : ", budget " + formatNanos(budgetNanos));
+      report.append(":");
+      for (String slowCheck : slowChecks) {
+        report.append("\n  ").append(slowCheck);
+      }
+      return report.toString();
+    }
+
+    void printReport(Description test) {
+      if (!slowChecks.isEmpty()) {
+        out.println(report(test));
+      }
+    }
+  }
+
+  /** Appends the size of {@code value}, if it is a collection whose size is cheap to find. */
+  private static void appendSize(StringBuilder description, String label, @Nullable Object value) {
+    String size = null;
+    if (value instanceof Collection) {
+      size = ((Collection<?>) value).size() + " elements";
+    } else if (value instanceof Map) {
+      size = ((Map<?, ?>) value).size() + " entries";
+    } else if (value instanceof Multimap) {
+      size = ((Multimap<?, ?>) value).size() + " entries";
+    } else if (value != null && value.getClass().isArray()) {
+      size = Array.getLength(value) + " elements";
+    }
+    if (size != null) {
+      description.append(", ").append(label).append(" has ").append(size);
+    }
+  }
+}
@@ -16,13 +16,25 @@
 package com.google.common.truth;
 
 import static com.google.common.base.Preconditions.checkNotNull;
+import static com.google.common.truth.SubjectUtils.comparatorOrNatural;
+import static com.google.common.truth.SubjectUtils.haveSameOrdering;
 
 import com.google.common.base.Objects;
+import com.google.common.collect.BoundType;
 import com.google.common.collect.ForwardingSortedMap;
+import com.google.common.collect.ImmutableSortedMap;
 import com.google.common.collect.Iterables;
+import com.google.common.collect.Iterators;
 import com.google.common.collect.Maps;
+import com.google.common.collect.PeekingIterator;
+import com.google.common.collect.Range;
+import com.google.errorprone.annotations.CanIgnoreReturnValue;
+import java.util.ArrayList;
+import java.util.Comparator;
 import java.util.Iterator;
 import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
 import java.util.Map.Entry;
 import java.util.NavigableMap;
 import java.util.NavigableSet;
@@ -34,15 +46,45 @@ import javax.annotation.Nullable;
 /**
  * Tests for {@link SortedMap} and {@link NavigableMap} objects. This class supports assertions
  * based on {@code NavigableMap}'s API even if the subject only implements {@code SortedMap}.
+ *
+ * <p>When {@link #containsExactlyEntriesIn} is passed another {@code SortedMap} with the same
+ * comparator, the maps are compared by a linear merge, comparing keys using that comparator rather
+ * than by {@link Object#equals} and {@link Object#hashCode}.
  */
 // TODO(diamondm): identify use-cases for assertions on other NavigableMap methods, such as
 // ceilingKey(), and propose an API to support such assertions.
 public final class SortedMapSubject extends MapSubject {
   private final NavigableMap<?, ?> actualAsNavigableMap;
+  // Only set for subjects created by inRange():
+  @Nullable private final SortedMapSubject fullMapSubject;
+  @Nullable private final Range<?> range;
 
   SortedMapSubject(FailureMetadata metadata, SortedMap<?, ?> map) {
+    this(metadata, map, null, null);
+  }
+
+  private SortedMapSubject(
+      FailureMetadata metadata,
+      SortedMap<?, ?> map,
+      @Nullable SortedMapSubject fullMapSubject,
+      @Nullable Range<?> range) {
     super(metadata, map);
     actualAsNavigableMap = map == null ? null : SortedMapAsNavigableMap.wrapIfNecessary(map);
+    this.fullMapSubject = fullMapSubject;
+    this.range = range;
+  }
+
+  @Override
+  protected String actualCustomStringRepresentation() {
+    if (fullMapSubject != null) {
+      return "Entries with keys in range <"
+          + range
+          + "> (<"
+          + super.actualCustomStringRepresentation()
+          + ">) of "
+          + fullMapSubject.actualAsString();
+    }
+    return super.actualCustomStringRepresentation();
   }
 
   @Override
@@ -193,6 +235,106 @@ public final class SortedMapSubject extends MapSubject {
     }
   }
 
+  /**
+   * Returns a {@link SortedMapSubject} for the entries of the map whose keys lie within the given
+   * range, for example {@code assertThat(map).inRange(Range.closed(10, 20)).containsExactly(...)}.
+   * The range is applied as a view of the actual map, via {@link NavigableMap#subMap}, so the map
+   * is not copied.
+   *
+   * <p>The range's endpoints are compared to the keys using the map's comparator. If the actual
+   * value is a {@link SortedMap} but not a {@link NavigableMap}, only ranges with a closed lower
+   * bound and an open upper bound (or no bound) are supported.
+   */
+  public SortedMapSubject inRange(Range<?> range) {
+    checkNotNull(range);
+    if (actual() == null) {
+      fail("has keys in range", range);
+      return ignoreCheck().that(ImmutableSortedMap.of());
+    }
+    return new SortedMapSubject(metadata, subMap(actualAsNavigableMap(), range), this, range);
+  }
+
+  @SuppressWarnings("unchecked") // the range's endpoints must be comparable with the keys
+  private static NavigableMap<?, ?> subMap(NavigableMap<?, ?> map, Range<?> range) {
+    NavigableMap<Object, ?> castMap = (NavigableMap<Object, ?>) map;
+    if (range.hasLowerBound() && range.hasUpperBound()) {
+      return castMap.subMap(
+          range.lowerEndpoint(),
+          range.lowerBoundType() == BoundType.CLOSED,
+          range.upperEndpoint(),
+          range.upperBoundType() == BoundType.CLOSED);
+    } else if (range.hasLowerBound()) {
+      return castMap.tailMap(range.lowerEndpoint(), range.lowerBoundType() == BoundType.CLOSED);
+    } else if (range.hasUpperBound()) {
+      return castMap.headMap(range.upperEndpoint(), range.upperBoundType() == BoundType.CLOSED);
+    }
+    return castMap;
+  }
+
+  /**
+   * Fails if the map does not contain exactly the given set of entries in the given map.
+   *
+   * <p>If the expected map is also a {@link SortedMap}, ordered by an equal comparator, the two
+   * maps are compared with a single merge walk over both, in linear time. In that case keys are
+   * compared using the maps' comparator, as {@link SortedMap} itself does, so they need not
+   * implement {@link Object#equals} or {@link Object#hashCode} consistently with it. Values are
+   * still compared with {@link Object#equals}.
+   */
+  @Override
+  @CanIgnoreReturnValue
+  public Ordered containsExactlyEntriesIn(Map<?, ?> expectedMap) {
+    if (actual() != null
+        && expectedMap instanceof SortedMap
+        && haveSameOrdering(
+            actualAsNavigableMap().comparator(), ((SortedMap<?, ?>) expectedMap).comparator())) {
+      return containsExactlyEntriesInSameOrdering((SortedMap<?, ?>) expectedMap);
+    }
+    return super.containsExactlyEntriesIn(expectedMap);
+  }
+
+  private Ordered containsExactlyEntriesInSameOrdering(SortedMap<?, ?> expectedMap) {
+    Comparator<Object> comparator = comparatorOrNatural(actualAsNavigableMap().comparator());
+    List<Entry<?, ?>> missing = new ArrayList<Entry<?, ?>>();
+    List<Entry<?, ?>> extra = new ArrayList<Entry<?, ?>>();
+    PeekingIterator<? extends Entry<?, ?>> actualIter =
+        Iterators.peekingIterator(actualAsNavigableMap().entrySet().iterator());
+    PeekingIterator<? extends Entry<?, ?>> expectedIter =
+        Iterators.peekingIterator(expectedMap.entrySet().iterator());
+    while (actualIter.hasNext() && expectedIter.hasNext()) {
+      int comparison = comparator.compare(actualIter.peek().getKey(), expectedIter.peek().getKey());
+      if (comparison < 0) {
+        extra.add(actualIter.next());
+      } else if (comparison > 0) {
+        missing.add(expectedIter.next());
+      } else {
+        Entry<?, ?> actualEntry = actualIter.next();
+        Entry<?, ?> expectedEntry = expectedIter.next();
+        if (!Objects.equal(actualEntry.getValue(), expectedEntry.getValue())) {
+          extra.add(actualEntry);
+          missing.add(expectedEntry);
+        }
+      }
+    }
+    Iterators.addAll(extra, actualIter);
+    Iterators.addAll(missing, expectedIter);
+
+    if (!missing.isEmpty() && !extra.isEmpty()) {
+      failWithRawMessage(
+          "Not true that %s contains exactly <%s>. "
+              + "It is missing <%s> and has unexpected items <%s>",
+          actualAsString(), expectedMap, missing, extra);
+      return IterableSubject.ALREADY_FAILED;
+    } else if (!missing.isEmpty()) {
+      failWithBadResults("contains exactly", expectedMap, "is missing", missing);
+      return IterableSubject.ALREADY_FAILED;
+    } else if (!extra.isEmpty()) {
+      failWithBadResults("contains exactly", expectedMap, "has unexpected items", extra);
+      return IterableSubject.ALREADY_FAILED;
+    }
+    // Both maps iterate in the same order, so they are also equal in order.
+    return IterableSubject.IN_ORDER;
+  }
+
   /**
    * Provides access to the actual value via {@link NavigableMap}'s API. This may or may be the same
    * object as returned by {@link #actual}, therefore you should avoid identity (e.g. {@code ==}) or
@@ -270,7 +412,11 @@ public final class SortedMapSubject extends MapSubject {
 
     @Override
     public NavigableMap<K, V> headMap(K toKey, boolean inclusive) {
-      throw new UnsupportedOperationException();
+      if (inclusive) {
+        throw new UnsupportedOperationException(
+            "Only ranges with open upper bounds are supported for non-navigable sorted maps");
+      }
+      return wrapIfNecessary(delegate().headMap(toKey));
     }
 
     @Override
@@ -322,12 +468,21 @@ public final class SortedMapSubject extends MapSubject {
     @Override
     public NavigableMap<K, V> subMap(
         K fromKey, boolean fromInclusive, K toKey, boolean toInclusive) {
-      throw new UnsupportedOperationException();
+      if (!fromInclusive || toInclusive) {
+        throw new UnsupportedOperationException(
+            "Only ranges with closed lower bounds and open upper bounds are supported for "
+                + "non-navigable sorted maps");
+      }
+      return wrapIfNecessary(delegate().subMap(fromKey, toKey));
     }
 
     @Override
     public NavigableMap<K, V> tailMap(K fromKey, boolean inclusive) {
-      throw new UnsupportedOperationException();
+      if (!inclusive) {
+        throw new UnsupportedOperationException(
+            "Only ranges with closed lower bounds are supported for non-navigable sorted maps");
+      }
+      return wrapIfNecessary(delegate().tailMap(fromKey));
     }
   }
 }
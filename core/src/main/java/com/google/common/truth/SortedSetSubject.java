@@ -16,10 +16,21 @@
 package com.google.common.truth;
 
 import static com.google.common.base.Preconditions.checkNotNull;
+import static com.google.common.truth.SubjectUtils.annotateEmptyStrings;
+import static com.google.common.truth.SubjectUtils.comparatorOrNatural;
+import static com.google.common.truth.SubjectUtils.haveSameOrdering;
 
 import com.google.common.base.Objects;
+import com.google.common.collect.BoundType;
 import com.google.common.collect.ForwardingSortedSet;
+import com.google.common.collect.ImmutableSortedSet;
+import com.google.common.collect.Iterators;
+import com.google.common.collect.PeekingIterator;
+import com.google.common.collect.Range;
+import java.util.ArrayList;
+import java.util.Comparator;
 import java.util.Iterator;
+import java.util.List;
 import java.util.NavigableSet;
 import java.util.SortedSet;
 import javax.annotation.Nullable;
@@ -27,15 +38,45 @@ import javax.annotation.Nullable;
 /**
  * Tests for {@link SortedSet} and {@link NavigableSet} objects. This class supports assertions
  * based on {@code NavigableSet}'s API even if the subject only implements {@code SortedSet}.
+ *
+ * <p>When {@link #containsExactlyElementsIn} is passed another {@code SortedSet} with the same
+ * comparator, the sets are compared by a linear merge using that comparator, rather than by
+ * {@link Object#equals}.
  */
 // TODO(diamondm): identify use-cases for assertions on other NavigableSet methods, such as
 // ceiling(), and propose an API to support such assertions.
 public final class SortedSetSubject extends IterableSubject {
   private final NavigableSet<?> actualAsNavigableSet;
+  // Only set for subjects created by inRange():
+  @Nullable private final SortedSetSubject fullSetSubject;
+  @Nullable private final Range<?> range;
 
   SortedSetSubject(FailureMetadata metadata, SortedSet<?> set) {
+    this(metadata, set, null, null);
+  }
+
+  private SortedSetSubject(
+      FailureMetadata metadata,
+      SortedSet<?> set,
+      @Nullable SortedSetSubject fullSetSubject,
+      @Nullable Range<?> range) {
     super(metadata, set);
     actualAsNavigableSet = set == null ? null : SortedSetAsNavigableSet.wrapIfNecessary(set);
+    this.fullSetSubject = fullSetSubject;
+    this.range = range;
+  }
+
+  @Override
+  protected String actualCustomStringRepresentation() {
+    if (fullSetSubject != null) {
+      return "Elements in range <"
+          + range
+          + "> (<"
+          + super.actualCustomStringRepresentation()
+          + ">) of "
+          + fullSetSubject.actualAsString();
+    }
+    return super.actualCustomStringRepresentation();
   }
 
   @Override
@@ -88,6 +129,107 @@ public final class SortedSetSubject extends IterableSubject {
     }
   }
 
+  /**
+   * Returns a {@link SortedSetSubject} for the elements of the set which lie within the given
+   * range, for example {@code assertThat(set).inRange(Range.closed(10, 20)).containsExactly(...)}.
+   * The range is applied as a view of the actual set, via {@link NavigableSet#subSet}, so the set
+   * is not copied.
+   *
+   * <p>The range's endpoints are compared to the elements using the set's comparator. If the
+   * actual value is a {@link SortedSet} but not a {@link NavigableSet}, only ranges with a closed
+   * lower bound and an open upper bound (or no bound) are supported.
+   */
+  public SortedSetSubject inRange(Range<?> range) {
+    checkNotNull(range);
+    if (actual() == null) {
+      fail("has elements in range", range);
+      return ignoreCheck().that(ImmutableSortedSet.of());
+    }
+    return new SortedSetSubject(metadata, subSet(actualAsNavigableSet(), range), this, range);
+  }
+
+  @SuppressWarnings("unchecked") // the range's endpoints must be comparable with the elements
+  private static NavigableSet<?> subSet(NavigableSet<?> set, Range<?> range) {
+    NavigableSet<Object> castSet = (NavigableSet<Object>) set;
+    if (range.hasLowerBound() && range.hasUpperBound()) {
+      return castSet.subSet(
+          range.lowerEndpoint(),
+          range.lowerBoundType() == BoundType.CLOSED,
+          range.upperEndpoint(),
+          range.upperBoundType() == BoundType.CLOSED);
+    } else if (range.hasLowerBound()) {
+      return castSet.tailSet(range.lowerEndpoint(), range.lowerBoundType() == BoundType.CLOSED);
+    } else if (range.hasUpperBound()) {
+      return castSet.headSet(range.upperEndpoint(), range.upperBoundType() == BoundType.CLOSED);
+    }
+    return castSet;
+  }
+
+  /**
+   * If the expected iterable is also a {@link SortedSet}, ordered by an equal comparator, the two
+   * sets are compared with a single merge walk over both, in linear time. In that case elements are
+   * compared using the sets' comparator, as {@link SortedSet} itself does, so they need not
+   * implement {@link Object#equals} or {@link Object#hashCode} consistently with it.
+   */
+  @Override
+  Ordered containsExactlyElementsIn(Iterable<?> required, boolean addElementsInWarning) {
+    if (actual() != null
+        && required instanceof SortedSet
+        && haveSameOrdering(
+            actualAsNavigableSet().comparator(), ((SortedSet<?>) required).comparator())) {
+      return containsExactlyElementsInSameOrdering((SortedSet<?>) required);
+    }
+    return super.containsExactlyElementsIn(required, addElementsInWarning);
+  }
+
+  private Ordered containsExactlyElementsInSameOrdering(SortedSet<?> required) {
+    Comparator<Object> comparator = comparatorOrNatural(actualAsNavigableSet().comparator());
+    List<Object> missing = new ArrayList<Object>();
+    List<Object> extra = new ArrayList<Object>();
+    PeekingIterator<?> actualIter = Iterators.peekingIterator(actualAsNavigableSet().iterator());
+    PeekingIterator<?> requiredIter = Iterators.peekingIterator(required.iterator());
+    while (actualIter.hasNext() && requiredIter.hasNext()) {
+      int comparison = comparator.compare(actualIter.peek(), requiredIter.peek());
+      if (comparison < 0) {
+        extra.add(actualIter.next());
+      } else if (comparison > 0) {
+        missing.add(requiredIter.next());
+      } else {
+        actualIter.next();
+        requiredIter.next();
+      }
+    }
+    Iterators.addAll(extra, actualIter);
+    Iterators.addAll(missing, requiredIter);
+
+    if (!missing.isEmpty() && !extra.isEmpty()) {
+      failWithRawMessage(
+          "Not true that %s contains exactly <%s>. "
+              + "It is missing <%s> and has unexpected items <%s>",
+          actualAsString(),
+          annotateEmptyStrings(required),
+          annotateEmptyStrings(missing),
+          annotateEmptyStrings(extra));
+      return ALREADY_FAILED;
+    } else if (!missing.isEmpty()) {
+      failWithBadResults(
+          "contains exactly",
+          annotateEmptyStrings(required),
+          "is missing",
+          annotateEmptyStrings(missing));
+      return ALREADY_FAILED;
+    } else if (!extra.isEmpty()) {
+      failWithBadResults(
+          "contains exactly",
+          annotateEmptyStrings(required),
+          "has unexpected items",
+          annotateEmptyStrings(extra));
+      return ALREADY_FAILED;
+    }
+    // Both sets iterate in the same order, so they are also equal in order.
+    return IN_ORDER;
+  }
+
   /**
    * Provides access to the actual value via {@link NavigableSet}'s API. This may or may be the same
    * object as returned by {@link #actual}, therefore you should avoid identity (e.g. {@code ==}) or
@@ -149,7 +291,11 @@ public final class SortedSetSubject extends IterableSubject {
 
     @Override
     public NavigableSet<E> headSet(E toElement, boolean inclusive) {
-      throw new UnsupportedOperationException();
+      if (inclusive) {
+        throw new UnsupportedOperationException(
+            "Only ranges with open upper bounds are supported for non-navigable sorted sets");
+      }
+      return wrapIfNecessary(delegate().headSet(toElement));
     }
 
     @Override
@@ -175,12 +321,21 @@ public final class SortedSetSubject extends IterableSubject {
     @Override
     public NavigableSet<E> subSet(
         E fromElement, boolean fromInclusive, E toElement, boolean toInclusive) {
-      throw new UnsupportedOperationException();
+      if (!fromInclusive || toInclusive) {
+        throw new UnsupportedOperationException(
+            "Only ranges with closed lower bounds and open upper bounds are supported for "
+                + "non-navigable sorted sets");
+      }
+      return wrapIfNecessary(delegate().subSet(fromElement, toElement));
     }
 
     @Override
     public NavigableSet<E> tailSet(E fromElement, boolean inclusive) {
-      throw new UnsupportedOperationException();
+      if (!inclusive) {
+        throw new UnsupportedOperationException(
+            "Only ranges with closed lower bounds are supported for non-navigable sorted sets");
+      }
+      return wrapIfNecessary(delegate().tailSet(fromElement));
     }
   }
 }
@@ -17,10 +17,12 @@ package com.google.common.truth;
 
 import com.google.common.collect.ImmutableList;
 import com.google.common.collect.Sets;
-import java.util.ArrayList;
-import java.util.List;
-import java.util.ListIterator;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
 
 /** Utility that cleans stack traces to remove noise from common frameworks. */
 final class StackTraceCleaner {
@@ -39,9 +41,11 @@ final class StackTraceCleaner {
   }
 
   private final Throwable throwable;
-  private final List<StackTraceElementWrapper> cleanedStackTrace =
-      new ArrayList<StackTraceElementWrapper>();
-  private StackTraceElementWrapper lastStackFrameElementWrapper = null;
+  // Cleaning only ever removes or collapses frames, so these have room for the whole trace.
+  private StackTraceElement[] cleanedStackTrace;
+  private StackFrameType[] cleanedStackFrameTypes;
+  private int cleanedLength = 0;
+  private StackTraceElement lastStackFrame = null;
   private StackFrameType currentStreakType = null;
   private int currentStreakLength = 0;
 
@@ -68,52 +72,45 @@ final class StackTraceCleaner {
     }
     seenThrowables.add(throwable);
 
-    for (StackTraceElement stackTraceElement : throwable.getStackTrace()) {
-      StackTraceElementWrapper stackTraceElementWrapper =
-          new StackTraceElementWrapper(
-              stackTraceElement, StackFrameType.forClassName(stackTraceElement.getClassName()));
+    StackTraceElement[] stackTrace = throwable.getStackTrace();
+    cleanedStackTrace = new StackTraceElement[stackTrace.length];
+    cleanedStackFrameTypes = new StackFrameType[stackTrace.length];
+    for (StackTraceElement stackTraceElement : stackTrace) {
+      StackFrameType stackFrameType = StackFrameType.forClassName(stackTraceElement.getClassName());
 
       // Always keep frames that might be useful.
-      if (stackTraceElementWrapper.getStackFrameType() == StackFrameType.NEVER_REMOVE) {
+      if (stackFrameType == StackFrameType.NEVER_REMOVE) {
         endStreak();
-        cleanedStackTrace.add(stackTraceElementWrapper);
+        addCleanedFrame(stackTraceElement, stackFrameType);
         continue;
       }
 
       // Filter out Truth framework frames from the top of the stack.
-      if (stackTraceElementWrapper.getStackFrameType() == StackFrameType.TRUTH_FRAMEWORK
-          && cleanedStackTrace.isEmpty()) {
+      if (stackFrameType == StackFrameType.TRUTH_FRAMEWORK && cleanedLength == 0) {
         continue;
       }
 
       // Otherwise, process the current frame for collapsing
-      addToStreak(stackTraceElementWrapper);
+      addToStreak(stackFrameType);
 
-      lastStackFrameElementWrapper = stackTraceElementWrapper;
+      lastStackFrame = stackTraceElement;
     }
 
     // Close out the streak on the bottom of the stack.
     endStreak();
 
     // Filter out testing framework and reflective calls from the bottom of the stack
-    ListIterator<StackTraceElementWrapper> iterator =
-        cleanedStackTrace.listIterator(cleanedStackTrace.size());
-    while (iterator.hasPrevious()) {
-      StackTraceElementWrapper stackTraceElementWrapper = iterator.previous();
-      if (stackTraceElementWrapper.getStackFrameType() == StackFrameType.TEST_FRAMEWORK
-          || stackTraceElementWrapper.getStackFrameType() == StackFrameType.REFLECTION) {
-        iterator.remove();
-      } else {
-        break;
-      }
+    while (cleanedLength > 0
+        && (cleanedStackFrameTypes[cleanedLength - 1] == StackFrameType.TEST_FRAMEWORK
+            || cleanedStackFrameTypes[cleanedLength - 1] == StackFrameType.REFLECTION)) {
+      cleanedLength--;
     }
 
     // Replace the stack trace on the Throwable with the cleaned one.
-    StackTraceElement[] result = new StackTraceElement[cleanedStackTrace.size()];
-    for (int i = 0; i < result.length; i++) {
-      result[i] = cleanedStackTrace.get(i).getStackTraceElement();
-    }
-    throwable.setStackTrace(result);
+    throwable.setStackTrace(
+        cleanedLength == cleanedStackTrace.length
+            ? cleanedStackTrace
+            : Arrays.copyOf(cleanedStackTrace, cleanedLength));
 
     // Recurse on any related Throwables that are attached to this one
     if (throwable.getCause() != null) {
@@ -128,10 +125,10 @@ final class StackTraceCleaner {
    * Either adds the given frame to the running streak or closes out the running streak and starts a
    * new one.
    */
-  private void addToStreak(StackTraceElementWrapper stackTraceElementWrapper) {
-    if (stackTraceElementWrapper.getStackFrameType() != currentStreakType) {
+  private void addToStreak(StackFrameType stackFrameType) {
+    if (stackFrameType != currentStreakType) {
       endStreak();
-      currentStreakType = stackTraceElementWrapper.getStackFrameType();
+      currentStreakType = stackFrameType;
       currentStreakLength = 1;
     } else {
       currentStreakLength++;
@@ -146,10 +143,11 @@ final class StackTraceCleaner {
 
     if (currentStreakLength == 1) {
       // A single frame isn't a streak. Just include the frame as-is in the result.
-      cleanedStackTrace.add(lastStackFrameElementWrapper);
+      addCleanedFrame(lastStackFrame, currentStreakType);
     } else {
       // Add a single frame to the result summarizing the streak of framework frames
-      cleanedStackTrace.add(createStreakReplacementFrame(currentStreakType, currentStreakLength));
+      addCleanedFrame(
+          createStreakReplacementFrame(currentStreakType, currentStreakLength), currentStreakType);
     }
 
     clearStreak();
@@ -161,47 +159,26 @@ final class StackTraceCleaner {
     currentStreakLength = 0;
   }
 
-  /**
-   * Wrapper around a {@link StackTraceElement} for calculating and holding the metadata used to
-   * clean the stack trace.
-   */
-  private static class StackTraceElementWrapper {
-
-    private final StackTraceElement stackTraceElement;
-    private final StackFrameType stackFrameType;
-
-    /** Creates a wrapper with the given frame and the given frame type. */
-    StackTraceElementWrapper(StackTraceElement stackTraceElement, StackFrameType stackFrameType) {
-      this.stackTraceElement = stackTraceElement;
-      this.stackFrameType = stackFrameType;
-    }
-
-    /** Returns the type of this frame. */
-    StackFrameType getStackFrameType() {
-      return stackFrameType;
-    }
-
-    /** Returns the wrapped {@link StackTraceElement}. */
-    StackTraceElement getStackTraceElement() {
-      return stackTraceElement;
-    }
+  /** Appends a frame, along with its type, to the cleaned trace. */
+  private void addCleanedFrame(StackTraceElement stackTraceElement, StackFrameType stackFrameType) {
+    cleanedStackTrace[cleanedLength] = stackTraceElement;
+    cleanedStackFrameTypes[cleanedLength] = stackFrameType;
+    cleanedLength++;
   }
 
-  private static StackTraceElementWrapper createStreakReplacementFrame(
+  private static StackTraceElement createStreakReplacementFrame(
       StackFrameType stackFrameType, int length) {
-    return new StackTraceElementWrapper(
-        new StackTraceElement(
-            "[["
-                + stackFrameType.getName()
-                + ": "
-                + length
-                + " frames collapsed ("
-                + CLEANER_LINK
-                + ")]]",
-            "",
-            "",
-            0),
-        stackFrameType);
+    return new StackTraceElement(
+        "[["
+            + stackFrameType.getName()
+            + ": "
+            + length
+            + " frames collapsed ("
+            + CLEANER_LINK
+            + ")]]",
+        "",
+        "",
+        0);
   }
 
   /**
@@ -225,21 +202,41 @@ final class StackTraceCleaner {
         "com.google.common.util.concurrent.",
         "java.util.concurrent.ForkJoin");
 
+    /**
+     * The frame type of each class name seen so far. Stack traces repeat the same few hundred
+     * classes, so most frames are classified by a single lookup here. The cache stops growing at
+     * {@link #MAX_CACHED_CLASS_NAMES} entries, in case something generates class names without
+     * limit.
+     */
+    private static final ConcurrentMap<String, StackFrameType> FRAME_TYPES_BY_CLASS_NAME =
+        new ConcurrentHashMap<String, StackFrameType>();
+
+    private static final int MAX_CACHED_CLASS_NAMES = 10000;
+
+    /** The class name prefixes of all frame types, for classifying class names not yet cached. */
+    private static final PrefixTrie PREFIX_TRIE = PrefixTrie.of(values());
+
     /** Helper method to determine the frame type from the fully qualified class name. */
     private static StackFrameType forClassName(String fullyQualifiedClassName) {
+      StackFrameType stackFrameType = FRAME_TYPES_BY_CLASS_NAME.get(fullyQualifiedClassName);
+      if (stackFrameType == null) {
+        stackFrameType = classify(fullyQualifiedClassName);
+        if (FRAME_TYPES_BY_CLASS_NAME.size() < MAX_CACHED_CLASS_NAMES) {
+          FRAME_TYPES_BY_CLASS_NAME.put(fullyQualifiedClassName, stackFrameType);
+        }
+      }
+      return stackFrameType;
+    }
+
+    private static StackFrameType classify(String fullyQualifiedClassName) {
       // Never remove the frames from a test class. These will probably be the frame of a failing
       // assertion.
       if (fullyQualifiedClassName.endsWith("Test")) {
         return StackFrameType.NEVER_REMOVE;
       }
 
-      for (StackFrameType stackFrameType : StackFrameType.values()) {
-        if (stackFrameType.belongsToType(fullyQualifiedClassName)) {
-          return stackFrameType;
-        }
-      }
-
-      return StackFrameType.NEVER_REMOVE;
+      StackFrameType stackFrameType = PREFIX_TRIE.findTypeOfPrefix(fullyQualifiedClassName);
+      return stackFrameType == null ? StackFrameType.NEVER_REMOVE : stackFrameType;
     }
 
     private final String name;
@@ -260,18 +257,59 @@ final class StackTraceCleaner {
     String getName() {
       return name;
     }
+  }
+
+  /**
+   * A trie of the class name prefixes of the {@link StackFrameType}s, so that a class name can be
+   * matched against all of them in a single pass over its characters.
+   */
+  private static final class PrefixTrie {
+    private final Map<Character, PrefixTrie> children = new HashMap<Character, PrefixTrie>();
+    // The type whose prefix ends at this node, if any.
+    private StackFrameType stackFrameType;
+
+    static PrefixTrie of(StackFrameType... stackFrameTypes) {
+      PrefixTrie root = new PrefixTrie();
+      for (StackFrameType stackFrameType : stackFrameTypes) {
+        for (String prefix : stackFrameType.prefixes) {
+          root.put(prefix, stackFrameType);
+        }
+      }
+      return root;
+    }
+
+    private void put(String prefix, StackFrameType type) {
+      PrefixTrie node = this;
+      for (int i = 0; i < prefix.length(); i++) {
+        PrefixTrie child = node.children.get(prefix.charAt(i));
+        if (child == null) {
+          child = new PrefixTrie();
+          node.children.put(prefix.charAt(i), child);
+        }
+        node = child;
+      }
+      // If two types share a prefix, the one declared first wins.
+      if (node.stackFrameType == null) {
+        node.stackFrameType = type;
+      }
+    }
 
     /**
-     * Returns true if the given frame belongs to this frame type based on the package and/or class
-     * name of the frame.
+     * Returns the type with a prefix of the given class name, or null if there is none. If there
+     * is more than one, returns the one with the shortest prefix.
      */
-    boolean belongsToType(String fullyQualifiedClassName) {
-      for (String prefix : prefixes) {
-        if (fullyQualifiedClassName.startsWith(prefix)) {
-          return true;
+    StackFrameType findTypeOfPrefix(String fullyQualifiedClassName) {
+      PrefixTrie node = this;
+      for (int i = 0; i < fullyQualifiedClassName.length(); i++) {
+        node = node.children.get(fullyQualifiedClassName.charAt(i));
+        if (node == null) {
+          return null;
+        }
+        if (node.stackFrameType != null) {
+          return node.stackFrameType;
         }
       }
-      return false;
+      return null;
     }
   }
 }
@@ -206,8 +206,9 @@ public class StandardSubjectBuilder {
    * <p><b>Note:</b> The failure message template string only supports the {@code "%s"} specifier,
    * not the full range of {@link java.util.Formatter} specifiers.
    *
-   * @throws IllegalArgumentException if the number of placeholders in the format string does not
-   *     equal the number of given arguments
+   * <p>The format string is not checked until a failure message is built. If an assertion fails,
+   * and the number of placeholders in the format string does not equal the number of given
+   * arguments, the assertion throws {@link IllegalArgumentException} rather than failing.
    */
   public final StandardSubjectBuilder withMessage(
       @Nullable String format, Object /* @NullableType */... args) {
@@ -22,6 +22,7 @@ import static com.google.common.truth.SubjectUtils.accumulate;
 import com.google.common.base.Objects;
 import com.google.common.base.Predicates;
 import com.google.common.collect.Iterables;
+import com.google.common.truth.AssertionListener.Check;
 import com.google.errorprone.annotations.CanIgnoreReturnValue;
 import java.util.List;
 import javax.annotation.Nullable;
@@ -101,6 +102,7 @@ public class Subject<S extends Subject<S, T>, T> {
         actual instanceof Throwable ? metadata.offerRootCause((Throwable) actual) : metadata;
     this.failureStrategy = this.metadata.legacyStrategy();
     this.actual = actual;
+    AssertionEvents.subjectCreated(this);
   }
 
   /** An internal method used to obtain the value set by {@link #named(String, Object...)}. */
@@ -155,7 +157,12 @@ public class Subject<S extends Subject<S, T>, T> {
    * </ul>
    */
   public void isEqualTo(@Nullable Object other) {
-    doEqualCheck(actual(), other, true);
+    Check check = startCheck("isEqualTo", other);
+    try {
+      doEqualCheck(actual(), other, true);
+    } finally {
+      finishCheck(check);
+    }
   }
 
   /**
@@ -163,23 +170,35 @@ public class Subject<S extends Subject<S, T>, T> {
    * the {@link #isEqualTo} method.
    */
   public void isNotEqualTo(@Nullable Object other) {
-    doEqualCheck(actual(), other, false);
+    Check check = startCheck("isNotEqualTo", other);
+    try {
+      doEqualCheck(actual(), other, false);
+    } finally {
+      finishCheck(check);
+    }
   }
 
   private void doEqualCheck(
       @Nullable Object rawActual, @Nullable Object rawOther, boolean expectEqual) {
-    Object actual;
-    Object other;
     if (isIntegralBoxedPrimitive(rawActual) && isIntegralBoxedPrimitive(rawOther)) {
-      actual = integralValue(rawActual);
-      other = integralValue(rawOther);
-    } else {
-      actual = rawActual;
-      other = rawOther;
-    }
-    if (Objects.equal(actual, other) != expectEqual) {
+      long actual = integralValue(rawActual);
+      long other = integralValue(rawOther);
+      // Compare the primitive values, and box them only to build a failure message.
+      if ((actual == other) != expectEqual) {
+        failComparingToStrings(
+            expectEqual ? "is equal to" : "is not equal to",
+            Long.valueOf(actual),
+            Long.valueOf(other),
+            rawOther,
+            expectEqual);
+      }
+    } else if (Objects.equal(rawActual, rawOther) != expectEqual) {
       failComparingToStrings(
-          expectEqual ? "is equal to" : "is not equal to", actual, other, rawOther, expectEqual);
+          expectEqual ? "is equal to" : "is not equal to",
+          rawActual,
+          rawOther,
+          rawOther,
+          expectEqual);
     }
   }
 
@@ -191,7 +210,7 @@ public class Subject<S extends Subject<S, T>, T> {
         || o instanceof Long;
   }
 
-  private static Long integralValue(Object o) {
+  private static long integralValue(Object o) {
     if (o instanceof Character) {
       return (long) ((Character) o).charValue();
     } else if (o instanceof Number) {
@@ -365,13 +384,28 @@ public class Subject<S extends Subject<S, T>, T> {
     return StandardSubjectBuilder.forCustomFailureStrategy(IGNORE_STRATEGY);
   }
 
+  /**
+   * Starts timing a check for the registered {@link AssertionListener} instances. Callers must pass
+   * the result to {@link #finishCheck} in a {@code finally} block.
+   */
+  final Check startCheck(String checkName, @Nullable Object expected) {
+    return AssertionEvents.startCheck(this, checkName, actual, expected);
+  }
+
+  static void finishCheck(Check check) {
+    AssertionEvents.finishCheck(check);
+  }
+
   /**
    * Reports a failure constructing a message from a simple verb.
    *
    * @param check the check being asserted
    */
   protected final void fail(String check) {
-    metadata.legacyStrategy().fail("Not true that " + actualAsString() + " " + check);
+    long renderStart = AssertionEvents.startRender();
+    String message = "Not true that " + actualAsString() + " " + check;
+    AssertionEvents.finishRender(this, renderStart);
+    metadata.legacyStrategy().fail(message);
   }
 
   /**
@@ -387,6 +421,7 @@ public class Subject<S extends Subject<S, T>, T> {
 
   private void failComparingToStrings(
       String verb, Object actual, Object other, Object displayOther, boolean compareToStrings) {
+    long renderStart = AssertionEvents.startRender();
     StringBuilder message =
         new StringBuilder("Not true that ").append(actualAsString()).append(" ");
     // If the actual and parts aren't null, and they have equal toString()'s but different
@@ -405,6 +440,7 @@ public class Subject<S extends Subject<S, T>, T> {
     if (!needsClassDisambiguation && sameToStrings && compareToStrings) {
       message.append(" (although their toString() representations are the same)");
     }
+    AssertionEvents.finishRender(this, renderStart);
     metadata.legacyStrategy().fail(message.toString());
   }
 
@@ -421,11 +457,13 @@ public class Subject<S extends Subject<S, T>, T> {
     } else if (messageParts.length == 1) {
       fail(verb, messageParts[0]);
     } else {
+      long renderStart = AssertionEvents.startRender();
       StringBuilder message = new StringBuilder("Not true that ");
       message.append(actualAsString()).append(" ").append(verb);
       for (Object part : messageParts) {
         message.append(" <").append(part).append(">");
       }
+      AssertionEvents.finishRender(this, renderStart);
       metadata.legacyStrategy().fail(message.toString());
     }
   }
@@ -440,6 +478,7 @@ public class Subject<S extends Subject<S, T>, T> {
    */
   protected final void failWithBadResults(
       String verb, Object expected, String failVerb, Object actual) {
+    long renderStart = AssertionEvents.startRender();
     String message =
         format(
             "Not true that %s %s <%s>. It %s <%s>",
@@ -448,6 +487,7 @@ public class Subject<S extends Subject<S, T>, T> {
             expected,
             failVerb,
             (actual == null) ? "null reference" : actual);
+    AssertionEvents.finishRender(this, renderStart);
     metadata.legacyStrategy().fail(message);
   }
 
@@ -460,18 +500,23 @@ public class Subject<S extends Subject<S, T>, T> {
    * @param actual the custom representation of the subject to be reported in the failure.
    */
   protected final void failWithCustomSubject(String verb, Object expected, Object actual) {
+    long renderStart = AssertionEvents.startRender();
     String message =
         format(
             "Not true that <%s> %s <%s>",
             (actual == null) ? "null reference" : actual, verb, expected);
+    AssertionEvents.finishRender(this, renderStart);
     metadata.legacyStrategy().fail(message);
   }
 
   /** @deprecated Use {@link #failWithoutActual(String)} */
   @Deprecated
   protected final void failWithoutSubject(String check) {
+    long renderStart = AssertionEvents.startRender();
     String strSubject = this.customName == null ? "the subject" : "\"" + customName + "\"";
-    metadata.legacyStrategy().fail(format("Not true that %s %s", strSubject, check));
+    String message = format("Not true that %s %s", strSubject, check);
+    AssertionEvents.finishRender(this, renderStart);
+    metadata.legacyStrategy().fail(message);
   }
 
   /**
@@ -495,11 +540,15 @@ public class Subject<S extends Subject<S, T>, T> {
    */
   // TODO(cgruber) final
   protected void failWithRawMessage(String message, Object... parameters) {
-    metadata.legacyStrategy().fail(format(message, parameters));
+    long renderStart = AssertionEvents.startRender();
+    String formatted = format(message, parameters);
+    AssertionEvents.finishRender(this, renderStart);
+    metadata.legacyStrategy().fail(formatted);
   }
 
   /** Passes through a failure message verbatim, along with a cause. */
   protected final void failWithRawMessageAndCause(String message, Throwable cause) {
+    AssertionEvents.failedWithoutRender();
     metadata.legacyStrategy().fail(message, cause);
   }
 
@@ -508,6 +557,7 @@ public class Subject<S extends Subject<S, T>, T> {
    * {@link FailureStrategy} may use to construct a {@code ComparisonFailure}.
    */
   protected final void failComparing(String message, CharSequence expected, CharSequence actual) {
+    AssertionEvents.failedWithoutRender();
     metadata.legacyStrategy().failComparing(message, expected, actual);
   }
 
@@ -517,6 +567,7 @@ public class Subject<S extends Subject<S, T>, T> {
    */
   protected final void failComparing(
       String message, CharSequence expected, CharSequence actual, Throwable cause) {
+    AssertionEvents.failedWithoutRender();
     metadata.legacyStrategy().failComparing(message, expected, actual, cause);
   }
 
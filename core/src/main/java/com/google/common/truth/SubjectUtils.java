@@ -20,12 +20,15 @@ import com.google.common.base.Optional;
 import com.google.common.collect.HashMultimap;
 import com.google.common.collect.Iterables;
 import com.google.common.collect.Lists;
+import com.google.common.collect.Ordering;
 import com.google.common.collect.SetMultimap;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collection;
+import java.util.Comparator;
 import java.util.List;
 import java.util.Map;
+import javax.annotation.Nullable;
 
 /**
  * Utility methods used in {@code Subject<T>} implementors.
@@ -210,6 +213,25 @@ final class SubjectUtils {
     }
   }
 
+  /**
+   * Returns the given comparator, or the natural ordering if it is null. A null comparator is how
+   * {@link java.util.SortedSet#comparator} and {@link java.util.SortedMap#comparator} indicate
+   * natural ordering.
+   */
+  @SuppressWarnings("unchecked") // the elements of a sorted collection are mutually comparable
+  static Comparator<Object> comparatorOrNatural(@Nullable Comparator<?> comparator) {
+    return (Comparator<Object>) (comparator == null ? Ordering.natural() : comparator);
+  }
+
+  /**
+   * Returns whether two sorted collections, with the given comparators, are ordered the same way.
+   * This is conservative: comparators which happen to impose the same ordering without being equal
+   * are treated as different.
+   */
+  static boolean haveSameOrdering(@Nullable Comparator<?> first, @Nullable Comparator<?> second) {
+    return comparatorOrNatural(first).equals(comparatorOrNatural(second));
+  }
+
   /**
    * Returns an iterable with all empty strings replaced by a non-empty human understandable
    * indicator for an empty string.
@@ -100,20 +100,26 @@ public final class Truth {
 
         private AssertionError stripFramesAndTryToAddCause(
             AssertionError failure, @Nullable Throwable cause) {
-          if (cause != null) {
-            try {
-              failure.initCause(cause);
-            } catch (IllegalStateException alreadyInitializedBecauseOfHarmonyBug) {
-              // https://code.google.com/p/android/issues/detail?id=29378
-              // Skip initCause. That's sad, but it's the best we can do without awful hacks.
-              // TODO(cpovirk): Actually, maybe we can override getCause(). Try that someday.
-            }
-          }
+          tryToAddCause(failure, cause);
           StackTraceCleaner.cleanStackTrace(failure);
           return failure;
         }
       };
 
+  /** Sets the cause of {@code failure} to {@code cause}, if there is one and the platform allows. */
+  static <E extends AssertionError> E tryToAddCause(E failure, @Nullable Throwable cause) {
+    if (cause != null) {
+      try {
+        failure.initCause(cause);
+      } catch (IllegalStateException alreadyInitializedBecauseOfHarmonyBug) {
+        // https://code.google.com/p/android/issues/detail?id=29378
+        // Skip initCause. That's sad, but it's the best we can do without awful hacks.
+        // TODO(cpovirk): Actually, maybe we can override getCause(). Try that someday.
+      }
+    }
+    return failure;
+  }
+
   private static final StandardSubjectBuilder ASSERT =
       StandardSubjectBuilder.forCustomFailureStrategy(THROW_ASSERTION_ERROR);
 
@@ -140,8 +146,9 @@ public final class Truth {
    * <p><b>Note:</b> The failure message template string only supports the {@code "%s"} specifier,
    * not the full range of {@link java.util.Formatter} specifiers.
    *
-   * @throws IllegalArgumentException if the number of placeholders in the format string does not
-   *     equal the number of given arguments
+   * <p>The format string is not checked until a failure message is built. If an assertion fails,
+   * and the number of placeholders in the format string does not equal the number of given
+   * arguments, the assertion throws {@link IllegalArgumentException} rather than failing.
    */
   public static StandardSubjectBuilder assertWithMessage(String format, Object... args) {
     return assert_().withMessage(format, args);
@@ -17,8 +17,10 @@ package com.google.common.truth;
 
 import static com.google.common.truth.StringUtil.format;
 
+import com.google.common.truth.AssertionListener.Check;
 import java.util.LinkedHashSet;
 import java.util.Set;
+import javax.annotation.Nullable;
 import jsinterop.annotations.JsPackage;
 import jsinterop.annotations.JsType;
 
@@ -139,6 +141,24 @@ final class Platform {
     return false;
   }
 
+  private static Check currentCheck;
+
+  /** Returns the check being timed, if any. GWT has only one thread. */
+  @Nullable
+  static Check currentCheck() {
+    return currentCheck;
+  }
+
+  static void setCurrentCheck(@Nullable Check check) {
+    currentCheck = check;
+  }
+
+  /** Always returns null. Listeners must be registered explicitly. */
+  @Nullable
+  static AssertionListener initialAssertionListener() {
+    return null;
+  }
+
   // TODO(user): Move this logic to a common location.
   private static NativeRegExp compile(String pattern) {
     return new NativeRegExp(pattern);
@@ -0,0 +1,303 @@
+/*
+ * Copyright (c) 2017 Google, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.google.common.truth;
+
+import static com.google.common.truth.Truth.assertThat;
+import static java.util.Arrays.asList;
+
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableMap;
+import com.google.common.collect.ImmutableSetMultimap;
+import com.google.common.truth.AssertionListener.Check;
+import java.util.ArrayList;
+import java.util.List;
+import javax.annotation.Nullable;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.junit.runners.JUnit4;
+
+/** Tests for {@link AssertionListener}. */
+@RunWith(JUnit4.class)
+public class AssertionListenerTest {
+  @Rule public final ExpectFailure expectFailure = new ExpectFailure();
+
+  private final RecordingListener listener = new RecordingListener();
+
+  @Before
+  public void registerListener() {
+    AssertionListener.register(listener);
+  }
+
+  @After
+  public void unregisterListener() {
+    AssertionListener.unregister(listener);
+  }
+
+  @Test
+  public void subjectCreated() {
+    assertThat(1).isNotNull();
+    assertThat(events()).containsExactly("created IntegerSubject");
+  }
+
+  @Test
+  public void passingCheck() {
+    List<Integer> expected = asList(2, 1);
+    assertThat(ImmutableList.of(1, 2)).containsExactlyElementsIn(expected);
+    assertThat(events())
+        .containsExactly(
+            "created IterableSubject",
+            "started IterableSubject.containsExactlyElementsIn",
+            "finished IterableSubject.containsExactlyElementsIn passed")
+        .inOrder();
+    Check check = listener.finishedChecks.get(0);
+    assertThat(check.subjectClass()).isEqualTo(IterableSubject.class);
+    assertThat(check.actual()).isEqualTo(ImmutableList.of(1, 2));
+    assertThat(check.expected()).isSameAs(expected);
+    assertThat(check.durationNanos()).isAtLeast(0L);
+    assertThat(check.renderNanos()).isEqualTo(0L);
+  }
+
+  @Test
+  public void passingPrimitiveChecks() {
+    assertThat(1).isEqualTo(1);
+    assertThat(2L).isNotEqualTo(1L);
+    assertThat(true).isEqualTo(true);
+    assertThat(1.5).isEqualTo(1.5);
+    assertThat(1.5).isNotEqualTo(2.5);
+    assertThat(events())
+        .containsExactly(
+            "created IntegerSubject",
+            "started IntegerSubject.isEqualTo",
+            "finished IntegerSubject.isEqualTo passed",
+            "created LongSubject",
+            "started LongSubject.isNotEqualTo",
+            "finished LongSubject.isNotEqualTo passed",
+            "created BooleanSubject",
+            "started BooleanSubject.isEqualTo",
+            "finished BooleanSubject.isEqualTo passed",
+            "created DoubleSubject",
+            "started DoubleSubject.isEqualTo",
+            "finished DoubleSubject.isEqualTo passed",
+            "created DoubleSubject",
+            "started DoubleSubject.isNotEqualTo",
+            "finished DoubleSubject.isNotEqualTo passed")
+        .inOrder();
+    assertThat(listener.finishedChecks.get(0).expected()).isEqualTo(1);
+  }
+
+  @Test
+  public void varargsCheck_expectedIsList() {
+    assertThat(ImmutableList.of(1, 2, 3)).containsAllOf(1, 2, 3);
+    assertThat(finishedChecks().get(0).expected()).isEqualTo(asList(1, 2, 3));
+  }
+
+  @Test
+  public void failingCheck() {
+    expectFailure.whenTesting().that(ImmutableList.of(1, 2)).containsExactly(1);
+    assertThat(events())
+        .containsExactly(
+            "created IterableSubject",
+            "started IterableSubject.containsExactly",
+            "rendered IterableSubject during IterableSubject.containsExactly",
+            "finished IterableSubject.containsExactly failed")
+        .inOrder();
+    Check check = listener.finishedChecks.get(0);
+    assertThat(check.renderNanos()).isAtMost(check.durationNanos());
+  }
+
+  @Test
+  public void preformattedFailureFailsCheckWithoutRendering() {
+    expectFailure
+        .whenTesting()
+        .about(PreformattingSubject.FACTORY)
+        .that("abc")
+        .isEqualToPreformatted("abd");
+    assertThat(events())
+        .containsExactly(
+            "created PreformattingSubject",
+            "started PreformattingSubject.isEqualToPreformatted",
+            "finished PreformattingSubject.isEqualToPreformatted failed")
+        .inOrder();
+    assertThat(listener.finishedChecks.get(0).renderNanos()).isEqualTo(0L);
+  }
+
+  @Test
+  public void nestedChecksAreReportedOnce() {
+    assertThat(ImmutableMap.of("a", 1)).containsExactlyEntriesIn(ImmutableMap.of("a", 1));
+    assertThat(events())
+        .containsExactly(
+            "created MapSubject",
+            "started MapSubject.containsExactlyEntriesIn",
+            "created IterableSubject",
+            "finished MapSubject.containsExactlyEntriesIn passed")
+        .inOrder();
+  }
+
+  @Test
+  public void nestedCheckFailureFailsOuterCheck() {
+    expectFailure
+        .whenTesting()
+        .that(ImmutableSetMultimap.of("a", 1))
+        .isEqualTo(ImmutableSetMultimap.of("a", 2));
+    assertThat(events())
+        .containsExactly(
+            "created SetMultimapSubject",
+            "started SetMultimapSubject.isEqualTo",
+            "rendered SetMultimapSubject during SetMultimapSubject.isEqualTo",
+            "finished SetMultimapSubject.isEqualTo failed")
+        .inOrder();
+  }
+
+  @Test
+  public void correspondenceCheck() {
+    assertThat(ImmutableList.of("1", "2"))
+        .comparingElementsUsing(STRING_PARSES_TO_INTEGER)
+        .containsAnyOf(3, 2);
+    assertThat(events())
+        .containsExactly(
+            "created IterableSubject",
+            "started IterableSubject.comparingElementsUsing.containsAnyOf",
+            "finished IterableSubject.comparingElementsUsing.containsAnyOf passed")
+        .inOrder();
+  }
+
+  @Test
+  public void failureOutsideTimedCheck() {
+    expectFailure.whenTesting().that("abc").startsWith("b");
+    assertThat(events())
+        .containsExactly("created StringSubject", "rendered StringSubject")
+        .inOrder();
+  }
+
+  @Test
+  public void checksOnOtherThreadsAreIndependent() {
+    Correspondence<String, Integer> checksOnAnotherThread =
+        new Correspondence<String, Integer>() {
+          @Override
+          public boolean compare(@Nullable String actual, @Nullable Integer expected) {
+            Thread thread =
+                new Thread() {
+                  @Override
+                  public void run() {
+                    assertThat(ImmutableList.of(1)).contains(1);
+                  }
+                };
+            thread.start();
+            try {
+              thread.join();
+            } catch (InterruptedException e) {
+              throw new AssertionError(e);
+            }
+            return true;
+          }
+
+          @Override
+          public String toString() {
+            return "checks on another thread";
+          }
+        };
+    assertThat(ImmutableList.of("a")).comparingElementsUsing(checksOnAnotherThread).contains(1);
+    assertThat(finishedChecks()).hasSize(2);
+  }
+
+  @Test
+  public void unregisteredListenerReceivesNoEvents() {
+    AssertionListener.unregister(listener);
+    assertThat(ImmutableList.of(1)).contains(1);
+    assertThat(listener.events).isEmpty();
+  }
+
+  /** Stops recording, so that the test's own assertions aren't recorded, and returns the events. */
+  private List<String> events() {
+    AssertionListener.unregister(listener);
+    return listener.events;
+  }
+
+  private List<Check> finishedChecks() {
+    AssertionListener.unregister(listener);
+    return listener.finishedChecks;
+  }
+
+  private static final Correspondence<String, Integer> STRING_PARSES_TO_INTEGER =
+      new Correspondence<String, Integer>() {
+        @Override
+        public boolean compare(@Nullable String actual, @Nullable Integer expected) {
+          return actual.equals(String.valueOf(expected));
+        }
+
+        @Override
+        public String toString() {
+          return "parses to";
+        }
+      };
+
+  /** A subject with a timed check whose failure message it formats itself. */
+  private static final class PreformattingSubject extends Subject<PreformattingSubject, String> {
+    static final Subject.Factory<PreformattingSubject, String> FACTORY =
+        new Subject.Factory<PreformattingSubject, String>() {
+          @Override
+          public PreformattingSubject createSubject(FailureMetadata metadata, String actual) {
+            return new PreformattingSubject(metadata, actual);
+          }
+        };
+
+    PreformattingSubject(FailureMetadata metadata, String actual) {
+      super(metadata, actual);
+    }
+
+    void isEqualToPreformatted(String expected) {
+      Check check = startCheck("isEqualToPreformatted", expected);
+      try {
+        if (!actual().equals(expected)) {
+          failComparing("", expected, actual());
+        }
+      } finally {
+        finishCheck(check);
+      }
+    }
+  }
+
+  private static final class RecordingListener extends AssertionListener {
+    final List<String> events = new ArrayList<String>();
+    final List<Check> finishedChecks = new ArrayList<Check>();
+
+    @Override
+    public synchronized void subjectCreated(Class<?> subjectClass) {
+      events.add("created " + subjectClass.getSimpleName());
+    }
+
+    @Override
+    public synchronized void checkStarted(Check check) {
+      events.add("started " + check);
+    }
+
+    @Override
+    public synchronized void checkFinished(Check check) {
+      events.add("finished " + check + (check.passed() ? " passed" : " failed"));
+      finishedChecks.add(check);
+    }
+
+    @Override
+    public synchronized void failureRendered(
+        Class<?> subjectClass, @Nullable Check check, long renderNanos) {
+      events.add(
+          "rendered " + subjectClass.getSimpleName() + (check == null ? "" : " during " + check));
+    }
+  }
+}
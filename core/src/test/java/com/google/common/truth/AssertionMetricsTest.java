@@ -0,0 +1,113 @@
+/*
+ * Copyright (c) 2017 Google, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.google.common.truth;
+
+import static com.google.common.truth.Truth.assertThat;
+
+import com.google.common.collect.ImmutableList;
+import java.io.ByteArrayOutputStream;
+import java.io.PrintStream;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.runner.Description;
+import org.junit.runner.RunWith;
+import org.junit.runners.JUnit4;
+import org.junit.runners.model.Statement;
+
+/** Tests for {@link AssertionMetrics}. */
+@RunWith(JUnit4.class)
+public class AssertionMetricsTest {
+  @Rule public final ExpectFailure expectFailure = new ExpectFailure();
+
+  private final AssertionMetrics metrics = AssertionMetrics.create();
+
+  @Test
+  public void report() {
+    AssertionListener.register(metrics);
+    try {
+      assertThat(ImmutableList.of(1, 2)).containsExactly(2, 1);
+      assertThat(ImmutableList.of(1, 2)).containsExactly(1, 2);
+      expectFailure.whenTesting().that(ImmutableList.of(1)).containsExactly(2);
+      try {
+        assertThat("abc").startsWith("b");
+        throw new Error("Expected to fail.");
+      } catch (AssertionError expected) {
+      }
+    } finally {
+      AssertionListener.unregister(metrics);
+    }
+
+    String report = metrics.report();
+    assertThat(report).startsWith("Truth assertion metrics\nChecks, by total time:\n");
+    assertThat(report).contains("  IterableSubject.containsExactly: 3 calls (1 failed), total ");
+    assertThat(report).contains(", formatting failures ");
+    assertThat(report).contains("Failure messages of other checks, by total time:\n");
+    assertThat(report).contains("  StringSubject: 1 failures, total ");
+    assertThat(report).contains("Subjects created:\n  IterableSubject: 3\n  StringSubject: 1\n");
+  }
+
+  @Test
+  public void report_histogram() {
+    AssertionListener.register(metrics);
+    try {
+      assertThat(ImmutableList.of(1)).contains(1);
+    } finally {
+      AssertionListener.unregister(metrics);
+    }
+
+    assertThat(metrics.report()).containsMatch("IterableSubject.contains: .*\n    <\\w+: 1\n");
+  }
+
+  @Test
+  public void report_empty() {
+    assertThat(metrics.report()).isEqualTo("Truth assertion metrics\n");
+  }
+
+  @Test
+  public void reset() {
+    AssertionListener.register(metrics);
+    try {
+      assertThat(ImmutableList.of(1)).contains(1);
+    } finally {
+      AssertionListener.unregister(metrics);
+    }
+    metrics.reset();
+
+    assertThat(metrics.report()).isEqualTo("Truth assertion metrics\n");
+  }
+
+  @Test
+  public void asRule() throws Throwable {
+    ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+    Statement statement =
+        new Statement() {
+          @Override
+          public void evaluate() {
+            assertThat(ImmutableList.of(1)).containsNoneOf(2, 3);
+          }
+        };
+
+    metrics
+        .asRule(new PrintStream(bytes, true, "UTF-8"))
+        .apply(statement, Description.EMPTY)
+        .evaluate();
+    assertThat(ImmutableList.of(1)).contains(1);
+
+    assertThat(bytes.toString("UTF-8")).isEqualTo(metrics.report());
+    assertThat(metrics.report()).contains("IterableSubject.containsNoneOf: 1 calls");
+    assertThat(metrics.report()).doesNotContain("IterableSubject.contains:");
+  }
+}
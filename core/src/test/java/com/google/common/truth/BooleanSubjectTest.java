@@ -74,4 +74,42 @@ public class BooleanSubjectTest {
         .hasMessageThat()
         .isEqualTo("The subject was expected to be false, but was true");
   }
+
+  @Test
+  public void isEqualTo() {
+    assertThat(true).isEqualTo(true);
+    assertThat(false).isEqualTo(false);
+  }
+
+  @Test
+  public void isEqualToFailing() {
+    expectFailure.whenTesting().that(true).isEqualTo(false);
+    assertThat(expectFailure.getFailure())
+        .hasMessageThat()
+        .isEqualTo("Not true that <true> is equal to <false>");
+  }
+
+  @Test
+  public void nullIsEqualToFailing() {
+    Boolean nullBoolean = null;
+    expectFailure.whenTesting().that(nullBoolean).isEqualTo(true);
+    assertThat(expectFailure.getFailure())
+        .hasMessageThat()
+        .isEqualTo("Not true that <null> is equal to <true>");
+  }
+
+  @Test
+  public void isNotEqualTo() {
+    assertThat(true).isNotEqualTo(false);
+    Boolean nullBoolean = null;
+    assertThat(nullBoolean).isNotEqualTo(false);
+  }
+
+  @Test
+  public void isNotEqualToFailing() {
+    expectFailure.whenTesting().that(false).isNotEqualTo(false);
+    assertThat(expectFailure.getFailure())
+        .hasMessageThat()
+        .isEqualTo("Not true that <false> is not equal to <false>");
+  }
 }
@@ -221,7 +221,7 @@ public class CustomFailureMessageTest {
   @Test
   public void extraPlaceholderThrowsIae() {
     try {
-      assert_().withMessage("This is a %s %s", "custom").that(true).isTrue();
+      assert_().withMessage("This is a %s %s", "custom").that(true).isFalse();
       fail("Should have thrown");
     } catch (IllegalArgumentException expected) {
     }
@@ -230,7 +230,7 @@ public class CustomFailureMessageTest {
   @Test
   public void missingPlaceholderThrowsIae() {
     try {
-      assert_().withMessage("This is a %s", "custom", "message").that(true).isTrue();
+      assert_().withMessage("This is a %s", "custom", "message").that(true).isFalse();
       fail("Should have thrown");
     } catch (IllegalArgumentException expected) {
     }
@@ -239,12 +239,42 @@ public class CustomFailureMessageTest {
   @Test
   public void noPlaceholdersWithArgsThrowsIae() {
     try {
-      assert_().withMessage("This is a custom message", "bad arg").that(true).isTrue();
+      assert_().withMessage("This is a custom message", "bad arg").that(true).isFalse();
       fail("Should have thrown");
     } catch (IllegalArgumentException expected) {
     }
   }
 
+  @Test
+  public void placeholdersArentCheckedIfAssertionPasses() {
+    assert_().withMessage("This is a %s %s", "custom").that(true).isTrue();
+    assertWithMessage("This is a custom message", "bad arg").that(true).isTrue();
+  }
+
+  @Test
+  public void nestedMessagesAreJoinedInOrder() {
+    StandardSubjectBuilder outer = assertWithMessage("outer %s", 1);
+    StandardSubjectBuilder inner = outer.withMessage("inner %s", 2);
+    try {
+      inner.withMessage("innermost").that(false).isTrue();
+    } catch (AssertionError expected) {
+      assertThat(expected)
+          .hasMessageThat()
+          .isEqualTo(
+              "outer 1: inner 2: innermost: The subject was expected to be true, but was false");
+      // Adding messages to a derived builder does not affect the builders it was derived from.
+      try {
+        outer.withMessage("sibling").that(false).isTrue();
+      } catch (AssertionError expected2) {
+        assertThat(expected2)
+            .hasMessageThat()
+            .isEqualTo("outer 1: sibling: The subject was expected to be true, but was false");
+        return;
+      }
+    }
+    fail("Should have thrown");
+  }
+
   @Test
   public void placeholdersArentEagerlyEvaluated() {
     Object toStringThrows =
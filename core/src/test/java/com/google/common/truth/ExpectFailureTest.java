@@ -17,6 +17,8 @@ package com.google.common.truth;
 
 import static com.google.common.truth.Truth.assertThat;
 
+import com.google.common.testing.SerializableTester;
+import org.junit.ComparisonFailure;
 import org.junit.Rule;
 import org.junit.Test;
 import org.junit.rules.ExpectedException;
@@ -48,6 +50,34 @@ public class ExpectFailureTest {
     assertThat(expectFailure.getFailure()).hasCauseThat().isInstanceOf(NullPointerException.class);
   }
 
+  @Test
+  public void expectFail_stackTraceIsCleanedWhenRead() {
+    expectFailure.whenTesting().that(4).isEqualTo(5);
+    StackTraceElement[] stackTrace = expectFailure.getFailure().getStackTrace();
+    assertThat(stackTrace[0].getClassName()).isEqualTo(ExpectFailureTest.class.getName());
+    assertThat(stackTrace[0].getMethodName()).isEqualTo("expectFail_stackTraceIsCleanedWhenRead");
+  }
+
+  @Test
+  public void expectFail_failureIsSerializable() {
+    expectFailure.whenTesting().that("abc").isEqualTo("abd");
+    AssertionError failure = SerializableTester.reserialize(expectFailure.getFailure());
+    assertThat(failure.getMessage()).isEqualTo(expectFailure.getFailure().getMessage());
+    assertThat(failure.getStackTrace()[0].getClassName())
+        .isEqualTo(ExpectFailureTest.class.getName());
+  }
+
+  @Test
+  public void expectFail_comparisonFailure() {
+    expectFailure.whenTesting().that("abc").isEqualTo("abd");
+    assertThat(expectFailure.getFailure()).isInstanceOf(ComparisonFailure.class);
+    ComparisonFailure failure = (ComparisonFailure) expectFailure.getFailure();
+    assertThat(failure.getExpected()).isEqualTo("abd");
+    assertThat(failure.getActual()).isEqualTo("abc");
+    assertThat(failure.getStackTrace()[0].getClassName())
+        .isEqualTo(ExpectFailureTest.class.getName());
+  }
+
   @Test
   public void expectFail_about() {
     expectFailure.whenTesting().about(strings()).that("foo").isEqualTo("bar");
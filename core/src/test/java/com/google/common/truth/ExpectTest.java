@@ -15,8 +15,12 @@
  */
 package com.google.common.truth;
 
+import static com.google.common.truth.Truth.assertThat;
 import static com.google.common.truth.TruthJUnit.assume;
+import static org.junit.Assert.fail;
 
+import java.util.ArrayList;
+import java.util.List;
 import org.junit.Rule;
 import org.junit.Test;
 import org.junit.rules.ExpectedException;
@@ -131,6 +135,119 @@ public class ExpectTest {
     EXPECT.that("abc").contains("y");
   }
 
+  @Test
+  public void reportingAtMostCountsTheRest() throws Throwable {
+    final Expect expect = Expect.createReportingAtMost(2);
+    String message =
+        failureMessageOf(
+            expect,
+            new Statement() {
+              @Override
+              public void evaluate() {
+                for (int i = 0; i < 5; i++) {
+                  expect.that(i).isEqualTo(-1);
+                }
+              }
+            });
+    assertThat(message)
+        .isEqualTo(
+            "5 expectations failed:\n"
+                + "  1. Not true that <0> is equal to <-1>\n"
+                + "  2. Not true that <1> is equal to <-1>\n"
+                + "  (3 more failures not reported)\n");
+  }
+
+  @Test
+  public void reportingAtMostStillReportsException() throws Throwable {
+    final Expect expect = Expect.createReportingAtMost(1);
+    String message =
+        failureMessageOf(
+            expect,
+            new Statement() {
+              @Override
+              public void evaluate() {
+                expect.that(0).isEqualTo(-1);
+                expect.that(1).isEqualTo(-1);
+                throw new IllegalStateException("testing");
+              }
+            });
+    assertThat(message)
+        .isEqualTo(
+            "3 expectations failed:\n"
+                + "  1. Not true that <0> is equal to <-1>\n"
+                + "  3. Failures occurred before an exception was thrown while the test was "
+                + "running: java.lang.IllegalStateException: testing\n"
+                + "  (1 more failure not reported)\n");
+  }
+
+  @Test
+  public void stackTracesOnlyForTheFirstFailures() throws Throwable {
+    final Expect expect = Expect.createAndEnableStackTrace(1);
+    String message =
+        failureMessageOf(
+            expect,
+            new Statement() {
+              @Override
+              public void evaluate() {
+                expect.that(0).isEqualTo(-1);
+                expect.that(1).isEqualTo(-1);
+              }
+            });
+    assertThat(message)
+        .startsWith("2 expectations failed:\n  1. Not true that <0> is equal to <-1>\n");
+    assertThat(message).contains("\tat ");
+    assertThat(message).endsWith("\n  2. Not true that <1> is equal to <-1>\n");
+  }
+
+  @Test
+  public void failuresFromOtherThreads() throws Throwable {
+    final Expect expect = Expect.create();
+    String message =
+        failureMessageOf(
+            expect,
+            new Statement() {
+              @Override
+              public void evaluate() throws InterruptedException {
+                expect.that(0).isEqualTo(-1);
+                List<Thread> workers = new ArrayList<Thread>();
+                for (int i = 0; i < 4; i++) {
+                  workers.add(
+                      new Thread("worker-" + i) {
+                        @Override
+                        public void run() {
+                          for (int j = 0; j < 250; j++) {
+                            expect.that(j).isEqualTo(-1);
+                          }
+                        }
+                      });
+                }
+                for (Thread worker : workers) {
+                  worker.start();
+                }
+                for (Thread worker : workers) {
+                  worker.join();
+                }
+              }
+            });
+    assertThat(message).startsWith("1001 expectations failed:\n  1. Not true that <0>");
+    assertThat(message).contains("\n  2. (in thread worker-");
+    assertThat(message).contains("\n  1001. (in thread worker-");
+    assertThat(message.indexOf("\n  1000. ")).isLessThan(message.indexOf("\n  1001. "));
+    for (int i = 0; i < 4; i++) {
+      assertThat(message).contains("(in thread worker-" + i + ") Not true that <249>");
+    }
+  }
+
+  private static String failureMessageOf(Expect expect, Statement base) throws Throwable {
+    try {
+      expect.apply(base, Description.EMPTY).evaluate();
+    } catch (AssertionError expected) {
+      return expected.getMessage();
+    }
+    fail("Expected the Expect rule to fail");
+    return null;
+  }
+
   @Test
   public void warnWhenExpectIsNotRule() {
     String message = "assertion made on Expect instance, but it's not enabled as a @Rule.";
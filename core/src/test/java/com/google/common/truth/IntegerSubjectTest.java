@@ -99,6 +99,17 @@ public class IntegerSubjectTest {
         .contains("Not true that <null> is equal to <5>");
   }
 
+  @Test
+  public void equalityOfValuesOutsideBoxCache() {
+    assertThat(100000).isEqualTo(100000);
+    assertThat(100000L).isEqualTo(100000);
+    assertThat(100000).isNotEqualTo(100001);
+    expectFailure.whenTesting().that(100000).named("big").isEqualTo(100001);
+    assertThat(expectFailure.getFailure())
+        .hasMessageThat()
+        .isEqualTo("Not true that big (<100000>) is equal to <100001>");
+  }
+
   @Test
   public void equalityOfNullsFail_expectNull() {
     expectFailure.whenTesting().that(5).isEqualTo((Integer) null);
@@ -19,6 +19,7 @@ import static com.google.common.truth.Truth.assertThat;
 import static org.junit.Assert.fail;
 
 import com.google.common.collect.HashMultiset;
+import com.google.common.collect.ImmutableList;
 import com.google.common.collect.ImmutableMultiset;
 import com.google.common.collect.Multiset;
 import org.junit.Rule;
@@ -159,4 +160,139 @@ public class MultisetSubjectTest {
         .hasMessageThat()
         .isEqualTo("<[null]> should not have contained <null>");
   }
+
+  @Test
+  public void hasCountAtLeast() {
+    ImmutableMultiset<String> multiset = ImmutableMultiset.of("kurt", "kurt", "kluever");
+    assertThat(multiset).hasCountAtLeast("kurt", 2);
+    assertThat(multiset).hasCountAtLeast("kurt", 1);
+    assertThat(multiset).hasCountAtLeast("alfred", 0);
+  }
+
+  @Test
+  public void hasCountAtLeastFail() {
+    ImmutableMultiset<String> multiset = ImmutableMultiset.of("kurt", "kurt", "kluever");
+    expectFailure.whenTesting().that(multiset).hasCountAtLeast("kurt", 3);
+    assertThat(expectFailure.getFailure())
+        .hasMessageThat()
+        .isEqualTo(
+            "Not true that <[kurt x 2, kluever]> has a count for <kurt> of at least <3>. "
+                + "It is <2>");
+  }
+
+  @Test
+  public void hasCountsExactly() {
+    Multiset<String> multiset = HashMultiset.create();
+    multiset.add("kurt", 1000000000);
+    multiset.add("kluever");
+    Multiset<String> expected = HashMultiset.create();
+    expected.add("kluever");
+    expected.add("kurt", 1000000000);
+    assertThat(multiset).hasCountsExactly(expected);
+  }
+
+  @Test
+  public void hasCountsExactlyFail() {
+    expectFailure
+        .whenTesting()
+        .that(ImmutableMultiset.of("a", "a", "a", "b"))
+        .hasCountsExactly(ImmutableMultiset.of("a", "a", "c"));
+    assertThat(expectFailure.getFailure())
+        .hasMessageThat()
+        .isEqualTo(
+            "Not true that <[a x 3, b]> has counts exactly <[a x 2, c]>. It has different counts "
+                + "for <[a (expected 2, was 3), c (expected 1, was 0), b (expected 0, was 1)]>");
+  }
+
+  @Test
+  public void containsExactlyElementsInMultiset() {
+    Multiset<String> multiset = HashMultiset.create();
+    multiset.add("kurt", 1000000000);
+    Multiset<String> expected = HashMultiset.create();
+    expected.add("kurt", 1000000000);
+    assertThat(multiset).containsExactlyElementsIn(expected).inOrder();
+  }
+
+  @Test
+  public void containsExactlyElementsInMultiset_notInOrder() {
+    assertThat(ImmutableMultiset.of("a", "a", "b"))
+        .containsExactlyElementsIn(ImmutableMultiset.of("b", "a", "a"));
+    expectFailure
+        .whenTesting()
+        .that(ImmutableMultiset.of("a", "a", "b"))
+        .containsExactlyElementsIn(ImmutableMultiset.of("b", "a", "a"))
+        .inOrder();
+    assertThat(expectFailure.getFailure())
+        .hasMessageThat()
+        .isEqualTo(
+            "Not true that <[a x 2, b]> contains exactly these elements in order <[b, a x 2]>");
+  }
+
+  @Test
+  public void containsExactlyElementsInMultisetFail() {
+    expectFailure
+        .whenTesting()
+        .that(ImmutableMultiset.of("a", "a", "a", "b"))
+        .containsExactlyElementsIn(ImmutableMultiset.of("a", "a", "c"));
+    assertThat(expectFailure.getFailure())
+        .hasMessageThat()
+        .isEqualTo(
+            "Not true that <[a x 3, b]> contains exactly <[a x 2, c]>. "
+                + "It is missing <[c]> and has unexpected items <[a, b]>");
+  }
+
+  @Test
+  public void containsExactlyElementsInMultisetFail_missingCopies() {
+    expectFailure
+        .whenTesting()
+        .that(ImmutableMultiset.of("a"))
+        .containsExactlyElementsIn(ImmutableMultiset.of("a", "a", "a"));
+    assertThat(expectFailure.getFailure())
+        .hasMessageThat()
+        .isEqualTo("Not true that <[a]> contains exactly <[a x 3]>. It is missing <[a x 2]>");
+  }
+
+  @Test
+  public void containsAllInMultiset() {
+    assertThat(ImmutableMultiset.of("a", "a", "b")).containsAllIn(ImmutableMultiset.of("a", "a"));
+    assertThat(ImmutableMultiset.of("a", "a", "b"))
+        .containsAllIn(ImmutableMultiset.of("a", "b"))
+        .inOrder();
+  }
+
+  @Test
+  public void containsAllInMultisetFail() {
+    expectFailure
+        .whenTesting()
+        .that(ImmutableMultiset.of("a", "b"))
+        .containsAllIn(ImmutableMultiset.of("a", "a", "c"));
+    assertThat(expectFailure.getFailure())
+        .hasMessageThat()
+        .isEqualTo(
+            "Not true that <[a, b]> contains all elements in <[a x 2, c]>. "
+                + "It is missing <[a, c]>");
+  }
+
+  @Test
+  public void containsAllInMultisetFail_notInOrder() {
+    expectFailure
+        .whenTesting()
+        .that(ImmutableMultiset.of("a", "b"))
+        .containsAllIn(ImmutableMultiset.of("b", "a"))
+        .inOrder();
+    assertThat(expectFailure.getFailure())
+        .hasMessageThat()
+        .isEqualTo("Not true that <[a, b]> contains all elements in order <[b, a]>");
+  }
+
+  @Test
+  public void containsExactlyElementsInList() {
+    expectFailure
+        .whenTesting()
+        .that(ImmutableMultiset.of("a", "a"))
+        .containsExactlyElementsIn(ImmutableList.of("a"));
+    assertThat(expectFailure.getFailure())
+        .hasMessageThat()
+        .isEqualTo("Not true that <[a x 2]> contains exactly <[a]>. It has unexpected items <[a]>");
+  }
 }
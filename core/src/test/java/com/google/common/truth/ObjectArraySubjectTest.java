@@ -326,6 +326,38 @@ public class ObjectArraySubjectTest {
                 + "is equal to <[[1, 2], [3], [4, 5, 6, 7]]>. It differs at index <[2][3]>");
   }
 
+  @Test
+  public void primitiveMultiDimensionalArrayIsEqualTo_Fail_UnequalValue() {
+    expectFailure
+        .whenTesting()
+        .that(new double[][][] {{{1.0}, {2.0, 3.0}}})
+        .isEqualTo(new double[][][] {{{1.0}, {2.0, -3.0}}});
+    assertThat(expectFailure.getFailure())
+        .hasMessageThat()
+        .isEqualTo(
+            "Not true that <(double[][][]) [[[1.0], [2.0, 3.0]]]> "
+                + "is equal to <[[[1.0], [2.0, -3.0]]]>. It differs at index <[0][1][1]>");
+  }
+
+  @Test
+  public void primitiveMultiDimensionalArrayIsEqualTo_NaN() {
+    assertThat(new double[][] {{Double.NaN}}).isEqualTo(new double[][] {{Double.NaN}});
+    assertThat(new double[][] {{0.0}}).isNotEqualTo(new double[][] {{-0.0}});
+  }
+
+  @Test
+  public void mixedPrimitiveArrayTypes_Fail() {
+    expectFailure
+        .whenTesting()
+        .that(new Object[] {new int[] {1, 2}})
+        .isEqualTo(new Object[] {new long[] {1, 2}});
+    assertThat(expectFailure.getFailure())
+        .hasMessageThat()
+        .isEqualTo(
+            "Not true that <(Object[]) [[1, 2]]> is equal to <[[1, 2]]>. "
+                + "It differs at index <[0][0]>");
+  }
+
   @Test
   public void primitiveMultiDimensionalArrayIsNotEqualTo() {
     assertThat(new int[][] {{1, 2}, {3}, {4, 5, 6}})
@@ -54,7 +54,8 @@ public class PrimitiveBooleanArraySubjectTest {
     assertThat(expectFailure.getFailure())
         .hasMessageThat()
         .isEqualTo(
-            "Not true that <(boolean[]) [true, false, true]> is equal to <[false, true, true]>");
+            "Not true that <(boolean[]) [true, false, true]> is equal to <[false, true, true]>. "
+                + "It differs at <2> indexes, starting at index <0>");
   }
 
   @Test
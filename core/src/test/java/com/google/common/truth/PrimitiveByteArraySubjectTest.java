@@ -70,7 +70,9 @@ public class PrimitiveByteArraySubjectTest {
             "Not true that <(byte[]) [124, 112, 1, 0, 0, 1, 0, 0, 0, 0, 0, 0, 7, 101, 120, 97, "
                 + "109, 112, 108, 101, 3, 99, 111, 109, 0, 0, 1, 0, 0]> is equal to "
                 + "<[124, 112, 1, 0, 0, 1, 0, 0, 0, 0, 0, 0, 7, 101, 120, 97, 109, 112, 108, "
-                + "101, 3, 99, 111, 109, 0, 0, 1, 0, 1]>; "
+                + "101, 3, 99, 111, 109, 0, 0, 1, 0, 1]>. "
+                + "It differs at index <28>. Around that index, "
+                + "expected <[..., 109, 0, 0, 1, 0, 1]> but was <[..., 109, 0, 0, 1, 0, 0]>; "
                 + "expected:<...C6503636F6D000001000[1]>"
                 + " but was:<...C6503636F6D000001000[0]>");
   }
@@ -81,7 +83,8 @@ public class PrimitiveByteArraySubjectTest {
     assertThat(expectFailure.getFailure())
         .hasMessageThat()
         .isEqualTo(
-            "Not true that <(byte[]) [0, 1]> is equal to <[1, 0]>; "
+            "Not true that <(byte[]) [0, 1]> is equal to <[1, 0]>. "
+                + "It differs at <2> indexes, starting at index <0>; "
                 + "expected:<0[100]> but was:<0[001]>");
   }
 
@@ -53,7 +53,9 @@ public class PrimitiveCharArraySubjectTest {
     expectFailure.whenTesting().that(array('a', 'q')).isEqualTo(array('q', 'a'));
     assertThat(expectFailure.getFailure())
         .hasMessageThat()
-        .isEqualTo("Not true that <(char[]) [a, q]> is equal to <[q, a]>");
+        .isEqualTo(
+            "Not true that <(char[]) [a, q]> is equal to <[q, a]>. "
+                + "It differs at <2> indexes, starting at index <0>");
   }
 
   @Test
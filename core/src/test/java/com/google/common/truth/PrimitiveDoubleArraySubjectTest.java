@@ -54,7 +54,10 @@ public class PrimitiveDoubleArraySubjectTest {
     expectFailure.whenTesting().that(array(2.2d)).isEqualTo(array(justOverTwoPointTwo));
     assertThat(expectFailure.getFailure())
         .hasMessageThat()
-        .isEqualTo("Not true that <(double[]) [2.2]> is equal to <[" + justOverTwoPointTwo + "]>");
+        .isEqualTo(
+            "Not true that <(double[]) [2.2]> is equal to <["
+                + justOverTwoPointTwo
+                + "]>. It differs at index <0>");
   }
 
   @Test
@@ -62,7 +65,9 @@ public class PrimitiveDoubleArraySubjectTest {
     expectFailure.whenTesting().that(array(2.2d, 3.3d)).isEqualTo(array(3.3d, 2.2d));
     assertThat(expectFailure.getFailure())
         .hasMessageThat()
-        .isEqualTo("Not true that <(double[]) [2.2, 3.3]> is equal to <[3.3, 2.2]>");
+        .isEqualTo(
+            "Not true that <(double[]) [2.2, 3.3]> is equal to <[3.3, 2.2]>. "
+                + "It differs at <2> indexes, starting at index <0>");
   }
 
   @Test
@@ -70,7 +75,9 @@ public class PrimitiveDoubleArraySubjectTest {
     expectFailure.whenTesting().that(array(2.2d, 3.3d)).isEqualTo(array(2.2d, 3.3d, 4.4d));
     assertThat(expectFailure.getFailure())
         .hasMessageThat()
-        .isEqualTo("Not true that <(double[]) [2.2, 3.3]> is equal to <[2.2, 3.3, 4.4]>");
+        .isEqualTo(
+            "Not true that <(double[]) [2.2, 3.3]> is equal to <[2.2, 3.3, 4.4]>. "
+                + "It differs at index <2>");
   }
 
   @Test
@@ -78,7 +85,8 @@ public class PrimitiveDoubleArraySubjectTest {
     expectFailure.whenTesting().that(array(2.2d, 3.3d)).isEqualTo(array(2.2d));
     assertThat(expectFailure.getFailure())
         .hasMessageThat()
-        .isEqualTo("Not true that <(double[]) [2.2, 3.3]> is equal to <[2.2]>");
+        .isEqualTo(
+            "Not true that <(double[]) [2.2, 3.3]> is equal to <[2.2]>. It differs at index <1>");
   }
 
   @Test
@@ -86,7 +94,8 @@ public class PrimitiveDoubleArraySubjectTest {
     expectFailure.whenTesting().that(array(0.0d)).isEqualTo(array(-0.0d));
     assertThat(expectFailure.getFailure())
         .hasMessageThat()
-        .isEqualTo("Not true that <(double[]) [0.0]> is equal to <[-0.0]>");
+        .isEqualTo(
+            "Not true that <(double[]) [0.0]> is equal to <[-0.0]>. It differs at index <0>");
   }
 
   @Test
@@ -54,7 +54,10 @@ public class PrimitiveFloatArraySubjectTest {
     expectFailure.whenTesting().that(array(2.2f)).isEqualTo(array(justOverTwoPointTwo));
     assertThat(expectFailure.getFailure())
         .hasMessageThat()
-        .isEqualTo("Not true that <(float[]) [2.2]> is equal to <[" + justOverTwoPointTwo + "]>");
+        .isEqualTo(
+            "Not true that <(float[]) [2.2]> is equal to <["
+                + justOverTwoPointTwo
+                + "]>. It differs at index <0>");
   }
 
   @Test
@@ -62,7 +65,9 @@ public class PrimitiveFloatArraySubjectTest {
     expectFailure.whenTesting().that(array(2.2f, 3.3f)).isEqualTo(array(3.3f, 2.2f));
     assertThat(expectFailure.getFailure())
         .hasMessageThat()
-        .isEqualTo("Not true that <(float[]) [2.2, 3.3]> is equal to <[3.3, 2.2]>");
+        .isEqualTo(
+            "Not true that <(float[]) [2.2, 3.3]> is equal to <[3.3, 2.2]>. "
+                + "It differs at <2> indexes, starting at index <0>");
   }
 
   @Test
@@ -70,7 +75,9 @@ public class PrimitiveFloatArraySubjectTest {
     expectFailure.whenTesting().that(array(2.2f, 3.3f)).isEqualTo(array(2.2f, 3.3f, 4.4f));
     assertThat(expectFailure.getFailure())
         .hasMessageThat()
-        .isEqualTo("Not true that <(float[]) [2.2, 3.3]> is equal to <[2.2, 3.3, 4.4]>");
+        .isEqualTo(
+            "Not true that <(float[]) [2.2, 3.3]> is equal to <[2.2, 3.3, 4.4]>. "
+                + "It differs at index <2>");
   }
 
   @Test
@@ -78,7 +85,8 @@ public class PrimitiveFloatArraySubjectTest {
     expectFailure.whenTesting().that(array(2.2f, 3.3f)).isEqualTo(array(2.2f));
     assertThat(expectFailure.getFailure())
         .hasMessageThat()
-        .isEqualTo("Not true that <(float[]) [2.2, 3.3]> is equal to <[2.2]>");
+        .isEqualTo(
+            "Not true that <(float[]) [2.2, 3.3]> is equal to <[2.2]>. It differs at index <1>");
   }
 
   @Test
@@ -86,7 +94,8 @@ public class PrimitiveFloatArraySubjectTest {
     expectFailure.whenTesting().that(array(0.0f)).isEqualTo(array(-0.0f));
     assertThat(expectFailure.getFailure())
         .hasMessageThat()
-        .isEqualTo("Not true that <(float[]) [0.0]> is equal to <[-0.0]>");
+        .isEqualTo(
+            "Not true that <(float[]) [0.0]> is equal to <[-0.0]>. It differs at index <0>");
   }
 
   @Test
@@ -102,7 +102,39 @@ public class PrimitiveIntArraySubjectTest {
     expectFailure.whenTesting().that(array(2, 3)).isEqualTo(array(3, 2));
     assertThat(expectFailure.getFailure())
         .hasMessageThat()
-        .isEqualTo("Not true that <(int[]) [2, 3]> is equal to <[3, 2]>");
+        .isEqualTo(
+            "Not true that <(int[]) [2, 3]> is equal to <[3, 2]>. "
+                + "It differs at <2> indexes, starting at index <0>");
+  }
+
+  @Test
+  public void isEqualTo_Fail_LongArrays() {
+    int[] actual = new int[20];
+    int[] expected = new int[20];
+    for (int i = 0; i < 20; i++) {
+      actual[i] = i;
+      expected[i] = i;
+    }
+    expected[12] = -1;
+    expected[15] = -1;
+    expectFailure.whenTesting().that(actual).isEqualTo(expected);
+    assertThat(expectFailure.getFailure())
+        .hasMessageThat()
+        .endsWith(
+            ". It differs at <2> indexes, starting at index <12>. Around that index, "
+                + "expected <[..., 7, 8, 9, 10, 11, -1, 13, 14, -1, 16, 17, ...]> "
+                + "but was <[..., 7, 8, 9, 10, 11, 12, 13, 14, 15, 16, 17, ...]>");
+  }
+
+  @Test
+  public void isEqualTo_Fail_LongArraysDifferentLengths() {
+    int[] actual = new int[12];
+    expectFailure.whenTesting().that(actual).isEqualTo(new int[13]);
+    assertThat(expectFailure.getFailure())
+        .hasMessageThat()
+        .endsWith(
+            ". It differs at index <12>. Around that index, "
+                + "expected <[..., 0, 0, 0, 0, 0, 0]> but was <[..., 0, 0, 0, 0, 0]>");
   }
 
   @Test
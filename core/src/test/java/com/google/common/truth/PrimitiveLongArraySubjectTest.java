@@ -53,7 +53,9 @@ public class PrimitiveLongArraySubjectTest {
     expectFailure.whenTesting().that(array(2, 3)).isEqualTo(array(3, 2));
     assertThat(expectFailure.getFailure())
         .hasMessageThat()
-        .isEqualTo("Not true that <(long[]) [2, 3]> is equal to <[3, 2]>");
+        .isEqualTo(
+            "Not true that <(long[]) [2, 3]> is equal to <[3, 2]>. "
+                + "It differs at <2> indexes, starting at index <0>");
   }
 
   @Test
@@ -64,7 +64,9 @@ public class PrimitiveShortArraySubjectTest {
     expectFailure.whenTesting().that(array(1, 0, 1)).isEqualTo(array(0, 1, 1));
     assertThat(expectFailure.getFailure())
         .hasMessageThat()
-        .isEqualTo("Not true that <(short[]) [1, 0, 1]> is equal to <[0, 1, 1]>");
+        .isEqualTo(
+            "Not true that <(short[]) [1, 0, 1]> is equal to <[0, 1, 1]>. "
+                + "It differs at <2> indexes, starting at index <0>");
   }
 
   @Test
@@ -0,0 +1,171 @@
+/*
+ * Copyright (c) 2017 Google, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.google.common.truth;
+
+import static com.google.common.truth.Truth.assertThat;
+import static java.util.concurrent.TimeUnit.MILLISECONDS;
+import static java.util.concurrent.TimeUnit.SECONDS;
+import static org.junit.Assert.fail;
+
+import com.google.common.collect.ImmutableList;
+import java.io.ByteArrayOutputStream;
+import java.io.PrintStream;
+import javax.annotation.Nullable;
+import org.junit.Test;
+import org.junit.runner.Description;
+import org.junit.runner.RunWith;
+import org.junit.runners.JUnit4;
+import org.junit.runners.model.Statement;
+
+/** Tests for {@link SlowAssertionRule}. */
+@RunWith(JUnit4.class)
+public class SlowAssertionRuleTest {
+  private static final Description TEST = Description.createTestDescription("Foo", "testFoo");
+
+  private final ByteArrayOutputStream output = new ByteArrayOutputStream();
+
+  @Test
+  public void reportsSlowChecks() throws Throwable {
+    run(rule(MILLISECONDS.toNanos(1)), SLOW_CHECK);
+    assertThat(output())
+        .matches(
+            "1 slow Truth check in testFoo\\(Foo\\):\n"
+                + "  IterableSubject.comparingElementsUsing.containsExactlyElementsIn took "
+                + "\\S+ \\(comparing \\S+\\), actual has 2 elements, expected has 2 elements\n");
+  }
+
+  @Test
+  public void reportsFailureFormattingSeparately() throws Throwable {
+    Statement failingCheck =
+        new Statement() {
+          @Override
+          public void evaluate() {
+            assertThat(ImmutableList.of(1)).containsExactly(2);
+          }
+        };
+    try {
+      run(rule(0), failingCheck);
+      fail("Should have thrown");
+    } catch (AssertionError expected) {
+      assertThat(expected).hasMessageThat().contains("<[1]> contains exactly <[2]>");
+    }
+    assertThat(output())
+        .containsMatch(
+            "IterableSubject.containsExactly took \\S+ "
+                + "\\(comparing \\S+, formatting failures \\S+\\)");
+  }
+
+  @Test
+  public void ignoresFastChecks() throws Throwable {
+    run(rule(SECONDS.toNanos(10)), SLOW_CHECK);
+    assertThat(output()).isEmpty();
+  }
+
+  @Test
+  public void failsTestOverBudget() throws Throwable {
+    try {
+      run(rule(0).failingAbove(1, MILLISECONDS), SLOW_CHECK);
+      fail("Should have thrown");
+    } catch (AssertionError expected) {
+      assertThat(expected)
+          .hasMessageThat()
+          .startsWith("1 slow Truth check in testFoo(Foo), budget 1.0ms:\n");
+    }
+    assertThat(output()).isEmpty();
+  }
+
+  @Test
+  public void ignoresChecksOnOtherThreads() throws Throwable {
+    Statement slowCheckOnOtherThread =
+        new Statement() {
+          @Override
+          public void evaluate() throws InterruptedException {
+            Thread thread =
+                new Thread() {
+                  @Override
+                  public void run() {
+                    try {
+                      SLOW_CHECK.evaluate();
+                    } catch (Throwable t) {
+                      throw new AssertionError(t);
+                    }
+                  }
+                };
+            thread.start();
+            thread.join();
+          }
+        };
+    run(rule(0).failingAbove(1, MILLISECONDS), slowCheckOnOtherThread);
+    assertThat(output()).isEmpty();
+  }
+
+  @Test
+  public void failingAbove_budgetBelowThreshold() {
+    try {
+      SlowAssertionRule.create(10, MILLISECONDS).failingAbove(1, MILLISECONDS);
+      fail("Should have thrown");
+    } catch (IllegalArgumentException expected) {
+    }
+  }
+
+  @Test
+  public void unregistersAfterTest() throws Throwable {
+    run(rule(0), SLOW_CHECK);
+    output.reset();
+    SLOW_CHECK.evaluate();
+    assertThat(output()).isEmpty();
+  }
+
+  private SlowAssertionRule rule(long thresholdNanos) {
+    return new SlowAssertionRule(thresholdNanos, Long.MAX_VALUE, new PrintStream(output, true));
+  }
+
+  private static void run(SlowAssertionRule rule, Statement statement) throws Throwable {
+    rule.apply(statement, TEST).evaluate();
+  }
+
+  private String output() {
+    return output.toString();
+  }
+
+  private static final Statement SLOW_CHECK =
+      new Statement() {
+        @Override
+        public void evaluate() {
+          assertThat(ImmutableList.of(1, 2))
+              .comparingElementsUsing(SLOWLY_EQUALS)
+              .containsExactlyElementsIn(ImmutableList.of(1, 2));
+        }
+      };
+
+  private static final Correspondence<Integer, Integer> SLOWLY_EQUALS =
+      new Correspondence<Integer, Integer>() {
+        @Override
+        public boolean compare(@Nullable Integer actual, @Nullable Integer expected) {
+          try {
+            Thread.sleep(1);
+          } catch (InterruptedException e) {
+            throw new AssertionError(e);
+          }
+          return actual.equals(expected);
+        }
+
+        @Override
+        public String toString() {
+          return "slowly equals";
+        }
+      };
+}
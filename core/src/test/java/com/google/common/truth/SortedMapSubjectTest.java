@@ -21,6 +21,7 @@ import static java.util.Collections.unmodifiableSortedMap;
 import com.google.common.collect.ImmutableSortedMap;
 import com.google.common.collect.Maps;
 import com.google.common.collect.Ordering;
+import com.google.common.collect.Range;
 import java.util.NavigableMap;
 import java.util.SortedMap;
 import java.util.TreeMap;
@@ -319,4 +320,110 @@ public class SortedMapSubjectTest {
             "Not true that <{1=0}> has last entry <2=2>. "
                 + "It does not contain this entry, and the last entry is <1=0>");
   }
+
+  @Test
+  public void containsExactlyEntriesIn_sameComparator() {
+    TreeMap<Integer, String> actual = Maps.newTreeMap();
+    actual.put(1, "a");
+    actual.put(2, "b");
+    assertThat(actual).containsExactlyEntriesIn(ImmutableSortedMap.of(1, "a", 2, "b"));
+    assertThat(actual).containsExactlyEntriesIn(ImmutableSortedMap.of(1, "a", 2, "b")).inOrder();
+  }
+
+  @Test
+  public void containsExactlyEntriesIn_sameComparator_comparesKeysWithComparator() {
+    TreeMap<String, Integer> actual = Maps.newTreeMap(String.CASE_INSENSITIVE_ORDER);
+    actual.put("JAN", 1);
+    TreeMap<String, Integer> expected = Maps.newTreeMap(String.CASE_INSENSITIVE_ORDER);
+    expected.put("jan", 1);
+    assertThat(actual).containsExactlyEntriesIn(expected);
+  }
+
+  @Test
+  public void containsExactlyEntriesIn_sameComparator_failure() {
+    expectFailure
+        .whenTesting()
+        .that(ImmutableSortedMap.of(1, "a", 2, "b", 4, "d"))
+        .containsExactlyEntriesIn(ImmutableSortedMap.of(1, "a", 2, "x", 3, "c"));
+    assertThat(expectFailure.getFailure())
+        .hasMessageThat()
+        .isEqualTo(
+            "Not true that <{1=a, 2=b, 4=d}> contains exactly <{1=a, 2=x, 3=c}>. "
+                + "It is missing <[2=x, 3=c]> and has unexpected items <[2=b, 4=d]>");
+  }
+
+  @Test
+  public void containsExactlyEntriesIn_sameComparator_failureMissing() {
+    expectFailure
+        .whenTesting()
+        .that(ImmutableSortedMap.of(1, "a"))
+        .containsExactlyEntriesIn(ImmutableSortedMap.of(1, "a", 2, "b"));
+    assertThat(expectFailure.getFailure())
+        .hasMessageThat()
+        .isEqualTo("Not true that <{1=a}> contains exactly <{1=a, 2=b}>. It is missing <[2=b]>");
+  }
+
+  @Test
+  public void containsExactlyEntriesIn_differentComparator() {
+    TreeMap<Integer, String> expected = Maps.newTreeMap(Ordering.natural().reverse());
+    expected.put(1, "a");
+    expected.put(2, "b");
+    assertThat(ImmutableSortedMap.of(1, "a", 2, "b")).containsExactlyEntriesIn(expected);
+
+    expectFailure
+        .whenTesting()
+        .that(ImmutableSortedMap.of(1, "a", 2, "b"))
+        .containsExactlyEntriesIn(expected)
+        .inOrder();
+  }
+
+  @Test
+  public void inRange() {
+    ImmutableSortedMap<Integer, String> actual =
+        ImmutableSortedMap.of(1, "a", 2, "b", 3, "c", 4, "d");
+    assertThat(actual)
+        .inRange(Range.closed(2, 3))
+        .containsExactlyEntriesIn(ImmutableSortedMap.of(2, "b", 3, "c"));
+    assertThat(actual).inRange(Range.greaterThan(3)).containsExactly(4, "d");
+    assertThat(actual).inRange(Range.atMost(1)).hasFirstEntry(1, "a");
+    assertThat(actual).inRange(Range.open(1, 2)).isEmpty();
+  }
+
+  @Test
+  public void inRange_failure() {
+    expectFailure
+        .whenTesting()
+        .that(ImmutableSortedMap.of(1, "a", 2, "b", 3, "c"))
+        .inRange(Range.atLeast(2))
+        .hasSize(1);
+    assertThat(expectFailure.getFailure())
+        .hasMessageThat()
+        .isEqualTo(
+            "Not true that <Entries with keys in range <[2..+\u221e)> (<{2=b, 3=c}>) "
+                + "of <{1=a, 2=b, 3=c}>> has a size of <1>. It is <2>");
+  }
+
+  @Test
+  public void inRange_nullActual() {
+    expectFailure
+        .whenTesting()
+        .that((SortedMap<Integer, String>) null)
+        .inRange(Range.atLeast(2))
+        .hasSize(1);
+    assertThat(expectFailure.getFailure())
+        .hasMessageThat()
+        .isEqualTo("Not true that <null> has keys in range <[2..+\u221e)>");
+  }
+
+  @Test
+  public void inRange_nonNavigable() {
+    TreeMap<Integer, String> map = Maps.newTreeMap();
+    map.put(1, "a");
+    map.put(2, "b");
+    map.put(3, "c");
+    SortedMap<Integer, String> actual = unmodifiableSortedMap(map);
+    assertThat(actual).inRange(Range.closedOpen(2, 3)).containsExactly(2, "b");
+    assertThat(actual).inRange(Range.atLeast(2)).hasFirstKey(2);
+    assertThat(actual).inRange(Range.lessThan(2)).hasLastKey(1);
+  }
 }
@@ -16,10 +16,12 @@
 package com.google.common.truth;
 
 import static com.google.common.truth.Truth.assertThat;
+import static java.util.Arrays.asList;
 import static java.util.Collections.unmodifiableSortedSet;
 
 import com.google.common.collect.ImmutableSortedSet;
 import com.google.common.collect.Ordering;
+import com.google.common.collect.Range;
 import com.google.common.collect.Sets;
 import java.util.NavigableSet;
 import java.util.SortedSet;
@@ -132,4 +134,90 @@ public class SortedSetSubjectTest {
             "Not true that <[0]> has last element <1>. "
                 + "It does not contain this element, and the last element is <0>");
   }
+
+  @Test
+  public void containsExactlyElementsIn_sameComparator() {
+    assertThat(Sets.newTreeSet(asList(1, 2, 3)))
+        .containsExactlyElementsIn(ImmutableSortedSet.of(1, 2, 3))
+        .inOrder();
+  }
+
+  @Test
+  public void containsExactlyElementsIn_sameComparator_comparesWithComparator() {
+    TreeSet<String> actual = Sets.newTreeSet(String.CASE_INSENSITIVE_ORDER);
+    actual.add("JAN");
+    TreeSet<String> expected = Sets.newTreeSet(String.CASE_INSENSITIVE_ORDER);
+    expected.add("jan");
+    assertThat(actual).containsExactlyElementsIn(expected);
+  }
+
+  @Test
+  public void containsExactlyElementsIn_sameComparator_failure() {
+    expectFailure
+        .whenTesting()
+        .that(ImmutableSortedSet.of(1, 2, 4, 6))
+        .containsExactlyElementsIn(ImmutableSortedSet.of(1, 3, 4, 5));
+    assertThat(expectFailure.getFailure())
+        .hasMessageThat()
+        .isEqualTo(
+            "Not true that <[1, 2, 4, 6]> contains exactly <[1, 3, 4, 5]>. "
+                + "It is missing <[3, 5]> and has unexpected items <[2, 6]>");
+  }
+
+  @Test
+  public void containsExactlyElementsIn_sameComparator_failureExtra() {
+    expectFailure
+        .whenTesting()
+        .that(ImmutableSortedSet.of(1, 2))
+        .containsExactlyElementsIn(ImmutableSortedSet.of(1));
+    assertThat(expectFailure.getFailure())
+        .hasMessageThat()
+        .isEqualTo("Not true that <[1, 2]> contains exactly <[1]>. It has unexpected items <[2]>");
+  }
+
+  @Test
+  public void inRange() {
+    ImmutableSortedSet<Integer> actual = ImmutableSortedSet.of(1, 2, 3, 4);
+    assertThat(actual)
+        .inRange(Range.closed(2, 3))
+        .containsExactlyElementsIn(ImmutableSortedSet.of(2, 3));
+    assertThat(actual).inRange(Range.greaterThan(3)).containsExactly(4);
+    assertThat(actual).inRange(Range.atMost(2)).hasLastElement(2);
+    assertThat(actual).inRange(Range.open(1, 2)).isEmpty();
+  }
+
+  @Test
+  public void inRange_failure() {
+    expectFailure
+        .whenTesting()
+        .that(ImmutableSortedSet.of(1, 2, 3))
+        .inRange(Range.atLeast(2))
+        .hasFirstElement(1);
+    assertThat(expectFailure.getFailure())
+        .hasMessageThat()
+        .isEqualTo(
+            "Not true that <Elements in range <[2..+\u221e)> (<[2, 3]>) of <[1, 2, 3]>> "
+                + "has first element <1>. "
+                + "It does not contain this element, and the first element is <2>");
+  }
+
+  @Test
+  public void inRange_nullActual() {
+    expectFailure
+        .whenTesting()
+        .that((SortedSet<Integer>) null)
+        .inRange(Range.atLeast(2))
+        .hasSize(1);
+    assertThat(expectFailure.getFailure())
+        .hasMessageThat()
+        .isEqualTo("Not true that <null> has elements in range <[2..+\u221e)>");
+  }
+
+  @Test
+  public void inRange_nonNavigable() {
+    SortedSet<Integer> actual = unmodifiableSortedSet(Sets.newTreeSet(asList(1, 2, 3)));
+    assertThat(actual).inRange(Range.closedOpen(2, 3)).containsExactly(2);
+    assertThat(actual).inRange(Range.atLeast(2)).hasFirstElement(2);
+    assertThat(actual).inRange(Range.lessThan(2)).hasLastElement(1);
+  }
 }
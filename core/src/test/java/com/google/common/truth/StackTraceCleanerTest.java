@@ -169,6 +169,46 @@ public class StackTraceCleanerTest {
             });
   }
 
+  @Test
+  public void framesMatchingOnlyPartOfAPrefixAreKept() {
+    Throwable throwable =
+        createThrowableWithStackTrace(
+            "com.google.common.truthy.Foo",
+            "com.google.common.util.Bar",
+            "org.junitx.Car",
+            "junit.Dar");
+
+    StackTraceCleaner.cleanStackTrace(throwable);
+
+    assertThat(throwable.getStackTrace())
+        .isEqualTo(
+            new StackTraceElement[] {
+              createStackTraceElement("com.google.common.truthy.Foo"),
+              createStackTraceElement("com.google.common.util.Bar"),
+              createStackTraceElement("org.junitx.Car"),
+            });
+  }
+
+  @Test
+  public void classNamePrefixesMayBeWholeClassNames() {
+    Throwable throwable =
+        createThrowableWithStackTrace(
+            "com.example.Foo",
+            "com.google.tracing.CurrentContext",
+            "com.google.tracing.CurrentContext$1",
+            "com.example.Bar");
+
+    StackTraceCleaner.cleanStackTrace(throwable);
+
+    assertThat(throwable.getStackTrace())
+        .isEqualTo(
+            new StackTraceElement[] {
+              createStackTraceElement("com.example.Foo"),
+              createCollapsedStackTraceElement("Concurrent framework", 2),
+              createStackTraceElement("com.example.Bar"),
+            });
+  }
+
   @Test
   public void causingThrowablesAreAlsoCleaned() {
     Throwable cause2 = createThrowableWithStackTrace("com.example.Foo", "org.junit.FilterMe");
@@ -29,6 +29,7 @@ import com.google.common.truth.IterableSubject;
 import com.google.common.truth.ListMultimapSubject;
 import com.google.common.truth.LongSubject;
 import com.google.common.truth.MapSubject;
+import com.google.common.truth.MapUtil;
 import com.google.common.truth.MathUtil;
 import com.google.common.truth.MultimapSubject;
 import com.google.common.truth.MultisetSubject;
@@ -69,6 +70,7 @@ public class Inventory {
   ListMultimapSubject listMultimapSubject;
   LongSubject longSubject;
   MapSubject mapSubject;
+  MapUtil mapUtil;
   MathUtil mathUtil;
   MultimapSubject multimapSubject;
   MultisetSubject multisetSubject;
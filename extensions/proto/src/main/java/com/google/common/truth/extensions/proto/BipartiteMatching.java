@@ -0,0 +1,159 @@
+/*
+ * Copyright (c) 2017 Google, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.google.common.truth.extensions.proto;
+
+import static com.google.common.base.Preconditions.checkElementIndex;
+
+import java.util.Arrays;
+
+/**
+ * Finds <a
+ * href="https://en.wikipedia.org/wiki/Matching_(graph_theory)#In_unweighted_bipartite_graphs">
+ * maximum cardinality matchings of bipartite graphs</a>, using the <a
+ * href="https://en.wikipedia.org/wiki/Hopcroft%E2%80%93Karp_algorithm">Hopcroft–Karp</a>
+ * algorithm.
+ *
+ * <p>This is the same algorithm as Truth's {@code GraphMatching}, over vertices numbered from zero
+ * rather than arbitrary objects, since that is what the proto differencer has to hand.
+ */
+final class BipartiteMatching {
+  private static final int UNMATCHED = -1;
+  private static final int UNREACHED = Integer.MAX_VALUE;
+
+  /**
+   * Returns a maximum cardinality matching of the bipartite graph in which left-hand vertex {@code
+   * u} is adjacent to the right-hand vertices listed in {@code adjacency[u]}, each of which must be
+   * in {@code [0, rightCount)}. Element {@code u} of the result is the right-hand vertex matched
+   * with {@code u}, or -1 if {@code u} is unmatched. If there are several maximum matchings, an
+   * arbitrary one is returned.
+   */
+  static int[] maximumMatching(int[][] adjacency, int rightCount) {
+    for (int[] neighbours : adjacency) {
+      for (int v : neighbours) {
+        checkElementIndex(v, rightCount);
+      }
+    }
+    return new BipartiteMatching(adjacency, rightCount).perform();
+  }
+
+  private final int[][] adjacency;
+  private final int[] leftMatches;
+  private final int[] rightMatches;
+  private final int[] layers;
+  private final int[] path;
+  private final int[] cursors;
+
+  private BipartiteMatching(int[][] adjacency, int rightCount) {
+    this.adjacency = adjacency;
+    this.leftMatches = new int[adjacency.length];
+    this.rightMatches = new int[rightCount];
+    this.layers = new int[adjacency.length];
+    this.path = new int[adjacency.length];
+    this.cursors = new int[adjacency.length];
+    Arrays.fill(leftMatches, UNMATCHED);
+    Arrays.fill(rightMatches, UNMATCHED);
+  }
+
+  private int[] perform() {
+    // Each phase finds a maximal set of disjoint shortest augmenting paths, and flips them.
+    while (breadthFirstSearch()) {
+      for (int u = 0; u < adjacency.length; u++) {
+        if (leftMatches[u] == UNMATCHED) {
+          depthFirstSearch(u);
+        }
+      }
+    }
+    return leftMatches;
+  }
+
+  /**
+   * Assigns each left-hand vertex its distance from the free left-hand vertices, following
+   * unmatched edges left to right and matched edges right to left. Returns whether any free
+   * right-hand vertex is reachable, i.e. whether there is an augmenting path.
+   */
+  private boolean breadthFirstSearch() {
+    int[] queue = new int[adjacency.length];
+    int head = 0;
+    int tail = 0;
+    for (int u = 0; u < adjacency.length; u++) {
+      if (leftMatches[u] == UNMATCHED) {
+        layers[u] = 0;
+        queue[tail++] = u;
+      } else {
+        layers[u] = UNREACHED;
+      }
+    }
+    boolean foundFreeRight = false;
+    while (head < tail) {
+      int u = queue[head++];
+      for (int v : adjacency[u]) {
+        int next = rightMatches[v];
+        if (next == UNMATCHED) {
+          foundFreeRight = true;
+        } else if (layers[next] == UNREACHED) {
+          layers[next] = layers[u] + 1;
+          queue[tail++] = next;
+        }
+      }
+    }
+    return foundFreeRight;
+  }
+
+  /**
+   * Looks for an augmenting path from {@code root} which only steps to the next layer of the BFS,
+   * and flips it if found. Vertices from which no such path exists are removed from the layers, so
+   * no later search in this phase visits them again.
+   *
+   * <p>The search keeps its own stack, since a path can be as long as there are vertices.
+   * {@code path[0..depth]} is the path so far, and the edge of {@code adjacency[u]} that the search
+   * is trying from each vertex {@code u} on it is {@code cursors[u]}.
+   */
+  private void depthFirstSearch(int root) {
+    int depth = 0;
+    path[0] = root;
+    cursors[root] = 0;
+    while (depth >= 0) {
+      int u = path[depth];
+      if (cursors[u] == adjacency[u].length) {
+        // No augmenting path goes through u. Back up, and try the next edge of the vertex before.
+        layers[u] = UNREACHED;
+        depth--;
+        if (depth >= 0) {
+          cursors[path[depth]]++;
+        }
+        continue;
+      }
+      int v = adjacency[u][cursors[u]];
+      int next = rightMatches[v];
+      if (next == UNMATCHED) {
+        // Flip the path: each vertex on it is matched along the edge it stepped through.
+        for (int i = depth; i >= 0; i--) {
+          int w = path[i];
+          int x = adjacency[w][cursors[w]];
+          leftMatches[w] = x;
+          rightMatches[x] = w;
+        }
+        return;
+      }
+      if (layers[next] == layers[u] + 1) {
+        path[++depth] = next;
+        cursors[next] = 0;
+      } else {
+        cursors[u]++;
+      }
+    }
+  }
+}
@@ -0,0 +1,418 @@
+/*
+ * Copyright (c) 2017 Google, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.google.common.truth.extensions.proto;
+
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.Lists;
+import com.google.common.collect.Maps;
+import com.google.common.collect.Sets;
+import com.google.common.truth.extensions.proto.DiffResult.RepeatedField;
+import com.google.common.truth.extensions.proto.DiffResult.RepeatedField.PairResult;
+import com.google.common.truth.extensions.proto.DiffResult.SingularField;
+import com.google.common.truth.extensions.proto.DiffResult.UnknownFieldSetDiff;
+import com.google.common.truth.extensions.proto.ProtoTruthMessageDifferencer.UnknownFieldDescriptor;
+import com.google.common.truth.extensions.proto.RecursableDiffEntity.WithResultCode.Result;
+import com.google.protobuf.Descriptors.FieldDescriptor;
+import com.google.protobuf.Descriptors.FieldDescriptor.JavaType;
+import com.google.protobuf.Message;
+import com.google.protobuf.TextFormat;
+import com.google.protobuf.UnknownFieldSet;
+import com.google.protobuf.WireFormat;
+import java.io.IOException;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * The lines of a failure message which describe a {@link DiffResult}, one per field compared, in
+ * the format of {@link MessageDifferencer.StreamReporter}:
+ *
+ * <pre>
+ * added: r_string[1]: "qux"
+ * modified: o_sub_test_message.o_int: 1 -> 2
+ * moved: r_string[0] -> r_string[1] : "foo"
+ * </pre>
+ *
+ * <p>As there, unknown fields come first and then known fields in field number order, a path
+ * names the expected element on the left of an arrow and the actual element on the right, and a
+ * modified message is described by its modified fields alone.
+ */
+final class DiffReport {
+  private final StringBuilder failures = new StringBuilder();
+  private final StringBuilder allLines = new StringBuilder();
+  private boolean anyNotices = false;
+
+  private DiffReport() {}
+
+  /** Describes the given comparison. */
+  static DiffReport of(DiffResult diffResult) {
+    DiffReport report = new DiffReport();
+    report.printMessage(diffResult, "", "", /*moved=*/ false);
+    return report;
+  }
+
+  /** Whether any line describes a difference: something added, deleted or modified. */
+  boolean hasFailures() {
+    return failures.length() > 0;
+  }
+
+  /** Whether any line describes something matched, moved or ignored. */
+  boolean hasNotices() {
+    return anyNotices;
+  }
+
+  /** The lines which describe differences, each ending in a newline. */
+  String failures() {
+    return failures.toString();
+  }
+
+  /** All the lines, each ending in a newline. */
+  String allLines() {
+    return allLines.toString();
+  }
+
+  private void printMessage(DiffResult diffResult, String left, String right, boolean moved) {
+    if (diffResult.unknownFields().isPresent()) {
+      printUnknowns(diffResult.unknownFields().get(), left, right, moved);
+    }
+
+    Map<Integer, FieldDescriptor> fieldDescriptors = Maps.newHashMap();
+    for (FieldDescriptor fieldDescriptor :
+        Sets.union(
+            diffResult.actual().getAllFields().keySet(),
+            diffResult.expected().getAllFields().keySet())) {
+      fieldDescriptors.put(fieldDescriptor.getNumber(), fieldDescriptor);
+    }
+    for (int fieldNumber :
+        Sets.newTreeSet(
+            Sets.union(
+                diffResult.singularFields().keySet(), diffResult.repeatedFields().keySet()))) {
+      FieldDescriptor fieldDescriptor = fieldDescriptors.get(fieldNumber);
+      for (RepeatedField repeatedField : diffResult.repeatedFields().get(fieldNumber)) {
+        printRepeatedField(repeatedField, fieldDescriptor, left, right, moved);
+      }
+
+      List<SingularField> singularFields = diffResult.singularFields().get(fieldNumber);
+      if (fieldDescriptor.isRepeated()
+          && singularFields.size() == 1
+          && singularFields.get(0).result() == Result.IGNORED
+          && !singularFields.get(0).fieldName().endsWith("]")) {
+        // The whole field is ignored. Name each element, as for a field which is compared.
+        int count = diffResult.actual().getRepeatedFieldCount(fieldDescriptor);
+        if (count == 0) {
+          count = diffResult.expected().getRepeatedFieldCount(fieldDescriptor);
+        }
+        for (int i = 0; i < count; i++) {
+          printNotice("ignored: " + path(right, indexed(singularFields.get(0).fieldName(), i)));
+        }
+        continue;
+      }
+
+      FieldDescriptor valueFieldDescriptor =
+          fieldDescriptor.isMapField()
+              ? fieldDescriptor.getMessageType().findFieldByNumber(2)
+              : fieldDescriptor;
+      for (SingularField singularField : singularFields) {
+        printSingularField(
+            singularField,
+            valueFieldDescriptor,
+            path(left, singularField.fieldName()),
+            path(right, singularField.fieldName()),
+            moved);
+      }
+    }
+  }
+
+  private void printSingularField(
+      SingularField singularField,
+      FieldDescriptor fieldDescriptor,
+      String left,
+      String right,
+      boolean moved) {
+    switch (singularField.result()) {
+      case IGNORED:
+        printNotice("ignored: " + right);
+        return;
+      case ADDED:
+        printFailure(
+            "added: " + right + ": " + value(fieldDescriptor, singularField.actual().get()));
+        return;
+      case REMOVED:
+        printFailure(
+            "deleted: " + left + ": " + value(fieldDescriptor, singularField.expected().get()));
+        return;
+      default:
+        if (singularField.breakdown().isPresent()) {
+          printMessage(singularField.breakdown().get(), left, right, moved);
+        }
+        printComparison(
+            singularField.result(),
+            fieldDescriptor.getJavaType() == JavaType.MESSAGE,
+            left,
+            right,
+            moved,
+            value(fieldDescriptor, singularField.expected().get()),
+            value(fieldDescriptor, singularField.actual().get()));
+    }
+  }
+
+  private void printRepeatedField(
+      RepeatedField repeatedField,
+      FieldDescriptor fieldDescriptor,
+      String left,
+      String right,
+      boolean moved) {
+    List<PairResult> pairs = Lists.newArrayList();
+    List<PairResult> added = Lists.newArrayList();
+    List<PairResult> deleted = Lists.newArrayList();
+    for (PairResult pairResult : repeatedField.pairResults()) {
+      if (!pairResult.expectedFieldIndex().isPresent()) {
+        added.add(pairResult);
+      } else if (!pairResult.actualFieldIndex().isPresent()) {
+        deleted.add(pairResult);
+      } else {
+        pairs.add(pairResult);
+      }
+    }
+    Collections.sort(pairs, BY_EXPECTED_INDEX);
+
+    String name = repeatedField.fieldName();
+    for (PairResult pairResult : pairs) {
+      int expectedIndex = pairResult.expectedFieldIndex().get();
+      int actualIndex = pairResult.actualFieldIndex().get();
+      String pairLeft = path(left, indexed(name, expectedIndex));
+      String pairRight = path(right, indexed(name, actualIndex));
+      if (pairResult.result() == Result.IGNORED) {
+        printNotice("ignored: " + pairRight);
+        continue;
+      }
+
+      boolean pairMoved = moved || expectedIndex != actualIndex;
+      if (pairResult.breakdown().isPresent()) {
+        printMessage(pairResult.breakdown().get(), pairLeft, pairRight, pairMoved);
+      }
+      String expectedValue = value(fieldDescriptor, pairResult.expected().get());
+      if (pairResult.isMatched() && expectedIndex != actualIndex) {
+        printNotice("moved: " + pairLeft + " -> " + pairRight + " : " + expectedValue);
+      } else {
+        printComparison(
+            pairResult.result(),
+            fieldDescriptor.getJavaType() == JavaType.MESSAGE,
+            pairLeft,
+            pairRight,
+            pairMoved,
+            expectedValue,
+            value(fieldDescriptor, pairResult.actual().get()));
+      }
+    }
+    for (PairResult pairResult : added) {
+      String pairRight = path(right, indexed(name, pairResult.actualFieldIndex().get()));
+      if (pairResult.result() == Result.IGNORED) {
+        printNotice("ignored: " + pairRight);
+      } else {
+        printFailure(
+            "added: " + pairRight + ": " + value(fieldDescriptor, pairResult.actual().get()));
+      }
+    }
+    for (PairResult pairResult : deleted) {
+      String pairLeft = path(left, indexed(name, pairResult.expectedFieldIndex().get()));
+      if (pairResult.result() == Result.IGNORED) {
+        printNotice("ignored: " + pairLeft);
+      } else {
+        printFailure(
+            "deleted: " + pairLeft + ": " + value(fieldDescriptor, pairResult.expected().get()));
+      }
+    }
+  }
+
+  private void printUnknowns(
+      UnknownFieldSetDiff unknownFieldSetDiff, String left, String right, boolean moved) {
+    UnknownFieldSet actual = unknownFieldSetDiff.actual().get();
+    UnknownFieldSet expected = unknownFieldSetDiff.expected().get();
+    for (int fieldNumber : Sets.newTreeSet(unknownFieldSetDiff.singularFields().keySet())) {
+      // The fields are listed by type, in the order the differencer compares them, with a single
+      // field for a type which is ignored entirely.
+      Iterator<SingularField> singularFields =
+          unknownFieldSetDiff.singularFields().get(fieldNumber).iterator();
+      for (UnknownFieldDescriptor.Type type : UnknownFieldDescriptor.Type.all()) {
+        List<?> actualValues = valuesOf(actual, fieldNumber, type);
+        List<?> expectedValues = valuesOf(expected, fieldNumber, type);
+        int count = Math.max(actualValues.size(), expectedValues.size());
+        if (count == 0) {
+          continue;
+        }
+
+        // Values which are identical on both sides go unmentioned, as with MessageDifferencer.
+        boolean identical = actualValues.equals(expectedValues);
+        SingularField first = singularFields.next();
+        if (!first.fieldName().endsWith("]")) {
+          for (int i = 0; !identical && i < count; i++) {
+            printNotice("ignored: " + path(right, indexed(first.fieldName(), i)));
+          }
+          continue;
+        }
+        for (int i = 0; i < count; i++) {
+          SingularField singularField = i == 0 ? first : singularFields.next();
+          if (!identical) {
+            printUnknownField(
+                singularField,
+                type,
+                path(left, singularField.fieldName()),
+                path(right, singularField.fieldName()),
+                moved);
+          }
+        }
+      }
+    }
+  }
+
+  private static List<?> valuesOf(
+      UnknownFieldSet unknownFieldSet, int fieldNumber, UnknownFieldDescriptor.Type type) {
+    return unknownFieldSet.hasField(fieldNumber)
+        ? type.getValues(unknownFieldSet.getField(fieldNumber))
+        : ImmutableList.of();
+  }
+
+  private void printUnknownField(
+      SingularField singularField,
+      UnknownFieldDescriptor.Type type,
+      String left,
+      String right,
+      boolean moved) {
+    switch (singularField.result()) {
+      case IGNORED:
+        printNotice("ignored: " + right);
+        return;
+      case ADDED:
+        printFailure("added: " + right + ": " + unknownValue(type, singularField.actual().get()));
+        return;
+      case REMOVED:
+        printFailure(
+            "deleted: " + left + ": " + unknownValue(type, singularField.expected().get()));
+        return;
+      default:
+        if (singularField.unknownsBreakdown().isPresent()) {
+          printUnknowns(singularField.unknownsBreakdown().get(), left, right, moved);
+        }
+        printComparison(
+            singularField.result(),
+            type == UnknownFieldDescriptor.Type.GROUP,
+            left,
+            right,
+            moved,
+            unknownValue(type, singularField.expected().get()),
+            unknownValue(type, singularField.actual().get()));
+    }
+  }
+
+  /**
+   * Prints a comparison of two values which are both present. A modified message or group is left
+   * out, since its modified fields are printed instead.
+   */
+  private void printComparison(
+      Result result,
+      boolean aggregate,
+      String left,
+      String right,
+      boolean moved,
+      String expectedValue,
+      String actualValue) {
+    String paths = moved ? left + " -> " + right : left;
+    if (result == Result.MODIFIED) {
+      if (!aggregate) {
+        printFailure("modified: " + paths + ": " + expectedValue + " -> " + actualValue);
+      }
+    } else {
+      printNotice("matched: " + paths + " : " + expectedValue);
+    }
+  }
+
+  private void printFailure(String line) {
+    failures.append(line).append('\n');
+    allLines.append(line).append('\n');
+  }
+
+  private void printNotice(String line) {
+    anyNotices = true;
+    allLines.append(line).append('\n');
+  }
+
+  private static String path(String prefix, String name) {
+    return prefix.isEmpty() ? name : prefix + "." + name;
+  }
+
+  private static String indexed(String name, int index) {
+    return name + "[" + index + "]";
+  }
+
+  private static String value(FieldDescriptor fieldDescriptor, Object value) {
+    if (fieldDescriptor.getJavaType() == JavaType.MESSAGE) {
+      return wrapDebugString(TextFormat.shortDebugString((Message) value));
+    }
+    StringBuilder sb = new StringBuilder();
+    try {
+      TextFormat.printFieldValue(fieldDescriptor, value, sb);
+    } catch (IOException impossible) {
+      throw new AssertionError(impossible);
+    }
+    return sb.toString();
+  }
+
+  private static String unknownValue(UnknownFieldDescriptor.Type type, Object value) {
+    int wireType;
+    switch (type) {
+      case VARINT:
+        wireType = WireFormat.WIRETYPE_VARINT;
+        break;
+      case FIXED32:
+        wireType = WireFormat.WIRETYPE_FIXED32;
+        break;
+      case FIXED64:
+        wireType = WireFormat.WIRETYPE_FIXED64;
+        break;
+      case LENGTH_DELIMITED:
+        wireType = WireFormat.WIRETYPE_LENGTH_DELIMITED;
+        break;
+      case GROUP:
+        return wrapDebugString(TextFormat.shortDebugString((UnknownFieldSet) value));
+      default:
+        throw new AssertionError(type);
+    }
+    StringBuilder sb = new StringBuilder();
+    try {
+      TextFormat.printUnknownFieldValue(wireType, value, sb);
+    } catch (IOException impossible) {
+      throw new AssertionError(impossible);
+    }
+    return sb.toString();
+  }
+
+  // Wraps a message debug string in curly braces.
+  private static String wrapDebugString(String debugString) {
+    return debugString.isEmpty() ? "{ }" : "{ " + debugString + " }";
+  }
+
+  private static final Comparator<PairResult> BY_EXPECTED_INDEX =
+      new Comparator<PairResult>() {
+        @Override
+        public int compare(PairResult first, PairResult second) {
+          return first.expectedFieldIndex().get().compareTo(second.expectedFieldIndex().get());
+        }
+      };
+}
@@ -0,0 +1,107 @@
+/*
+ * Copyright (c) 2017 Google, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.google.common.truth.extensions.proto;
+
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.concurrent.RecursiveTask;
+import javax.annotation.Nullable;
+
+/**
+ * A comparison of the elements of a repeated field or map, by index, which {@link
+ * ProtoTruthMessageDifferencer#matches} can split into ranges and run on a {@link ForkJoinPool}.
+ *
+ * <p>The elements are independent of each other, so each range is compared on its own, and the
+ * results of adjacent ranges are combined in index order. Once one range's result {@linkplain
+ * #decides decides} the whole comparison, the ranges which haven't started yet are skipped.
+ *
+ * <p>Each instance runs one comparison.
+ */
+abstract class ElementRangeComparison<R> {
+
+  /**
+   * Fields with more elements than this are compared in parallel, in ranges of at most this many
+   * elements. Fewer aren't worth handing to another thread.
+   */
+  static final int PARALLEL_THRESHOLD = 512;
+
+  /** Returns whether a field with {@code size} elements is worth comparing in parallel. */
+  static boolean worthSplitting(int size) {
+    return size > PARALLEL_THRESHOLD;
+  }
+
+  /** Compares the elements with indices in {@code [from, to)}. */
+  abstract R compareRange(int from, int to);
+
+  /** Combines the results of two adjacent ranges, the elements of {@code left} coming first. */
+  abstract R combine(R left, R right);
+
+  /**
+   * Returns whether {@code result}, for any one range, is also the result of the whole comparison,
+   * whatever the other ranges' are.
+   */
+  abstract boolean decides(R result);
+
+  /** The first deciding result of a range, shared by all ranges, so that they can stop early. */
+  @Nullable private volatile R decidingResult = null;
+
+  /** Compares the elements with indices in {@code [0, size)}, in parallel. */
+  final R compareInParallel(int size) {
+    RangeTask task = new RangeTask(0, size);
+    // A comparison nested in one which is already running in a pool forks its ranges into that
+    // pool, rather than blocking a worker on another.
+    return ForkJoinTask.inForkJoinPool() ? task.invoke() : PoolHolder.POOL.invoke(task);
+  }
+
+  private final class RangeTask extends RecursiveTask<R> {
+    private static final long serialVersionUID = 0;
+
+    private final int from;
+    private final int to;
+
+    RangeTask(int from, int to) {
+      this.from = from;
+      this.to = to;
+    }
+
+    @Override
+    protected R compute() {
+      R decided = decidingResult;
+      if (decided != null) {
+        return decided;
+      }
+      if (!worthSplitting(to - from)) {
+        R result = compareRange(from, to);
+        if (decides(result)) {
+          decidingResult = result;
+        }
+        return result;
+      }
+      int middle = (from + to) >>> 1;
+      RangeTask left = new RangeTask(from, middle);
+      left.fork();
+      R right = new RangeTask(middle, to).compute();
+      return combine(left.join(), right);
+    }
+  }
+
+  /** Holds the pool, so that it's only started by the first parallel comparison. */
+  private static final class PoolHolder {
+    // Its workers are daemon threads, so it never has to be shut down.
+    static final ForkJoinPool POOL = new ForkJoinPool();
+  }
+}
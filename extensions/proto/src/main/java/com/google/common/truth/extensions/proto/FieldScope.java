@@ -49,6 +49,9 @@ import com.google.protobuf.Descriptors.FieldDescriptor;
  * for runtime efficiency, generally composing themselves as recursive structures. For this reason,
  * it is not recommended to use {@code FieldScope} in production code. Prefer to use proper {@code
  * FieldMask}s, directly in production code.
+ *
+ * <p>{@code FieldScope}s are thread-safe, and may be shared between assertions running on different
+ * threads.
  */
 public abstract class FieldScope {
 
@@ -28,6 +28,7 @@ import com.google.common.collect.ImmutableSet;
 import com.google.common.collect.Maps;
 import com.google.common.collect.Sets;
 import com.google.common.truth.extensions.proto.MessageDifferencer.IgnoreCriteria;
+import com.google.common.truth.extensions.proto.MessageDifferencer.IgnoreCriteriaFactory;
 import com.google.common.truth.extensions.proto.MessageDifferencer.SpecificField;
 import com.google.common.truth.extensions.proto.ProtoTruthMessageDifferencer.FieldDescriptorOrUnknown;
 import com.google.common.truth.extensions.proto.ProtoTruthMessageDifferencer.ShouldIgnore;
@@ -81,13 +82,26 @@ abstract class FieldScopeLogic {
     return true;
   }
 
-  final IgnoreCriteria toIgnoreCriteria(final Descriptor descriptor) {
+  /**
+   * Returns a factory for the {@link IgnoreCriteria} which implement this logic for a {@link
+   * MessageDifferencer}. Each comparison gets its own criteria, which cache what they learn about
+   * the messages being compared.
+   */
+  final IgnoreCriteriaFactory toIgnoreCriteriaFactory(final Descriptor descriptor) {
     if (!validatedDescriptors.contains(descriptor)) {
       validate(descriptor);
       validatedDescriptors.add(descriptor);
     }
 
-    final Cache cache = new Cache();
+    return new IgnoreCriteriaFactory() {
+      @Override
+      public IgnoreCriteria newIgnoreCriteria() {
+        return toIgnoreCriteria(descriptor, new Cache());
+      }
+    };
+  }
+
+  private IgnoreCriteria toIgnoreCriteria(final Descriptor descriptor, final Cache cache) {
     return new IgnoreCriteria() {
       @Override
       public boolean isIgnored(
@@ -125,21 +139,28 @@ abstract class FieldScopeLogic {
 
   // A temporary cache for repeat processing of messages in a single MessageDifferencer run.
   // Cache data must be temporary because messages may be mutable, and change between
-  // MessageDifferencer runs, which invalidates them as keys and invalidates the results.
+  // MessageDifferencer runs, which invalidates them as keys and invalidates the results. Each run
+  // has its own Cache, so it is only ever used by one thread.
+  //
+  // All the maps are keyed by identity. Message.hashCode() and equals() are deep, so hashing
+  // messages would re-read a whole sub-message tree on every probe, and a lookup could cost more
+  // than the work it saves; FieldScopeLogics have identity semantics anyway. An equal message at a
+  // different place in the tree just gets its own entry.
   private static final class Cache {
     // Messages do not change between context changes, so this map is scoped to the life of the
     // difference operation, which is the life of the Cache object.
     private final Map<FieldMatcherLogicBase, Map<Message, Boolean>> messagesWithMatchingField =
-        Maps.newHashMap();
+        Maps.newIdentityHashMap();
 
     // These are scoped to the life of the Context object, and must be cleared periodically.
-    private final Map<FieldScopeLogic, Boolean> matchesFieldPath = Maps.newHashMap();
-    private final Map<FieldScopeLogic, Boolean> matchStateAppliesForAllSubPaths = Maps.newHashMap();
+    private final Map<FieldScopeLogic, Boolean> matchesFieldPath = Maps.newIdentityHashMap();
+    private final Map<FieldScopeLogic, Boolean> matchStateAppliesForAllSubPaths =
+        Maps.newIdentityHashMap();
 
     public Map<Message, Boolean> getMessagesWithMatchingField(FieldMatcherLogicBase key) {
       Map<Message, Boolean> map = messagesWithMatchingField.get(key);
       if (map == null) {
-        map = Maps.newHashMap();
+        map = Maps.newIdentityHashMap();
         messagesWithMatchingField.put(key, map);
       }
       return map;
@@ -0,0 +1,154 @@
+/*
+ * Copyright (c) 2017 Google, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.google.common.truth.extensions.proto;
+
+import static com.google.common.base.Preconditions.checkArgument;
+import static com.google.common.base.Preconditions.checkNotNull;
+
+import com.google.common.collect.Maps;
+import com.google.common.truth.extensions.proto.ProtoTruthMessageDifferencer.FieldDescriptorOrUnknown;
+import com.google.common.truth.extensions.proto.ProtoTruthMessageDifferencer.ShouldIgnore;
+import com.google.protobuf.Descriptors.Descriptor;
+import com.google.protobuf.Descriptors.FieldDescriptor;
+import com.google.protobuf.Descriptors.FieldDescriptor.JavaType;
+import java.util.List;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * The decisions a {@link FieldScopeLogic} makes about the fields of one message type, worked out
+ * once per {@link ProtoTruthMessageDifferencer} rather than once per field compared.
+ *
+ * <p>{@link FieldScopeLogic#shouldIgnore} only depends on the root descriptor and the field, so a
+ * plan evaluates it for every field of its message type up front, and the differencer looks the
+ * answers up by field index. The plans for message-typed fields are compiled the first time they
+ * are needed and then kept, so a recursive message type is only expanded as deeply as the messages
+ * actually compared. Logics whose {@code subLogic} returns themselves share a single plan per
+ * message type, so the plans for a recursive type usually form a cycle.
+ *
+ * <p>Extensions, which have no index in their containing type, and unknown fields, which have no
+ * descriptor at all, are rare enough to be left to the {@link #logic()} itself.
+ *
+ * <p>Plans are thread-safe.
+ */
+final class FieldScopePlan {
+
+  /** Compiles the plan of {@code logic} for messages of type {@code rootDescriptor}. */
+  static FieldScopePlan compile(FieldScopeLogic logic, Descriptor rootDescriptor) {
+    return new Compiler(rootDescriptor).plan(logic, rootDescriptor);
+  }
+
+  /** Compiles and shares the plans for the messages under one root descriptor. */
+  private static final class Compiler {
+    private final Descriptor rootDescriptor;
+    private final ConcurrentMap<FieldScopeLogic, ConcurrentMap<Descriptor, FieldScopePlan>> plans =
+        Maps.newConcurrentMap();
+
+    Compiler(Descriptor rootDescriptor) {
+      this.rootDescriptor = checkNotNull(rootDescriptor);
+    }
+
+    FieldScopePlan plan(FieldScopeLogic logic, Descriptor descriptor) {
+      // FieldScopeLogics don't override equals(), so this is keyed by identity.
+      ConcurrentMap<Descriptor, FieldScopePlan> plansForLogic = plans.get(logic);
+      if (plansForLogic == null) {
+        plansForLogic = Maps.newConcurrentMap();
+        ConcurrentMap<Descriptor, FieldScopePlan> existing =
+            plans.putIfAbsent(logic, plansForLogic);
+        if (existing != null) {
+          plansForLogic = existing;
+        }
+      }
+
+      FieldScopePlan plan = plansForLogic.get(descriptor);
+      if (plan == null) {
+        plan = new FieldScopePlan(this, logic, descriptor);
+        FieldScopePlan existing = plansForLogic.putIfAbsent(descriptor, plan);
+        if (existing != null) {
+          plan = existing;
+        }
+      }
+      return plan;
+    }
+  }
+
+  private final Compiler compiler;
+  private final FieldScopeLogic logic;
+  private final Descriptor descriptor;
+  private final ShouldIgnore[] shouldIgnore;
+  private final AtomicReferenceArray<FieldScopePlan> subPlans;
+
+  private FieldScopePlan(Compiler compiler, FieldScopeLogic logic, Descriptor descriptor) {
+    this.compiler = compiler;
+    this.logic = checkNotNull(logic);
+    this.descriptor = descriptor;
+
+    List<FieldDescriptor> fields = descriptor.getFields();
+    this.shouldIgnore = new ShouldIgnore[fields.size()];
+    for (FieldDescriptor field : fields) {
+      shouldIgnore[field.getIndex()] =
+          logic.shouldIgnore(
+              compiler.rootDescriptor, FieldDescriptorOrUnknown.fieldDescriptor(field));
+    }
+    this.subPlans = new AtomicReferenceArray<FieldScopePlan>(fields.size());
+  }
+
+  /** The logic this plan was compiled from, for questions the plan can't answer. */
+  FieldScopeLogic logic() {
+    return logic;
+  }
+
+  /** Returns whether comparison should be ignored for {@code field}, a field of this message. */
+  ShouldIgnore shouldIgnore(FieldDescriptor field) {
+    if (isIndexed(field)) {
+      return shouldIgnore[field.getIndex()];
+    }
+    return logic.shouldIgnore(
+        compiler.rootDescriptor, FieldDescriptorOrUnknown.fieldDescriptor(field));
+  }
+
+  /** Returns the plan for the messages in {@code field}, a message-typed field of this message. */
+  FieldScopePlan subPlan(FieldDescriptor field) {
+    checkArgument(field.getJavaType() == JavaType.MESSAGE, "%s is not a message field", field);
+    if (!isIndexed(field)) {
+      return compileSubPlan(field);
+    }
+
+    FieldScopePlan subPlan = subPlans.get(field.getIndex());
+    if (subPlan == null) {
+      // Two threads may both compile the plan; they are equivalent, so either may be kept.
+      subPlan = compileSubPlan(field);
+      subPlans.set(field.getIndex(), subPlan);
+    }
+    return subPlan;
+  }
+
+  private FieldScopePlan compileSubPlan(FieldDescriptor field) {
+    FieldScopeLogic subLogic =
+        logic.subLogic(compiler.rootDescriptor, FieldDescriptorOrUnknown.fieldDescriptor(field));
+    return compiler.plan(subLogic, field.getMessageType());
+  }
+
+  private boolean isIndexed(FieldDescriptor field) {
+    return !field.isExtension() && field.getContainingType() == descriptor;
+  }
+
+  @Override
+  public String toString() {
+    return String.format("FieldScopePlan(%s, %s)", logic, descriptor.getFullName());
+  }
+}
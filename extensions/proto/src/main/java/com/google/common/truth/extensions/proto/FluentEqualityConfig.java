@@ -32,10 +32,14 @@ import com.google.protobuf.Message;
 import javax.annotation.Nullable;
 
 /**
- * A specification for a {@link MessageDifferencer} for comparing two individual protobufs.
+ * A specification for a {@link ProtoTruthMessageDifferencer} for comparing two individual
+ * protobufs.
  *
  * <p>Can be used to compare lists, maps, and multimaps of protos as well by conversion to a {@link
  * Correspondence}.
+ *
+ * <p>Configs are immutable, and so are the differencers they cache, so one config may compare
+ * messages on several threads at once.
  */
 @AutoValue
 abstract class FluentEqualityConfig {
@@ -45,6 +49,7 @@ abstract class FluentEqualityConfig {
           .setIgnoreFieldAbsence(false)
           .setIgnoreRepeatedFieldOrder(false)
           .setReportMismatchesOnly(false)
+          .setCompareRepeatedFieldsInParallel(false)
           .setFieldScopeLogic(FieldScopeLogic.all())
           .setUsingCorrespondenceStringFunction(Functions.constant(""))
           .build();
@@ -53,13 +58,13 @@ abstract class FluentEqualityConfig {
     return DEFAULT_INSTANCE;
   }
 
-  private final LoadingCache<Descriptor, MessageDifferencer> messageDifferencers =
+  private final LoadingCache<Descriptor, ProtoTruthMessageDifferencer> differencers =
       CacheBuilder.newBuilder()
           .build(
-              new CacheLoader<Descriptor, MessageDifferencer>() {
+              new CacheLoader<Descriptor, ProtoTruthMessageDifferencer>() {
                 @Override
-                public MessageDifferencer load(Descriptor descriptor) {
-                  return makeMessageDifferencer(descriptor);
+                public ProtoTruthMessageDifferencer load(Descriptor descriptor) {
+                  return ProtoTruthMessageDifferencer.create(FluentEqualityConfig.this, descriptor);
                 }
               });
 
@@ -73,6 +78,8 @@ abstract class FluentEqualityConfig {
 
   abstract boolean reportMismatchesOnly();
 
+  abstract boolean compareRepeatedFieldsInParallel();
+
   abstract FieldScopeLogic fieldScopeLogic();
 
   // For pretty-printing, does not affect behavior.
@@ -107,6 +114,13 @@ abstract class FluentEqualityConfig {
         .build();
   }
 
+  final FluentEqualityConfig comparingRepeatedFieldsInParallel() {
+    return toBuilder()
+        .setCompareRepeatedFieldsInParallel(true)
+        .addUsingCorrespondenceString(".comparingRepeatedFieldsInParallel()")
+        .build();
+  }
+
   final FluentEqualityConfig withPartialScope(FieldScope partialScope) {
     return toBuilder()
         .setFieldScopeLogic(FieldScopeLogic.and(fieldScopeLogic(), partialScope.logic()))
@@ -141,23 +155,36 @@ abstract class FluentEqualityConfig {
   // Converters into comparison utilities.
   //////////////////////////////////////////////////////////////////////////////////////////////////
 
-  private MessageDifferencer makeMessageDifferencer(Descriptor descriptor) {
-    return MessageDifferencer.newBuilder()
-        .setMessageFieldComparison(
-            ignoreFieldAbsence()
-                ? MessageDifferencer.MessageFieldComparison.EQUIVALENT
-                : MessageDifferencer.MessageFieldComparison.EQUAL)
-        .setRepeatedFieldComparison(
-            ignoreRepeatedFieldOrder()
-                ? MessageDifferencer.RepeatedFieldComparison.AS_SET
-                : MessageDifferencer.RepeatedFieldComparison.AS_LIST)
-        .setReportMatches(!reportMismatchesOnly())
-        .addIgnoreCriteria(fieldScopeLogic().toIgnoreCriteria(descriptor))
-        .build();
+  final ProtoTruthMessageDifferencer toProtoTruthMessageDifferencer(Descriptor descriptor) {
+    return differencers.getUnchecked(descriptor);
   }
 
-  final MessageDifferencer toMessageDifferencer(Descriptor descriptor) {
-    return messageDifferencers.getUnchecked(descriptor);
+  /**
+   * Returns whether the two messages compare equal under this config. Messages of different classes
+   * never do; null only compares equal to null.
+   *
+   * <p>This only answers yes or no, so it is cheaper than building the {@link DiffResult}: it is
+   * what {@link #toCorrespondence} uses, which may compare every actual message with every expected
+   * one.
+   */
+  final boolean compare(@Nullable Message actual, @Nullable Message expected) {
+    if (actual == null || expected == null) {
+      return actual == expected;
+    } else if (actual.getClass() != expected.getClass()) {
+      return false;
+    } else if (comparesEveryField() && actual.equals(expected)) {
+      // Messages which are equal() always match in full, and equals() is cheaper than walking the
+      // field scope. Anything else is left to the differencer, which decides what matches.
+      return true;
+    }
+    return toProtoTruthMessageDifferencer(actual.getDescriptorForType()).matches(actual, expected);
+  }
+
+  /** Whether this is the default config, under which every field has to match exactly. */
+  private boolean comparesEveryField() {
+    return !ignoreFieldAbsence()
+        && !ignoreRepeatedFieldOrder()
+        && fieldScopeLogic() == FieldScopeLogic.all();
   }
 
   final <M extends Message> Correspondence<M, M> toCorrespondence(
@@ -165,9 +192,7 @@ abstract class FluentEqualityConfig {
     return new Correspondence<M, M>() {
       @Override
       public final boolean compare(@Nullable M actual, @Nullable M expected) {
-        return ProtoTruth.assertThat(actual)
-            .usingConfig(FluentEqualityConfig.this)
-            .testIsEqualTo(expected);
+        return FluentEqualityConfig.this.compare(actual, expected);
       }
 
       @Override
@@ -193,6 +218,8 @@ abstract class FluentEqualityConfig {
 
     abstract Builder setReportMismatchesOnly(boolean reportMismatchesOnly);
 
+    abstract Builder setCompareRepeatedFieldsInParallel(boolean compareRepeatedFieldsInParallel);
+
     abstract Builder setFieldScopeLogic(FieldScopeLogic fieldScopeLogic);
 
     abstract Function<? super Optional<Descriptor>, String> usingCorrespondenceStringFunction();
@@ -15,6 +15,7 @@
  */
 package com.google.common.truth.extensions.proto;
 
+import com.google.common.base.Function;
 import com.google.common.truth.Ordered;
 import com.google.errorprone.annotations.CanIgnoreReturnValue;
 import com.google.protobuf.Descriptors.FieldDescriptor;
@@ -203,6 +204,44 @@ public interface IterableOfProtosFluentAssertion<M extends Message> {
    */
   IterableOfProtosFluentAssertion<M> reportingMismatchesOnly();
 
+  /**
+   * If set, the elements of large repeated fields and maps are compared in parallel, on a shared
+   * {@link java.util.concurrent.ForkJoinPool}. Useful for protocol buffers with many thousands of
+   * repeated submessages.
+   *
+   * <p>Only the check of whether the messages are equal is split up, and it stops at the first
+   * range found to differ. Repeated fields compared with {@link #ignoringRepeatedFieldOrder()} are
+   * still checked on the calling thread, as is the failure message, which is built once a check
+   * fails.
+   */
+  IterableOfProtosFluentAssertion<M> comparingRepeatedFieldsInParallel();
+
+  /**
+   * Specifies that {@link #containsExactly} and {@link #containsExactlyElementsIn} should pair up
+   * actual and expected elements by the key returned by {@code keyFunction}. Each actual element is
+   * then only compared with the expected element which has the same key, rather than with every
+   * expected element. A failure lists the keys of the missing and unexpected elements, followed by
+   * the field differences of each pair of elements which didn't compare equal.
+   *
+   * <p>Since elements with different keys are never compared, two elements which compare equal
+   * should have equal keys. Keying by an ID field which the comparison doesn't ignore guarantees
+   * this. If several elements share a key, they are paired in the order they were given in. Null
+   * elements have a null key.
+   *
+   * <p>This setting has no effect on the other assertions.
+   */
+  IterableOfProtosFluentAssertion<M> displayingDiffsPairedBy(Function<? super M, ?> keyFunction);
+
+  /**
+   * Specifies that {@link #containsExactly} and {@link #containsExactlyElementsIn} should pair up
+   * actual and expected elements by the value of the field with the given number, as with {@link
+   * #displayingDiffsPairedBy(Function)}.
+   *
+   * <p>If an element has no field with this number, the terminal comparison operation will throw a
+   * runtime exception.
+   */
+  IterableOfProtosFluentAssertion<M> displayingDiffsPairedBy(int fieldNumber);
+
   /**
    * Attests that the subject contains at least one element that corresponds to the given expected
    * element.
@@ -20,6 +20,7 @@ import static com.google.common.base.Preconditions.checkNotNull;
 import static com.google.common.collect.Lists.asList;
 import static com.google.common.truth.extensions.proto.FieldScopeUtil.asList;
 
+import com.google.common.base.Function;
 import com.google.common.truth.Correspondence;
 import com.google.common.truth.FailureMetadata;
 import com.google.common.truth.IterableSubject;
@@ -28,6 +29,7 @@ import com.google.common.truth.Subject;
 import com.google.errorprone.annotations.CanIgnoreReturnValue;
 import com.google.protobuf.Descriptors.FieldDescriptor;
 import com.google.protobuf.Message;
+import java.util.Arrays;
 import java.util.Comparator;
 import javax.annotation.Nullable;
 
@@ -54,6 +56,7 @@ public class IterableOfProtosSubject<
     extends Subject<S, C> {
 
   private final FluentEqualityConfig config;
+  @Nullable private final Function<? super M, ?> pairingKeyFunction;
 
   /** Default implementation of {@link IterableOfProtosSubject}. */
   public static final class IterableOfMessagesSubject<M extends Message>
@@ -90,19 +93,21 @@ public class IterableOfProtosSubject<
     private IterableOfMessagesSubject(
         FailureMetadata failureMetadata,
         FluentEqualityConfig config,
+        @Nullable Function<? super M, ?> pairingKeyFunction,
         @Nullable Iterable<M> messages) {
-      super(failureMetadata, config, messages);
+      super(failureMetadata, config, pairingKeyFunction, messages);
     }
   }
 
   static <M extends Message>
       Subject.Factory<IterableOfMessagesSubject<M>, Iterable<M>> iterableOfMessages(
-          final FluentEqualityConfig config) {
+          final FluentEqualityConfig config,
+          @Nullable final Function<? super M, ?> pairingKeyFunction) {
     return new Subject.Factory<IterableOfMessagesSubject<M>, Iterable<M>>() {
       @Override
       public IterableOfMessagesSubject<M> createSubject(
           FailureMetadata metadata, Iterable<M> actual) {
-        return new IterableOfMessagesSubject<M>(metadata, config, actual);
+        return new IterableOfMessagesSubject<M>(metadata, config, pairingKeyFunction, actual);
       }
     };
   }
@@ -113,8 +118,17 @@ public class IterableOfProtosSubject<
 
   IterableOfProtosSubject(
       FailureMetadata failureMetadata, FluentEqualityConfig config, @Nullable C messages) {
+    this(failureMetadata, config, null, messages);
+  }
+
+  IterableOfProtosSubject(
+      FailureMetadata failureMetadata,
+      FluentEqualityConfig config,
+      @Nullable Function<? super M, ?> pairingKeyFunction,
+      @Nullable C messages) {
     super(failureMetadata, messages);
     this.config = config;
+    this.pairingKeyFunction = pairingKeyFunction;
   }
 
   //////////////////////////////////////////////////////////////////////////////////////////////////
@@ -310,8 +324,13 @@ public class IterableOfProtosSubject<
   //////////////////////////////////////////////////////////////////////////////////////////////////
 
   IterableOfProtosFluentAssertion<M> usingConfig(FluentEqualityConfig newConfig) {
+    return usingConfig(newConfig, pairingKeyFunction);
+  }
+
+  private IterableOfProtosFluentAssertion<M> usingConfig(
+      FluentEqualityConfig newConfig, @Nullable Function<? super M, ?> newPairingKeyFunction) {
     Subject.Factory<IterableOfMessagesSubject<M>, Iterable<M>> factory =
-        iterableOfMessages(newConfig);
+        iterableOfMessages(newConfig, newPairingKeyFunction);
     IterableOfMessagesSubject<M> newSubject = check().about(factory).that(actual());
     if (internalCustomName() != null) {
       newSubject = newSubject.named(internalCustomName());
@@ -504,13 +523,114 @@ public class IterableOfProtosSubject<
     return usingConfig(config.reportingMismatchesOnly());
   }
 
+  /**
+   * If set, the elements of large repeated fields and maps are compared in parallel, on a shared
+   * {@link java.util.concurrent.ForkJoinPool}. Useful for protocol buffers with many thousands of
+   * repeated submessages.
+   *
+   * <p>Only the check of whether the messages are equal is split up, and it stops at the first
+   * range found to differ. Repeated fields compared with {@link #ignoringRepeatedFieldOrder()} are
+   * still checked on the calling thread, as is the failure message, which is built once a check
+   * fails.
+   */
+  public IterableOfProtosFluentAssertion<M> comparingRepeatedFieldsInParallel() {
+    return usingConfig(config.comparingRepeatedFieldsInParallel());
+  }
+
+  /**
+   * Specifies that {@link IterableOfProtosFluentAssertion#containsExactly} and {@link
+   * IterableOfProtosFluentAssertion#containsExactlyElementsIn} should pair up actual and expected
+   * elements by the key returned by {@code keyFunction}. Each actual element is then only compared
+   * with the expected element which has the same key, rather than with every expected element. A
+   * failure lists the keys of the missing and unexpected elements, followed by the field
+   * differences of each pair of elements which didn't compare equal.
+   *
+   * <p>Since elements with different keys are never compared, two elements which compare equal
+   * should have equal keys. Keying by an ID field which the comparison doesn't ignore guarantees
+   * this. If several elements share a key, they are paired in the order they were given in. Null
+   * elements have a null key.
+   *
+   * <p>This setting has no effect on the other assertions.
+   */
+  public IterableOfProtosFluentAssertion<M> displayingDiffsPairedBy(
+      Function<? super M, ?> keyFunction) {
+    return usingConfig(config, checkNotNull(keyFunction));
+  }
+
+  /**
+   * Specifies that {@link IterableOfProtosFluentAssertion#containsExactly} and {@link
+   * IterableOfProtosFluentAssertion#containsExactlyElementsIn} should pair up actual and expected
+   * elements by the value of the field with the given number, as with {@link
+   * #displayingDiffsPairedBy(Function)}.
+   *
+   * <p>If an element has no field with this number, the terminal comparison operation will throw a
+   * runtime exception.
+   */
+  public IterableOfProtosFluentAssertion<M> displayingDiffsPairedBy(int fieldNumber) {
+    return usingConfig(config, KeyedMessagePairing.fieldValue(fieldNumber));
+  }
+
   //////////////////////////////////////////////////////////////////////////////////////////////////
   // UsingCorrespondence Methods
   //////////////////////////////////////////////////////////////////////////////////////////////////
 
   private IterableSubject.UsingCorrespondence<M, M> usingCorrespondence() {
-    return comparingElementsUsing(
-        config.<M>toCorrespondence(FieldScopeUtil.getSingleDescriptor(actual())));
+    return comparingElementsUsing(correspondence());
+  }
+
+  private Correspondence<M, M> correspondence() {
+    return config.toCorrespondence(FieldScopeUtil.getSingleDescriptor(actual()));
+  }
+
+  private Ordered containsExactlyCorrespondingElementsIn(Iterable<? extends M> expected) {
+    if (pairingKeyFunction == null) {
+      return usingCorrespondence().containsExactlyElementsIn(expected);
+    }
+
+    final KeyedMessagePairing pairing =
+        KeyedMessagePairing.pair(
+            config,
+            KeyedMessagePairing.keyedBy(actual(), pairingKeyFunction),
+            KeyedMessagePairing.keyedBy(expected, pairingKeyFunction));
+    if (!pairing.isMatched()) {
+      failWithRawMessage(
+          "Not true that %s contains exactly one element that %s each element of <%s>, pairing "
+              + "elements by key.\n%s",
+          actualAsString(),
+          correspondence(),
+          expected,
+          pairing.describeDifferences());
+      return KeyedMessagePairing.ALREADY_FAILED;
+    }
+    final Iterable<? extends M> finalExpected = expected;
+    return new Ordered() {
+      @Override
+      public void inOrder() {
+        if (pairing.isInOrder()) {
+          return;
+        }
+        if (pairing.actualKeys().equals(pairing.expectedKeys())) {
+          failWithRawMessage(
+              "Not true that %s contains, in order, exactly one element that %s each element of "
+                  + "<%s>, pairing elements by key. The keys were in the expected order <%s>, but "
+                  + "the elements sharing a key were not",
+              actualAsString(),
+              correspondence(),
+              finalExpected,
+              pairing.expectedKeys());
+        } else {
+          failWithRawMessage(
+              "Not true that %s contains, in order, exactly one element that %s each element of "
+                  + "<%s>, pairing elements by key. The elements had the keys <%s>, but the "
+                  + "expected keys were <%s>",
+              actualAsString(),
+              correspondence(),
+              finalExpected,
+              pairing.actualKeys(),
+              pairing.expectedKeys());
+        }
+      }
+    };
   }
 
   // The UsingCorrespondence methods have conflicting erasure with default IterableSubject methods,
@@ -572,6 +692,22 @@ public class IterableOfProtosSubject<
       return subject.reportingMismatchesOnly();
     }
 
+    @Override
+    public IterableOfProtosFluentAssertion<M> comparingRepeatedFieldsInParallel() {
+      return subject.comparingRepeatedFieldsInParallel();
+    }
+
+    @Override
+    public IterableOfProtosFluentAssertion<M> displayingDiffsPairedBy(
+        Function<? super M, ?> keyFunction) {
+      return subject.displayingDiffsPairedBy(keyFunction);
+    }
+
+    @Override
+    public IterableOfProtosFluentAssertion<M> displayingDiffsPairedBy(int fieldNumber) {
+      return subject.displayingDiffsPairedBy(fieldNumber);
+    }
+
     @Override
     public void contains(@Nullable M expected) {
       usingCorrespondence().contains(expected);
@@ -584,12 +720,13 @@ public class IterableOfProtosSubject<
 
     @Override
     public Ordered containsExactly(@Nullable M... expected) {
-      return usingCorrespondence().containsExactly(expected);
+      return subject.containsExactlyCorrespondingElementsIn(
+          expected == null ? Arrays.<M>asList((M) null) : Arrays.asList(expected));
     }
 
     @Override
     public Ordered containsExactlyElementsIn(Iterable<? extends M> expected) {
-      return usingCorrespondence().containsExactlyElementsIn(expected);
+      return subject.containsExactlyCorrespondingElementsIn(expected);
     }
 
     @Override
@@ -0,0 +1,288 @@
+/*
+ * Copyright (c) 2017 Google, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.google.common.truth.extensions.proto;
+
+import static com.google.common.base.Preconditions.checkArgument;
+import static com.google.common.base.Preconditions.checkNotNull;
+
+import com.google.common.base.Function;
+import com.google.common.collect.ListMultimap;
+import com.google.common.collect.Lists;
+import com.google.common.collect.Maps;
+import com.google.common.collect.MultimapBuilder;
+import com.google.common.primitives.Ints;
+import com.google.common.truth.Ordered;
+import com.google.protobuf.Descriptors.Descriptor;
+import com.google.protobuf.Descriptors.FieldDescriptor;
+import com.google.protobuf.Message;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import javax.annotation.Nullable;
+
+/**
+ * Actual and expected messages, paired up by key.
+ *
+ * <p>Only messages with equal keys are compared with each other, so pairing takes time linear in
+ * the number of messages, instead of comparing every actual message with every expected one. If
+ * several messages share a key, they're paired as {@code IterableSubject.UsingCorrespondence} pairs
+ * elements: as many of them as possible with a message which compares equal. The keys only decide
+ * which messages are compared, and how the differences are reported.
+ */
+final class KeyedMessagePairing {
+
+  /** Returned once a check has failed, so {@link Ordered#inOrder()} has nothing left to report. */
+  static final Ordered ALREADY_FAILED =
+      new Ordered() {
+        @Override
+        public void inOrder() {}
+      };
+
+  /** Returns a key function which reads the field with the given number from each message. */
+  static Function<Message, Object> fieldValue(final int fieldNumber) {
+    return new Function<Message, Object>() {
+      @Override
+      public Object apply(Message message) {
+        Descriptor descriptor = message.getDescriptorForType();
+        FieldDescriptor fieldDescriptor = descriptor.findFieldByNumber(fieldNumber);
+        checkArgument(
+            fieldDescriptor != null,
+            "Message type %s has no field with number %s.",
+            descriptor.getFullName(),
+            fieldNumber);
+        return message.getField(fieldDescriptor);
+      }
+    };
+  }
+
+  /** Keys each of the given messages with {@code keyFunction}. Null messages get a null key. */
+  static <M extends Message> List<Map.Entry<Object, M>> keyedBy(
+      Iterable<? extends M> messages, Function<? super M, ?> keyFunction) {
+    checkNotNull(keyFunction);
+    List<Map.Entry<Object, M>> entries = new ArrayList<Map.Entry<Object, M>>();
+    for (M message : messages) {
+      Object key = message == null ? null : keyFunction.apply(message);
+      entries.add(Maps.<Object, M>immutableEntry(key, message));
+    }
+    return entries;
+  }
+
+  /** Pairs the actual and expected messages by key, and compares each pair under {@code config}. */
+  static KeyedMessagePairing pair(
+      FluentEqualityConfig config,
+      Iterable<? extends Map.Entry<?, ? extends Message>> actual,
+      Iterable<? extends Map.Entry<?, ? extends Message>> expected) {
+    return new KeyedMessagePairing(config, actual, expected);
+  }
+
+  private final FluentEqualityConfig config;
+  private final List<Object> actualKeys = new ArrayList<Object>();
+  private final List<Object> expectedKeys = new ArrayList<Object>();
+  private final List<Message> actualMessages = new ArrayList<Message>();
+  private final List<Message> expectedMessages = new ArrayList<Message>();
+  private final List<Object> missingKeys = new ArrayList<Object>();
+  private final List<Object> unexpectedKeys = new ArrayList<Object>();
+  private final List<MismatchedPair> mismatchedPairs = new ArrayList<MismatchedPair>();
+  // For each actual message, the index of the expected message it compared equal to, or -1.
+  private final int[] pairedIndices;
+
+  private KeyedMessagePairing(
+      FluentEqualityConfig config,
+      Iterable<? extends Map.Entry<?, ? extends Message>> actual,
+      Iterable<? extends Map.Entry<?, ? extends Message>> expected) {
+    this.config = config;
+    ListMultimap<Object, Integer> actualByKey = index(actual, actualKeys, actualMessages);
+    ListMultimap<Object, Integer> expectedByKey = index(expected, expectedKeys, expectedMessages);
+    pairedIndices = new int[actualMessages.size()];
+    Arrays.fill(pairedIndices, -1);
+
+    for (Object key : expectedByKey.keySet()) {
+      pairMessagesWithKey(key, actualByKey.get(key), expectedByKey.get(key));
+    }
+    for (Object key : actualByKey.keySet()) {
+      int unpaired = actualByKey.get(key).size() - expectedByKey.get(key).size();
+      for (int i = 0; i < unpaired; i++) {
+        unexpectedKeys.add(key);
+      }
+    }
+  }
+
+  /**
+   * Pairs up the actual and expected messages at the given indices, which all have the given key.
+   * Messages which don't compare equal to any partner left over are paired with each other in
+   * order, so that their differences can be reported.
+   */
+  private void pairMessagesWithKey(
+      @Nullable Object key, List<Integer> actualIndices, List<Integer> expectedIndices) {
+    // Messages with the same key almost always correspond in the order they were given in, so pair
+    // them up that way first. If every pair compares equal, no matching can be larger, and it's
+    // the one which isInOrder() looks for.
+    int pairCount = Math.min(actualIndices.size(), expectedIndices.size());
+    boolean allMatched = true;
+    for (int k = 0; allMatched && k < pairCount; k++) {
+      allMatched =
+          config.compare(
+              actualMessages.get(actualIndices.get(k)),
+              expectedMessages.get(expectedIndices.get(k)));
+    }
+    int[] matching = new int[actualIndices.size()];
+    Arrays.fill(matching, -1);
+    if (allMatched) {
+      for (int k = 0; k < pairCount; k++) {
+        matching[k] = k;
+      }
+    } else if (actualIndices.size() > 1 || expectedIndices.size() > 1) {
+      // Otherwise compare every pair with this key, and find a maximum matching among them.
+      int[][] adjacency = new int[actualIndices.size()][];
+      for (int a = 0; a < actualIndices.size(); a++) {
+        List<Integer> matches = Lists.newArrayList();
+        for (int e = 0; e < expectedIndices.size(); e++) {
+          if (config.compare(
+              actualMessages.get(actualIndices.get(a)),
+              expectedMessages.get(expectedIndices.get(e)))) {
+            matches.add(e);
+          }
+        }
+        adjacency[a] = Ints.toArray(matches);
+      }
+      matching = BipartiteMatching.maximumMatching(adjacency, expectedIndices.size());
+    }
+
+    List<Integer> unpairedActual = Lists.newArrayList();
+    boolean[] pairedExpected = new boolean[expectedIndices.size()];
+    for (int a = 0; a < matching.length; a++) {
+      if (matching[a] >= 0) {
+        pairedIndices[actualIndices.get(a)] = expectedIndices.get(matching[a]);
+        pairedExpected[matching[a]] = true;
+      } else {
+        unpairedActual.add(actualIndices.get(a));
+      }
+    }
+    int mismatched = 0;
+    for (int e = 0; e < expectedIndices.size(); e++) {
+      if (pairedExpected[e]) {
+        continue;
+      }
+      if (mismatched < unpairedActual.size()) {
+        mismatchedPairs.add(
+            new MismatchedPair(
+                key,
+                actualMessages.get(unpairedActual.get(mismatched++)),
+                expectedMessages.get(expectedIndices.get(e))));
+      } else {
+        missingKeys.add(key);
+      }
+    }
+  }
+
+  private static ListMultimap<Object, Integer> index(
+      Iterable<? extends Map.Entry<?, ? extends Message>> entries,
+      List<Object> keys,
+      List<Message> messages) {
+    ListMultimap<Object, Integer> byKey =
+        MultimapBuilder.linkedHashKeys().arrayListValues().build();
+    for (Map.Entry<?, ? extends Message> entry : entries) {
+      byKey.put(entry.getKey(), messages.size());
+      keys.add(entry.getKey());
+      messages.add(entry.getValue());
+    }
+    return byKey;
+  }
+
+  /** Whether every message was paired, and every pair compared equal. */
+  boolean isMatched() {
+    return missingKeys.isEmpty() && unexpectedKeys.isEmpty() && mismatchedPairs.isEmpty();
+  }
+
+  /**
+   * Whether the keys of the actual messages came in the same order as those of the expected ones,
+   * and each message was paired with the one at the same position. If {@link #isMatched()}, this
+   * means that the messages matched in order, too.
+   */
+  boolean isInOrder() {
+    if (!actualKeys.equals(expectedKeys)) {
+      return false;
+    }
+    for (int i = 0; i < pairedIndices.length; i++) {
+      if (pairedIndices[i] != i) {
+        return false;
+      }
+    }
+    return true;
+  }
+
+  /** The keys of the actual messages, in order. */
+  List<Object> actualKeys() {
+    return actualKeys;
+  }
+
+  /** The keys of the expected messages, in order. */
+  List<Object> expectedKeys() {
+    return expectedKeys;
+  }
+
+  /**
+   * Describes why the messages didn't match, for a failure message: the keys of unpaired messages,
+   * then the differences between each pair of messages which didn't compare equal.
+   */
+  String describeDifferences() {
+    StringBuilder description = new StringBuilder();
+    if (!missingKeys.isEmpty()) {
+      description.append("Missing keys: <").append(missingKeys).append(">\n");
+    }
+    if (!unexpectedKeys.isEmpty()) {
+      description.append("Unexpected keys: <").append(unexpectedKeys).append(">\n");
+    }
+    for (MismatchedPair pair : mismatchedPairs) {
+      description.append("Differences for key <").append(pair.key).append(">:\n");
+      pair.describeDifferences(description);
+    }
+    return description.toString();
+  }
+
+  /** Two messages with the same key, which didn't compare equal. */
+  private final class MismatchedPair {
+    @Nullable private final Object key;
+    @Nullable private final Message actual;
+    @Nullable private final Message expected;
+
+    MismatchedPair(@Nullable Object key, @Nullable Message actual, @Nullable Message expected) {
+      this.key = key;
+      this.actual = actual;
+      this.expected = expected;
+    }
+
+    /**
+     * Appends the differences between the messages, as {@link ProtoSubject#isEqualTo} reports them.
+     * The differencer only runs here, for pairs which are already known not to match.
+     */
+    void describeDifferences(StringBuilder description) {
+      if (actual == null || expected == null || actual.getClass() != expected.getClass()) {
+        description.append("expected: <").append(expected).append(">\n");
+        description.append("but was: <").append(actual).append(">\n");
+        return;
+      }
+      description.append(
+          DiffReport.of(
+                  config
+                      .toProtoTruthMessageDifferencer(actual.getDescriptorForType())
+                      .diffMessages(actual, expected))
+              .failures());
+    }
+  }
+}
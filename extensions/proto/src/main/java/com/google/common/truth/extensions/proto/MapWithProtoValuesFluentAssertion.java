@@ -209,6 +209,18 @@ public interface MapWithProtoValuesFluentAssertion<M extends Message> {
    */
   MapWithProtoValuesFluentAssertion<M> reportingMismatchesOnlyForValues();
 
+  /**
+   * If set, the elements of large repeated fields and maps are compared in parallel, on a shared
+   * {@link java.util.concurrent.ForkJoinPool}. Useful for protocol buffers with many thousands of
+   * repeated submessages.
+   *
+   * <p>Only the check of whether the messages are equal is split up, and it stops at the first
+   * range found to differ. Repeated fields compared with {@link
+   * #ignoringRepeatedFieldOrderForValues()} are still checked on the calling thread, as is the
+   * failure message, which is built once a check fails.
+   */
+  MapWithProtoValuesFluentAssertion<M> comparingRepeatedFieldsInParallelForValues();
+
   /**
    * Fails if the map does not contain an entry with the given key and a value that corresponds to
    * the given value.
@@ -237,6 +249,10 @@ public interface MapWithProtoValuesFluentAssertion<M extends Message> {
   /**
    * Fails if the map does not contain exactly the keys in the given map, mapping to values that
    * correspond to the values of the given map.
+   *
+   * <p>Each actual value is only compared with the expected value for the same key. A failure lists
+   * the missing and unexpected keys, followed by the field differences of each pair of values which
+   * didn't compare equal.
    */
   @CanIgnoreReturnValue
   Ordered containsExactlyEntriesIn(Map<?, ? extends M> expectedMap);
@@ -18,6 +18,7 @@ package com.google.common.truth.extensions.proto;
 
 import static com.google.common.base.Preconditions.checkNotNull;
 import static com.google.common.collect.Lists.asList;
+import static com.google.common.truth.MapUtil.accumulateMap;
 import static com.google.common.truth.extensions.proto.FieldScopeUtil.asList;
 
 import com.google.common.truth.Correspondence;
@@ -401,13 +402,61 @@ public class MapWithProtoValuesSubject<
     return usingConfig(config.reportingMismatchesOnly());
   }
 
+  /**
+   * If set, the elements of large repeated fields and maps are compared in parallel, on a shared
+   * {@link java.util.concurrent.ForkJoinPool}. Useful for protocol buffers with many thousands of
+   * repeated submessages.
+   *
+   * <p>Only the check of whether the messages are equal is split up, and it stops at the first
+   * range found to differ. Repeated fields compared with {@link
+   * #ignoringRepeatedFieldOrderForValues()} are still checked on the calling thread, as is the
+   * failure message, which is built once a check fails.
+   */
+  public MapWithProtoValuesFluentAssertion<M> comparingRepeatedFieldsInParallelForValues() {
+    return usingConfig(config.comparingRepeatedFieldsInParallel());
+  }
+
   //////////////////////////////////////////////////////////////////////////////////////////////////
   // UsingCorrespondence Methods
   //////////////////////////////////////////////////////////////////////////////////////////////////
 
   private MapSubject.UsingCorrespondence<M, M> usingCorrespondence() {
-    return comparingValuesUsing(
-        config.<M>toCorrespondence(FieldScopeUtil.getSingleDescriptor(actual().values())));
+    return comparingValuesUsing(correspondence());
+  }
+
+  private Correspondence<M, M> correspondence() {
+    return config.toCorrespondence(FieldScopeUtil.getSingleDescriptor(actual().values()));
+  }
+
+  // The values can only correspond if their keys are equal, so unlike
+  // MapSubject.UsingCorrespondence, which tries every actual entry against every expected one, we
+  // pair up the entries by key and compare each pair once.
+  private Ordered containsExactlyCorrespondingEntriesIn(final Map<?, ? extends M> expectedMap) {
+    final KeyedMessagePairing pairing =
+        KeyedMessagePairing.pair(config, actual().entrySet(), expectedMap.entrySet());
+    if (!pairing.isMatched()) {
+      failWithRawMessage(
+          "Not true that %s contains exactly one entry that has a key that is equal to and a "
+              + "value that %s the key and value of each entry of <%s>.\n%s",
+          actualAsString(), correspondence(), expectedMap, pairing.describeDifferences());
+      return KeyedMessagePairing.ALREADY_FAILED;
+    }
+    return new Ordered() {
+      @Override
+      public void inOrder() {
+        if (!pairing.isInOrder()) {
+          failWithRawMessage(
+              "Not true that %s contains, in order, exactly one entry that has a key that is equal "
+                  + "to and a value that %s the key and value of each entry of <%s>. The keys "
+                  + "were <%s>, but the expected keys were <%s>",
+              actualAsString(),
+              correspondence(),
+              expectedMap,
+              pairing.actualKeys(),
+              pairing.expectedKeys());
+        }
+      }
+    };
   }
 
   // The UsingCorrespondence methods have conflicting erasure with default MapSubject methods,
@@ -471,6 +520,11 @@ public class MapWithProtoValuesSubject<
       return subject.reportingMismatchesOnlyForValues();
     }
 
+    @Override
+    public MapWithProtoValuesFluentAssertion<M> comparingRepeatedFieldsInParallelForValues() {
+      return subject.comparingRepeatedFieldsInParallelForValues();
+    }
+
     @Override
     public void containsEntry(@Nullable Object expectedKey, @Nullable M expectedValue) {
       usingCorrespondence().containsEntry(expectedKey, expectedValue);
@@ -484,13 +538,15 @@ public class MapWithProtoValuesSubject<
     @Override
     @CanIgnoreReturnValue
     public Ordered containsExactly(@Nullable Object k0, @Nullable M v0, Object... rest) {
-      return usingCorrespondence().containsExactly(k0, v0, rest);
+      @SuppressWarnings("unchecked") // throwing ClassCastException is the correct behaviour
+      Map<Object, M> expectedMap = (Map<Object, M>) (Map<?, ?>) accumulateMap(k0, v0, rest);
+      return containsExactlyEntriesIn(expectedMap);
     }
 
     @Override
     @CanIgnoreReturnValue
     public Ordered containsExactlyEntriesIn(Map<?, ? extends M> expectedMap) {
-      return usingCorrespondence().containsExactlyEntriesIn(expectedMap);
+      return subject.containsExactlyCorrespondingEntriesIn(expectedMap);
     }
 
     @Override
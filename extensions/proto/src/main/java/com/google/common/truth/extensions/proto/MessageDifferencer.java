@@ -18,6 +18,7 @@ package com.google.common.truth.extensions.proto;
 import com.google.auto.value.AutoValue;
 import com.google.common.annotations.VisibleForTesting;
 import com.google.common.base.Preconditions;
+import com.google.common.base.Predicates;
 import com.google.common.collect.ImmutableCollection;
 import com.google.common.collect.ImmutableList;
 import com.google.common.collect.ImmutableMap;
@@ -143,7 +144,7 @@ import javax.annotation.concurrent.Immutable;
     private RepeatedFieldComparison repeatedFieldComparison = RepeatedFieldComparison.AS_LIST;
     private boolean reportMatches;
     private FieldComparator fieldComparator;
-    private final List<IgnoreCriteria> ignoreCriterias = Lists.newArrayList();
+    private final List<IgnoreCriteriaFactory> ignoreCriteriaFactories = Lists.newArrayList();
 
     private Builder() {}
 
@@ -258,7 +259,15 @@ import javax.annotation.concurrent.Immutable;
     }
 
     public Builder addIgnoreCriteria(IgnoreCriteria criterion) {
-      this.ignoreCriterias.add(criterion);
+      return addIgnoreCriteriaFactory(constantFactory(criterion));
+    }
+
+    /**
+     * Like {@link #addIgnoreCriteria}, but creates new criteria for each comparison. See {@link
+     * IgnoreCriteriaFactory}.
+     */
+    public Builder addIgnoreCriteriaFactory(IgnoreCriteriaFactory factory) {
+      this.ignoreCriteriaFactories.add(Preconditions.checkNotNull(factory));
       return this;
     }
 
@@ -325,12 +334,15 @@ import javax.annotation.concurrent.Immutable;
       return this;
     }
 
-    IgnoreCriteria getMergedIgnoreCriteria() {
+    ImmutableList<IgnoreCriteriaFactory> getIgnoreCriteriaFactories() {
       if (!ignoreFields.isEmpty()) {
         IgnoreCriteria criterion = ignoringFields(ImmutableSet.copyOf(ignoreFields));
-        return mergeCriteria(Iterables.concat(ignoreCriterias, Collections.singleton(criterion)));
+        return ImmutableList.<IgnoreCriteriaFactory>builder()
+            .addAll(ignoreCriteriaFactories)
+            .add(constantFactory(criterion))
+            .build();
       } else {
-        return mergeCriteria(ignoreCriterias);
+        return ImmutableList.copyOf(ignoreCriteriaFactories);
       }
     }
 
@@ -341,6 +353,10 @@ import javax.annotation.concurrent.Immutable;
   }
 
   private final ImmutableSet<FieldDescriptor> setFields;
+  private final ImmutableList<IgnoreCriteriaFactory> ignoreCriteriaFactories;
+  private final boolean ignoreCriteriaAreStateless;
+  // The criteria for the comparison in progress. Differencers whose criteria aren't stateless make
+  // a copy of themselves for each comparison, with fresh criteria.
   private final IgnoreCriteria ignoreCriteria;
   private final ImmutableMap<FieldDescriptor, MapKeyComparator> mapKeyComparatorMap;
   private final MessageFieldComparison messageFieldComparison;
@@ -352,7 +368,10 @@ import javax.annotation.concurrent.Immutable;
 
   private MessageDifferencer(Builder builder) {
     setFields = ImmutableSet.copyOf(builder.setFields);
-    ignoreCriteria = builder.getMergedIgnoreCriteria();
+    ignoreCriteriaFactories = builder.getIgnoreCriteriaFactories();
+    ignoreCriteriaAreStateless = Iterables.all(ignoreCriteriaFactories,
+        Predicates.instanceOf(ConstantIgnoreCriteriaFactory.class));
+    ignoreCriteria = newIgnoreCriteria(ignoreCriteriaFactories);
     mapKeyComparatorMap = ImmutableMap.copyOf(builder.mapKeyComparatorMap);
     messageFieldComparison = builder.messageFieldComparison;
     scope = builder.scope;
@@ -363,6 +382,35 @@ import javax.annotation.concurrent.Immutable;
         new DefaultFieldComparator(floatComparison) : builder.fieldComparator;
   }
 
+  private MessageDifferencer(MessageDifferencer prototype, IgnoreCriteria ignoreCriteria) {
+    setFields = prototype.setFields;
+    ignoreCriteriaFactories = prototype.ignoreCriteriaFactories;
+    ignoreCriteriaAreStateless = prototype.ignoreCriteriaAreStateless;
+    this.ignoreCriteria = ignoreCriteria;
+    mapKeyComparatorMap = prototype.mapKeyComparatorMap;
+    messageFieldComparison = prototype.messageFieldComparison;
+    scope = prototype.scope;
+    floatComparison = prototype.floatComparison;
+    repeatedFieldComparison = prototype.repeatedFieldComparison;
+    reportMatches = prototype.reportMatches;
+    fieldComparator = prototype.fieldComparator;
+  }
+
+  /** Returns a differencer to run a single comparison with, with its own ignore criteria. */
+  private MessageDifferencer forComparison() {
+    return ignoreCriteriaAreStateless
+        ? this
+        : new MessageDifferencer(this, newIgnoreCriteria(ignoreCriteriaFactories));
+  }
+
+  private static IgnoreCriteria newIgnoreCriteria(Iterable<IgnoreCriteriaFactory> factories) {
+    List<IgnoreCriteria> criteria = Lists.newArrayList();
+    for (IgnoreCriteriaFactory factory : factories) {
+      criteria.add(factory.newIgnoreCriteria());
+    }
+    return mergeCriteria(criteria);
+  }
+
   /**
    * Determines whether the supplied messages are equal. Equality is defined as
    * all fields within the two messages being set to the same value. Primitive
@@ -449,6 +497,32 @@ import javax.annotation.concurrent.Immutable;
         @Nullable FieldDescriptor fieldDescriptor, List<SpecificField> fieldPath);
   }
 
+  /**
+   * Creates the {@link IgnoreCriteria} for each comparison, for criteria which remember things
+   * about the messages being compared. Each call to {@code compare} gets its own criteria, so they
+   * needn't be thread-safe, and nothing they remember outlives the comparison.
+   */
+  public interface IgnoreCriteriaFactory {
+    IgnoreCriteria newIgnoreCriteria();
+  }
+
+  private static IgnoreCriteriaFactory constantFactory(IgnoreCriteria criterion) {
+    return new ConstantIgnoreCriteriaFactory(Preconditions.checkNotNull(criterion));
+  }
+
+  private static final class ConstantIgnoreCriteriaFactory implements IgnoreCriteriaFactory {
+    private final IgnoreCriteria criterion;
+
+    ConstantIgnoreCriteriaFactory(IgnoreCriteria criterion) {
+      this.criterion = criterion;
+    }
+
+    @Override
+    public IgnoreCriteria newIgnoreCriteria() {
+      return criterion;
+    }
+  }
+
   private static IgnoreCriteria ignoringFields(
       final ImmutableCollection<FieldDescriptor> fieldDescriptors) {
     return new IgnoreCriteria() {
@@ -790,7 +864,7 @@ import javax.annotation.concurrent.Immutable;
    */
   public boolean compare(Message message1, Message message2, @Nullable Reporter reporter) {
     List<SpecificField> stack = Lists.newArrayList();
-    return compare(message1, message2, reporter, stack);
+    return forComparison().compare(message1, message2, reporter, stack);
   }
 
   /**
@@ -819,8 +893,8 @@ import javax.annotation.concurrent.Immutable;
     message1Fields = ImmutableSet.copyOf(Ordering.natural().sortedCopy(message1Fields));
     message2Fields = ImmutableSet.copyOf(Ordering.natural().sortedCopy(message2Fields));
     List<SpecificField> stack = Lists.newArrayList();
-    return compareRequestedFields(message1, message2, message1Fields, message2Fields, reporter,
-        stack);
+    return forComparison().compareRequestedFields(message1, message2, message1Fields,
+        message2Fields, reporter, stack);
   }
 
   private boolean compare(Message message1, Message message2, @Nullable Reporter reporter,
@@ -1223,7 +1297,10 @@ import javax.annotation.concurrent.Immutable;
 
     boolean success = true;
     // Find potential match if this is a special repeated field.
-    if (keyComparator != null || isTreatedAsSet(repeatedField)) {
+    if (keyComparator == null && isTreatedAsSet(repeatedField) && comparesByEquals(repeatedField)) {
+      success = matchRepeatedFieldIndicesByValue(message1, message2, repeatedField, matchList1,
+          matchList2);
+    } else if (keyComparator != null || isTreatedAsSet(repeatedField)) {
       for (int i = 0; i < count1; i++) {
         // Indicates any matched elements for this repeated field.
         boolean match = false;
@@ -1251,6 +1328,57 @@ import javax.annotation.concurrent.Immutable;
     return success;
   }
 
+  /**
+   * Whether elements of the given field are compared with {@link Object#equals}, so that equal
+   * elements can be found by hashing instead of trying every pair.
+   */
+  private boolean comparesByEquals(FieldDescriptor field) {
+    if (!(fieldComparator instanceof DefaultFieldComparator)) {
+      return false;
+    }
+    switch (field.getJavaType()) {
+      case MESSAGE:
+        return false;
+      case FLOAT:
+      case DOUBLE:
+        return floatComparison == FloatComparison.EXACT;
+      default:
+        return true;
+    }
+  }
+
+  /**
+   * Matches each element of message1's field to the first unmatched equal element of message2's,
+   * like the pairwise search in {@link #matchRepeatedFieldIndices}, in linear time.
+   */
+  private static boolean matchRepeatedFieldIndicesByValue(Message message1, Message message2,
+      FieldDescriptor repeatedField, int[] matchList1, int[] matchList2) {
+    Map<Object, LinkedList<Integer>> unmatchedIndices2 = Maps.newHashMap();
+    for (int j = 0; j < matchList2.length; j++) {
+      Object value = message2.getRepeatedField(repeatedField, j);
+      LinkedList<Integer> indices = unmatchedIndices2.get(value);
+      if (indices == null) {
+        indices = Lists.newLinkedList();
+        unmatchedIndices2.put(value, indices);
+      }
+      indices.add(j);
+    }
+
+    boolean success = true;
+    for (int i = 0; i < matchList1.length; i++) {
+      LinkedList<Integer> indices =
+          unmatchedIndices2.get(message1.getRepeatedField(repeatedField, i));
+      if (indices == null || indices.isEmpty()) {
+        success = false;
+      } else {
+        int j = indices.removeFirst();
+        matchList1[i] = j;
+        matchList2[j] = i;
+      }
+    }
+    return success;
+  }
+
   private boolean isMatch(FieldDescriptor repeatedField, @Nullable MapKeyComparator keyComparator,
       Message message1, Message message2, int index1, int index2, List<SpecificField> stack) {
     boolean isSame;
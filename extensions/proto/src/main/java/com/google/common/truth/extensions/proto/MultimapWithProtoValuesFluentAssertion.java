@@ -210,6 +210,18 @@ public interface MultimapWithProtoValuesFluentAssertion<M extends Message> {
    */
   MultimapWithProtoValuesFluentAssertion<M> reportingMismatchesOnlyForValues();
 
+  /**
+   * If set, the elements of large repeated fields and maps are compared in parallel, on a shared
+   * {@link java.util.concurrent.ForkJoinPool}. Useful for protocol buffers with many thousands of
+   * repeated submessages.
+   *
+   * <p>Only the check of whether the messages are equal is split up, and it stops at the first
+   * range found to differ. Repeated fields compared with {@link
+   * #ignoringRepeatedFieldOrderForValues()} are still checked on the calling thread, as is the
+   * failure message, which is built once a check fails.
+   */
+  MultimapWithProtoValuesFluentAssertion<M> comparingRepeatedFieldsInParallelForValues();
+
   /**
    * Fails if the multimap does not contain an entry with the given key and a value that corresponds
    * to the given value.
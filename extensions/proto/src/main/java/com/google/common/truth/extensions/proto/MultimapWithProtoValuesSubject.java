@@ -446,6 +446,20 @@ public class MultimapWithProtoValuesSubject<
     return usingConfig(config.reportingMismatchesOnly());
   }
 
+  /**
+   * If set, the elements of large repeated fields and maps are compared in parallel, on a shared
+   * {@link java.util.concurrent.ForkJoinPool}. Useful for protocol buffers with many thousands of
+   * repeated submessages.
+   *
+   * <p>Only the check of whether the messages are equal is split up, and it stops at the first
+   * range found to differ. Repeated fields compared with {@link
+   * #ignoringRepeatedFieldOrderForValues()} are still checked on the calling thread, as is the
+   * failure message, which is built once a check fails.
+   */
+  public MultimapWithProtoValuesFluentAssertion<M> comparingRepeatedFieldsInParallelForValues() {
+    return usingConfig(config.comparingRepeatedFieldsInParallel());
+  }
+
   //////////////////////////////////////////////////////////////////////////////////////////////////
   // UsingCorrespondence Methods
   //////////////////////////////////////////////////////////////////////////////////////////////////
@@ -518,6 +532,11 @@ public class MultimapWithProtoValuesSubject<
       return subject.reportingMismatchesOnlyForValues();
     }
 
+    @Override
+    public MultimapWithProtoValuesFluentAssertion<M> comparingRepeatedFieldsInParallelForValues() {
+      return subject.comparingRepeatedFieldsInParallelForValues();
+    }
+
     @Override
     public void containsEntry(@Nullable Object expectedKey, @Nullable M expectedValue) {
       usingCorrespondence().containsEntry(expectedKey, expectedValue);
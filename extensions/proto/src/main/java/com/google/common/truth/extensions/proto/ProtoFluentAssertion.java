@@ -196,6 +196,18 @@ public interface ProtoFluentAssertion {
    */
   ProtoFluentAssertion reportingMismatchesOnly();
 
+  /**
+   * If set, the elements of large repeated fields and maps are compared in parallel, on a shared
+   * {@link java.util.concurrent.ForkJoinPool}. Useful for protocol buffers with many thousands of
+   * repeated submessages.
+   *
+   * <p>Only the check of whether the messages are equal is split up, and it stops at the first
+   * range found to differ. Repeated fields compared with {@link #ignoringRepeatedFieldOrder()} are
+   * still checked on the calling thread, as is the failure message, which is built once a check
+   * fails.
+   */
+  ProtoFluentAssertion comparingRepeatedFieldsInParallel();
+
   /**
    * Compares the subject of the assertion to {@code expected}, using all of the rules specified by
    * earlier operations. If no settings are changed, this invokes the default {@code equals}
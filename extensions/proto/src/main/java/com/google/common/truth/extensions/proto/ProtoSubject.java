@@ -20,19 +20,12 @@ import static com.google.common.base.Preconditions.checkNotNull;
 import static com.google.common.collect.Lists.asList;
 import static com.google.common.truth.extensions.proto.FieldScopeUtil.asList;
 
-import com.google.auto.value.AutoValue;
-import com.google.common.collect.ImmutableList;
 import com.google.common.truth.FailureMetadata;
 import com.google.common.truth.FailureStrategy;
 import com.google.common.truth.Subject;
-import com.google.common.truth.extensions.proto.MessageDifferencer.ReportType;
-import com.google.common.truth.extensions.proto.MessageDifferencer.SpecificField;
-import com.google.common.truth.extensions.proto.MessageDifferencer.StreamReporter;
 import com.google.protobuf.Descriptors.FieldDescriptor;
 import com.google.protobuf.Message;
 import com.google.protobuf.TextFormat;
-import java.util.ArrayList;
-import java.util.List;
 import javax.annotation.Nullable;
 
 /**
@@ -138,31 +131,19 @@ public class ProtoSubject<S extends ProtoSubject<S, M>, M extends Message>
     return usingConfig(config.reportingMismatchesOnly());
   }
 
+  @Override
+  public ProtoFluentAssertion comparingRepeatedFieldsInParallel() {
+    return usingConfig(config.comparingRepeatedFieldsInParallel());
+  }
+
   @Override
   public void isEqualTo(@Nullable Object expected) {
     if (getSubject() == null
         || expected == null
         || getSubject().getClass() != expected.getClass()) {
       super.isEqualTo(expected);
-    } else {
-      Reporter reporter = new Reporter();
-      if (!makeDifferencer().compare((Message) expected, getSubject(), reporter)) {
-        reporter.failEqual((Message) expected);
-      }
-    }
-  }
-
-  /**
-   * Same as {@link #isEqualTo(Object)}, except it returns true on success and false on failure
-   * without throwing any exceptions.
-   */
-  boolean testIsEqualTo(@Nullable Object expected) {
-    if (getSubject() == null || expected == null) {
-      return getSubject() == expected; // Only true if both null.
-    } else if (getSubject().getClass() != expected.getClass()) {
-      return false;
-    } else {
-      return makeDifferencer().compare((Message) expected, getSubject(), null);
+    } else if (!config.compare(getSubject(), (Message) expected)) {
+      failEqual((Message) expected);
     }
   }
 
@@ -172,11 +153,8 @@ public class ProtoSubject<S extends ProtoSubject<S, M>, M extends Message>
         || expected == null
         || getSubject().getClass() != expected.getClass()) {
       super.isNotEqualTo(expected);
-    } else {
-      Reporter reporter = new Reporter();
-      if (makeDifferencer().compare((Message) expected, getSubject(), reporter)) {
-        reporter.failNotEqual((Message) expected);
-      }
+    } else if (config.compare(getSubject(), (Message) expected)) {
+      failNotEqual((Message) expected);
     }
   }
 
@@ -189,127 +167,63 @@ public class ProtoSubject<S extends ProtoSubject<S, M>, M extends Message>
     }
   }
 
-  private MessageDifferencer makeDifferencer() {
-    return config.toMessageDifferencer(getSubject().getDescriptorForType());
-  }
-
   /**
-   * {@link MessageDifferencer.Reporter} implementation for reporting the results of {@link
-   * #isEqualTo(Object)}.
+   * Describes the differences between the messages, as found by the same differencer which decided
+   * the comparison. Only called once the comparison has already failed, so passing assertions
+   * don't pay for the report.
    */
-  private class Reporter implements MessageDifferencer.Reporter {
-    private final List<ReporterRecord> records = new ArrayList<ReporterRecord>();
-    private boolean anyFailures = false;
-    private boolean anyNotices = false;
-
-    @Override
-    public void report(
-        ReportType type, Message message1, Message message2, ImmutableList<SpecificField> path) {
-      ReporterRecord record = ReporterRecord.of(type, message1, message2, path);
-      anyFailures |= record.isFailure();
-      anyNotices |= !record.isFailure();
-      records.add(record);
-    }
+  private DiffReport reportDifferences(Message expected) {
+    return DiffReport.of(
+        config
+            .toProtoTruthMessageDifferencer(getSubject().getDescriptorForType())
+            .diffMessages(getSubject(), expected));
+  }
 
-    void failEqual(Message expected) {
-      StringBuilder rawMessage = new StringBuilder();
-      rawMessage.append("Not true that ");
-      if (ProtoSubject.this.internalCustomName() != null) {
-        rawMessage.append(ProtoSubject.this.internalCustomName()).append(" compares equal. ");
-      } else {
-        rawMessage.append("messages compare equal. ");
-      }
+  private void failEqual(Message expected) {
+    StringBuilder rawMessage = new StringBuilder();
+    rawMessage.append("Not true that ");
+    if (internalCustomName() != null) {
+      rawMessage.append(internalCustomName()).append(" compares equal. ");
+    } else {
+      rawMessage.append("messages compare equal. ");
+    }
 
-      StreamReporter streamReporter = new StreamReporter(rawMessage);
-      if (anyFailures) {
-        rawMessage.append("Differences were found:\n");
-        for (ReporterRecord record : records) {
-          if (record.isFailure()) {
-            streamReporter.report(
-                record.type(), record.message1(), record.message2(), record.path());
-          }
-        }
+    DiffReport report = reportDifferences(expected);
+    rawMessage.append("Differences were found:\n").append(report.failures());
+    if (report.hasNotices() && !config.reportMismatchesOnly()) {
+      // Append the full report.
+      rawMessage.append("\nFull diff:\n").append(report.allLines());
+    }
 
-        if (anyNotices && !ProtoSubject.this.config.reportMismatchesOnly()) {
-          // Append the full report.
-          rawMessage.append("\nFull diff:\n");
-          for (ReporterRecord record : records) {
-            streamReporter.report(
-                record.type(), record.message1(), record.message2(), record.path());
-          }
-        }
-      } else {
-        rawMessage.append("No differences were reported.");
-        if (!ProtoSubject.this.config.reportMismatchesOnly()) {
-          if (anyNotices) {
-            rawMessage.append("\nFull diff:\n");
-            for (ReporterRecord record : records) {
-              streamReporter.report(
-                  record.type(), record.message1(), record.message2(), record.path());
-            }
-          } else {
-            // Shouldn't really happen, but it's better to print something than nothing if it does.
-            rawMessage.append("\nActual:\n");
-            rawMessage.append(TextFormat.printToString(getSubject()));
-            rawMessage.append("Expected:\n");
-            rawMessage.append(TextFormat.printToString(expected));
-          }
-        }
-      }
+    failWithRawMessage(rawMessage.toString());
+  }
 
-      ProtoSubject.this.failWithRawMessage(rawMessage.toString());
+  private void failNotEqual(Message expected) {
+    StringBuilder rawMessage = new StringBuilder();
+    rawMessage.append("Not true that ");
+    if (internalCustomName() != null) {
+      rawMessage.append(internalCustomName()).append(" compares not equal. ");
+    } else {
+      rawMessage.append("messages compare not equal. ");
     }
 
-    void failNotEqual(Message expected) {
-      StringBuilder rawMessage = new StringBuilder();
-      rawMessage.append("Not true that ");
-      if (ProtoSubject.this.internalCustomName() != null) {
-        rawMessage.append(ProtoSubject.this.internalCustomName()).append(" compares not equal. ");
-      } else {
-        rawMessage.append("messages compare not equal. ");
-      }
-
-      if (!records.isEmpty() && !ProtoSubject.this.config.reportMismatchesOnly()) {
-        rawMessage.append("Only ignorable differences were found:\n");
-        StreamReporter streamReporter = new StreamReporter(rawMessage);
-        for (ReporterRecord record : records) {
-          streamReporter.report(record.type(), record.message1(), record.message2(), record.path());
-        }
+    if (config.reportMismatchesOnly()) {
+      // The messages match, so there are no mismatches to report.
+      rawMessage.append("No differences were found.");
+    } else {
+      DiffReport report = reportDifferences(expected);
+      if (report.hasNotices()) {
+        rawMessage.append("Only ignorable differences were found:\n").append(report.allLines());
       } else {
         rawMessage.append("No differences were found.");
-        if (!ProtoSubject.this.config.reportMismatchesOnly()) {
-          rawMessage.append("\nActual:\n");
-          rawMessage.append(TextFormat.printToString(getSubject()));
-          rawMessage.append("Expected:\n");
-          rawMessage.append(TextFormat.printToString(expected));
-        }
+        rawMessage.append("\nActual:\n");
+        rawMessage.append(TextFormat.printToString(getSubject()));
+        rawMessage.append("Expected:\n");
+        rawMessage.append(TextFormat.printToString(expected));
       }
-
-      ProtoSubject.this.failWithRawMessage(rawMessage.toString());
     }
-  }
-
-  @AutoValue
-  abstract static class ReporterRecord {
-    abstract ReportType type();
-
-    abstract Message message1();
 
-    abstract Message message2();
-
-    abstract ImmutableList<SpecificField> path();
-
-    // Whether this ReporterRecord indicates an actionable message difference.
-    final boolean isFailure() {
-      return type() == ReportType.ADDED
-          || type() == ReportType.DELETED
-          || type() == ReportType.MODIFIED;
-    }
-
-    static ReporterRecord of(
-        ReportType type, Message message1, Message message2, ImmutableList<SpecificField> path) {
-      return new AutoValue_ProtoSubject_ReporterRecord(type, message1, message2, path);
-    }
+    failWithRawMessage(rawMessage.toString());
   }
 
   static final class MessageSubject extends ProtoSubject<MessageSubject, Message> {
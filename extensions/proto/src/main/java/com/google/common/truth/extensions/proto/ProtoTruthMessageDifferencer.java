@@ -24,21 +24,27 @@ import static com.google.common.base.Preconditions.checkState;
 import com.google.auto.value.AutoValue;
 import com.google.common.base.Objects;
 import com.google.common.base.Optional;
+import com.google.common.collect.ArrayListMultimap;
 import com.google.common.collect.ImmutableList;
-import com.google.common.collect.ImmutableSet;
+import com.google.common.collect.ListMultimap;
+import com.google.common.collect.Lists;
 import com.google.common.collect.Maps;
 import com.google.common.collect.Sets;
+import com.google.common.primitives.Ints;
 import com.google.common.truth.extensions.proto.DiffResult.RepeatedField;
 import com.google.common.truth.extensions.proto.DiffResult.SingularField;
 import com.google.common.truth.extensions.proto.DiffResult.UnknownFieldSetDiff;
 import com.google.common.truth.extensions.proto.RecursableDiffEntity.WithResultCode.Result;
 import com.google.protobuf.Descriptors.Descriptor;
+import com.google.protobuf.Descriptors.EnumValueDescriptor;
 import com.google.protobuf.Descriptors.FieldDescriptor;
 import com.google.protobuf.Descriptors.FieldDescriptor.JavaType;
 import com.google.protobuf.Message;
 import com.google.protobuf.UnknownFieldSet;
+import java.util.ArrayDeque;
+import java.util.Arrays;
 import java.util.Collections;
-import java.util.LinkedHashSet;
+import java.util.Deque;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
@@ -202,12 +208,16 @@ final class ProtoTruthMessageDifferencer {
 
   private final FluentEqualityConfig config;
   private final Descriptor rootDescriptor;
+  // The comparison methods below take the plan for the message containing the fields they compare,
+  // and step into FieldScopePlan.subPlan() for sub-messages. Unknown fields use the logic directly.
+  private final FieldScopePlan rootPlan;
 
   private ProtoTruthMessageDifferencer(FluentEqualityConfig config, Descriptor descriptor) {
     config.fieldScopeLogic().validate(descriptor);
 
     this.config = config;
     this.rootDescriptor = descriptor;
+    this.rootPlan = FieldScopePlan.compile(config.fieldScopeLogic(), descriptor);
   }
 
   /** Create a new {@link ProtoTruthMessageDifferencer} for the given config and descriptor. */
@@ -225,12 +235,42 @@ final class ProtoTruthMessageDifferencer {
         actual.getDescriptorForType(),
         expected.getDescriptorForType());
 
-    return diffMessages(actual, expected, config.fieldScopeLogic());
+    DiffResult.Builder builder = DiffResult.newBuilder().setActual(actual).setExpected(expected);
+    compareMessages(actual, expected, rootPlan, builder);
+    return builder.build();
   }
 
-  private DiffResult diffMessages(
-      Message actual, Message expected, FieldScopeLogic fieldScopeLogic) {
-    DiffResult.Builder builder = DiffResult.newBuilder().setActual(actual).setExpected(expected);
+  /**
+   * Returns whether the two non-null messages match: the same answer as {@code diffMessages(actual,
+   * expected).isMatched()}, but found without building a {@link DiffResult}, and without looking
+   * past the first difference.
+   */
+  boolean matches(Message actual, Message expected) {
+    checkNotNull(actual);
+    checkNotNull(expected);
+    checkArgument(
+        actual.getDescriptorForType() == expected.getDescriptorForType(),
+        "The actual [%s] and expected [%s] message descriptors do not match.",
+        actual.getDescriptorForType(),
+        expected.getDescriptorForType());
+
+    return isMatched(compareMessages(actual, expected, rootPlan, /*builder=*/ null));
+  }
+
+  // Each of the compare methods below returns the result of its part of the comparison: IGNORED if
+  // nothing in scope was compared, MATCHED if everything in scope matched, and otherwise how it
+  // differs. That's the isIgnored() and isMatched() of the DiffResult node which describes it.
+  //
+  // Given a builder, a method adds that node to it, and compares everything, so the report is
+  // complete. Given null instead, as by matches(), it builds nothing, and returns at the first
+  // difference: the result is the same, but it's found with as little work as possible.
+
+  private Result compareMessages(
+      Message actual,
+      Message expected,
+      FieldScopePlan fieldScopePlan,
+      @Nullable DiffResult.Builder builder) {
+    Result result = Result.IGNORED;
 
     // Compare known fields.
     Map<FieldDescriptor, Object> actualFields = actual.getAllFields();
@@ -241,75 +281,141 @@ final class ProtoTruthMessageDifferencer {
       // will be considered ignored in the final diff report if no sub-fields get compared (i.e.,
       // the sub-DiffResult winds up empty). This allows us support FieldScopeLogic disjunctions
       // without repeating recursive work.
-      FieldDescriptorOrUnknown fieldDescriptorOrUnknown =
-          FieldDescriptorOrUnknown.fieldDescriptor(fieldDescriptor);
-      ShouldIgnore shouldIgnore =
-          fieldScopeLogic.shouldIgnore(rootDescriptor, fieldDescriptorOrUnknown);
+      ShouldIgnore shouldIgnore = fieldScopePlan.shouldIgnore(fieldDescriptor);
       if (shouldIgnore == ShouldIgnore.YES) {
-        builder.addSingularField(
-            fieldDescriptor.getNumber(), SingularField.ignored(name(fieldDescriptor)));
+        if (builder != null) {
+          builder.addSingularField(
+              fieldDescriptor.getNumber(), SingularField.ignored(name(fieldDescriptor)));
+        }
         continue;
       }
 
-      if (fieldDescriptor.isRepeated()) {
-        if (fieldDescriptor.isMapField()) {
-          Map<Object, Object> actualMap = toProtoMap(actualFields.get(fieldDescriptor));
-          Map<Object, Object> expectedMap = toProtoMap(expectedFields.get(fieldDescriptor));
-
-          ImmutableSet<Object> keyOrder =
-              Sets.union(actualMap.keySet(), expectedMap.keySet()).immutableCopy();
-          builder.addAllSingularFields(
-              fieldDescriptor.getNumber(),
-              compareMapFieldsByKey(
-                  actualMap, expectedMap, keyOrder, fieldDescriptor, fieldScopeLogic));
-        } else {
-          List<?> actualList = toProtoList(actualFields.get(fieldDescriptor));
-          List<?> expectedList = toProtoList(expectedFields.get(fieldDescriptor));
-
-          if (config.ignoreRepeatedFieldOrder()) {
-            builder.addRepeatedField(
-                fieldDescriptor.getNumber(),
-                compareRepeatedFieldIgnoringOrder(
-                    actualList,
-                    expectedList,
-                    shouldIgnore.shouldMaybeIgnore(),
-                    fieldDescriptor,
-                    fieldScopeLogic.subLogic(rootDescriptor, fieldDescriptorOrUnknown)));
-          } else {
-            builder.addAllSingularFields(
-                fieldDescriptor.getNumber(),
-                compareRepeatedFieldByIndices(
-                    actualList,
-                    expectedList,
-                    shouldIgnore.shouldMaybeIgnore(),
-                    fieldDescriptor,
-                    fieldScopeLogic.subLogic(rootDescriptor, fieldDescriptorOrUnknown)));
-          }
-        }
-      } else {
-        builder.addSingularField(
-            fieldDescriptor.getNumber(),
-            compareSingularValue(
-                actualFields.get(fieldDescriptor),
-                expectedFields.get(fieldDescriptor),
-                actual.getDefaultInstanceForType().getField(fieldDescriptor),
-                shouldIgnore.shouldMaybeIgnore(),
-                name(fieldDescriptor),
-                fieldDescriptor,
-                fieldScopeLogic.subLogic(rootDescriptor, fieldDescriptorOrUnknown)));
+      result =
+          both(
+              result,
+              compareField(
+                  fieldDescriptor,
+                  actualFields.get(fieldDescriptor),
+                  expectedFields.get(fieldDescriptor),
+                  actual.getDefaultInstanceForType(),
+                  shouldIgnore,
+                  fieldScopePlan,
+                  builder));
+      if (builder == null && result == Result.MODIFIED) {
+        return result;
       }
     }
 
     // Compare unknown fields.
     if (!config.ignoreFieldAbsence()) {
-      UnknownFieldSetDiff diff =
-          diffUnknowns(actual.getUnknownFields(), expected.getUnknownFields(), fieldScopeLogic);
-      builder.setUnknownFields(diff);
+      UnknownFieldSetDiff.Builder unknownsBuilder =
+          builder == null
+              ? null
+              : UnknownFieldSetDiff.newBuilder()
+                  .setActual(actual.getUnknownFields())
+                  .setExpected(expected.getUnknownFields());
+      result =
+          both(
+              result,
+              compareUnknowns(
+                  actual.getUnknownFields(),
+                  expected.getUnknownFields(),
+                  fieldScopePlan.logic(),
+                  unknownsBuilder));
+      if (builder != null) {
+        builder.setUnknownFields(unknownsBuilder.build());
+      }
     }
+    return result;
+  }
 
-    return builder.build();
+  /**
+   * Compares the values of one field, which {@code fieldScopePlan} doesn't ignore outright. A value
+   * is null if the field isn't set.
+   */
+  private Result compareField(
+      FieldDescriptor fieldDescriptor,
+      @Nullable Object actualValue,
+      @Nullable Object expectedValue,
+      Message defaultInstance,
+      ShouldIgnore shouldIgnore,
+      FieldScopePlan fieldScopePlan,
+      @Nullable DiffResult.Builder builder) {
+    if (fieldDescriptor.isMapField()) {
+      return compareMapFieldsByKey(
+          toProtoMap(actualValue),
+          toProtoMap(expectedValue),
+          fieldDescriptor,
+          fieldScopePlan.subPlan(fieldDescriptor),
+          builder);
+    } else if (fieldDescriptor.isRepeated()) {
+      List<?> actualList = toProtoList(actualValue);
+      List<?> expectedList = toProtoList(expectedValue);
+      if (!config.ignoreRepeatedFieldOrder()) {
+        return compareRepeatedFieldByIndices(
+            actualList,
+            expectedList,
+            shouldIgnore.shouldMaybeIgnore(),
+            fieldDescriptor,
+            fieldScopePlan,
+            builder);
+      }
+
+      RepeatedField.Builder repeatedFieldBuilder =
+          builder == null
+              ? null
+              : RepeatedField.newBuilder()
+                  .setFieldName(name(fieldDescriptor))
+                  .setActual(actualList)
+                  .setExpected(expectedList);
+      Result result =
+          compareRepeatedFieldIgnoringOrder(
+              actualList,
+              expectedList,
+              shouldIgnore.shouldMaybeIgnore(),
+              fieldDescriptor,
+              fieldScopePlan,
+              repeatedFieldBuilder);
+      if (builder != null) {
+        builder.addRepeatedField(fieldDescriptor.getNumber(), repeatedFieldBuilder.build());
+      }
+      return result;
+    } else {
+      SingularField.Builder singularFieldBuilder =
+          builder == null ? null : SingularField.newBuilder().setFieldName(name(fieldDescriptor));
+      Result result =
+          compareSingularValue(
+              actualValue,
+              expectedValue,
+              defaultInstance.getField(fieldDescriptor),
+              shouldIgnore.shouldMaybeIgnore(),
+              fieldDescriptor,
+              fieldScopePlan,
+              singularFieldBuilder);
+      if (builder != null) {
+        builder.addSingularField(fieldDescriptor.getNumber(), singularFieldBuilder.build());
+      }
+      return result;
+    }
+  }
+
+  /** Whether a comparison with the given result matched, as {@link DiffResult#isMatched} says. */
+  private static boolean isMatched(Result result) {
+    return result == Result.MATCHED || result == Result.IGNORED;
+  }
+
+  /**
+   * Combines the results of two parts of a comparison, as a {@link DiffResult} node does. Any
+   * difference makes the whole {@link Result#MODIFIED modified}.
+   */
+  private static Result both(Result first, Result second) {
+    if (!isMatched(first) || !isMatched(second)) {
+      return Result.MODIFIED;
+    }
+    return first == Result.IGNORED && second == Result.IGNORED ? Result.IGNORED : Result.MATCHED;
   }
 
+
   // Helper which takes a proto map in List<Message> form, and converts it to a Map<Object, Object>
   // by extracting the keys and values from the generated map-entry submessages.  Returns an empty
   // map if null is passed in.
@@ -339,123 +445,413 @@ final class ProtoTruthMessageDifferencer {
     return (List<?>) container;
   }
 
-  private List<SingularField> compareMapFieldsByKey(
-      Map<Object, Object> actualMap,
-      Map<Object, Object> expectedMap,
-      Set<Object> keyOrder,
-      FieldDescriptor mapFieldDescriptor,
-      FieldScopeLogic mapFieldScopeLogic) {
+  private Result compareMapFieldsByKey(
+      final Map<Object, Object> actualMap,
+      final Map<Object, Object> expectedMap,
+      final FieldDescriptor mapFieldDescriptor,
+      final FieldScopePlan entryFieldScopePlan,
+      @Nullable DiffResult.Builder builder) {
     FieldDescriptor valueFieldDescriptor = mapFieldDescriptor.getMessageType().findFieldByNumber(2);
-    FieldDescriptorOrUnknown valueFieldDescriptorOrUnknown =
-        FieldDescriptorOrUnknown.fieldDescriptor(valueFieldDescriptor);
-    FieldScopeLogic valueFieldScopeLogic =
-        mapFieldScopeLogic.subLogic(rootDescriptor, valueFieldDescriptorOrUnknown);
-
-    // We never ignore the key, no matter what the logic dictates.
-    ShouldIgnore shouldIgnoreValue =
-        valueFieldScopeLogic.shouldIgnore(rootDescriptor, valueFieldDescriptorOrUnknown);
+
+    // We never ignore the key, no matter what the logic dictates. The map field's logic applies to
+    // its entry messages, so the value is treated like any other field of the entry.
+    final ShouldIgnore shouldIgnoreValue = entryFieldScopePlan.shouldIgnore(valueFieldDescriptor);
     if (shouldIgnoreValue == ShouldIgnore.YES) {
-      return ImmutableList.of(SingularField.ignored(name(mapFieldDescriptor)));
+      if (builder != null) {
+        builder.addSingularField(
+            mapFieldDescriptor.getNumber(), SingularField.ignored(name(mapFieldDescriptor)));
+      }
+      return Result.IGNORED;
     }
 
-    ImmutableList.Builder<SingularField> builder =
-        ImmutableList.builderWithExpectedSize(keyOrder.size());
-    for (Object key : keyOrder) {
-      @Nullable Object actualValue = actualMap.get(key);
-      @Nullable Object expectedValue = expectedMap.get(key);
-      builder.add(
-          compareSingularValue(
-              actualValue,
-              expectedValue,
-              /*defaultValue=*/ null,
-              shouldIgnoreValue.shouldMaybeIgnore(),
-              indexedName(mapFieldDescriptor, key),
-              valueFieldDescriptor,
-              valueFieldScopeLogic));
+    Set<Object> keys = Sets.union(actualMap.keySet(), expectedMap.keySet());
+    if (builder == null && comparesInParallel(keys.size())) {
+      final List<Object> keyOrder = ImmutableList.copyOf(keys);
+      return new ResultRangeComparison() {
+        @Override
+        Result compareRange(int from, int to) {
+          return compareMapFieldsByKey(
+              actualMap,
+              expectedMap,
+              keyOrder.subList(from, to),
+              shouldIgnoreValue,
+              mapFieldDescriptor,
+              entryFieldScopePlan,
+              /*builder=*/ null);
+        }
+      }.compareInParallel(keyOrder.size());
     }
+    return compareMapFieldsByKey(
+        actualMap,
+        expectedMap,
+        keys,
+        shouldIgnoreValue,
+        mapFieldDescriptor,
+        entryFieldScopePlan,
+        builder);
+  }
 
-    return builder.build();
+  private Result compareMapFieldsByKey(
+      Map<Object, Object> actualMap,
+      Map<Object, Object> expectedMap,
+      Iterable<Object> keys,
+      ShouldIgnore shouldIgnoreValue,
+      FieldDescriptor mapFieldDescriptor,
+      FieldScopePlan entryFieldScopePlan,
+      @Nullable DiffResult.Builder builder) {
+    FieldDescriptor valueFieldDescriptor = mapFieldDescriptor.getMessageType().findFieldByNumber(2);
+    Result result = Result.IGNORED;
+    for (Object key : keys) {
+      SingularField.Builder singularFieldBuilder =
+          builder == null
+              ? null
+              : SingularField.newBuilder().setFieldName(indexedName(mapFieldDescriptor, key));
+      result =
+          both(
+              result,
+              compareSingularValue(
+                  actualMap.get(key),
+                  expectedMap.get(key),
+                  /*defaultValue=*/ null,
+                  shouldIgnoreValue.shouldMaybeIgnore(),
+                  valueFieldDescriptor,
+                  entryFieldScopePlan,
+                  singularFieldBuilder));
+      if (builder != null) {
+        builder.addSingularField(mapFieldDescriptor.getNumber(), singularFieldBuilder.build());
+      } else if (result == Result.MODIFIED) {
+        return result;
+      }
+    }
+    return result;
   }
 
-  private RepeatedField compareRepeatedFieldIgnoringOrder(
+  private Result compareRepeatedFieldIgnoringOrder(
       List<?> actualList,
       List<?> expectedList,
       boolean shouldMaybeIgnore,
       FieldDescriptor fieldDescriptor,
-      FieldScopeLogic fieldScopeLogic) {
-    RepeatedField.Builder builder =
-        RepeatedField.newBuilder()
-            .setFieldName(name(fieldDescriptor))
-            .setActual(actualList)
-            .setExpected(expectedList);
-
-    // TODO(user): Use maximum bipartite matching here, instead of greedy matching.
-    Set<Integer> unmatchedActual = setForRange(actualList.size());
-    Set<Integer> unmatchedExpected = setForRange(expectedList.size());
-    for (int i = 0; i < actualList.size(); i++) {
-      Object actual = actualList.get(i);
-      for (int j : unmatchedExpected) {
-        Object expected = expectedList.get(j);
-        RepeatedField.PairResult pairResult =
-            compareRepeatedFieldElementPair(
-                actual, expected, shouldMaybeIgnore, fieldDescriptor, i, j, fieldScopeLogic);
-        if (pairResult.isMatched()) {
-          // Found a match - remove both these elements from the candidate pools.
-          builder.addPairResult(pairResult);
-          unmatchedActual.remove(i);
-          unmatchedExpected.remove(j);
-          break;
+      FieldScopePlan fieldScopePlan,
+      @Nullable RepeatedField.Builder builder) {
+    if (builder == null && !shouldMaybeIgnore && actualList.size() != expectedList.size()) {
+      // Some element would be left without a partner, and can't be ignored.
+      return Result.MODIFIED;
+    }
+
+    // For each actual element, the index of the expected element it's matched with, or -1, and the
+    // result of comparing the two.
+    int[] matchedIndices = new int[actualList.size()];
+    Arrays.fill(matchedIndices, -1);
+    Result[] matchedResults = new Result[actualList.size()];
+    boolean[] matchedExpected = new boolean[expectedList.size()];
+    if (fieldDescriptor.getJavaType() != JavaType.MESSAGE) {
+      matchPrimitivesByValue(
+          actualList, expectedList, matchedIndices, matchedResults, matchedExpected);
+    } else {
+      ListMultimap<Integer, Integer> actualBuckets = ArrayListMultimap.create();
+      ListMultimap<Integer, Integer> expectedBuckets = ArrayListMultimap.create();
+      for (int i = 0; i < actualList.size(); i++) {
+        actualBuckets.put(fingerprint(actualList.get(i), fieldDescriptor, fieldScopePlan), i);
+      }
+      for (int j = 0; j < expectedList.size(); j++) {
+        expectedBuckets.put(fingerprint(expectedList.get(j), fieldDescriptor, fieldScopePlan), j);
+      }
+
+      // Messages which match always have the same fingerprint, so each one only needs to be
+      // compared with those in its own bucket.
+      for (Integer fingerprint : Sets.union(actualBuckets.keySet(), expectedBuckets.keySet())) {
+        List<Integer> actualBucket = actualBuckets.get(fingerprint);
+        List<Integer> expectedBucket = expectedBuckets.get(fingerprint);
+        if (builder == null && !shouldMaybeIgnore && actualBucket.size() != expectedBucket.size()) {
+          return Result.MODIFIED;
+        }
+        if (!actualBucket.isEmpty() && !expectedBucket.isEmpty()) {
+          matchBucket(
+              actualList,
+              expectedList,
+              actualBucket,
+              expectedBucket,
+              shouldMaybeIgnore,
+              fieldDescriptor,
+              fieldScopePlan,
+              matchedIndices,
+              matchedResults,
+              matchedExpected);
         }
       }
     }
 
-    // Record remaining unmatched elements.
-    for (int i : unmatchedActual) {
-      builder.addPairResult(
+    // Record the matched pairs, then the remaining unmatched elements, which still match if they
+    // are entirely out of scope.
+    Result result = Result.IGNORED;
+    for (int i = 0; i < actualList.size(); i++) {
+      if (matchedIndices[i] >= 0) {
+        if (builder != null) {
+          // The pairs were only compared to match them up. Compare them again for their reports.
           compareRepeatedFieldElementPair(
               actualList.get(i),
-              /*expected=*/ null,
+              expectedList.get(matchedIndices[i]),
               shouldMaybeIgnore,
               fieldDescriptor,
               i,
-              /*expectedFieldIndex=*/ null,
-              fieldScopeLogic));
+              matchedIndices[i],
+              fieldScopePlan,
+              builder);
+        }
+        result = both(result, matchedResults[i]);
+      }
     }
-    for (int j : unmatchedExpected) {
-      builder.addPairResult(
-          compareRepeatedFieldElementPair(
-              /*actual=*/ null,
-              expectedList.get(j),
+    for (int i = 0; i < actualList.size(); i++) {
+      if (matchedIndices[i] < 0) {
+        result =
+            both(
+                result,
+                compareRepeatedFieldElementPair(
+                    actualList.get(i),
+                    /*expected=*/ null,
+                    shouldMaybeIgnore,
+                    fieldDescriptor,
+                    i,
+                    /*expectedFieldIndex=*/ null,
+                    fieldScopePlan,
+                    builder));
+        if (builder == null && result == Result.MODIFIED) {
+          return result;
+        }
+      }
+    }
+    for (int j = 0; j < expectedList.size(); j++) {
+      if (!matchedExpected[j]) {
+        result =
+            both(
+                result,
+                compareRepeatedFieldElementPair(
+                    /*actual=*/ null,
+                    expectedList.get(j),
+                    shouldMaybeIgnore,
+                    fieldDescriptor,
+                    /*actualFieldIndex=*/ null,
+                    j,
+                    fieldScopePlan,
+                    builder));
+        if (builder == null && result == Result.MODIFIED) {
+          return result;
+        }
+      }
+    }
+    return result;
+  }
+
+  /**
+   * Matches each actual primitive to an equal expected one, if there is one left. Primitives are
+   * compared with {@link Object#equals}, so equal values can be found by hashing.
+   */
+  private static void matchPrimitivesByValue(
+      List<?> actualList,
+      List<?> expectedList,
+      int[] matchedIndices,
+      Result[] matchedResults,
+      boolean[] matchedExpected) {
+    Map<Object, Deque<Integer>> unmatchedExpected = Maps.newHashMap();
+    for (int j = 0; j < expectedList.size(); j++) {
+      Deque<Integer> indices = unmatchedExpected.get(expectedList.get(j));
+      if (indices == null) {
+        indices = new ArrayDeque<Integer>();
+        unmatchedExpected.put(expectedList.get(j), indices);
+      }
+      indices.add(j);
+    }
+    for (int i = 0; i < actualList.size(); i++) {
+      Deque<Integer> indices = unmatchedExpected.get(actualList.get(i));
+      if (indices != null && !indices.isEmpty()) {
+        int j = indices.remove();
+        matchedIndices[i] = j;
+        matchedResults[i] = Result.MATCHED;
+        matchedExpected[j] = true;
+      }
+    }
+  }
+
+  /**
+   * Pairs up as many of the given actual and expected elements, which share a fingerprint, as
+   * possible. Each matched pair is stored at its actual index in {@code matchedIndices} and {@code
+   * matchedResults}, and its expected index is marked in {@code matchedExpected}.
+   */
+  private void matchBucket(
+      List<?> actualList,
+      List<?> expectedList,
+      List<Integer> actualIndices,
+      List<Integer> expectedIndices,
+      boolean shouldMaybeIgnore,
+      FieldDescriptor fieldDescriptor,
+      FieldScopePlan fieldScopePlan,
+      int[] matchedIndices,
+      Result[] matchedResults,
+      boolean[] matchedExpected) {
+    // Elements with the same fingerprint almost always match, so first pair them up in order. If
+    // every pair matches, no matching can be larger.
+    int pairCount = Math.min(actualIndices.size(), expectedIndices.size());
+    Result[] inOrderResults = new Result[pairCount];
+    boolean allMatched = true;
+    for (int k = 0; allMatched && k < pairCount; k++) {
+      inOrderResults[k] =
+          compareSingularValue(
+              actualList.get(actualIndices.get(k)),
+              expectedList.get(expectedIndices.get(k)),
+              /*defaultValue=*/ null,
               shouldMaybeIgnore,
               fieldDescriptor,
-              /*actualFieldIndex=*/ null,
-              j,
-              fieldScopeLogic));
+              fieldScopePlan,
+              /*builder=*/ null);
+      allMatched = isMatched(inOrderResults[k]);
+    }
+    if (allMatched) {
+      for (int k = 0; k < pairCount; k++) {
+        matchedIndices[actualIndices.get(k)] = expectedIndices.get(k);
+        matchedResults[actualIndices.get(k)] = inOrderResults[k];
+        matchedExpected[expectedIndices.get(k)] = true;
+      }
+      return;
     }
 
-    return builder.build();
+    // Otherwise compare every pair in the bucket, and find a maximum matching among them.
+    Result[][] results = new Result[actualIndices.size()][expectedIndices.size()];
+    int[][] adjacency = new int[actualIndices.size()][];
+    for (int a = 0; a < actualIndices.size(); a++) {
+      List<Integer> matches = Lists.newArrayList();
+      for (int e = 0; e < expectedIndices.size(); e++) {
+        results[a][e] =
+            (a == e && a < pairCount && inOrderResults[a] != null)
+                ? inOrderResults[a]
+                : compareSingularValue(
+                    actualList.get(actualIndices.get(a)),
+                    expectedList.get(expectedIndices.get(e)),
+                    /*defaultValue=*/ null,
+                    shouldMaybeIgnore,
+                    fieldDescriptor,
+                    fieldScopePlan,
+                    /*builder=*/ null);
+        if (isMatched(results[a][e])) {
+          matches.add(e);
+        }
+      }
+      adjacency[a] = Ints.toArray(matches);
+    }
+    int[] matching = BipartiteMatching.maximumMatching(adjacency, expectedIndices.size());
+    for (int a = 0; a < matching.length; a++) {
+      if (matching[a] >= 0) {
+        matchedIndices[actualIndices.get(a)] = expectedIndices.get(matching[a]);
+        matchedResults[actualIndices.get(a)] = results[a][matching[a]];
+        matchedExpected[expectedIndices.get(matching[a])] = true;
+      }
+    }
+  }
+
+  /**
+   * Returns a hash of the parts of {@code value}, an element of {@code fieldDescriptor}, which the
+   * comparison looks at. Elements which match always have equal fingerprints. Zero means there is
+   * nothing in scope to compare.
+   *
+   * <p>The fingerprint is deliberately blind wherever the comparison is lenient: it skips default
+   * values when ignoring field absence, sub-messages with nothing in scope (which may be ignored),
+   * and unknown fields; and it combines repeated elements and map entries regardless of order.
+   * Any change to what the comparison considers equal must keep these fingerprints equal too.
+   */
+  private int fingerprint(
+      Object value, FieldDescriptor fieldDescriptor, FieldScopePlan fieldScopePlan) {
+    if (fieldDescriptor.getJavaType() == JavaType.MESSAGE) {
+      return fingerprintMessage((Message) value, fieldScopePlan.subPlan(fieldDescriptor));
+    }
+    return smear(
+        value instanceof EnumValueDescriptor
+            ? ((EnumValueDescriptor) value).getNumber()
+            : value.hashCode());
+  }
+
+  private int fingerprintMessage(Message message, FieldScopePlan fieldScopePlan) {
+    int fingerprint = 0;
+    for (Map.Entry<FieldDescriptor, Object> field : message.getAllFields().entrySet()) {
+      FieldDescriptor fieldDescriptor = field.getKey();
+      if (fieldScopePlan.shouldIgnore(fieldDescriptor) == ShouldIgnore.YES) {
+        continue;
+      }
+
+      int fieldFingerprint = 0;
+      if (fieldDescriptor.isMapField()) {
+        fieldFingerprint =
+            fingerprintMap(
+                field.getValue(), fieldDescriptor, fieldScopePlan.subPlan(fieldDescriptor));
+      } else if (fieldDescriptor.isRepeated()) {
+        for (Object element : (List<?>) field.getValue()) {
+          fieldFingerprint += fingerprint(element, fieldDescriptor, fieldScopePlan);
+        }
+      } else if (!(config.ignoreFieldAbsence()
+          && fieldDescriptor.getJavaType() != JavaType.MESSAGE
+          && field.getValue().equals(fieldDescriptor.getDefaultValue()))) {
+        fieldFingerprint = fingerprint(field.getValue(), fieldDescriptor, fieldScopePlan);
+      }
+      if (fieldFingerprint != 0) {
+        fingerprint += smear(31 * fieldDescriptor.getNumber() + fieldFingerprint);
+      }
+    }
+    return fingerprint;
   }
 
-  private RepeatedField.PairResult compareRepeatedFieldElementPair(
+  private int fingerprintMap(
+      Object entries, FieldDescriptor mapFieldDescriptor, FieldScopePlan entryFieldScopePlan) {
+    // Mirrors compareMapFieldsByKey: keys are always compared, values according to the logic.
+    FieldDescriptor valueFieldDescriptor = mapFieldDescriptor.getMessageType().findFieldByNumber(2);
+    if (entryFieldScopePlan.shouldIgnore(valueFieldDescriptor) == ShouldIgnore.YES) {
+      return 0;
+    }
+
+    int fingerprint = 0;
+    for (Map.Entry<Object, Object> entry : toProtoMap(entries).entrySet()) {
+      int valueFingerprint =
+          fingerprint(entry.getValue(), valueFieldDescriptor, entryFieldScopePlan);
+      if (valueFingerprint != 0 || valueFieldDescriptor.getJavaType() != JavaType.MESSAGE) {
+        fingerprint += smear(31 * entry.getKey().hashCode() + valueFingerprint);
+      }
+    }
+    return fingerprint;
+  }
+
+  /** Scrambles the bits of a hash code, so that sums of fingerprints rarely collide. */
+  private static int smear(int hashCode) {
+    return 0x1b873593 * Integer.rotateLeft(hashCode * 0xcc9e2d51, 15);
+  }
+
+  /**
+   * Compares one actual and one expected element of a repeated field, either of which may be
+   * missing, and adds the pair to {@code builder}, if there is one.
+   */
+  private Result compareRepeatedFieldElementPair(
       @Nullable Object actual,
       @Nullable Object expected,
       boolean shouldMaybeIgnore,
       FieldDescriptor fieldDescriptor,
       @Nullable Integer actualFieldIndex,
       @Nullable Integer expectedFieldIndex,
-      FieldScopeLogic fieldScopeLogic) {
-    SingularField comparison =
+      FieldScopePlan fieldScopePlan,
+      @Nullable RepeatedField.Builder builder) {
+    SingularField.Builder comparisonBuilder =
+        builder == null ? null : SingularField.newBuilder().setFieldName("<no field path>");
+    Result result =
         compareSingularValue(
             actual,
             expected,
             /*defaultValue=*/ null,
             shouldMaybeIgnore,
-            "<no field path>",
             fieldDescriptor,
-            fieldScopeLogic);
+            fieldScopePlan,
+            comparisonBuilder);
+    if (builder == null) {
+      return result;
+    }
 
+    SingularField comparison = comparisonBuilder.build();
     RepeatedField.PairResult.Builder pairResultBuilder =
-        RepeatedField.PairResult.newBuilder().setResult(comparison.result());
+        RepeatedField.PairResult.newBuilder().setResult(result);
     if (actual != null) {
       pairResultBuilder.setActual(actual).setActualFieldIndex(actualFieldIndex);
     }
@@ -465,69 +861,137 @@ final class ProtoTruthMessageDifferencer {
     if (comparison.breakdown().isPresent()) {
       pairResultBuilder.setBreakdown(comparison.breakdown().get());
     }
-    return pairResultBuilder.build();
-  }
-
-  /** Returns a {@link LinkedHashSet} containing the integers in {@code [0, max)}, in order. */
-  private static Set<Integer> setForRange(int max) {
-    Set<Integer> set = Sets.newLinkedHashSet();
-    for (int i = 0; i < max; i++) {
-      set.add(i);
-    }
-    return set;
+    builder.addPairResult(pairResultBuilder.build());
+    return result;
   }
 
   /**
    * Compares {@code actualList} and {@code expectedList}, two submessages corresponding to {@code
    * fieldDescriptor}. Uses {@code shouldMaybeIgnore}, {@code parentFieldPath}, and {@code
-   * fieldScopeLogic} to compare the messages.
-   *
-   * @return A list in index order, containing the diff results for each message.
+   * fieldScopePlan} to compare the messages, and adds a diff result for each index, in order, to
+   * {@code builder}, if there is one.
    */
-  private List<SingularField> compareRepeatedFieldByIndices(
+  private Result compareRepeatedFieldByIndices(
+      final List<?> actualList,
+      final List<?> expectedList,
+      final boolean shouldMaybeIgnore,
+      final FieldDescriptor fieldDescriptor,
+      final FieldScopePlan fieldScopePlan,
+      @Nullable DiffResult.Builder builder) {
+    int maxSize = Math.max(actualList.size(), expectedList.size());
+    if (builder == null && comparesInParallel(maxSize)) {
+      return new ResultRangeComparison() {
+        @Override
+        Result compareRange(int from, int to) {
+          return compareRepeatedFieldByIndices(
+              actualList,
+              expectedList,
+              from,
+              to,
+              shouldMaybeIgnore,
+              fieldDescriptor,
+              fieldScopePlan,
+              /*builder=*/ null);
+        }
+      }.compareInParallel(maxSize);
+    }
+    return compareRepeatedFieldByIndices(
+        actualList,
+        expectedList,
+        0,
+        maxSize,
+        shouldMaybeIgnore,
+        fieldDescriptor,
+        fieldScopePlan,
+        builder);
+  }
+
+  private Result compareRepeatedFieldByIndices(
       List<?> actualList,
       List<?> expectedList,
+      int from,
+      int to,
       boolean shouldMaybeIgnore,
       FieldDescriptor fieldDescriptor,
-      FieldScopeLogic fieldScopeLogic) {
-    int maxSize = Math.max(actualList.size(), expectedList.size());
-    ImmutableList.Builder<SingularField> builder = ImmutableList.builderWithExpectedSize(maxSize);
-    for (int i = 0; i < maxSize; i++) {
-      @Nullable Object actual = actualList.size() > i ? actualList.get(i) : null;
-      @Nullable Object expected = expectedList.size() > i ? expectedList.get(i) : null;
-      builder.add(
-          compareSingularValue(
-              actual,
-              expected,
-              /*defaultValue=*/ null,
-              shouldMaybeIgnore,
-              indexedName(fieldDescriptor, i),
-              fieldDescriptor,
-              fieldScopeLogic));
+      FieldScopePlan fieldScopePlan,
+      @Nullable DiffResult.Builder builder) {
+    Result result = Result.IGNORED;
+    for (int i = from; i < to; i++) {
+      SingularField.Builder singularFieldBuilder =
+          builder == null
+              ? null
+              : SingularField.newBuilder().setFieldName(indexedName(fieldDescriptor, i));
+      result =
+          both(
+              result,
+              compareSingularValue(
+                  actualList.size() > i ? actualList.get(i) : null,
+                  expectedList.size() > i ? expectedList.get(i) : null,
+                  /*defaultValue=*/ null,
+                  shouldMaybeIgnore,
+                  fieldDescriptor,
+                  fieldScopePlan,
+                  singularFieldBuilder));
+      if (builder != null) {
+        builder.addSingularField(fieldDescriptor.getNumber(), singularFieldBuilder.build());
+      } else if (result == Result.MODIFIED) {
+        return result;
+      }
     }
+    return result;
+  }
 
-    return builder.build();
+  /**
+   * Returns whether to split the comparison of a repeated field or map with {@code size} elements
+   * into ranges, and compare them in parallel. Only {@link #matches} does, since it builds no
+   * report which would have to be put back in order.
+   */
+  private boolean comparesInParallel(int size) {
+    return config.compareRepeatedFieldsInParallel() && ElementRangeComparison.worthSplitting(size);
+  }
+
+  /**
+   * Compares the elements of a repeated field or map in parallel. Once a range is {@link
+   * Result#MODIFIED modified}, so is the whole field, and the ranges not yet compared are skipped.
+   */
+  private abstract static class ResultRangeComparison extends ElementRangeComparison<Result> {
+    @Override
+    final Result combine(Result left, Result right) {
+      return both(left, right);
+    }
+
+    @Override
+    final boolean decides(Result result) {
+      return result == Result.MODIFIED;
+    }
   }
 
-  private SingularField compareSingularValue(
+  /**
+   * Compares two values of a field, either of which may be missing. If there's a {@code builder},
+   * the caller has already set its field name.
+   */
+  private Result compareSingularValue(
       @Nullable Object actual,
       @Nullable Object expected,
       @Nullable Object defaultValue,
       boolean shouldMaybeIgnore,
-      String fieldName,
       FieldDescriptor fieldDescriptor,
-      FieldScopeLogic fieldScopeLogic) {
+      FieldScopePlan fieldScopePlan,
+      @Nullable SingularField.Builder builder) {
     if (fieldDescriptor.getJavaType() == JavaType.MESSAGE) {
       return compareSingularMessage(
           (Message) actual,
           (Message) expected,
           (Message) defaultValue,
           shouldMaybeIgnore,
-          fieldName,
-          fieldScopeLogic);
+          fieldScopePlan.subPlan(fieldDescriptor),
+          builder);
     } else {
       checkState(!shouldMaybeIgnore, "MAYBE is not a valid ShouldIgnore for primitives.");
-      return compareSingularPrimitive(actual, expected, defaultValue, fieldName);
+      return compareSingularPrimitive(
+          orIfIgnoringFieldAbsence(actual, defaultValue),
+          orIfIgnoringFieldAbsence(expected, defaultValue),
+          builder);
     }
   }
 
@@ -543,13 +1007,13 @@ final class ProtoTruthMessageDifferencer {
     return (input != null) ? input : other.getDefaultInstanceForType();
   }
 
-  private SingularField compareSingularMessage(
+  private Result compareSingularMessage(
       @Nullable Message actual,
       @Nullable Message expected,
       @Nullable Message defaultValue,
       boolean shouldMaybeIgnore,
-      String fieldName,
-      FieldScopeLogic fieldScopeLogic) {
+      FieldScopePlan fieldScopePlan,
+      @Nullable SingularField.Builder builder) {
     Result.Builder result = Result.builder();
 
     // Use the default if it's set and we're ignoring field absence.
@@ -559,48 +1023,50 @@ final class ProtoTruthMessageDifferencer {
     // If actual or expected is missing here, we know our result so long as it's not ignored.
     result.markRemovedIf(actual == null);
     result.markAddedIf(expected == null);
+    if (builder == null && result.build() != Result.MATCHED && !shouldMaybeIgnore) {
+      return result.build();
+    }
 
     // Perform the detailed breakdown only if necessary.
-    @Nullable DiffResult breakdown = null;
+    @Nullable DiffResult.Builder breakdownBuilder = null;
     if (result.build() == Result.MATCHED || shouldMaybeIgnore) {
       actual = orDefaultForType(actual, expected);
       expected = orDefaultForType(expected, actual);
 
-      breakdown = diffMessages(actual, expected, fieldScopeLogic);
-      if (breakdown.isIgnored() && shouldMaybeIgnore) {
+      breakdownBuilder =
+          builder == null ? null : DiffResult.newBuilder().setActual(actual).setExpected(expected);
+      Result breakdown = compareMessages(actual, expected, fieldScopePlan, breakdownBuilder);
+      if (breakdown == Result.IGNORED && shouldMaybeIgnore) {
         // Ignore this field entirely, report nothing.
-        return SingularField.ignored(fieldName);
+        if (builder != null) {
+          builder.setResult(Result.IGNORED);
+        }
+        return Result.IGNORED;
       }
 
-      result.markModifiedIf(!breakdown.isMatched());
+      result.markModifiedIf(!isMatched(breakdown));
     }
 
     // Report the full breakdown.
-    SingularField.Builder singularFieldBuilder =
-        SingularField.newBuilder().setFieldName(fieldName).setResult(result.build());
-    if (actual != null) {
-      singularFieldBuilder.setActual(actual);
-    }
-    if (expected != null) {
-      singularFieldBuilder.setExpected(expected);
-    }
-    if (breakdown != null) {
-      singularFieldBuilder.setBreakdown(breakdown);
+    if (builder != null) {
+      builder.setResult(result.build());
+      if (actual != null) {
+        builder.setActual(actual);
+      }
+      if (expected != null) {
+        builder.setExpected(expected);
+      }
+      if (breakdownBuilder != null) {
+        builder.setBreakdown(breakdownBuilder.build());
+      }
     }
-    return singularFieldBuilder.build();
+    return result.build();
   }
 
-  private SingularField compareSingularPrimitive(
-      @Nullable Object actual,
-      @Nullable Object expected,
-      @Nullable Object defaultValue,
-      String fieldName) {
+  private static Result compareSingularPrimitive(
+      @Nullable Object actual, @Nullable Object expected, @Nullable SingularField.Builder builder) {
     Result.Builder result = Result.builder();
 
-    // Use the default if it's set and we're ignoring field absence.
-    actual = orIfIgnoringFieldAbsence(actual, defaultValue);
-    expected = orIfIgnoringFieldAbsence(expected, defaultValue);
-
     // If actual or expected is missing here, we know our result.
     result.markRemovedIf(actual == null);
     result.markAddedIf(expected == null);
@@ -608,20 +1074,24 @@ final class ProtoTruthMessageDifferencer {
     // TODO(user): Implement approximate equality testing for floats/doubles.
     result.markModifiedIf(!Objects.equal(actual, expected));
 
-    SingularField.Builder singularFieldBuilder =
-        SingularField.newBuilder().setFieldName(fieldName).setResult(result.build());
-    if (actual != null) {
-      singularFieldBuilder.setActual(actual);
-    }
-    if (expected != null) {
-      singularFieldBuilder.setExpected(expected);
+    if (builder != null) {
+      builder.setResult(result.build());
+      if (actual != null) {
+        builder.setActual(actual);
+      }
+      if (expected != null) {
+        builder.setExpected(expected);
+      }
     }
-    return singularFieldBuilder.build();
+    return result.build();
   }
 
-  private UnknownFieldSetDiff diffUnknowns(
-      UnknownFieldSet actual, UnknownFieldSet expected, FieldScopeLogic fieldScopeLogic) {
-    UnknownFieldSetDiff.Builder builder = UnknownFieldSetDiff.newBuilder();
+  private Result compareUnknowns(
+      UnknownFieldSet actual,
+      UnknownFieldSet expected,
+      FieldScopeLogic fieldScopeLogic,
+      @Nullable UnknownFieldSetDiff.Builder builder) {
+    Result result = Result.IGNORED;
 
     Map<Integer, UnknownFieldSet.Field> actualFields = actual.asMap();
     Map<Integer, UnknownFieldSet.Field> expectedFields = expected.asMap();
@@ -644,131 +1114,119 @@ final class ProtoTruthMessageDifferencer {
         ShouldIgnore shouldIgnore =
             fieldScopeLogic.shouldIgnore(rootDescriptor, fieldDescriptorOrUnknown);
         if (shouldIgnore == ShouldIgnore.YES) {
-          builder.addSingularField(
-              fieldNumber, SingularField.ignored(name(unknownFieldDescriptor)));
+          if (builder != null) {
+            builder.addSingularField(
+                fieldNumber, SingularField.ignored(name(unknownFieldDescriptor)));
+          }
           continue;
         }
 
-        builder.addAllSingularFields(
-            fieldNumber,
-            compareUnknownFieldList(
-                actualValues,
-                expectedValues,
-                shouldIgnore.shouldMaybeIgnore(),
-                unknownFieldDescriptor,
-                fieldScopeLogic.subLogic(rootDescriptor, fieldDescriptorOrUnknown)));
+        FieldScopeLogic subLogic =
+            fieldScopeLogic.subLogic(rootDescriptor, fieldDescriptorOrUnknown);
+        int maxSize = Math.max(actualValues.size(), expectedValues.size());
+        for (int i = 0; i < maxSize; i++) {
+          SingularField.Builder singularFieldBuilder =
+              builder == null
+                  ? null
+                  : SingularField.newBuilder().setFieldName(indexedName(unknownFieldDescriptor, i));
+          result =
+              both(
+                  result,
+                  compareUnknownFieldValue(
+                      actualValues.size() > i ? actualValues.get(i) : null,
+                      expectedValues.size() > i ? expectedValues.get(i) : null,
+                      shouldIgnore.shouldMaybeIgnore(),
+                      unknownFieldDescriptor,
+                      subLogic,
+                      singularFieldBuilder));
+          if (builder != null) {
+            builder.addSingularField(fieldNumber, singularFieldBuilder.build());
+          } else if (result == Result.MODIFIED) {
+            return result;
+          }
+        }
       }
     }
-
-    return builder.build();
+    return result;
   }
 
-  private List<SingularField> compareUnknownFieldList(
-      List<?> actualValues,
-      List<?> expectedValues,
-      boolean shouldMaybeIgnore,
-      UnknownFieldDescriptor unknownFieldDescriptor,
-      FieldScopeLogic fieldScopeLogic) {
-    int maxSize = Math.max(actualValues.size(), expectedValues.size());
-    ImmutableList.Builder<SingularField> builder = ImmutableList.builderWithExpectedSize(maxSize);
-    for (int i = 0; i < maxSize; i++) {
-      @Nullable Object actual = actualValues.size() > i ? actualValues.get(i) : null;
-      @Nullable Object expected = expectedValues.size() > i ? expectedValues.get(i) : null;
-      builder.add(
-          compareUnknownFieldValue(
-              actual,
-              expected,
-              shouldMaybeIgnore,
-              indexedName(unknownFieldDescriptor, i),
-              unknownFieldDescriptor,
-              fieldScopeLogic));
-    }
-
-    return builder.build();
-  }
-
-  private SingularField compareUnknownFieldValue(
+  private Result compareUnknownFieldValue(
       @Nullable Object actual,
       @Nullable Object expected,
       boolean shouldMaybeIgnore,
-      String fieldName,
       UnknownFieldDescriptor unknownFieldDescriptor,
-      FieldScopeLogic fieldScopeLogic) {
+      FieldScopeLogic fieldScopeLogic,
+      @Nullable SingularField.Builder builder) {
     if (unknownFieldDescriptor.type() == UnknownFieldDescriptor.Type.GROUP) {
       return compareUnknownFieldSet(
           (UnknownFieldSet) actual,
           (UnknownFieldSet) expected,
           shouldMaybeIgnore,
-          fieldName,
-          fieldScopeLogic);
+          fieldScopeLogic,
+          builder);
     } else {
       checkState(!shouldMaybeIgnore, "MAYBE is not a valid ShouldIgnore for primitives.");
-      return compareUnknownPrimitive(actual, expected, fieldName);
+      return compareSingularPrimitive(actual, expected, builder);
     }
   }
 
-  private SingularField compareUnknownFieldSet(
+  private Result compareUnknownFieldSet(
       @Nullable UnknownFieldSet actual,
       @Nullable UnknownFieldSet expected,
       boolean shouldMaybeIgnore,
-      String fieldName,
-      FieldScopeLogic fieldScopeLogic) {
+      FieldScopeLogic fieldScopeLogic,
+      @Nullable SingularField.Builder builder) {
     Result.Builder result = Result.builder();
 
     // If actual or expected is missing, we know the result as long as it's not ignored.
     result.markRemovedIf(actual == null);
     result.markAddedIf(expected == null);
+    if (builder == null && result.build() != Result.MATCHED && !shouldMaybeIgnore) {
+      return result.build();
+    }
 
     // Perform the detailed breakdown only if necessary.
-    @Nullable UnknownFieldSetDiff unknownsBreakdown = null;
+    @Nullable UnknownFieldSetDiff.Builder unknownsBreakdownBuilder = null;
     if (result.build() == Result.MATCHED || shouldMaybeIgnore) {
       actual = firstNonNull(actual, UnknownFieldSet.getDefaultInstance());
       expected = firstNonNull(expected, UnknownFieldSet.getDefaultInstance());
 
-      unknownsBreakdown = diffUnknowns(actual, expected, fieldScopeLogic);
-      if (unknownsBreakdown.isIgnored() && shouldMaybeIgnore) {
+      unknownsBreakdownBuilder =
+          builder == null
+              ? null
+              : UnknownFieldSetDiff.newBuilder().setActual(actual).setExpected(expected);
+      Result unknownsBreakdown =
+          compareUnknowns(actual, expected, fieldScopeLogic, unknownsBreakdownBuilder);
+      if (unknownsBreakdown == Result.IGNORED && shouldMaybeIgnore) {
         // Ignore this field entirely, report nothing.
-        return SingularField.ignored(fieldName);
+        if (builder != null) {
+          builder.setResult(Result.IGNORED);
+        }
+        return Result.IGNORED;
       }
-      result.markModifiedIf(!unknownsBreakdown.isMatched());
+      result.markModifiedIf(!isMatched(unknownsBreakdown));
     }
 
     // Report the full breakdown.
-    SingularField.Builder singularFieldBuilder =
-        SingularField.newBuilder().setFieldName(fieldName).setResult(result.build());
-    if (actual != null) {
-      singularFieldBuilder.setActual(actual);
-    }
-    if (expected != null) {
-      singularFieldBuilder.setExpected(expected);
-    }
-    if (unknownsBreakdown != null) {
-      singularFieldBuilder.setUnknownsBreakdown(unknownsBreakdown);
-    }
-    return singularFieldBuilder.build();
-  }
-
-  private SingularField compareUnknownPrimitive(
-      @Nullable Object actual, @Nullable Object expected, String fieldName) {
-    Result.Builder result = Result.builder();
-
-    result.markRemovedIf(actual == null);
-    result.markAddedIf(expected == null);
-    result.markModifiedIf(!Objects.equal(actual, expected));
-
-    SingularField.Builder singularFieldBuilder =
-        SingularField.newBuilder().setFieldName(fieldName).setResult(result.build());
-    if (actual != null) {
-      singularFieldBuilder.setActual(actual);
-    }
-    if (expected != null) {
-      singularFieldBuilder.setExpected(expected);
+    if (builder != null) {
+      builder.setResult(result.build());
+      if (actual != null) {
+        builder.setActual(actual);
+      }
+      if (expected != null) {
+        builder.setExpected(expected);
+      }
+      if (unknownsBreakdownBuilder != null) {
+        builder.setUnknownsBreakdown(unknownsBreakdownBuilder.build());
+      }
     }
-    return singularFieldBuilder.build();
+    return result.build();
   }
 
   private static String name(FieldDescriptor fieldDescriptor) {
-    return fieldDescriptor.isExtension() ? "[" + fieldDescriptor + "]" : fieldDescriptor.getName();
+    return fieldDescriptor.isExtension()
+        ? "(" + fieldDescriptor.getFullName() + ")"
+        : fieldDescriptor.getName();
   }
 
   private static String indexedName(FieldDescriptor fieldDescriptor, Object key) {
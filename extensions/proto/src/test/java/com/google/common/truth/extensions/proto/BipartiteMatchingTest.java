@@ -0,0 +1,151 @@
+/*
+ * Copyright (c) 2017 Google, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.google.common.truth.extensions.proto;
+
+import static com.google.common.truth.Truth.assertThat;
+import static com.google.common.truth.Truth.assertWithMessage;
+import static com.google.common.truth.extensions.proto.BipartiteMatching.maximumMatching;
+
+import com.google.common.primitives.Ints;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.junit.runners.JUnit4;
+
+/** Tests for {@link BipartiteMatching}. */
+@RunWith(JUnit4.class)
+public class BipartiteMatchingTest {
+
+  @Test
+  public void empty() {
+    assertThat(maximumMatching(new int[0][], 0)).isEmpty();
+    assertThat(maximumMatching(new int[][] {{}, {}}, 3)).asList().containsExactly(-1, -1);
+  }
+
+  @Test
+  public void greedyChoiceIsUndone() {
+    // Matching 0 with 0 first, as a greedy search would, leaves 1 unmatched.
+    assertThat(maximumMatching(new int[][] {{0, 1}, {0}}, 2)).asList().containsExactly(1, 0);
+  }
+
+  @Test
+  public void exhaustive3x3() {
+    for (int edges = 0; edges < (1 << 9); edges++) {
+      int[][] adjacency = fromBits(3, 3, edges);
+      checkMatching(adjacency, 3);
+    }
+  }
+
+  @Test
+  public void random() {
+    Random random = new Random(0);
+    for (int trial = 0; trial < 300; trial++) {
+      int leftCount = 1 + random.nextInt(7);
+      int rightCount = 1 + random.nextInt(7);
+      int[][] adjacency = new int[leftCount][];
+      for (int u = 0; u < leftCount; u++) {
+        List<Integer> neighbours = new ArrayList<Integer>();
+        for (int v = 0; v < rightCount; v++) {
+          if (random.nextInt(4) == 0) {
+            neighbours.add(v);
+          }
+        }
+        adjacency[u] = Ints.toArray(neighbours);
+      }
+      checkMatching(adjacency, rightCount);
+    }
+  }
+
+  @Test
+  public void longAugmentingPath() {
+    // The first phase matches each left-hand vertex i < n with right-hand vertex i, leaving n
+    // unmatched. The only augmenting path then runs through every vertex, down to the spare
+    // right-hand vertex n, which a recursive search would overflow the stack following.
+    int n = 200000;
+    int[][] adjacency = new int[n + 1][];
+    adjacency[0] = new int[] {0, n};
+    for (int u = 1; u < n; u++) {
+      adjacency[u] = new int[] {u, u - 1};
+    }
+    adjacency[n] = new int[] {n - 1};
+    int[] matching = maximumMatching(adjacency, n + 1);
+    assertThat(matching[0]).isEqualTo(n);
+    for (int u = 1; u <= n; u++) {
+      assertThat(matching[u]).isEqualTo(u - 1);
+    }
+  }
+
+  @Test
+  public void rightVertexOutOfRange() {
+    try {
+      maximumMatching(new int[][] {{2}}, 2);
+      throw new Error("Expected to throw.");
+    } catch (IndexOutOfBoundsException expected) {
+    }
+  }
+
+  private static int[][] fromBits(int leftCount, int rightCount, int bits) {
+    int[][] adjacency = new int[leftCount][];
+    for (int u = 0; u < leftCount; u++) {
+      List<Integer> neighbours = new ArrayList<Integer>();
+      for (int v = 0; v < rightCount; v++) {
+        if ((bits & (1 << (u * rightCount + v))) != 0) {
+          neighbours.add(v);
+        }
+      }
+      adjacency[u] = Ints.toArray(neighbours);
+    }
+    return adjacency;
+  }
+
+  /** Checks that the result is a valid matching over the graph's edges, of the maximum size. */
+  private static void checkMatching(int[][] adjacency, int rightCount) {
+    int[] matching = maximumMatching(adjacency, rightCount);
+    String graph = Arrays.deepToString(adjacency);
+    assertWithMessage(graph).that(matching).hasLength(adjacency.length);
+    boolean[] rightUsed = new boolean[rightCount];
+    int size = 0;
+    for (int u = 0; u < matching.length; u++) {
+      if (matching[u] >= 0) {
+        assertWithMessage(graph).that(Ints.asList(adjacency[u])).contains(matching[u]);
+        assertWithMessage(graph).that(rightUsed[matching[u]]).isFalse();
+        rightUsed[matching[u]] = true;
+        size++;
+      }
+    }
+    assertWithMessage(graph)
+        .that(size)
+        .isEqualTo(bruteForceMaximumSize(adjacency, 0, new boolean[rightCount]));
+  }
+
+  private static int bruteForceMaximumSize(int[][] adjacency, int u, boolean[] rightUsed) {
+    if (u == adjacency.length) {
+      return 0;
+    }
+    int best = bruteForceMaximumSize(adjacency, u + 1, rightUsed);
+    for (int v : adjacency[u]) {
+      if (!rightUsed[v]) {
+        rightUsed[v] = true;
+        best = Math.max(best, 1 + bruteForceMaximumSize(adjacency, u + 1, rightUsed));
+        rightUsed[v] = false;
+      }
+    }
+    return best;
+  }
+}
@@ -0,0 +1,85 @@
+/*
+ * Copyright (c) 2017 Google, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.google.common.truth.extensions.proto;
+
+import static com.google.common.truth.Truth.assertThat;
+import static com.google.common.truth.extensions.proto.ElementRangeComparison.PARALLEL_THRESHOLD;
+
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.Range;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.junit.runners.JUnit4;
+
+/** Tests for {@link ElementRangeComparison}. */
+@RunWith(JUnit4.class)
+public class ElementRangeComparisonTest {
+
+  /** Collects the ranges it compares, in the order of their results. */
+  private static class RangeCollector extends ElementRangeComparison<List<Range<Integer>>> {
+    final AtomicInteger comparedRanges = new AtomicInteger();
+
+    @Override
+    List<Range<Integer>> compareRange(int from, int to) {
+      comparedRanges.incrementAndGet();
+      return ImmutableList.of(Range.closedOpen(from, to));
+    }
+
+    @Override
+    List<Range<Integer>> combine(List<Range<Integer>> left, List<Range<Integer>> right) {
+      return ImmutableList.<Range<Integer>>builder().addAll(left).addAll(right).build();
+    }
+
+    @Override
+    boolean decides(List<Range<Integer>> result) {
+      return false;
+    }
+  }
+
+  @Test
+  public void rangesAreCombinedInIndexOrder() {
+    int size = 20 * PARALLEL_THRESHOLD + 7;
+    List<Range<Integer>> ranges = new RangeCollector().compareInParallel(size);
+
+    assertThat(ranges.size()).isGreaterThan(1);
+    int next = 0;
+    for (Range<Integer> range : ranges) {
+      assertThat(range.lowerEndpoint()).isEqualTo(next);
+      assertThat(range.upperEndpoint() - range.lowerEndpoint()).isAtMost(PARALLEL_THRESHOLD);
+      next = range.upperEndpoint();
+    }
+    assertThat(next).isEqualTo(size);
+  }
+
+  @Test
+  public void decidingResultSkipsRemainingRanges() {
+    RangeCollector comparison =
+        new RangeCollector() {
+          @Override
+          boolean decides(List<Range<Integer>> result) {
+            return true;
+          }
+        };
+    List<Range<Integer>> ranges = comparison.compareInParallel(256 * PARALLEL_THRESHOLD);
+
+    // Each thread sees the deciding result once it has compared a range of its own, if not before.
+    int threads = Runtime.getRuntime().availableProcessors() + 1;
+    assertThat(comparison.comparedRanges.get()).isAtMost(Math.min(threads, 255));
+    assertThat(ranges).isNotEmpty();
+  }
+}
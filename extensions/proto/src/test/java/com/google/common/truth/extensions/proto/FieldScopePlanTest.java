@@ -0,0 +1,196 @@
+/*
+ * Copyright (c) 2017 Google, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.google.common.truth.extensions.proto;
+
+import static com.google.common.truth.Truth.assertThat;
+import static com.google.common.truth.Truth.assertWithMessage;
+
+import com.google.common.collect.ImmutableList;
+import com.google.common.truth.extensions.proto.ProtoTruthMessageDifferencer.FieldDescriptorOrUnknown;
+import com.google.common.truth.extensions.proto.ProtoTruthMessageDifferencer.ShouldIgnore;
+import com.google.protobuf.Descriptors.Descriptor;
+import com.google.protobuf.Descriptors.FieldDescriptor;
+import com.google.protobuf.TextFormat;
+import com.google.protobuf.TextFormat.ParseException;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.junit.runners.JUnit4;
+
+/** Tests for {@link FieldScopePlan}. */
+@RunWith(JUnit4.class)
+public class FieldScopePlanTest {
+
+  private static final Descriptor ROOT = TestMessage2.getDescriptor();
+  private static final FieldDescriptor O_INT = ROOT.findFieldByName("o_int");
+  private static final FieldDescriptor O_TEST_MESSAGE = ROOT.findFieldByName("o_test_message");
+  private static final FieldDescriptor R_TEST_MESSAGE = ROOT.findFieldByName("r_test_message");
+  private static final FieldDescriptor O_SUB_TEST_MESSAGE =
+      ROOT.findFieldByName("o_sub_test_message");
+  private static final FieldDescriptor R_SUB_TEST_MESSAGE =
+      ROOT.findFieldByName("r_sub_test_message");
+  private static final FieldDescriptor SUB_O_INT =
+      SubTestMessage2.getDescriptor().findFieldByName("o_int");
+  private static final FieldDescriptor SUB_O_TEST_MESSAGE =
+      SubTestMessage2.getDescriptor().findFieldByName("o_test_message");
+
+  private static final Descriptor EXTENDABLE_ROOT = TestExtendableMessage2.getDescriptor();
+  private static final FieldDescriptor O_INT_EXTENSION =
+      EXTENDABLE_ROOT.getFile().findExtensionByName("o_int_extension");
+  private static final FieldDescriptor O_SUB_TEST_MESSAGE_EXTENSION =
+      EXTENDABLE_ROOT.getFile().findExtensionByName("o_sub_test_message_extension");
+
+  @Test
+  public void recursiveType_selfReturningLogic() {
+    FieldScopeLogic logic = FieldScopeLogic.all();
+    FieldScopePlan plan = FieldScopePlan.compile(logic, ROOT);
+
+    // The plans for a recursive type form a cycle, rather than being expanded forever.
+    assertThat(plan.subPlan(O_TEST_MESSAGE)).isSameAs(plan);
+    assertThat(plan.subPlan(R_TEST_MESSAGE)).isSameAs(plan);
+    FieldScopePlan subPlan = plan.subPlan(O_SUB_TEST_MESSAGE);
+    assertThat(subPlan.logic()).isSameAs(logic);
+    assertThat(subPlan.subPlan(SUB_O_TEST_MESSAGE)).isSameAs(plan);
+
+    assertPlanAgreesWithLogic(plan, ROOT, ROOT);
+    assertPlanAgreesWithLogic(subPlan, SubTestMessage2.getDescriptor(), ROOT);
+  }
+
+  @Test
+  public void recursiveType_nonSelfReturningLogic() throws ParseException {
+    FieldScopeLogic logic =
+        FieldScopeLogic.partialScope(parse("o_test_message { o_test_message { o_int: 1 } }"));
+    FieldScopePlan plan = FieldScopePlan.compile(logic, ROOT);
+
+    FieldScopePlan subPlan = plan.subPlan(O_TEST_MESSAGE);
+    FieldScopePlan subSubPlan = subPlan.subPlan(O_TEST_MESSAGE);
+    assertThat(subPlan).isNotSameAs(plan);
+    assertThat(subSubPlan).isNotSameAs(subPlan);
+    // Each sub-plan is only compiled once.
+    assertThat(plan.subPlan(O_TEST_MESSAGE)).isSameAs(subPlan);
+    assertThat(subPlan.subPlan(O_TEST_MESSAGE)).isSameAs(subSubPlan);
+
+    assertThat(plan.shouldIgnore(O_TEST_MESSAGE)).isEqualTo(ShouldIgnore.NO);
+    assertThat(plan.shouldIgnore(O_INT)).isEqualTo(ShouldIgnore.YES);
+    assertThat(subSubPlan.shouldIgnore(O_INT)).isEqualTo(ShouldIgnore.NO);
+    assertThat(subSubPlan.shouldIgnore(O_TEST_MESSAGE)).isEqualTo(ShouldIgnore.YES);
+    assertPlanAgreesWithLogic(plan, ROOT, ROOT);
+    assertPlanAgreesWithLogic(subPlan, ROOT, ROOT);
+    assertPlanAgreesWithLogic(subSubPlan, ROOT, ROOT);
+
+    // Below the set fields, the scope is empty, and its logic returns itself again.
+    FieldScopePlan emptyPlan = subSubPlan.subPlan(O_TEST_MESSAGE);
+    assertThat(emptyPlan.subPlan(O_TEST_MESSAGE)).isSameAs(emptyPlan);
+    assertThat(emptyPlan.shouldIgnore(O_INT)).isEqualTo(ShouldIgnore.YES);
+  }
+
+  @Test
+  public void extensionFields() {
+    FieldScopeLogic logic =
+        FieldScopeLogic.all().ignoringFieldDescriptors(ImmutableList.of(SUB_O_INT));
+    FieldScopePlan plan = FieldScopePlan.compile(logic, EXTENDABLE_ROOT);
+
+    assertThat(plan.shouldIgnore(O_INT_EXTENSION)).isEqualTo(ShouldIgnore.NO);
+    assertThat(plan.shouldIgnore(O_SUB_TEST_MESSAGE_EXTENSION)).isEqualTo(ShouldIgnore.MAYBE);
+    FieldScopePlan extensionPlan = plan.subPlan(O_SUB_TEST_MESSAGE_EXTENSION);
+    assertThat(extensionPlan.shouldIgnore(SUB_O_INT)).isEqualTo(ShouldIgnore.YES);
+    assertPlanAgreesWithLogic(extensionPlan, SubTestMessage2.getDescriptor(), EXTENDABLE_ROOT);
+
+    FieldScopePlan ignoringExtension =
+        FieldScopePlan.compile(
+            FieldScopeLogic.all().ignoringFieldDescriptors(ImmutableList.of(O_INT_EXTENSION)),
+            EXTENDABLE_ROOT);
+    assertThat(ignoringExtension.shouldIgnore(O_INT_EXTENSION)).isEqualTo(ShouldIgnore.YES);
+    assertThat(ignoringExtension.shouldIgnore(O_SUB_TEST_MESSAGE_EXTENSION))
+        .isEqualTo(ShouldIgnore.MAYBE);
+  }
+
+  @Test
+  public void extensionFields_selfReturningLogic() {
+    FieldScopeLogic logic = FieldScopeLogic.all();
+    FieldScopePlan plan = FieldScopePlan.compile(logic, EXTENDABLE_ROOT);
+
+    // Extensions aren't cached by the plan, but their sub-plans are still shared.
+    FieldScopePlan extensionPlan = plan.subPlan(O_SUB_TEST_MESSAGE_EXTENSION);
+    assertThat(plan.subPlan(O_SUB_TEST_MESSAGE_EXTENSION)).isSameAs(extensionPlan);
+    FieldScopePlan testMessagePlan = extensionPlan.subPlan(SUB_O_TEST_MESSAGE);
+    assertThat(testMessagePlan.subPlan(O_SUB_TEST_MESSAGE)).isSameAs(extensionPlan);
+  }
+
+  @Test
+  public void plansAreSharedByFieldsWithTheSameSubLogic() {
+    FieldScopePlan plan = FieldScopePlan.compile(FieldScopeLogic.all(), ROOT);
+
+    FieldScopePlan subPlan = plan.subPlan(O_SUB_TEST_MESSAGE);
+    assertThat(plan.subPlan(R_SUB_TEST_MESSAGE)).isSameAs(subPlan);
+    assertThat(subPlan.subPlan(SUB_O_TEST_MESSAGE).subPlan(O_SUB_TEST_MESSAGE)).isSameAs(subPlan);
+  }
+
+  @Test
+  public void plansAreNotSharedByFieldsWithEqualSubLogics() {
+    // A compound logic makes a new sub-logic for each field, so each field gets a plan of its own.
+    FieldScopeLogic logic =
+        FieldScopeLogic.none()
+            .allowingFieldDescriptors(ImmutableList.of(O_SUB_TEST_MESSAGE, R_SUB_TEST_MESSAGE));
+    FieldScopePlan plan = FieldScopePlan.compile(logic, ROOT);
+
+    FieldScopePlan subPlan = plan.subPlan(O_SUB_TEST_MESSAGE);
+    FieldScopePlan otherSubPlan = plan.subPlan(R_SUB_TEST_MESSAGE);
+    assertThat(otherSubPlan).isNotSameAs(subPlan);
+    assertThat(plan.subPlan(O_SUB_TEST_MESSAGE)).isSameAs(subPlan);
+    assertPlanAgreesWithLogic(subPlan, SubTestMessage2.getDescriptor(), ROOT);
+    assertPlanAgreesWithLogic(otherSubPlan, SubTestMessage2.getDescriptor(), ROOT);
+  }
+
+  @Test
+  public void plansAreNotSharedAcrossScopes() {
+    FieldScopeLogic allowing =
+        FieldScopeLogic.none().allowingFieldDescriptors(ImmutableList.of(SUB_O_INT));
+    FieldScopeLogic ignoring =
+        FieldScopeLogic.all().ignoringFieldDescriptors(ImmutableList.of(SUB_O_INT));
+    FieldScopePlan allowingPlan = FieldScopePlan.compile(allowing, ROOT);
+    FieldScopePlan ignoringPlan = FieldScopePlan.compile(ignoring, ROOT);
+
+    FieldScopePlan allowingSubPlan = allowingPlan.subPlan(O_SUB_TEST_MESSAGE);
+    FieldScopePlan ignoringSubPlan = ignoringPlan.subPlan(O_SUB_TEST_MESSAGE);
+    assertThat(allowingSubPlan).isNotSameAs(ignoringSubPlan);
+    assertThat(allowingSubPlan.shouldIgnore(SUB_O_INT)).isEqualTo(ShouldIgnore.NO);
+    assertThat(ignoringSubPlan.shouldIgnore(SUB_O_INT)).isEqualTo(ShouldIgnore.YES);
+
+    // The same logic, compiled again, gets plans of its own with the same answers.
+    FieldScopePlan allowingPlanAgain = FieldScopePlan.compile(allowing, ROOT);
+    assertThat(allowingPlanAgain).isNotSameAs(allowingPlan);
+    assertThat(allowingPlanAgain.subPlan(O_SUB_TEST_MESSAGE).shouldIgnore(SUB_O_INT))
+        .isEqualTo(ShouldIgnore.NO);
+  }
+
+  /** Checks that {@code plan} gives the same answers as its logic for every field it indexes. */
+  private static void assertPlanAgreesWithLogic(
+      FieldScopePlan plan, Descriptor descriptor, Descriptor rootDescriptor) {
+    for (FieldDescriptor field : descriptor.getFields()) {
+      assertWithMessage("%s: %s", plan, field.getName())
+          .that(plan.shouldIgnore(field))
+          .isEqualTo(
+              plan.logic()
+                  .shouldIgnore(rootDescriptor, FieldDescriptorOrUnknown.fieldDescriptor(field)));
+    }
+  }
+
+  private static TestMessage2 parse(String textProto) throws ParseException {
+    TestMessage2.Builder builder = TestMessage2.newBuilder();
+    TextFormat.merge(textProto, builder);
+    return builder.build();
+  }
+}
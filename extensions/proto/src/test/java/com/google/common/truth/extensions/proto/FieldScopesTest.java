@@ -15,6 +15,7 @@
  */
 package com.google.common.truth.extensions.proto;
 
+import static com.google.common.truth.Truth.assertThat;
 import static com.google.common.truth.extensions.proto.ProtoTruth.assertThat;
 import static org.junit.Assert.fail;
 
@@ -31,6 +32,10 @@ import com.google.protobuf.UnknownFieldSet.Field;
 import java.nio.charset.StandardCharsets;
 import java.util.Collection;
 import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
 import org.junit.Test;
 import org.junit.runner.RunWith;
 import org.junit.runners.Parameterized;
@@ -270,6 +275,73 @@ public class FieldScopesTest extends ProtoSubjectTestBase {
     }
   }
 
+  @Test
+  public void testIgnoreFieldOfSubMessage_subMessageWithOnlyIgnoredFieldsSetOnOneSide() {
+    Message message = parse("o_int: 1 o_sub_test_message: { o_int: 2 }");
+    Message eqMessage = parse("o_int: 1");
+
+    FieldDescriptor fieldDescriptor =
+        getFieldDescriptor("o_sub_test_message").getMessageType().findFieldByName("o_int");
+    FieldScope partialScope = FieldScopes.ignoringFieldDescriptors(fieldDescriptor);
+
+    // Nothing in o_sub_test_message is in scope, so whether it is set doesn't matter either.
+    expectThat(eqMessage).isNotEqualTo(message);
+    expectThat(eqMessage).withPartialScope(partialScope).isEqualTo(message);
+    expectThat(message).withPartialScope(partialScope).isEqualTo(eqMessage);
+
+    try {
+      assertThat(eqMessage).withPartialScope(partialScope).isNotEqualTo(message);
+      expectedFailure();
+    } catch (AssertionError e) {
+      // The report agrees with the verdict: the sub-message is ignored, not deleted.
+      expect
+          .that(e)
+          .hasMessageThat()
+          .isEqualTo(
+              "Not true that messages compare not equal. Only ignorable differences were found:\n"
+                  + "matched: o_int : 1\n"
+                  + "ignored: o_sub_test_message\n");
+    }
+
+    try {
+      assertThat(eqMessage)
+          .withPartialScope(partialScope)
+          .reportingMismatchesOnly()
+          .isNotEqualTo(message);
+      expectedFailure();
+    } catch (AssertionError e) {
+      expect
+          .that(e)
+          .hasMessageThat()
+          .isEqualTo("Not true that messages compare not equal. No differences were found.");
+    }
+  }
+
+  @Test
+  public void testIgnoreFieldOfSubMessage_repeatedSubMessagesWithOnlyIgnoredFieldsOnOneSide() {
+    Message message = parse("o_int: 1 r_sub_test_message: { o_int: 2 } r_sub_test_message: {}");
+    Message eqMessage = parse("o_int: 1");
+
+    FieldDescriptor fieldDescriptor =
+        getFieldDescriptor("r_sub_test_message").getMessageType().findFieldByName("o_int");
+    FieldScope partialScope = FieldScopes.ignoringFieldDescriptors(fieldDescriptor);
+
+    expectThat(eqMessage).withPartialScope(partialScope).isEqualTo(message);
+    try {
+      assertThat(eqMessage).withPartialScope(partialScope).isNotEqualTo(message);
+      expectedFailure();
+    } catch (AssertionError e) {
+      expect
+          .that(e)
+          .hasMessageThat()
+          .isEqualTo(
+              "Not true that messages compare not equal. Only ignorable differences were found:\n"
+                  + "matched: o_int : 1\n"
+                  + "ignored: r_sub_test_message[0]\n"
+                  + "ignored: r_sub_test_message[1]\n");
+    }
+  }
+
   @Test
   public void testIgnoringAllButOneFieldOfSubMessage() {
     // Consider all of TestMessage, but none of o_sub_test_message, except
@@ -407,6 +479,26 @@ public class FieldScopesTest extends ProtoSubjectTestBase {
     }
   }
 
+  @Test
+  public void testFromSetFields_mapValues() {
+    Message scopeMessage = parse("test_message_map: { key: 1 value: { o_int: 1 } }");
+
+    Message message = parse("test_message_map: { key: 1 value: { o_int: 1 r_string: \"1\" } }");
+    Message diffMessage = parse("test_message_map: { key: 1 value: { o_int: 4 r_string: \"1\" } }");
+    Message eqMessage = parse("test_message_map: { key: 1 value: { o_int: 1 r_string: \"3\" } }");
+
+    expectThat(eqMessage).isNotEqualTo(message);
+    expectThat(eqMessage)
+        .withPartialScope(FieldScopes.fromSetFields(scopeMessage))
+        .isEqualTo(message);
+    expectThat(diffMessage)
+        .withPartialScope(FieldScopes.fromSetFields(scopeMessage))
+        .isNotEqualTo(message);
+    expectThat(listOf(eqMessage))
+        .withPartialScope(FieldScopes.fromSetFields(scopeMessage))
+        .containsExactly(message);
+  }
+
   public void testFromSetFields_unknownFields() throws InvalidProtocolBufferException {
     if (isProto3()) {
       // No unknown fields in Proto 3.
@@ -850,6 +942,71 @@ public class FieldScopesTest extends ProtoSubjectTestBase {
     }
   }
 
+  @Test
+  public void testFromSetFields_concurrentComparisons() throws Exception {
+    Message scopeMessage =
+        parse("o_int: 1 r_test_message: { o_int: 1 } o_test_message: { r_string: \"x\" }");
+    final FluentEqualityConfig config =
+        FluentEqualityConfig.defaultInstance()
+            .withPartialScope(FieldScopes.fromSetFields(scopeMessage));
+    final MessageDifferencer differencer =
+        MessageDifferencer.newBuilder()
+            .addIgnoreCriteriaFactory(
+                config
+                    .fieldScopeLogic()
+                    .toIgnoreCriteriaFactory(scopeMessage.getDescriptorForType()))
+            .build();
+
+    final List<Message> messages = Lists.newArrayList();
+    for (int i = 0; i < 8; i++) {
+      StringBuilder textProto = new StringBuilder();
+      textProto.append("o_int: ").append(i % 2).append(" r_string: \"").append(i).append("\"");
+      for (int j = 0; j < 10; j++) {
+        textProto.append(" r_test_message: { o_int: ").append((i + j) % 3);
+        textProto.append(" r_string: \"").append(i + j).append("\" }");
+      }
+      textProto.append(" o_test_message: { o_int: ").append(i);
+      textProto.append(" r_string: \"").append(i % 4).append("\" }");
+      messages.add(parse(textProto.toString()));
+    }
+    final List<Boolean> expected = Lists.newArrayList();
+    for (Message actual : messages) {
+      for (Message other : messages) {
+        expected.add(differencer.compare(other, actual));
+      }
+    }
+
+    // Each comparison has its own FieldScope cache, so comparisons sharing one differencer on
+    // several threads must see the same results as sequential ones.
+    ExecutorService executor = Executors.newFixedThreadPool(4);
+    try {
+      List<Future<List<Boolean>>> futures = Lists.newArrayList();
+      for (int task = 0; task < 16; task++) {
+        futures.add(
+            executor.submit(
+                new Callable<List<Boolean>>() {
+                  @Override
+                  public List<Boolean> call() {
+                    List<Boolean> results = Lists.newArrayList();
+                    for (Message actual : messages) {
+                      for (Message other : messages) {
+                        boolean result = differencer.compare(other, actual);
+                        assertThat(config.compare(actual, other)).isEqualTo(result);
+                        results.add(result);
+                      }
+                    }
+                    return results;
+                  }
+                }));
+      }
+      for (Future<List<Boolean>> future : futures) {
+        assertThat(future.get()).isEqualTo(expected);
+      }
+    } finally {
+      executor.shutdown();
+    }
+  }
+
   @Test
   public void testFromSetFields_iterables_errorForDifferentMessageTypes() {
     // Don't run this test twice.
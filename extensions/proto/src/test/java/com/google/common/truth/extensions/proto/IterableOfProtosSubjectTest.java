@@ -18,6 +18,8 @@ package com.google.common.truth.extensions.proto;
 
 import static com.google.common.truth.extensions.proto.ProtoTruth.assertThat;
 
+import com.google.common.base.Function;
+import com.google.protobuf.Descriptors.FieldDescriptor;
 import com.google.protobuf.Message;
 import java.util.Collection;
 import java.util.Comparator;
@@ -408,6 +410,125 @@ public class IterableOfProtosSubjectTest extends ProtoSubjectTestBase {
     }
   }
 
+  @Test
+  public void testFluent_containsExactly_partialScopeIgnoringOrder() {
+    Message message =
+        parse(
+            "o_int: 1 r_test_message: { o_int: 2 r_string: \"x\" } "
+                + "r_test_message: { o_int: 3 r_string: \"y\" }");
+    Message eqMessage = parse("r_test_message: { o_int: 3 } r_test_message: { o_int: 2 }");
+    Message diffMessage = parse("r_test_message: { o_int: 3 } r_test_message: { o_int: 4 }");
+
+    expectThat(listOf(message))
+        .withPartialScope(FieldScopes.fromSetFields(eqMessage))
+        .ignoringRepeatedFieldOrder()
+        .containsExactly(eqMessage);
+    expectThat(listOf(message))
+        .withPartialScope(FieldScopes.fromSetFields(diffMessage))
+        .ignoringRepeatedFieldOrder()
+        .doesNotContain(diffMessage);
+
+    try {
+      assertThat(listOf(message))
+          .withPartialScope(FieldScopes.fromSetFields(diffMessage))
+          .ignoringRepeatedFieldOrder()
+          .containsExactly(diffMessage);
+      expectedFailure();
+    } catch (AssertionError expected) {
+      expectFailureNotMissing(expected);
+    }
+  }
+
+  @Test
+  public void testFluent_displayingDiffsPairedBy() {
+    Message message3 = parse("o_int: 5 r_string: \"quux\"");
+    Message diffMessage2 = parse("o_int: 3 r_string: \"baz\" r_string: \"quux\"");
+    final FieldDescriptor rStringField = getFieldDescriptor("r_string");
+    Function<Message, Object> rStringKey =
+        new Function<Message, Object>() {
+          @Override
+          public Object apply(Message message) {
+            return message.getField(rStringField);
+          }
+        };
+
+    expectThat(listOf(message1, message2))
+        .displayingDiffsPairedBy(ignoreFieldNumber)
+        .ignoringRepeatedFieldOrder()
+        .containsExactly(eqRepeatedMessage2, eqRepeatedMessage1);
+    expectThat(listOf(message1, message2))
+        .displayingDiffsPairedBy(ignoreFieldNumber)
+        .containsExactly(eqMessage1, eqMessage2)
+        .inOrder();
+    expectThat(listOf(message1, message2))
+        .ignoringFields(ignoreFieldNumber)
+        .displayingDiffsPairedBy(rStringKey)
+        .containsExactlyElementsIn(listOf(eqIgnoredMessage2, eqIgnoredMessage1));
+
+    try {
+      assertThat(listOf(message1, message2))
+          .displayingDiffsPairedBy(ignoreFieldNumber)
+          .containsExactly(eqMessage2, eqMessage1)
+          .inOrder();
+      expectedFailure();
+    } catch (AssertionError expected) {
+      expectSubstr(
+          expected, "The elements had the keys <[1, 3]>, but the expected keys were <[3, 1]>");
+    }
+
+    try {
+      assertThat(listOf(message1, message2, message3))
+          .displayingDiffsPairedBy(ignoreFieldNumber)
+          .containsExactly(eqMessage1, diffMessage2, eqIgnoredMessage2);
+      expectedFailure();
+    } catch (AssertionError expected) {
+      expectSubstr(expected, "pairing elements by key");
+      expectSubstr(expected, "Missing keys: <[4]>");
+      expectSubstr(expected, "Unexpected keys: <[5]>");
+      expectSubstr(
+          expected, "Differences for key <3>:\nmodified: r_string[1]: \"quux\" -> \"qux\"");
+    }
+  }
+
+  @Test
+  public void testFluent_displayingDiffsPairedBy_duplicateKeys() {
+    Message fooMessage = parse("o_int: 3 r_string: \"foo\"");
+    Message barMessage = parse("o_int: 3 r_string: \"bar\"");
+    Message bazMessage = parse("o_int: 3 r_string: \"baz\"");
+
+    expectThat(listOf(fooMessage, barMessage, message1))
+        .displayingDiffsPairedBy(ignoreFieldNumber)
+        .containsExactly(barMessage, message1, fooMessage);
+    expectThat(listOf(fooMessage, barMessage))
+        .displayingDiffsPairedBy(ignoreFieldNumber)
+        .containsExactly(fooMessage, barMessage)
+        .inOrder();
+
+    try {
+      assertThat(listOf(fooMessage, barMessage))
+          .displayingDiffsPairedBy(ignoreFieldNumber)
+          .containsExactly(barMessage, fooMessage)
+          .inOrder();
+      expectedFailure();
+    } catch (AssertionError expected) {
+      expectSubstr(
+          expected,
+          "The keys were in the expected order <[3, 3]>, but the elements sharing a key were not");
+    }
+
+    try {
+      assertThat(listOf(fooMessage, barMessage))
+          .displayingDiffsPairedBy(ignoreFieldNumber)
+          .containsExactly(bazMessage, fooMessage);
+      expectedFailure();
+    } catch (AssertionError expected) {
+      expectNoSubstr(expected, "Missing keys");
+      expectNoSubstr(expected, "Unexpected keys");
+      expectSubstr(
+          expected, "Differences for key <3>:\nmodified: r_string[0]: \"baz\" -> \"bar\"");
+    }
+  }
+
   @Test
   public void testFluent_containsNone() {
     expectThat(listOf(message1))
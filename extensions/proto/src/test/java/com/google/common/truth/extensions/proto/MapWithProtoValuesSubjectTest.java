@@ -288,6 +288,27 @@ public class MapWithProtoValuesSubjectTest extends ProtoSubjectTestBase {
     }
   }
 
+  @Test
+  public void testFluent_containsExactly_differencesByKey() {
+    Message diffMessage2 = parse("o_int: 3 r_string: \"baz\" r_string: \"quux\"");
+
+    try {
+      assertThat(mapOf(1, message1, 2, message2, 3, eqMessage1))
+          .ignoringRepeatedFieldOrderForValues()
+          .containsExactly(1, eqRepeatedMessage1, 2, diffMessage2, 4, eqMessage1);
+      expectedFailure();
+    } catch (AssertionError expected) {
+      expectSubstr(expected, "Missing keys: <[4]>");
+      expectSubstr(expected, "Unexpected keys: <[3]>");
+      expectSubstr(
+          expected,
+          "Differences for key <2>:\n"
+              + "added: r_string[1]: \"qux\"\n"
+              + "deleted: r_string[1]: \"quux\"\n");
+      expectNoSubstr(expected, "Differences for key <1>");
+    }
+  }
+
   @Test
   public void testCompareMultipleMessageTypes() {
     // Don't run this test twice.
@@ -17,6 +17,7 @@ package com.google.common.truth.extensions.proto;
 
 import static com.google.common.truth.extensions.proto.ProtoTruth.assertThat;
 
+import com.google.protobuf.Descriptors.FieldDescriptor;
 import com.google.protobuf.InvalidProtocolBufferException;
 import com.google.protobuf.Message;
 import com.google.protobuf.UnknownFieldSet;
@@ -185,6 +186,57 @@ public class ProtoSubjectTest extends ProtoSubjectTestBase {
     }
   }
 
+  @Test
+  public void testRepeatedFieldOrder_manyDuplicateElements() {
+    StringBuilder forwards = new StringBuilder();
+    StringBuilder backwards = new StringBuilder();
+    StringBuilder backwardsWithOtherStrings = new StringBuilder();
+    for (int i = 0; i < 294; i++) {
+      forwards.append(String.format("r_test_message: { o_int: %d r_string: \"a\" } ", i % 7));
+      backwards.append(String.format("r_test_message: { o_int: %d r_string: \"a\" } ", 6 - i % 7));
+      backwardsWithOtherStrings.append(
+          String.format("r_test_message: { o_int: %d r_string: \"%d\" } ", 6 - i % 7, i));
+    }
+    Message message = parse(forwards.toString());
+    Message eqMessage = parse(backwards.toString());
+    Message eqIgnoringStringsMessage = parse(backwardsWithOtherStrings.toString());
+    Message diffMessage = parse(backwards.toString().replaceFirst("o_int: 6", "o_int: 5"));
+    FieldDescriptor rStringField = getFieldDescriptor("r_string");
+
+    expectThat(eqMessage).ignoringRepeatedFieldOrder().isEqualTo(message);
+    expectThat(diffMessage).ignoringRepeatedFieldOrder().isNotEqualTo(message);
+    expectThat(eqIgnoringStringsMessage).ignoringRepeatedFieldOrder().isNotEqualTo(message);
+    expectThat(eqIgnoringStringsMessage)
+        .ignoringRepeatedFieldOrder()
+        .ignoringFieldDescriptors(rStringField)
+        .isEqualTo(message);
+  }
+
+  @Test
+  public void testRepeatedFieldOrder_manyDuplicatePrimitives() {
+    StringBuilder forwards = new StringBuilder();
+    StringBuilder backwards = new StringBuilder();
+    for (int i = 0; i < 1000; i++) {
+      forwards.append(String.format("r_string: \"%d\" ", i % 10));
+      backwards.append(String.format("r_string: \"%d\" ", 9 - i % 10));
+    }
+    Message message = parse(forwards.toString());
+    Message eqMessage = parse(backwards.toString());
+    Message diffMessage = parse(backwards.toString().replaceFirst("\"9\"", "\"10\""));
+
+    expectThat(eqMessage).ignoringRepeatedFieldOrder().isEqualTo(message);
+    expectThat(diffMessage).ignoringRepeatedFieldOrder().isNotEqualTo(message);
+
+    try {
+      assertThat(diffMessage).ignoringRepeatedFieldOrder().isEqualTo(message);
+      expectedFailure();
+    } catch (AssertionError e) {
+      expectIsEqualToFailed(e);
+      expectSubstr(e, "added: r_string[0]: \"10\"");
+      expectSubstr(e, "deleted: r_string[999]: \"9\"");
+    }
+  }
+
   @Test
   public void testReportingMismatchesOnly_isEqualTo() {
     Message message = parse("r_string: \"foo\" r_string: \"bar\"");
@@ -240,6 +292,39 @@ public class ProtoSubjectTest extends ProtoSubjectTestBase {
     }
   }
 
+  @Test
+  public void testComparingRepeatedFieldsInParallel() {
+    StringBuilder elements = new StringBuilder();
+    for (int i = 0; i < 2000; i++) {
+      elements.append(String.format("r_test_message: { o_int: %d r_string: \"%d\" } ", i, i));
+      elements.append(String.format("test_message_map: { key: %d value: { o_int: %d } } ", i, i));
+    }
+    Message message = parse(elements.toString());
+    Message eqMessage = parse(elements.toString());
+    Message diffElementMessage =
+        parse(elements.toString().replace("o_int: 1500 r_string", "o_int: -1 r_string"));
+    Message diffMapMessage =
+        parse(elements.toString().replace("key: 1200 value: { o_int: 1200", "key: 1200 value: {"));
+
+    expectThat(message).comparingRepeatedFieldsInParallel().isEqualTo(eqMessage);
+    expectThat(message).comparingRepeatedFieldsInParallel().isNotEqualTo(diffElementMessage);
+    expectThat(message).comparingRepeatedFieldsInParallel().isNotEqualTo(diffMapMessage);
+    FieldDescriptor elementIntField =
+        getFieldDescriptor("r_test_message").getMessageType().findFieldByName("o_int");
+    expectThat(message)
+        .comparingRepeatedFieldsInParallel()
+        .ignoringFieldDescriptors(elementIntField)
+        .isEqualTo(diffElementMessage);
+
+    try {
+      assertThat(diffElementMessage).comparingRepeatedFieldsInParallel().isEqualTo(message);
+      expectedFailure();
+    } catch (AssertionError e) {
+      expectIsEqualToFailed(e);
+      expectSubstr(e, "modified: r_test_message[1500].o_int: 1500 -> -1");
+    }
+  }
+
   @Test
   public void testHasAllRequiredFields() {
     // Proto 3 doesn't have required fields.
@@ -0,0 +1,327 @@
+/*
+ * Copyright (c) 2017 Google, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.google.common.truth.extensions.proto;
+
+import static com.google.common.truth.Truth.assertWithMessage;
+
+import com.google.common.collect.ImmutableList;
+import com.google.protobuf.Descriptors.Descriptor;
+import com.google.protobuf.Descriptors.FieldDescriptor;
+import com.google.protobuf.Message;
+import com.google.protobuf.TextFormat;
+import com.google.protobuf.TextFormat.ParseException;
+import com.google.protobuf.UnknownFieldSet;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.junit.runners.JUnit4;
+
+/**
+ * Tests that {@link ProtoTruthMessageDifferencer#matches}, which decides assertions, always agrees
+ * with the {@link DiffResult} built by {@link ProtoTruthMessageDifferencer#diffMessages}.
+ */
+@RunWith(JUnit4.class)
+public class ProtoTruthMessageDifferencerTest {
+
+  private static final FieldDescriptor O_INT = field(TestMessage2.getDescriptor(), "o_int");
+  private static final FieldDescriptor SUB_O_INT = field(SubTestMessage2.getDescriptor(), "o_int");
+  private static final FieldDescriptor SUB_R_STRING =
+      field(SubTestMessage2.getDescriptor(), "r_string");
+
+  @Test
+  public void table() throws ParseException {
+    String[][] pairs = {
+      {"", ""},
+      {"o_int: 1", ""},
+      {"o_int: 0", ""},
+      {"o_long_defaults_to_42: 42", ""},
+      {"o_int: 1 r_string: 'a' r_string: 'b'", "o_int: 1 r_string: 'b' r_string: 'a'"},
+      {"r_string: 'a' r_string: 'a'", "r_string: 'a'"},
+      {"o_sub_test_message { }", ""},
+      {"o_sub_test_message { o_int: 1 }", ""},
+      {"o_sub_test_message { r_string: 'x' }", ""},
+      {"o_int: 1 o_sub_test_message { r_string: 'x' }", "o_int: 1"},
+      {"o_int: 1 r_sub_test_message { r_string: 'x' }", "o_int: 1"},
+      {
+        "r_sub_test_message { o_int: 1 } r_sub_test_message { r_string: 'x' }",
+        "r_sub_test_message { o_int: 1 }"
+      },
+      {
+        "r_sub_test_message { o_int: 1 r_string: 'x' } r_sub_test_message { o_int: 2 }",
+        "r_sub_test_message { o_int: 2 } r_sub_test_message { o_int: 1 r_string: 'y' }"
+      },
+      {"test_message_map { key: 1 value { o_int: 1 } }", "test_message_map { key: 1 value { } }"},
+      {"test_message_map { key: 1 value { r_string: 'x' } }", ""},
+      {
+        "test_message_map { key: 1 value { o_int: 1 } } test_message_map { key: 2 value { } }",
+        "test_message_map { key: 2 value { } } test_message_map { key: 1 value { o_int: 1 } }"
+      },
+      {"o_test_message { o_test_message { o_int: 1 } }", "o_test_message { o_test_message { } }"},
+    };
+    for (String[] pair : pairs) {
+      Message actual = parse(pair[0]);
+      Message expected = parse(pair[1]);
+      for (FluentEqualityConfig config : fixedConfigs()) {
+        checkParity(config, actual, expected);
+        checkParity(config, expected, actual);
+      }
+    }
+  }
+
+  @Test
+  public void unknownFields() throws ParseException {
+    Message plain = parse("o_int: 1");
+    Message withVarint = withUnknownFields(plain, UnknownFieldSet.Field.newBuilder().addVarint(3));
+    Message withGroup =
+        withUnknownFields(
+            plain,
+            UnknownFieldSet.Field.newBuilder()
+                .addGroup(
+                    UnknownFieldSet.newBuilder()
+                        .addField(1, UnknownFieldSet.Field.newBuilder().addFixed32(5).build())
+                        .build()));
+    Message withOtherGroup =
+        withUnknownFields(
+            plain,
+            UnknownFieldSet.Field.newBuilder()
+                .addGroup(
+                    UnknownFieldSet.newBuilder()
+                        .addField(1, UnknownFieldSet.Field.newBuilder().addFixed32(6).build())
+                        .build()));
+    List<Message> messages = ImmutableList.of(plain, withVarint, withGroup, withOtherGroup);
+    for (Message actual : messages) {
+      for (Message expected : messages) {
+        for (FluentEqualityConfig config : fixedConfigs()) {
+          checkParity(config, actual, expected);
+        }
+      }
+    }
+  }
+
+  @Test
+  public void random() {
+    Random random = new Random(0);
+    for (int trial = 0; trial < 5000; trial++) {
+      Message actual = randomMessage(random, 2);
+      Message expected;
+      switch (random.nextInt(3)) {
+        case 0:
+          expected = actual.toBuilder().build();
+          break;
+        case 1:
+          expected = tweak(random, actual);
+          break;
+        default:
+          expected = randomMessage(random, 2);
+      }
+      FluentEqualityConfig config = randomConfig(random);
+      if (config.ignoreRepeatedFieldOrder() && random.nextBoolean()) {
+        expected = shuffle(random, expected);
+      }
+      checkParity(config, actual, expected);
+    }
+  }
+
+  private static void checkParity(FluentEqualityConfig config, Message actual, Message expected) {
+    ProtoTruthMessageDifferencer differencer =
+        config.toProtoTruthMessageDifferencer(actual.getDescriptorForType());
+    assertWithMessage("config: %s\nactual:\n%s\nexpected:\n%s", config, actual, expected)
+        .that(differencer.matches(actual, expected))
+        .isEqualTo(differencer.diffMessages(actual, expected).isMatched());
+  }
+
+  private static List<FluentEqualityConfig> fixedConfigs() {
+    FluentEqualityConfig base = FluentEqualityConfig.defaultInstance();
+    List<FluentEqualityConfig> scoped =
+        ImmutableList.of(
+            base,
+            base.withPartialScope(FieldScopes.allowingFieldDescriptors(SUB_O_INT)),
+            base.withPartialScope(FieldScopes.allowingFieldDescriptors(O_INT, SUB_R_STRING)),
+            base.ignoringFieldDescriptors(ImmutableList.of(SUB_R_STRING)),
+            base.ignoringFieldScope(FieldScopes.allowingFieldDescriptors(SUB_O_INT)));
+    List<FluentEqualityConfig> configs = new ArrayList<FluentEqualityConfig>();
+    for (FluentEqualityConfig config : scoped) {
+      configs.add(config);
+      configs.add(config.ignoringFieldAbsence());
+      configs.add(config.ignoringRepeatedFieldOrder());
+      configs.add(config.ignoringFieldAbsence().ignoringRepeatedFieldOrder());
+    }
+    return configs;
+  }
+
+  private static FluentEqualityConfig randomConfig(Random random) {
+    FluentEqualityConfig config = FluentEqualityConfig.defaultInstance();
+    switch (random.nextInt(6)) {
+      case 0:
+        break;
+      case 1:
+        config = config.withPartialScope(FieldScopes.fromSetFields(randomMessage(random, 2)));
+        break;
+      case 2:
+        config = config.ignoringFieldScope(FieldScopes.fromSetFields(randomMessage(random, 2)));
+        break;
+      case 3:
+        config =
+            config.withPartialScope(
+                FieldScopes.allowingFieldDescriptors(random.nextBoolean() ? SUB_O_INT : O_INT));
+        break;
+      case 4:
+        config = config.ignoringFieldDescriptors(ImmutableList.of(O_INT, SUB_R_STRING));
+        break;
+      default:
+        config =
+            config.ignoringFields(ImmutableList.of(1 + random.nextInt(2), 7 + random.nextInt(5)));
+    }
+    if (random.nextBoolean()) {
+      config = config.ignoringFieldAbsence();
+    }
+    if (random.nextBoolean()) {
+      config = config.ignoringRepeatedFieldOrder();
+    }
+    return config;
+  }
+
+  private static TestMessage2 randomMessage(Random random, int depth) {
+    TestMessage2.Builder builder = TestMessage2.newBuilder();
+    if (random.nextInt(3) == 0) {
+      builder.setOInt(random.nextInt(3));
+    }
+    for (int i = random.nextInt(3); i > 0; i--) {
+      builder.addRString(String.valueOf(random.nextInt(3)));
+    }
+    if (random.nextInt(4) == 0) {
+      builder.setOLongDefaultsTo42(41 + random.nextInt(2));
+    }
+    if (random.nextInt(3) == 0) {
+      builder.setOEnum(TestMessage2.TestEnum2.forNumber(random.nextInt(3)));
+    }
+    if (depth > 0) {
+      if (random.nextInt(3) == 0) {
+        builder.setOTestMessage(randomMessage(random, depth - 1));
+      }
+      for (int i = random.nextInt(3); i > 0; i--) {
+        builder.addRTestMessage(randomMessage(random, depth - 1));
+      }
+      if (random.nextInt(3) == 0) {
+        builder.setOSubTestMessage(randomSubMessage(random, depth - 1));
+      }
+      for (int i = random.nextInt(3); i > 0; i--) {
+        builder.addRSubTestMessage(randomSubMessage(random, depth - 1));
+      }
+      for (int i = random.nextInt(3); i > 0; i--) {
+        builder.putTestMessageMap(random.nextInt(3), randomSubMessage(random, depth - 1));
+      }
+    }
+    if (random.nextInt(4) == 0) {
+      builder.setUnknownFields(randomUnknownFields(random, 1));
+    }
+    return builder.build();
+  }
+
+  private static SubTestMessage2 randomSubMessage(Random random, int depth) {
+    SubTestMessage2.Builder builder = SubTestMessage2.newBuilder();
+    if (random.nextBoolean()) {
+      builder.setOInt(random.nextInt(3));
+    }
+    for (int i = random.nextInt(2); i > 0; i--) {
+      builder.addRString(String.valueOf(random.nextInt(2)));
+    }
+    if (depth > 0 && random.nextInt(3) == 0) {
+      builder.setOTestMessage(randomMessage(random, depth - 1));
+    }
+    return builder.build();
+  }
+
+  private static UnknownFieldSet randomUnknownFields(Random random, int depth) {
+    UnknownFieldSet.Builder builder = UnknownFieldSet.newBuilder();
+    for (int i = random.nextInt(3); i > 0; i--) {
+      UnknownFieldSet.Field.Builder field = UnknownFieldSet.Field.newBuilder();
+      switch (random.nextInt(depth > 0 ? 3 : 2)) {
+        case 0:
+          field.addVarint(random.nextInt(2));
+          break;
+        case 1:
+          field.addFixed32(random.nextInt(2));
+          break;
+        default:
+          field.addGroup(randomUnknownFields(random, depth - 1));
+      }
+      builder.mergeField(100 + random.nextInt(3), field.build());
+    }
+    return builder.build();
+  }
+
+  /** Returns {@code message} with one field changed, so that it is often nearly equal. */
+  private static Message tweak(Random random, Message message) {
+    TestMessage2.Builder builder = ((TestMessage2) message).toBuilder();
+    switch (random.nextInt(5)) {
+      case 0:
+        builder.setOInt(random.nextInt(3));
+        break;
+      case 1:
+        builder.clearOInt();
+        break;
+      case 2:
+        builder.putTestMessageMap(random.nextInt(3), randomSubMessage(random, 0));
+        break;
+      case 3:
+        builder.addRSubTestMessage(randomSubMessage(random, 0));
+        break;
+      default:
+        builder.setUnknownFields(randomUnknownFields(random, 1));
+    }
+    return builder.build();
+  }
+
+  /** Returns {@code message} with the elements of its repeated fields in a random order. */
+  private static Message shuffle(Random random, Message message) {
+    TestMessage2.Builder builder = ((TestMessage2) message).toBuilder();
+    List<String> strings = new ArrayList<String>(builder.getRStringList());
+    Collections.shuffle(strings, random);
+    builder.clearRString().addAllRString(strings);
+    List<TestMessage2> testMessages = new ArrayList<TestMessage2>();
+    for (TestMessage2 testMessage : builder.getRTestMessageList()) {
+      testMessages.add((TestMessage2) shuffle(random, testMessage));
+    }
+    Collections.shuffle(testMessages, random);
+    builder.clearRTestMessage().addAllRTestMessage(testMessages);
+    List<SubTestMessage2> subMessages =
+        new ArrayList<SubTestMessage2>(builder.getRSubTestMessageList());
+    Collections.shuffle(subMessages, random);
+    builder.clearRSubTestMessage().addAllRSubTestMessage(subMessages);
+    return builder.build();
+  }
+
+  private static Message withUnknownFields(Message message, UnknownFieldSet.Field.Builder field) {
+    return message
+        .toBuilder()
+        .setUnknownFields(UnknownFieldSet.newBuilder().addField(100, field.build()).build())
+        .build();
+  }
+
+  private static Message parse(String textProto) throws ParseException {
+    TestMessage2.Builder builder = TestMessage2.newBuilder();
+    TextFormat.merge(textProto, builder);
+    return builder.build();
+  }
+
+  private static FieldDescriptor field(Descriptor descriptor, String name) {
+    return descriptor.findFieldByName(name);
+  }
+}